@@ -0,0 +1,179 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * AllerRetourBenchmark.java                 18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.benchmarks;
+
+import fr.iutrodez.compresseurhuffman.huffman.CompressionHuffman;
+import fr.iutrodez.compresseurhuffman.huffman.DecompressionHuffman;
+import fr.iutrodez.compresseurhuffman.objets.ParametresCompression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Mesure la compression puis la décompression complètes d'un fichier,
+ * dans chaque mode du compresseur, et les compare au codage de Huffman
+ * seul de {@link Deflater} (stratégie {@link Deflater#HUFFMAN_ONLY}),
+ * qui sert de référence.
+ * <br>
+ * Les allers-retours du compresseur passent par des fichiers temporaires,
+ * comme en ligne de commande ; la référence travaille en mémoire, ce qui
+ * l'avantage légèrement.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AllerRetourBenchmark {
+
+    /**
+     * Fichiers temporaires d'un aller-retour, et paramètres du mode
+     * mesuré.
+     */
+    @State(Scope.Thread)
+    public static class Fichiers {
+
+        /**
+         * Mode de compression : un seul bloc, blocs de taille fixe, blocs
+         * de tailles variables ou codage adaptatif.
+         */
+        @Param({ "statique", "blocs", "entropie", "adaptatif" })
+        public String mode;
+
+        /**
+         * Paramètres correspondant au mode.
+         */
+        private ParametresCompression parametres;
+
+        /**
+         * Fichier d'origine.
+         */
+        private Path source;
+
+        /**
+         * Fichier compressé.
+         */
+        private Path archive;
+
+        /**
+         * Fichier décompressé.
+         */
+        private Path resultat;
+
+        /**
+         * Écrit le corpus dans un fichier temporaire et coupe la sortie
+         * standard pendant les mesures.
+         *
+         * @param corpus Le corpus mesuré.
+         * @throws IOException Si le fichier temporaire ne peut pas être
+         *                     écrit.
+         */
+        @Setup
+        public void preparer(Corpus corpus) throws IOException {
+            parametres = new ParametresCompression();
+            switch (mode) {
+                case "blocs":
+                    parametres.setTailleBloc(
+                            ParametresCompression.TAILLE_BLOC_DEFAUT);
+                    break;
+                case "entropie":
+                    parametres.setDecoupageVariable(true);
+                    break;
+                case "adaptatif":
+                    parametres.setAdaptatif(true);
+                    break;
+                default:
+                    break;
+            }
+            source = Files.createTempFile("corpus", ".txt");
+            archive = Files.createTempFile("corpus", ".bin");
+            resultat = Files.createTempFile("corpus", ".txt");
+            corpus.ecrire(source);
+            Silence.couper();
+        }
+
+        /**
+         * Supprime les fichiers temporaires et rétablit la sortie standard.
+         *
+         * @throws IOException Si un fichier ne peut pas être supprimé.
+         */
+        @TearDown
+        public void nettoyer() throws IOException {
+            Silence.retablir();
+            Files.delete(source);
+            Files.delete(archive);
+            Files.delete(resultat);
+        }
+    }
+
+    @Benchmark
+    public void allerRetour(Corpus corpus, Fichiers fichiers, Debit debit)
+            throws IOException {
+        debit.octets += corpus.taille;
+        new CompressionHuffman(fichiers.source.toString(),
+                               fichiers.archive.toString(),
+                               fichiers.parametres).compresserFichier();
+        new DecompressionHuffman(fichiers.archive.toString(),
+                                 fichiers.resultat.toString(),
+                                 fichiers.parametres).decompresserFichier();
+    }
+
+    /**
+     * Référence : codage de Huffman seul de la bibliothèque standard,
+     * sans recherche de répétitions.
+     */
+    @Benchmark
+    public int deflaterHuffman(Corpus corpus, Debit debit)
+            throws DataFormatException {
+        byte[] octets = corpus.getOctets();
+        debit.octets += octets.length;
+        Deflater compresseur = new Deflater();
+        compresseur.setStrategy(Deflater.HUFFMAN_ONLY);
+        compresseur.setInput(octets);
+        compresseur.finish();
+        ByteArrayOutputStream compresse =
+                new ByteArrayOutputStream(octets.length / 2 + 64);
+        byte[] tampon = new byte[64 * 1024];
+        while (!compresseur.finished()) {
+            compresse.write(tampon, 0, compresseur.deflate(tampon));
+        }
+        compresseur.end();
+
+        Inflater decompresseur = new Inflater();
+        decompresseur.setInput(compresse.toByteArray());
+        byte[] decompresse = new byte[octets.length];
+        int longueur = 0;
+        while (!decompresseur.finished() && longueur < decompresse.length) {
+            longueur += decompresseur.inflate(decompresse, longueur,
+                                              decompresse.length - longueur);
+        }
+        decompresseur.end();
+        return longueur;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * Corpus.java                               18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.benchmarks;
+
+import fr.iutrodez.compresseurhuffman.outils.GenerateurCorpus;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Données d'entrée des mesures : un fichier du dossier de test
+ * du projet, ou un contenu produit par {@link GenerateurCorpus}.
+ * <br>
+ * Les fichiers de test sont cherchés dans le dossier donné par la
+ * propriété système {@code corpus.dossier} ({@code ../test} par défaut,
+ * c'est-à-dire depuis le dossier des mesures). Un contenu généré est
+ * désigné par {@code <profil>-<taille>}, par exemple {@code zipf-16M}
+ * ou {@code derive-10G} (suffixes K, M et G acceptés) ; sa graine est
+ * donnée par la propriété système {@code corpus.graine}. Il est toujours
+ * le même pour un nom et une graine donnés : les mesures restent
+ * comparables d'une exécution à l'autre.
+ * <br>
+ * Un contenu de plus de {@link #TAILLE_MEMOIRE_MAXIMALE} octets n'est
+ * jamais chargé en mémoire : seul l'aller-retour par fichiers
+ * ({@link AllerRetourBenchmark#allerRetour}) peut le mesurer. Les fichiers
+ * temporaires sont alors écrits dans {@code java.io.tmpdir}, et chaque
+ * aller-retour dure assez longtemps pour être mesuré une fois par
+ * itération, par exemple :
+ * {@code -bm ss -wi 1 -i 3 -p nom=zipf-10G -jvmArgs -Djava.io.tmpdir=...}.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+public class Corpus {
+
+    /**
+     * Taille au-delà de laquelle un contenu généré reste sur disque (1 Go).
+     */
+    public static final long TAILLE_MEMOIRE_MAXIMALE = 1L << 30;
+
+    /**
+     * Nom du fichier de test ou du contenu généré.
+     */
+    @Param({ "testPetit.txt", "testJava.txt", "testSpace.txt",
+             "testEmoji.txt", "zipf-16M", "uniforme-16M", "repetitions-16M",
+             "fibonacci-16M", "derive-16M" })
+    public String nom;
+
+    /**
+     * Octets du corpus, ou null s'il est trop grand pour la mémoire.
+     */
+    public byte[] octets;
+
+    /**
+     * Taille du corpus, en octets.
+     */
+    public long taille;
+
+    /**
+     * Générateur du contenu, ou null pour un fichier de test.
+     */
+    private GenerateurCorpus generateur;
+
+    /**
+     * Charge ou génère le corpus.
+     *
+     * @throws IOException Si le fichier de test ne peut pas être lu.
+     * @throws IllegalArgumentException Si le profil ou la taille d'un
+     *                                  contenu généré est invalide.
+     */
+    @Setup
+    public void charger() throws IOException {
+        int tiret = nom.lastIndexOf('-');
+        String profil = tiret < 0 ? nom : nom.substring(0, tiret);
+        if (!GenerateurCorpus.PROFILS.contains(profil)) {
+            octets = Files.readAllBytes(Path.of(
+                    System.getProperty("corpus.dossier", "../test"), nom));
+            taille = octets.length;
+            return;
+        }
+        generateur = new GenerateurCorpus(profil, Long.getLong(
+                "corpus.graine", GenerateurCorpus.GRAINE_DEFAUT));
+        taille = lireTaille(nom.substring(tiret + 1));
+        octets = taille <= TAILLE_MEMOIRE_MAXIMALE
+                 ? generateur.generer((int) taille)
+                 : null;
+    }
+
+    /**
+     * Retourne les octets du corpus, pour les mesures qui travaillent
+     * en mémoire.
+     *
+     * @return Les octets du corpus.
+     * @throws IllegalStateException Si le corpus est trop grand pour
+     *                               la mémoire.
+     */
+    public byte[] getOctets() {
+        if (octets == null) {
+            throw new IllegalStateException(nom + " dépasse "
+                                            + TAILLE_MEMOIRE_MAXIMALE
+                                            + " octets : seul allerRetour "
+                                            + "peut le mesurer.");
+        }
+        return octets;
+    }
+
+    /**
+     * Écrit le corpus dans un fichier, en le générant à nouveau par
+     * tampons s'il n'est pas en mémoire.
+     *
+     * @param fichier Le fichier à écrire.
+     * @throws IOException Si le fichier ne peut pas être écrit.
+     */
+    public void ecrire(Path fichier) throws IOException {
+        if (octets != null) {
+            Files.write(fichier, octets);
+            return;
+        }
+        try (OutputStream sortie = Files.newOutputStream(fichier)) {
+            generateur.generer(taille, sortie);
+        }
+    }
+
+    /**
+     * Lit une taille en octets, suivie éventuellement du suffixe K (Ko),
+     * M (Mo) ou G (Go).
+     *
+     * @param valeur La taille à lire.
+     * @return La taille en octets.
+     */
+    private static long lireTaille(String valeur) {
+        char suffixe = Character.toUpperCase(valeur.charAt(valeur.length() - 1));
+        long multiplicateur = suffixe == 'K' ? 1024
+                              : suffixe == 'M' ? 1024 * 1024
+                              : suffixe == 'G' ? 1024 * 1024 * 1024
+                              : 1;
+        String nombre = multiplicateur == 1
+                        ? valeur
+                        : valeur.substring(0, valeur.length() - 1);
+        return Math.multiplyExact(Long.parseLong(nombre), multiplicateur);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * Debit.java                                18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compteur d'octets traités, rapporté par JMH à côté du nombre
+ * d'opérations : en mode débit, il donne directement le nombre d'octets
+ * d'origine traités par seconde, quelle que soit la taille du corpus.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Debit {
+
+    /**
+     * Nombre d'octets d'origine traités pendant l'itération.
+     */
+    public long octets;
+
+    /**
+     * Remet le compteur à zéro au début de chaque itération.
+     */
+    @Setup(Level.Iteration)
+    public void reinitialiser() {
+        octets = 0;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * EtapesBenchmark.java                      18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.benchmarks;
+
+import fr.iutrodez.compresseurhuffman.huffman.CompressionHuffman;
+import fr.iutrodez.compresseurhuffman.huffman.DecompressionHuffman;
+import fr.iutrodez.compresseurhuffman.huffman.TableCodesCanonique;
+import fr.iutrodez.compresseurhuffman.objets.HistogrammeOctets;
+import fr.iutrodez.compresseurhuffman.objets.Noeud;
+import fr.iutrodez.compresseurhuffman.outils.EcrivainBits;
+import fr.iutrodez.compresseurhuffman.outils.LecteurBits;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure séparément chaque étape de la compression et de la
+ * décompression : comptage des occurrences, construction de l'arbre,
+ * génération des codes, encodage, écriture et lecture des bits, décodage.
+ * <br>
+ * Chaque étape reçoit le résultat des étapes précédentes, calculé une fois
+ * pour toutes avant les mesures : seule l'étape elle-même est mesurée.
+ * Les étapes qui parcourent les données comptent les octets traités
+ * (voir {@link Debit}) ; les autres ne dépendent que de l'alphabet.
+ * Le corpus doit tenir en mémoire (voir {@link Corpus#getOctets}).
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EtapesBenchmark {
+
+    /**
+     * Compresseur dont les méthodes d'instance sont mesurées.
+     */
+    private CompressionHuffman compression;
+
+    /**
+     * Occurrences des octets du corpus.
+     */
+    private HistogrammeOctets occurences;
+
+    /**
+     * Codes empaquetés de la table canonique du corpus.
+     */
+    private long[] codesEmpaquetes;
+
+    /**
+     * Octets du corpus compressé, en-tête compris.
+     */
+    private byte[] archive;
+
+    /**
+     * Prépare les résultats des étapes précédant chaque mesure.
+     *
+     * @param corpus Le corpus mesuré.
+     * @throws IOException Si le corpus ne peut pas être compressé.
+     */
+    @Setup
+    public void preparer(Corpus corpus) throws IOException {
+        compression = new CompressionHuffman("", "");
+        occurences = compression.getFrequenceDesOctets(corpus.getOctets());
+        codesEmpaquetes = CompressionHuffman.genererTableCanonique(occurences)
+                                            .getCodesEmpaquetes();
+
+        Path source = Files.createTempFile("corpus", ".txt");
+        Path destination = Files.createTempFile("corpus", ".bin");
+        try {
+            Files.write(source, corpus.getOctets());
+            Silence.executer(() -> new CompressionHuffman(
+                    source.toString(), destination.toString())
+                    .compresserFichier());
+            archive = Files.readAllBytes(destination);
+        } finally {
+            Files.delete(source);
+            Files.delete(destination);
+        }
+    }
+
+    @Benchmark
+    public HistogrammeOctets frequences(Corpus corpus, Debit debit) {
+        debit.octets += corpus.taille;
+        return compression.getFrequenceDesOctets(corpus.octets);
+    }
+
+    @Benchmark
+    public Noeud construireArbre() {
+        return compression.construireArbreAvecOccurences(occurences);
+    }
+
+    @Benchmark
+    public TableCodesCanonique genererTableCanonique() {
+        return CompressionHuffman.genererTableCanonique(occurences);
+    }
+
+    @Benchmark
+    public Map<Byte, String> genererCodesTexte() {
+        return compression.genererCodesHuffman(occurences);
+    }
+
+    @Benchmark
+    public long encoder(Corpus corpus, Debit debit) throws IOException {
+        debit.octets += corpus.taille;
+        EcrivainBits ecrivain = new EcrivainBits(OutputStream.nullOutputStream());
+        CompressionHuffman.convertirOctetsEnCodeHuffman(
+                corpus.octets, corpus.octets.length, codesEmpaquetes, ecrivain);
+        ecrivain.terminer();
+        return ecrivain.getNombreBits();
+    }
+
+    /**
+     * Empaquette chaque octet sur 8 bits, sans table de codes : coût
+     * de l'écrivain de bits seul, à comparer à {@link #encoder}.
+     */
+    @Benchmark
+    public long ecrireBits(Corpus corpus, Debit debit) throws IOException {
+        debit.octets += corpus.taille;
+        EcrivainBits ecrivain = new EcrivainBits(OutputStream.nullOutputStream());
+        for (byte octet : corpus.octets) {
+            ecrivain.ecrire(octet & 0xFF, Byte.SIZE);
+        }
+        ecrivain.terminer();
+        return ecrivain.getNombreBits();
+    }
+
+    /**
+     * Relit chaque octet sur 8 bits, sans décodage : coût du lecteur
+     * de bits seul, à comparer à {@link #decoder}.
+     */
+    @Benchmark
+    public long lireBits(Corpus corpus, Debit debit) throws IOException {
+        debit.octets += corpus.taille;
+        LecteurBits lecteur = new LecteurBits(corpus.octets);
+        long somme = 0;
+        for (int i = 0; i < corpus.octets.length; i++) {
+            somme += lecteur.lire(Byte.SIZE);
+        }
+        return somme;
+    }
+
+    /**
+     * Décode le corpus compressé, de la lecture de l'en-tête à l'écriture
+     * des octets décodés.
+     */
+    @Benchmark
+    public void decoder(Corpus corpus, Debit debit) throws IOException {
+        debit.octets += corpus.taille;
+        DecompressionHuffman.decompresserFlux(new ByteArrayInputStream(archive),
+                                              OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * LanceurBenchmarks.java                    18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Lance les mesures de performances, avec le profileur du ramasse-miettes
+ * de JMH : chaque résultat est accompagné du nombre d'octets alloués par
+ * opération ({@code gc.alloc.rate.norm}), ce qui rend visibles les
+ * régressions de mémoire autant que celles de débit.
+ * <br>
+ * Les options de JMH restent utilisables, par exemple
+ * {@code java -jar target/benchmarks.jar Etapes -p nom=zipf-16M}
+ * pour ne mesurer que les étapes sur un seul corpus.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class LanceurBenchmarks {
+
+    /**
+     * Point d'entrée des mesures.
+     *
+     * @param args Les options de JMH.
+     * @throws CommandLineOptionException Si une option est invalide.
+     * @throws IOException Si l'aide ne peut pas être affichée.
+     * @throws RunnerException Si une mesure échoue.
+     */
+    public static void main(String[] args)
+            throws CommandLineOptionException, IOException, RunnerException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        if (options.shouldHelp()) {
+            options.showHelp();
+            return;
+        }
+        new Runner(new OptionsBuilder()
+                           .parent(options)
+                           .addProfiler(GCProfiler.class)
+                           .build()).run();
+    }
+}
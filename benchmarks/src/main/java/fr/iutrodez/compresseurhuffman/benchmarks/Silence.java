@@ -0,0 +1,82 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * Silence.java                              18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Fait taire la sortie standard pendant une action : la compression
+ * affiche les occurrences des octets, dont l'affichage fausserait
+ * les mesures et noierait les résultats de JMH.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+final class Silence {
+
+    /**
+     * Action pouvant échouer sur une erreur d'entrée/sortie.
+     */
+    interface Action {
+
+        /**
+         * Exécute l'action.
+         *
+         * @throws IOException Si une erreur d'entrée/sortie se produit.
+         */
+        void executer() throws IOException;
+    }
+
+    /**
+     * Sortie standard d'origine, pendant que la sortie est coupée.
+     */
+    private static PrintStream sortieOrigine;
+
+    /**
+     * Classe utilitaire : aucune instance.
+     */
+    private Silence() {
+    }
+
+    /**
+     * Exécute une action, la sortie standard étant coupée.
+     *
+     * @param action L'action à exécuter.
+     * @throws IOException Si l'action échoue.
+     */
+    static void executer(Action action) throws IOException {
+        couper();
+        try {
+            action.executer();
+        } finally {
+            retablir();
+        }
+    }
+
+    /**
+     * Coupe la sortie standard jusqu'à l'appel de {@link #retablir()}.
+     */
+    static synchronized void couper() {
+        if (sortieOrigine == null) {
+            sortieOrigine = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+    }
+
+    /**
+     * Rétablit la sortie standard d'origine.
+     */
+    static synchronized void retablir() {
+        if (sortieOrigine != null) {
+            System.setOut(sortieOrigine);
+            sortieOrigine = null;
+        }
+    }
+}
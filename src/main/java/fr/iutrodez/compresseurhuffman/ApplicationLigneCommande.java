@@ -131,12 +131,12 @@ public class ApplicationLigneCommande {
                 new CompressionHuffman(source, destination);
 
         try {
-            long tempsCompression = System.currentTimeMillis();
             compresser.compresserFichier();
             afficherSeparateur();
             StatistiquesCompresseur.resumeCompression(source,
                                                       destination,
-                                                      tempsCompression);
+                                                      compresser.getMesures(),
+                                                      false);
         } catch (IOException erreur) {
             out.println("Erreur lors de la compression du fichier : "
                         + erreur.getMessage());
@@ -168,13 +168,13 @@ public class ApplicationLigneCommande {
                 new DecompressionHuffman(source, destination);
 
         try {
-            long tempsDecompression = System.currentTimeMillis();
             decompresser.decompresserFichier();
 
             afficherSeparateur();
             StatistiquesCompresseur.resumeDecompression(source,
                                                         destination,
-                                                        tempsDecompression);
+                                                        decompresser.getMesures(),
+                                                        false);
         } catch (IOException erreur) {
             out.println("Erreur lors de la décompression du fichier : "
                         + erreur.getMessage());
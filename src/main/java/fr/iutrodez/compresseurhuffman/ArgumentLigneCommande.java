@@ -4,12 +4,29 @@
  */
 package fr.iutrodez.compresseurhuffman;
 
+import fr.iutrodez.compresseurhuffman.huffman.CodecAdaptatif;
 import fr.iutrodez.compresseurhuffman.huffman.CompressionHuffman;
 import fr.iutrodez.compresseurhuffman.huffman.DecompressionHuffman;
+import fr.iutrodez.compresseurhuffman.huffman.Dictionnaire;
+import fr.iutrodez.compresseurhuffman.huffman.LecteurAccesAleatoire;
+import fr.iutrodez.compresseurhuffman.huffman.TraitementLot;
+import fr.iutrodez.compresseurhuffman.objets.ParametresCompression;
+import fr.iutrodez.compresseurhuffman.outils.GenerateurCorpus;
+import fr.iutrodez.compresseurhuffman.outils.GestionFichier;
 import fr.iutrodez.compresseurhuffman.outils.GestionPrompt;
 import fr.iutrodez.compresseurhuffman.outils.StatistiquesCompresseur;
+import fr.iutrodez.compresseurhuffman.serveur.ClientCompression;
+import fr.iutrodez.compresseurhuffman.serveur.ResultatCompression;
+import fr.iutrodez.compresseurhuffman.serveur.ServeurCompression;
 
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import static java.lang.System.out;
 
@@ -25,18 +42,36 @@ import static java.lang.System.out;
  */
 public class ArgumentLigneCommande {
 
+    /**
+     * Préfixe des options facultatives, de la forme --option=valeur.
+     */
+    private static final String PREFIXE_OPTION = "--";
+
     /**
      * Traite les arguments de ligne de commande fournis à l'application.
      * Détermine l'action appropriée basée sur le premier argument
      * et appelle les méthodes concernées.
+     * Les options facultatives (--option=valeur) peuvent être placées
+     * n'importe où après la commande.
      *
-     * @param args les arguments de ligne de commande
-     *             passés à l'application principale.
+     * @param arguments les arguments de ligne de commande
+     *                  passés à l'application principale.
+     * @throws IllegalArgumentException Si une option est inconnue
+     *                                  ou invalide.
      */
-    public static void gererArgumentsEnLigneCommande(String[] args) {
+    public static void gererArgumentsEnLigneCommande(String[] arguments) {
 
+        ParametresCompression parametres = new ParametresCompression();
+        String[] args = extraireOptions(arguments, parametres);
         String commande = args[0].toLowerCase();
-        ApplicationLigneCommande.afficherSeparateur();
+        if (traiterCommandeFlux(commande, args)) {
+            return;
+        }
+        /* En mode JSON, la sortie standard ne contient que le rapport */
+        boolean json = parametres.estRapportJson();
+        if (!json) {
+            ApplicationLigneCommande.afficherSeparateur();
+        }
 
         switch (commande) {
             case "compresser":
@@ -44,8 +79,10 @@ public class ArgumentLigneCommande {
                     out.println("Arguments manquants. Utilisation : "
                                 + "compresser <chemin_fichier_a_compresser> "
                                 + "<nom_dossier_destination> <nom_fichier>");
+                } else if (TraitementLot.estLot(args[1])) {
+                    traiterLot(args[1], args[2], args[3], true, parametres);
                 } else {
-                    compresserFichier(args[1], args[2], args[3]);
+                    compresserFichier(args[1], args[2], args[3], parametres);
                 }
                 break;
 
@@ -54,8 +91,10 @@ public class ArgumentLigneCommande {
                     out.println("Arguments manquants. Utilisation : "
                                 + "decompresser <chemin_fichier_a_decompresser>"
                                 + " <nom_dossier_destination> <nom_fichier>");
+                } else if (TraitementLot.estLot(args[1])) {
+                    traiterLot(args[1], args[2], args[3], false, parametres);
                 } else {
-                    decompresserFichier(args[1], args[2], args[3]);
+                    decompresserFichier(args[1], args[2], args[3], parametres);
                 }
                 break;
 
@@ -69,6 +108,37 @@ public class ArgumentLigneCommande {
                 }
                 break;
 
+            case "generer":
+                if (args.length < 4) {
+                    out.println("Arguments manquants. Utilisation : "
+                                + "generer <profil> <taille> "
+                                + "<chemin_fichier> [graine]");
+                } else {
+                    genererCorpus(args[1].toLowerCase(), args[2], args[3],
+                                  args.length > 4 ? args[4] : null);
+                }
+                break;
+
+            case "entrainer":
+                if (args.length < 3) {
+                    out.println("Arguments manquants. Utilisation : "
+                                + "entrainer <corpus> <chemin_dictionnaire>");
+                } else {
+                    entrainerDictionnaire(args[1], args[2]);
+                }
+                break;
+
+            case "serveur":
+                if (args.length < 2) {
+                    out.println("Arguments manquants. Utilisation : "
+                                + "serveur <chemin_socket> [threads] "
+                                + "[memoire]");
+                } else {
+                    lancerServeur(args[1], args.length > 2 ? args[2] : null,
+                                  args.length > 3 ? args[3] : null);
+                }
+                break;
+
             case "help":
                 afficherAide();
                 break;
@@ -78,7 +148,123 @@ public class ArgumentLigneCommande {
                             + "des informations sur l'utilisation.\n\n");
                 break;
         }
-        ApplicationLigneCommande.afficherSeparateur();
+        if (!json) {
+            ApplicationLigneCommande.afficherSeparateur();
+        }
+    }
+
+    /**
+     * Traite les commandes qui lisent l'entrée standard et écrivent
+     * sur la sortie standard, par exemple au sein d'un tube :
+     * « compresser-flux » compresse en un seul passage avec le codage
+     * adaptatif, « decompresser-flux » décompresse un fichier compressé
+     * quel que soit son codage, et « extraire » écrit une plage d'octets
+     * ou de lignes d'un fichier compressé avec un index d'accès.
+     * La sortie standard ne reçoit que les données produites : les
+     * erreurs sont affichées sur la sortie d'erreur.
+     *
+     * @param commande La commande, en minuscules.
+     * @param args Les arguments de la commande, commande comprise.
+     * @return true si la commande a été traitée, false si ce n'est pas
+     *         une commande sur les flux standards.
+     */
+    private static boolean traiterCommandeFlux(String commande,
+                                               String[] args) {
+        if (!commande.equals("compresser-flux")
+            && !commande.equals("decompresser-flux")
+            && !commande.equals("extraire")) {
+            return false;
+        }
+        if (commande.equals("extraire") && args.length < 4) {
+            System.err.println("Arguments manquants. Utilisation : extraire "
+                               + "<chemin_fichier_compresse> <octets|lignes> "
+                               + "<debut>-<fin>");
+            return true;
+        }
+        /*
+         * Les octets sont écrits directement sur le descripteur de
+         * la sortie standard, sans passer par System.out qui est un flux
+         * de texte.
+         */
+        OutputStream sortie = new BufferedOutputStream(
+                new FileOutputStream(FileDescriptor.out),
+                GestionFichier.TAILLE_BLOC);
+        try {
+            if (commande.equals("compresser-flux")) {
+                CodecAdaptatif.compresser(System.in, sortie);
+            } else if (commande.equals("decompresser-flux")) {
+                DecompressionHuffman.decompresserFlux(System.in, sortie);
+            } else {
+                extraire(args[1], args[2].toLowerCase(), args[3], sortie);
+            }
+            sortie.flush();
+        } catch (IOException | IllegalArgumentException erreur) {
+            System.err.println("Erreur lors du traitement du flux : "
+                               + erreur.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Extrait une plage d'octets ou de lignes d'un fichier compressé
+     * avec un index d'accès, sans le décompresser entièrement.
+     * Les bornes de la plage sont incluses ; une plage qui dépasse la fin
+     * du fichier d'origine est tronquée.
+     *
+     * @param cheminFichierSource Le chemin du fichier compressé.
+     * @param unite « octets », numérotés à partir de 0, ou « lignes »,
+     *              numérotées à partir de 1.
+     * @param plage La plage, de la forme debut-fin.
+     * @param sortie Le flux recevant la plage extraite.
+     * @throws IOException Si une erreur d'entrée/sortie se produit ou si le
+     *                     fichier compressé n'a pas l'index nécessaire.
+     * @throws IllegalArgumentException Si l'unité ou la plage est invalide.
+     */
+    private static void extraire(String cheminFichierSource, String unite,
+                                 String plage, OutputStream sortie)
+            throws IOException {
+        long[] bornes = lirePlage(plage);
+        try (LecteurAccesAleatoire lecteur =
+                     new LecteurAccesAleatoire(cheminFichierSource)) {
+            switch (unite) {
+                case "octets":
+                    long fin = Math.min(bornes[1],
+                                        lecteur.getTailleOriginale() - 1);
+                    if (bornes[0] <= fin) {
+                        lecteur.extraire(bornes[0], fin - bornes[0] + 1,
+                                         sortie);
+                    }
+                    break;
+                case "lignes":
+                    lecteur.extraireLignes(bornes[0], bornes[1], sortie);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unité inconnue : "
+                                                       + unite
+                                                       + " (octets ou lignes)");
+            }
+        }
+    }
+
+    /**
+     * Lit une plage de la forme debut-fin, bornes incluses.
+     *
+     * @param plage La plage à lire.
+     * @return Le début et la fin de la plage.
+     * @throws IllegalArgumentException Si la plage est invalide.
+     */
+    static long[] lirePlage(String plage) {
+        int tiret = plage.indexOf('-');
+        try {
+            long debut = Long.parseLong(plage.substring(0, tiret));
+            long fin = Long.parseLong(plage.substring(tiret + 1));
+            if (debut < 0 || fin < debut) {
+                throw new NumberFormatException();
+            }
+            return new long[] { debut, fin };
+        } catch (NumberFormatException | IndexOutOfBoundsException erreur) {
+            throw new IllegalArgumentException("Plage invalide : " + plage);
+        }
     }
 
     /**
@@ -94,14 +280,19 @@ public class ArgumentLigneCommande {
      *                                 compressé sera enregistré.
      * @param nomFichierCompresse Nom de base du fichier
      *                            compressé (sans l'extension).
+     * @param parametres Les paramètres de compression issus des options.
      * @throws RuntimeException Si une erreur d'entrée/sortie se produit
      *                          pendant le processus.
      */
     private static void compresserFichier(String cheminFichierSource,
                                           String cheminDossierDestination,
-                                          String nomFichierCompresse) {
+                                          String nomFichierCompresse,
+                                          ParametresCompression parametres) {
 
-        out.println("Compression du fichier : " + cheminFichierSource);
+        boolean json = parametres.estRapportJson();
+        if (!json) {
+            out.println("Compression du fichier : " + cheminFichierSource);
+        }
         cheminDossierDestination = cheminDossierDestination + "\\"
                                    + nomFichierCompresse;
 
@@ -113,20 +304,31 @@ public class ArgumentLigneCommande {
         }
         cheminDossierDestination = cheminDossierDestination + "\\"
                                    + nomFichierCompresse + ".bin";
+        if (parametres.estParServeur()) {
+            confierAuServeur(true, cheminFichierSource,
+                             cheminDossierDestination, parametres);
+            return;
+        }
 
         CompressionHuffman compresser =
                 new CompressionHuffman(cheminFichierSource,
-                                       cheminDossierDestination);
+                                       cheminDossierDestination,
+                                       parametres);
+        compresser.setAffichage(!json);
         try {
-            long tempsCompression = System.currentTimeMillis();
             compresser.compresserFichier();
 
-            ApplicationLigneCommande.afficherSeparateur();
+            if (!json) {
+                ApplicationLigneCommande.afficherSeparateur();
+            }
             StatistiquesCompresseur.resumeCompression(cheminFichierSource,
                                                       cheminDossierDestination,
-                                                      tempsCompression);
-            ApplicationLigneCommande.afficherSeparateur();
-            out.println();
+                                                      compresser.getMesures(),
+                                                      json);
+            if (!json) {
+                ApplicationLigneCommande.afficherSeparateur();
+                out.println();
+            }
         } catch (IOException erreur) {
             out.println("Erreur lors de la compression du fichier : "
                         + erreur.getMessage());
@@ -146,36 +348,189 @@ public class ArgumentLigneCommande {
      *                                 pour le fichier décompressé.
      * @param nomFichierDecompresse Nom de base du fichier décompressé
      *                              (sans l'extension).
+     * @param parametres Les paramètres issus des options, dont le nombre
+     *                   de threads décodant les blocs.
      */
     private static void decompresserFichier(String cheminFichierSource,
                                             String cheminDossierDestination,
-                                            String nomFichierDecompresse) {
+                                            String nomFichierDecompresse,
+                                            ParametresCompression parametres) {
 
-        out.println("Décompression du fichier : " + cheminFichierSource);
+        boolean json = parametres.estRapportJson();
+        if (!json) {
+            out.println("Décompression du fichier : " + cheminFichierSource);
+        }
         cheminDossierDestination = cheminDossierDestination + "\\"
                                    + nomFichierDecompresse + ".txt";
+        if (parametres.estParServeur()) {
+            confierAuServeur(false, cheminFichierSource,
+                             cheminDossierDestination, parametres);
+            return;
+        }
 
         DecompressionHuffman decompresser =
                 new DecompressionHuffman(cheminFichierSource,
-                                         cheminDossierDestination);
+                                         cheminDossierDestination,
+                                         parametres);
         try {
-            long tempsDecompression = System.currentTimeMillis();
             decompresser.decompresserFichier();
 
-            ApplicationLigneCommande.afficherSeparateur();
+            if (!json) {
+                ApplicationLigneCommande.afficherSeparateur();
+            }
             StatistiquesCompresseur.resumeDecompression(
                                                       cheminFichierSource,
                                                       cheminDossierDestination,
-                                                      tempsDecompression
-                                                      );
-            ApplicationLigneCommande.afficherSeparateur();
-            out.println();
+                                                      decompresser.getMesures(),
+                                                      json);
+            if (!json) {
+                ApplicationLigneCommande.afficherSeparateur();
+                out.println();
+            }
         } catch (IOException erreur) {
             out.println("Erreur lors de la décompression du fichier : "
                         + erreur.getMessage());
         }
     }
 
+    /**
+     * Fait compresser ou décompresser un fichier par le serveur
+     * de compression désigné par les paramètres, puis affiche le résumé
+     * de l'opération.
+     *
+     * @param compression true pour compresser, false pour décompresser.
+     * @param cheminFichierSource Le chemin du fichier à lire.
+     * @param cheminFichierDestination Le chemin du fichier à écrire.
+     * @param parametres Les paramètres de l'opération.
+     */
+    private static void confierAuServeur(boolean compression,
+                                         String cheminFichierSource,
+                                         String cheminFichierDestination,
+                                         ParametresCompression parametres) {
+        try (ClientCompression client = new ClientCompression(
+                Path.of(parametres.getCheminServeur()))) {
+            ResultatCompression resultat = client.envoyer(
+                    compression, cheminFichierSource,
+                    cheminFichierDestination, parametres);
+            if (!resultat.estReussi()) {
+                out.println("Erreur du serveur : " + resultat.getErreur());
+                return;
+            }
+            boolean json = parametres.estRapportJson();
+            if (!json) {
+                ApplicationLigneCommande.afficherSeparateur();
+            }
+            StatistiquesCompresseur.resumeServeur(
+                    compression, cheminFichierSource, cheminFichierDestination,
+                    resultat.getTailleSource(),
+                    resultat.getTailleDestination(),
+                    resultat.getDureeAttente(), resultat.getDureeTraitement(),
+                    json);
+            if (!json) {
+                ApplicationLigneCommande.afficherSeparateur();
+                out.println();
+            }
+        } catch (IOException erreur) {
+            out.println("Erreur lors de la communication avec le serveur : "
+                        + erreur.getMessage());
+        }
+    }
+
+    /**
+     * Lance le serveur de compression sur une socket locale, jusqu'à
+     * l'arrêt du programme (voir {@link ServeurCompression}).
+     *
+     * @param cheminSocket Le chemin de la socket.
+     * @param threads Le nombre maximal de threads des opérations
+     *                simultanées, ou null pour le nombre de processeurs.
+     * @param memoire La mémoire maximale réservée par les opérations,
+     *                suffixes K, M et G acceptés, ou null pour la moitié
+     *                de la mémoire de la machine virtuelle.
+     * @throws IllegalArgumentException Si une limite est invalide.
+     */
+    private static void lancerServeur(String cheminSocket, String threads,
+                                      String memoire) {
+        int nombreThreads = threads == null
+                            ? Runtime.getRuntime().availableProcessors()
+                            : (int) lireNombre(threads, threads);
+        long memoireMaximale = memoire == null
+                               ? Runtime.getRuntime().maxMemory() / 2
+                               : lireTaille(memoire, memoire);
+        try {
+            ServeurCompression serveur = new ServeurCompression(
+                    Path.of(cheminSocket), nombreThreads, memoireMaximale);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    serveur.close();
+                } catch (IOException erreur) {
+                    /* La socket sera remplacée au prochain lancement */
+                }
+            }));
+            out.println("Serveur en écoute sur " + cheminSocket + " ("
+                        + nombreThreads + " threads, "
+                        + memoireMaximale + " octets de mémoire)");
+            serveur.servir();
+        } catch (IOException erreur) {
+            out.println("Erreur du serveur : " + erreur.getMessage());
+        }
+    }
+
+    /**
+     * Compresse ou décompresse tous les fichiers d'un dossier, ou
+     * correspondant à un motif, en parallèle (voir {@link TraitementLot}),
+     * puis affiche le résumé de l'ensemble. Les fichiers produits sont
+     * écrits dans le dossier nomDossier du dossier de destination,
+     * au même chemin relatif que les fichiers traités.
+     *
+     * @param source Le dossier ou le motif des fichiers à traiter.
+     * @param cheminDossierDestination Le dossier de destination.
+     * @param nomDossier Le nom du dossier recevant les fichiers produits.
+     * @param compression true pour compresser, false pour décompresser.
+     * @param parametres Les paramètres issus des options, dont le nombre
+     *                   de fichiers traités en même temps.
+     */
+    private static void traiterLot(String source,
+                                   String cheminDossierDestination,
+                                   String nomDossier, boolean compression,
+                                   ParametresCompression parametres) {
+
+        boolean json = parametres.estRapportJson();
+        if (!json) {
+            out.println((compression ? "Compression" : "Décompression")
+                        + " des fichiers : " + source);
+        }
+        String destination =
+                Path.of(cheminDossierDestination, nomDossier).toString();
+        try {
+            TraitementLot lot = new TraitementLot(source, destination,
+                                                  compression, parametres);
+            if (!json) {
+                out.println(lot.getNombreFichiers()
+                            + " fichiers à traiter vers " + destination);
+            }
+            lot.traiter();
+
+            if (!json) {
+                ApplicationLigneCommande.afficherSeparateur();
+            }
+            StatistiquesCompresseur.resumeLot(compression,
+                                              lot.getNombreReussis(),
+                                              lot.getNombreEchecs(),
+                                              lot.getOctetsLus(),
+                                              lot.getOctetsEcrits(),
+                                              lot.getDuree(),
+                                              parametres.getNombreThreads(),
+                                              json);
+            if (!json) {
+                ApplicationLigneCommande.afficherSeparateur();
+                out.println();
+            }
+        } catch (IOException erreur) {
+            out.println("Erreur lors du parcours des fichiers : "
+                        + erreur.getMessage());
+        }
+    }
+
     /**
      * Construit et enregistre un arbre de Huffman à partir
      * d'un fichier texte source.
@@ -219,6 +574,83 @@ public class ArgumentLigneCommande {
         }
     }
 
+    /**
+     * Entraîne un dictionnaire de codes sur un corpus de fichiers
+     * semblables et l'enregistre (voir {@link Dictionnaire}), puis affiche
+     * son identifiant et le temps d'entraînement.
+     *
+     * @param corpus Le fichier, le dossier ou le motif des fichiers
+     *               du corpus.
+     * @param cheminDictionnaire Le chemin du dictionnaire à écrire.
+     */
+    private static void entrainerDictionnaire(String corpus,
+                                              String cheminDictionnaire) {
+        out.println("Entraînement du dictionnaire sur : " + corpus);
+        long debut = System.currentTimeMillis();
+        try {
+            List<Path> fichiers = TraitementLot.listerFichiers(corpus);
+            Dictionnaire dictionnaire = Dictionnaire.entrainer(fichiers);
+            dictionnaire.ecrire(Path.of(cheminDictionnaire));
+            long nombreOctets = 0;
+            for (Path fichier : fichiers) {
+                nombreOctets += fichier.toFile().length();
+            }
+            out.printf("Dictionnaire %08x écrit dans %s : %d fichiers, "
+                       + "%d octets, %d octets distincts, codes de %d bits "
+                       + "au plus.%n", dictionnaire.getIdentifiant(),
+                       cheminDictionnaire, fichiers.size(), nombreOctets,
+                       dictionnaire.getNombreOctetsCodes(),
+                       dictionnaire.getTable().getLongueurMax());
+            out.println("Temps d'entraînement : "
+                        + (System.currentTimeMillis() - debut) + " ms");
+        } catch (IOException erreur) {
+            out.println("Erreur lors de l'entraînement du dictionnaire : "
+                        + erreur.getMessage());
+        }
+    }
+
+    /**
+     * Génère un fichier de test de la taille et du profil demandés
+     * (voir {@link GenerateurCorpus}), puis affiche le temps de génération.
+     * Le même profil, la même taille et la même graine donnent toujours
+     * le même fichier.
+     *
+     * @param profil Le nom du profil.
+     * @param taille La taille du fichier, suffixes K, M et G acceptés.
+     * @param cheminFichier Le chemin du fichier à écrire.
+     * @param graine La graine des tirages, ou null pour la graine
+     *               par défaut.
+     * @throws IllegalArgumentException Si le profil, la taille ou la graine
+     *                                  est invalide.
+     */
+    private static void genererCorpus(String profil, String taille,
+                                      String cheminFichier, String graine) {
+        long nombreOctets = lireTaille(taille, taille);
+        GenerateurCorpus generateur;
+        try {
+            generateur = new GenerateurCorpus(profil, graine == null
+                    ? GenerateurCorpus.GRAINE_DEFAUT
+                    : Long.parseLong(graine));
+        } catch (NumberFormatException erreur) {
+            throw new IllegalArgumentException("Graine invalide : " + graine);
+        }
+
+        out.println("Génération du fichier : " + cheminFichier + " (profil "
+                    + profil + ", " + nombreOctets + " octets, graine "
+                    + generateur.getGraine() + ")");
+        long debut = System.currentTimeMillis();
+        try (OutputStream sortie = new FileOutputStream(cheminFichier)) {
+            generateur.generer(nombreOctets, sortie);
+            long duree = Math.max(1, System.currentTimeMillis() - debut);
+            out.println("Temps de génération : " + duree + " ms ("
+                        + nombreOctets / 1024 * 1000 / 1024 / duree
+                        + " Mo/s)");
+        } catch (IOException erreur) {
+            out.println("Erreur lors de la génération du fichier : "
+                        + erreur.getMessage());
+        }
+    }
+
     /**
      * Affiche les instructions pour l'utilisation
      * des commandes de l'application.
@@ -236,12 +668,283 @@ public class ArgumentLigneCommande {
         out.println("     Décompresse le fichier spécifié et enregistre "
                     + "le résultat dans le dossier de destination sous le "
                     + "nouveau nom de fichier.");
+        out.println("     Un dossier ou un motif entre guillemets "
+                    + "(\"textes/**.txt\") à la place du fichier compresse "
+                    + "ou décompresse tous les fichiers désignés, en "
+                    + "parallèle sur --threads threads, dans le dossier "
+                    + "<nom_fichier> du dossier de destination, au même "
+                    + "chemin relatif ; un résumé de l'ensemble est "
+                    + "affiché à la fin.");
         out.println("----  construire <chemin_fichier_a_decompresser> "
                     + "<nom_dossier_destination> <nom_fichier>   ----");
         out.println("     Créer un arbre de Huffman à l'aide d'un "
                     + "fichier source fournit.");
+        out.println("     Options : --blocs[=<taille>] découpe le fichier en "
+                    + "blocs compressés en parallèle (taille en octets, "
+                    + "suffixes K et M acceptés, 1M par défaut) ; "
+                    + "--decoupage=<fixe|entropie> coupe les blocs là où "
+                    + "la répartition des octets change, la taille de bloc "
+                    + "devenant leur taille maximale, et réutilise la table "
+                    + "du bloc précédent quand c'est rentable ; "
+                    + "--threads=<nombre> fixe le nombre de threads, "
+                    + "à la compression comme à la décompression ; "
+                    + "--es=<auto|projection|canal|flux> impose la manière "
+                    + "de lire et d'écrire les fichiers (auto par défaut, "
+                    + "d'après leur taille) ; --tampon=<taille> fixe la "
+                    + "taille des tampons d'entrées/sorties ; "
+                    + "--longueur-max=<bits> limite la longueur des codes "
+                    + "(décodage plus rapide, taux légèrement dégradé) ; "
+                    + "--codec=<statique|adaptatif> choisit le codage "
+                    + "(adaptatif : un seul passage, sans blocs) ; "
+                    + "--index[=<taille>] écrit un index d'accès, avec un "
+                    + "point d'accès tous les <taille> octets (64K par "
+                    + "défaut) ; --lignes indexe aussi les lignes ; "
+                    + "--rapport=<texte|json> choisit le format du résumé, "
+                    + "qui donne la durée et le débit de chaque phase "
+                    + "(lecture, histogramme, arbre, codes, encodage, "
+                    + "tables, decodage, ecriture), la mémoire allouée et "
+                    + "le pic du tas ; --serveur=<chemin_socket> confie "
+                    + "la compression ou la décompression au serveur qui "
+                    + "écoute sur cette socket ; "
+                    + "--dictionnaire=<chemin_dictionnaire> compresse en "
+                    + "un seul passage avec les codes d'un dictionnaire, "
+                    + "nécessaire aussi pour décompresser.");
+        out.println("----  compresser-flux  ----");
+        out.println("     Compresse l'entrée standard vers la sortie "
+                    + "standard, en un seul passage (codage adaptatif).");
+        out.println("----  decompresser-flux  ----");
+        out.println("     Décompresse l'entrée standard vers la sortie "
+                    + "standard, quel que soit le codage utilisé.");
+        out.println("     Exemple : cat fichier | ... compresser-flux "
+                    + "> fichier.bin");
+        out.println("----  extraire <chemin_fichier_compresse> "
+                    + "<octets|lignes> <debut>-<fin>  ----");
+        out.println("     Écrit sur la sortie standard une plage d'octets "
+                    + "(à partir de 0) ou de lignes (à partir de 1) d'un "
+                    + "fichier compressé avec --index ou --lignes, en ne "
+                    + "décodant que les intervalles qui la couvrent.");
+        out.println("----  generer <profil> <taille> <chemin_fichier> "
+                    + "[graine]  ----");
+        out.println("     Génère un fichier de test reproductible de la "
+                    + "taille donnée (suffixes K, M et G acceptés) : "
+                    + "uniforme (octets aléatoires), zipf (texte), "
+                    + "repetitions (suites d'un même octet), fibonacci "
+                    + "(codes les plus longs possibles) ou derive "
+                    + "(répartition qui change le long du fichier).");
+        out.println("----  entrainer <corpus> <chemin_dictionnaire>  ----");
+        out.println("     Construit un dictionnaire de codes à partir d'un "
+                    + "fichier, d'un dossier ou d'un motif de fichiers "
+                    + "semblables (configurations, journaux...). Les "
+                    + "fichiers compressés avec --dictionnaire ne "
+                    + "contiennent plus de table ; les octets absents du "
+                    + "corpus restent codables, par un code d'échappement.");
+        out.println("----  serveur <chemin_socket> [threads] [memoire]  ----");
+        out.println("     Lance un serveur de compression qui reste en "
+                    + "mémoire et traite les demandes envoyées avec "
+                    + "--serveur, en quelques millisecondes pour un petit "
+                    + "fichier : ses opérations simultanées utilisent au "
+                    + "plus [threads] threads (nombre de processeurs par "
+                    + "défaut, --threads étant limité à ce nombre) et au "
+                    + "plus [memoire] octets (suffixes K, M et G acceptés, "
+                    + "moitié de la mémoire disponible par défaut), les "
+                    + "petits fichiers passant avant les gros.");
         out.println("--------  help   --------");
         out.println("     Affiche ce message d'aide, expliquant comment "
                     + "utiliser toutes les commandes disponibles.");
     }
+
+    /**
+     * Retire des arguments les options facultatives et les reporte
+     * dans les paramètres de compression.
+     *
+     * @param arguments Les arguments de la ligne de commande.
+     * @param parametres Les paramètres à compléter.
+     * @return Les arguments restants, dans leur ordre d'origine.
+     * @throws IllegalArgumentException Si une option est inconnue
+     *                                  ou invalide.
+     */
+    static String[] extraireOptions(String[] arguments,
+                                    ParametresCompression parametres) {
+        List<String> restants = new ArrayList<>();
+        for (String argument : arguments) {
+            if (!argument.startsWith(PREFIXE_OPTION)) {
+                restants.add(argument);
+                continue;
+            }
+            int egal = argument.indexOf('=');
+            String nom = argument.substring(PREFIXE_OPTION.length(),
+                                            egal < 0 ? argument.length()
+                                                     : egal);
+            String valeur = egal < 0 ? null : argument.substring(egal + 1);
+
+            switch (nom) {
+                case "blocs":
+                    parametres.setTailleBloc(valeur == null
+                            ? ParametresCompression.TAILLE_BLOC_DEFAUT
+                            : (int) Math.min(lireTaille(argument, valeur),
+                                             Integer.MAX_VALUE));
+                    break;
+                case "threads":
+                    parametres.setNombreThreads(
+                            (int) lireNombre(argument, valeur));
+                    break;
+                case "es":
+                    if (valeur == null) {
+                        throw new IllegalArgumentException(
+                                "Valeur manquante : " + argument);
+                    }
+                    parametres.setStrategieES(valeur);
+                    break;
+                case "longueur-max":
+                    parametres.setLongueurMaximaleCodes(
+                            (int) lireNombre(argument, valeur));
+                    break;
+                case "decoupage":
+                    parametres.setDecoupageVariable(
+                            lireDecoupage(argument, valeur));
+                    break;
+                case "codec":
+                    parametres.setAdaptatif(lireCodec(argument, valeur));
+                    break;
+                case "index":
+                    parametres.setIntervalleAcces(valeur == null
+                            ? ParametresCompression.INTERVALLE_ACCES_DEFAUT
+                            : (int) Math.min(lireTaille(argument, valeur),
+                                             Integer.MAX_VALUE));
+                    break;
+                case "lignes":
+                    parametres.setIndexLignes(true);
+                    break;
+                case "rapport":
+                    parametres.setRapportJson(lireRapport(argument, valeur));
+                    break;
+                case "serveur":
+                    if (valeur == null) {
+                        throw new IllegalArgumentException(
+                                "Valeur manquante : " + argument);
+                    }
+                    parametres.setCheminServeur(valeur);
+                    break;
+                case "dictionnaire":
+                    if (valeur == null) {
+                        throw new IllegalArgumentException(
+                                "Valeur manquante : " + argument);
+                    }
+                    parametres.setCheminDictionnaire(valeur);
+                    break;
+                case "tampon":
+                    parametres.setTailleTampon(
+                            (int) Math.min(lireTaille(argument, valeur),
+                                           Integer.MAX_VALUE));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Option inconnue : "
+                                                       + argument);
+            }
+        }
+        if (restants.isEmpty()) {
+            restants.add("help");
+        }
+        return restants.toArray(new String[0]);
+    }
+
+    /**
+     * Lit le nom du codage choisi.
+     *
+     * @param option L'option lue, pour le message d'erreur.
+     * @param valeur La valeur de l'option.
+     * @return true pour le codage adaptatif, false pour le codage statique.
+     * @throws IllegalArgumentException Si le codage est inconnu.
+     */
+    static boolean lireCodec(String option, String valeur) {
+        if ("adaptatif".equals(valeur)) {
+            return true;
+        }
+        if ("statique".equals(valeur)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Valeur invalide : " + option);
+    }
+
+    /**
+     * Lit le format du résumé choisi.
+     *
+     * @param option L'option lue, pour le message d'erreur.
+     * @param valeur La valeur de l'option.
+     * @return true pour un résumé en JSON, false pour un résumé en texte.
+     * @throws IllegalArgumentException Si le format est inconnu.
+     */
+    static boolean lireRapport(String option, String valeur) {
+        if ("json".equals(valeur)) {
+            return true;
+        }
+        if ("texte".equals(valeur)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Valeur invalide : " + option);
+    }
+
+    /**
+     * Lit le découpage des blocs choisi.
+     *
+     * @param option L'option lue, pour le message d'erreur.
+     * @param valeur La valeur de l'option.
+     * @return true pour des blocs de tailles variables, false pour des
+     *         blocs de taille fixe.
+     * @throws IllegalArgumentException Si le découpage est inconnu.
+     */
+    static boolean lireDecoupage(String option, String valeur) {
+        if ("entropie".equals(valeur)) {
+            return true;
+        }
+        if ("fixe".equals(valeur)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Valeur invalide : " + option);
+    }
+
+    /**
+     * Lit une taille en octets, suivie éventuellement du suffixe K (Ko),
+     * M (Mo) ou G (Go).
+     *
+     * @param option L'option lue, pour le message d'erreur.
+     * @param valeur La valeur de l'option.
+     * @return La taille en octets.
+     * @throws IllegalArgumentException Si la valeur est invalide.
+     */
+    static long lireTaille(String option, String valeur) {
+        if (valeur == null || valeur.isEmpty()) {
+            throw new IllegalArgumentException("Valeur manquante : " + option);
+        }
+        char suffixe = Character.toUpperCase(valeur.charAt(valeur.length() - 1));
+        int multiplicateur = suffixe == 'K' ? 1024
+                             : suffixe == 'M' ? 1024 * 1024
+                             : suffixe == 'G' ? 1024 * 1024 * 1024
+                             : 1;
+        String nombre = multiplicateur == 1
+                        ? valeur
+                        : valeur.substring(0, valeur.length() - 1);
+        return lireNombre(option, nombre) * multiplicateur;
+    }
+
+    /**
+     * Lit un nombre entier positif.
+     *
+     * @param option L'option lue, pour le message d'erreur.
+     * @param valeur La valeur de l'option.
+     * @return Le nombre lu.
+     * @throws IllegalArgumentException Si la valeur n'est pas un nombre
+     *                                  entier positif.
+     */
+    static long lireNombre(String option, String valeur) {
+        try {
+            long nombre = Long.parseLong(valeur);
+            if (nombre < 0 || nombre > Integer.MAX_VALUE) {
+                throw new NumberFormatException();
+            }
+            return nombre;
+        } catch (NumberFormatException erreur) {
+            throw new IllegalArgumentException("Valeur invalide : " + option);
+        }
+    }
 }
@@ -0,0 +1,288 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * ArbreHuffmanAdaptatif.java                18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.outils.EcrivainBits;
+import fr.iutrodez.compresseurhuffman.outils.LecteurBits;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Arbre de Huffman adaptatif (algorithme FGK : Faller, Gallager, Knuth).
+ * <br>
+ * L'arbre est mis à jour après chaque symbole codé ou décodé : le codeur
+ * et le décodeur, partant du même arbre vide et appliquant les mêmes mises
+ * à jour, restent synchronisés sans qu'aucune table ne soit transmise.
+ * Un seul passage sur les données suffit donc, ce qui permet de compresser
+ * un flux dont la fin n'est pas connue à l'avance.
+ * <br>
+ * Un symbole encore jamais vu est codé par le code de la feuille spéciale
+ * NYT (« not yet transmitted »), suivi de sa valeur sur
+ * {@link #BITS_LITTERAL} bits. L'alphabet compte les 256 octets et le
+ * symbole {@link #FIN}, qui marque la fin des données.
+ * <br>
+ * Les nœuds sont rangés dans des tableaux, leur indice étant leur numéro
+ * d'ordre : la propriété de fratrie impose que les poids soient croissants
+ * avec les numéros, la racine ayant le plus grand. Échanger deux nœuds
+ * revient à échanger leur contenu, chaque indice gardant son parent.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class ArbreHuffmanAdaptatif {
+
+    /**
+     * Symbole marquant la fin des données.
+     */
+    public static final int FIN = 256;
+
+    /**
+     * Nombre de symboles de l'alphabet : les 256 octets et {@link #FIN}.
+     */
+    public static final int NOMBRE_SYMBOLES = FIN + 1;
+
+    /**
+     * Nombre de bits de la valeur d'un symbole transmis pour
+     * la première fois.
+     */
+    public static final int BITS_LITTERAL = 9;
+
+    /**
+     * Nombre maximal de nœuds : deux par symbole, plus la feuille NYT.
+     */
+    private static final int NOMBRE_NOEUDS = 2 * NOMBRE_SYMBOLES + 1;
+
+    /**
+     * Indice de la racine, qui porte le plus grand numéro d'ordre.
+     */
+    private static final int RACINE = NOMBRE_NOEUDS - 1;
+
+    /**
+     * Poids de chaque nœud.
+     */
+    private final long[] poids = new long[NOMBRE_NOEUDS];
+
+    /**
+     * Parent de chaque nœud, -1 pour la racine.
+     */
+    private final int[] parents = new int[NOMBRE_NOEUDS];
+
+    /**
+     * Enfant gauche (bit 0) de chaque nœud interne, -1 pour une feuille.
+     */
+    private final int[] gauches = new int[NOMBRE_NOEUDS];
+
+    /**
+     * Enfant droit (bit 1) de chaque nœud interne, -1 pour une feuille.
+     */
+    private final int[] droites = new int[NOMBRE_NOEUDS];
+
+    /**
+     * Symbole de chaque feuille, -1 pour un nœud interne ou la feuille NYT.
+     */
+    private final int[] symboles = new int[NOMBRE_NOEUDS];
+
+    /**
+     * Feuille de chaque symbole déjà transmis, -1 sinon.
+     */
+    private final int[] feuilles = new int[NOMBRE_SYMBOLES];
+
+    /**
+     * Chemin d'une feuille à la racine, réutilisé à chaque codage.
+     */
+    private final int[] chemin = new int[NOMBRE_NOEUDS];
+
+    /**
+     * Indice de la feuille NYT.
+     */
+    private int nyt = RACINE;
+
+    /**
+     * Construit un arbre vide, réduit à la feuille NYT.
+     */
+    public ArbreHuffmanAdaptatif() {
+        Arrays.fill(gauches, -1);
+        Arrays.fill(droites, -1);
+        Arrays.fill(symboles, -1);
+        Arrays.fill(feuilles, -1);
+        parents[RACINE] = -1;
+    }
+
+    /**
+     * Code un symbole puis met l'arbre à jour.
+     *
+     * @param symbole Le symbole à coder, octet ou {@link #FIN}.
+     * @param ecrivain L'écrivain recevant les bits du code.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public void coder(int symbole, EcrivainBits ecrivain) throws IOException {
+        int feuille = feuilles[symbole];
+        if (feuille < 0) {
+            ecrireChemin(nyt, ecrivain);
+            ecrivain.ecrire(symbole, BITS_LITTERAL);
+        } else {
+            ecrireChemin(feuille, ecrivain);
+        }
+        mettreAJour(symbole);
+    }
+
+    /**
+     * Décode un symbole puis met l'arbre à jour.
+     *
+     * @param lecteur Le lecteur fournissant les bits compressés.
+     * @return Le symbole décodé, octet ou {@link #FIN}.
+     * @throws IOException Si une erreur d'entrée/sortie se produit ou si
+     *                     les bits sont tronqués ou corrompus.
+     */
+    public int decoder(LecteurBits lecteur) throws IOException {
+        int noeud = RACINE;
+        while (gauches[noeud] >= 0) {
+            verifierBitsRestants(lecteur);
+            noeud = lecteur.lire(1) == 0 ? gauches[noeud] : droites[noeud];
+        }
+        int symbole = symboles[noeud];
+        if (noeud == nyt) {
+            /*
+             * Le littéral est lu bit à bit : les bits manquants d'un flux
+             * tronqué seraient sinon complétés par des zéros.
+             */
+            symbole = 0;
+            for (int i = 0; i < BITS_LITTERAL; i++) {
+                verifierBitsRestants(lecteur);
+                symbole = (symbole << 1) | (int) lecteur.lire(1);
+            }
+            if (symbole >= NOMBRE_SYMBOLES || feuilles[symbole] >= 0) {
+                throw new IOException("Données compressées corrompues.");
+            }
+        }
+        mettreAJour(symbole);
+        return symbole;
+    }
+
+    /**
+     * Vérifie qu'il reste des bits à lire.
+     *
+     * @param lecteur Le lecteur fournissant les bits compressés.
+     * @throws IOException Si tous les bits ont été lus avant la fin
+     *                     des données.
+     */
+    private static void verifierBitsRestants(LecteurBits lecteur)
+            throws IOException {
+        if (lecteur.estEpuise()) {
+            throw new IOException("Données compressées tronquées.");
+        }
+    }
+
+    /**
+     * Écrit le code d'un nœud, c'est-à-dire le chemin de la racine
+     * jusqu'à lui. Le chemin est relevé de la feuille vers la racine,
+     * puis écrit dans l'ordre inverse, par paquets d'au plus
+     * {@link LecteurBits#BITS_GARANTIS} bits.
+     *
+     * @param noeud Le nœud dont le code est écrit.
+     * @param ecrivain L'écrivain recevant les bits.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    private void ecrireChemin(int noeud, EcrivainBits ecrivain)
+            throws IOException {
+        int longueur = 0;
+        while (noeud != RACINE) {
+            int parent = parents[noeud];
+            chemin[longueur++] = droites[parent] == noeud ? 1 : 0;
+            noeud = parent;
+        }
+        long paquet = 0;
+        int taillePaquet = 0;
+        for (int i = longueur - 1; i >= 0; i--) {
+            paquet = (paquet << 1) | chemin[i];
+            if (++taillePaquet == LecteurBits.BITS_GARANTIS) {
+                ecrivain.ecrire(paquet, taillePaquet);
+                paquet = 0;
+                taillePaquet = 0;
+            }
+        }
+        if (taillePaquet > 0) {
+            ecrivain.ecrire(paquet, taillePaquet);
+        }
+    }
+
+    /**
+     * Met l'arbre à jour après le codage d'un symbole.
+     * Un symbole nouveau remplace la feuille NYT par un nœud interne dont
+     * les enfants sont une nouvelle feuille NYT et la feuille du symbole.
+     * Puis, de la feuille du symbole jusqu'à la racine, chaque nœud est
+     * échangé avec le nœud de plus grand numéro de même poids (sauf si
+     * c'est son parent), avant que son poids soit incrémenté : la propriété
+     * de fratrie est ainsi conservée.
+     *
+     * @param symbole Le symbole qui vient d'être codé ou décodé.
+     */
+    private void mettreAJour(int symbole) {
+        int noeud = feuilles[symbole];
+        if (noeud < 0) {
+            int ancien = nyt;
+            noeud = ancien - 1;
+            nyt = ancien - 2;
+            gauches[ancien] = nyt;
+            droites[ancien] = noeud;
+            parents[nyt] = ancien;
+            parents[noeud] = ancien;
+            symboles[noeud] = symbole;
+            feuilles[symbole] = noeud;
+        }
+        while (noeud >= 0) {
+            int chef = noeud;
+            while (chef < RACINE && poids[chef + 1] == poids[noeud]) {
+                chef++;
+            }
+            if (chef != noeud && chef != parents[noeud]) {
+                echanger(noeud, chef);
+                noeud = chef;
+            }
+            poids[noeud]++;
+            noeud = parents[noeud];
+        }
+    }
+
+    /**
+     * Échange le contenu de deux nœuds de même poids, chaque indice
+     * gardant son parent : les deux sous-arbres changent de place.
+     *
+     * @param premier L'indice du premier nœud.
+     * @param second L'indice du second nœud.
+     */
+    private void echanger(int premier, int second) {
+        int gauche = gauches[premier];
+        int droite = droites[premier];
+        int symbole = symboles[premier];
+        gauches[premier] = gauches[second];
+        droites[premier] = droites[second];
+        symboles[premier] = symboles[second];
+        gauches[second] = gauche;
+        droites[second] = droite;
+        symboles[second] = symbole;
+        rattacher(premier);
+        rattacher(second);
+    }
+
+    /**
+     * Met à jour les références vers un nœud dont le contenu a changé
+     * de place : parent de ses enfants, ou feuille de son symbole.
+     *
+     * @param noeud L'indice du nœud.
+     */
+    private void rattacher(int noeud) {
+        if (gauches[noeud] >= 0) {
+            parents[gauches[noeud]] = noeud;
+            parents[droites[noeud]] = noeud;
+        } else if (symboles[noeud] >= 0) {
+            feuilles[symboles[noeud]] = noeud;
+        }
+    }
+}
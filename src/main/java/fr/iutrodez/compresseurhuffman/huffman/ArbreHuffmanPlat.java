@@ -0,0 +1,292 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * ArbreHuffmanPlat.java                     18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.objets.Noeud;
+
+import java.util.Arrays;
+
+/**
+ * Arbre de Huffman représenté par des tableaux primitifs plutôt que par
+ * des objets {@link Noeud}.
+ * <br>
+ * Les nœuds sont numérotés de 0 à 2n-2, n étant le nombre de symboles
+ * de fréquence non nulle : les n premiers sont les feuilles, triées par
+ * fréquence croissante, les suivants sont les nœuds internes dans leur
+ * ordre de création, la racine étant le dernier.
+ * <br>
+ * La construction trie les feuilles une seule fois (tri par base, linéaire)
+ * puis fusionne deux files : celle des feuilles triées et celle des nœuds
+ * internes, qui sont créés par poids croissant et sont donc eux aussi
+ * triés. Les deux plus petits poids sont toujours en tête de l'une ou
+ * l'autre file, ce qui rend chaque fusion immédiate : la construction est
+ * linéaire après le tri, même pour des alphabets de plusieurs millions
+ * de symboles.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class ArbreHuffmanPlat {
+
+    /**
+     * Nombre de bits traités par passe du tri par base.
+     */
+    private static final int BITS_PAR_PASSE = 8;
+
+    /**
+     * Nombre de feuilles (symboles de fréquence non nulle).
+     */
+    private final int nombreFeuilles;
+
+    /**
+     * Taille de l'alphabet, c'est-à-dire la longueur du tableau
+     * de fréquences fourni à la construction.
+     */
+    private final int tailleAlphabet;
+
+    /**
+     * Symbole représenté par chaque feuille, indicé par numéro de feuille.
+     */
+    private final int[] symboles;
+
+    /**
+     * Poids de chaque nœud, feuilles puis nœuds internes.
+     */
+    private final long[] poids;
+
+    /**
+     * Parent de chaque nœud, -1 pour la racine.
+     */
+    private final int[] parents;
+
+    /**
+     * Enfant gauche de chaque nœud interne, indicé par
+     * (numéro du nœud - nombre de feuilles).
+     */
+    private final int[] gauches;
+
+    /**
+     * Enfant droit de chaque nœud interne, indicé par
+     * (numéro du nœud - nombre de feuilles).
+     */
+    private final int[] droites;
+
+    /**
+     * Construit l'arbre de Huffman d'un alphabet dont les fréquences
+     * sont indicées par symbole. Les symboles de fréquence nulle
+     * sont ignorés.
+     *
+     * @param frequences La fréquence de chaque symbole de l'alphabet.
+     */
+    public ArbreHuffmanPlat(long[] frequences) {
+        tailleAlphabet = frequences.length;
+        symboles = trierSymbolesParFrequence(frequences);
+        nombreFeuilles = symboles.length;
+
+        int nombreNoeuds = Math.max(2 * nombreFeuilles - 1, 0);
+        poids = new long[nombreNoeuds];
+        parents = new int[nombreNoeuds];
+        gauches = new int[Math.max(nombreFeuilles - 1, 0)];
+        droites = new int[gauches.length];
+
+        for (int i = 0; i < nombreFeuilles; i++) {
+            poids[i] = frequences[symboles[i]];
+        }
+        fusionnerFiles();
+    }
+
+    /**
+     * Fusionne la file des feuilles et celle des nœuds internes jusqu'à
+     * obtenir la racine. Chaque nœud interne créé a pour enfants les deux
+     * nœuds de plus petit poids encore disponibles.
+     */
+    private void fusionnerFiles() {
+        /*
+         * curseurs[0] : prochaine feuille non utilisée,
+         * curseurs[1] : prochain nœud interne non utilisé.
+         */
+        int[] curseurs = { 0, nombreFeuilles };
+        for (int nouveau = nombreFeuilles; nouveau < poids.length; nouveau++) {
+            int premier = extraireMinimum(curseurs, nouveau);
+            int second = extraireMinimum(curseurs, nouveau);
+
+            poids[nouveau] = poids[premier] + poids[second];
+            gauches[nouveau - nombreFeuilles] = premier;
+            droites[nouveau - nombreFeuilles] = second;
+            parents[premier] = nouveau;
+            parents[second] = nouveau;
+        }
+        if (poids.length > 0) {
+            parents[poids.length - 1] = -1;
+        }
+    }
+
+    /**
+     * Retire et retourne le nœud de plus petit poids parmi les têtes
+     * des deux files.
+     * À poids égal, la feuille est préférée au nœud interne,
+     * ce qui limite la profondeur de l'arbre.
+     *
+     * @param curseurs Les têtes de la file des feuilles et de celle
+     *                 des nœuds internes, avancées par la méthode.
+     * @param nombreNoeudsCrees Le numéro du prochain nœud interne à créer,
+     *                          qui borne la file des nœuds internes.
+     * @return Le numéro du nœud retiré.
+     */
+    private int extraireMinimum(int[] curseurs, int nombreNoeudsCrees) {
+        if (curseurs[0] < nombreFeuilles
+            && (curseurs[1] >= nombreNoeudsCrees
+                || poids[curseurs[0]] <= poids[curseurs[1]])) {
+            return curseurs[0]++;
+        }
+        return curseurs[1]++;
+    }
+
+    /**
+     * Retourne les symboles de fréquence non nulle, triés par fréquence
+     * croissante (et par symbole croissant à fréquence égale).
+     * Le tri par base (radix) traite les fréquences par paquets de
+     * {@link #BITS_PAR_PASSE} bits, du moins significatif au plus
+     * significatif, en s'arrêtant au dernier paquet utile.
+     *
+     * @param frequences La fréquence de chaque symbole.
+     * @return Les symboles présents, triés.
+     */
+    static int[] trierSymbolesParFrequence(long[] frequences) {
+        int nombrePresents = 0;
+        long frequenceMax = 0;
+        for (long frequence : frequences) {
+            if (frequence < 0) {
+                throw new IllegalArgumentException("Fréquence négative : "
+                                                   + frequence);
+            }
+            if (frequence > 0) {
+                nombrePresents++;
+                frequenceMax = Math.max(frequenceMax, frequence);
+            }
+        }
+
+        int[] symbolesTries = new int[nombrePresents];
+        int index = 0;
+        for (int symbole = 0; symbole < frequences.length; symbole++) {
+            if (frequences[symbole] > 0) {
+                symbolesTries[index++] = symbole;
+            }
+        }
+
+        int[] tampon = new int[nombrePresents];
+        int[] compteurs = new int[1 << BITS_PAR_PASSE];
+        int masque = (1 << BITS_PAR_PASSE) - 1;
+        for (int decalage = 0;
+             decalage < Long.SIZE && (frequenceMax >>> decalage) != 0;
+             decalage += BITS_PAR_PASSE) {
+
+            Arrays.fill(compteurs, 0);
+            for (int symbole : symbolesTries) {
+                compteurs[(int) (frequences[symbole] >>> decalage) & masque]++;
+            }
+            int position = 0;
+            for (int chiffre = 0; chiffre < compteurs.length; chiffre++) {
+                int nombre = compteurs[chiffre];
+                compteurs[chiffre] = position;
+                position += nombre;
+            }
+            for (int symbole : symbolesTries) {
+                int chiffre = (int) (frequences[symbole] >>> decalage) & masque;
+                tampon[compteurs[chiffre]++] = symbole;
+            }
+            int[] echange = symbolesTries;
+            symbolesTries = tampon;
+            tampon = echange;
+        }
+        return symbolesTries;
+    }
+
+    /**
+     * Calcule la longueur du code de Huffman de chaque symbole,
+     * c'est-à-dire la profondeur de sa feuille dans l'arbre.
+     * Un symbole seul dans l'alphabet reçoit un code d'un bit.
+     *
+     * @return La longueur du code de chaque symbole de l'alphabet,
+     *         0 pour les symboles absents.
+     */
+    public int[] calculerLongueursCodes() {
+        int[] longueurs = new int[tailleAlphabet];
+        if (nombreFeuilles == 1) {
+            longueurs[symboles[0]] = 1;
+            return longueurs;
+        }
+        int[] profondeurs = calculerProfondeurs();
+        for (int feuille = 0; feuille < nombreFeuilles; feuille++) {
+            longueurs[symboles[feuille]] = profondeurs[feuille];
+        }
+        return longueurs;
+    }
+
+    /**
+     * Calcule la profondeur de chaque nœud. Un parent ayant toujours un
+     * numéro plus grand que ses enfants, un seul parcours des nœuds par
+     * numéro décroissant suffit.
+     *
+     * @return La profondeur de chaque nœud.
+     */
+    private int[] calculerProfondeurs() {
+        int[] profondeurs = new int[poids.length];
+        for (int noeud = poids.length - 2; noeud >= 0; noeud--) {
+            profondeurs[noeud] = profondeurs[parents[noeud]] + 1;
+        }
+        return profondeurs;
+    }
+
+    /**
+     * Convertit l'arbre en une hiérarchie de {@link Noeud}, les symboles
+     * devant alors être des octets.
+     *
+     * @return La racine de l'arbre, ou null si l'arbre est vide.
+     * @throws IllegalStateException Si l'alphabet compte plus de 256 symboles.
+     */
+    public Noeud versNoeud() {
+        if (tailleAlphabet > 256) {
+            throw new IllegalStateException("Seul un arbre d'octets peut être "
+                                            + "converti en nœuds.");
+        }
+        if (poids.length == 0) {
+            return null;
+        }
+        Noeud[] noeuds = new Noeud[poids.length];
+        for (int feuille = 0; feuille < nombreFeuilles; feuille++) {
+            noeuds[feuille] = new Noeud((byte) symboles[feuille],
+                                        poids[feuille]);
+        }
+        for (int noeud = nombreFeuilles; noeud < poids.length; noeud++) {
+            int interne = noeud - nombreFeuilles;
+            noeuds[noeud] = new Noeud(poids[noeud]);
+            noeuds[noeud].setGauche(noeuds[gauches[interne]]);
+            noeuds[noeud].setDroite(noeuds[droites[interne]]);
+        }
+        return noeuds[poids.length - 1];
+    }
+
+    /**
+     * Retourne le nombre de feuilles de l'arbre.
+     *
+     * @return Le nombre de symboles de fréquence non nulle.
+     */
+    public int getNombreFeuilles() {
+        return nombreFeuilles;
+    }
+
+    /**
+     * Retourne le poids de la racine, égal à la somme des fréquences.
+     *
+     * @return Le poids total de l'arbre, 0 s'il est vide.
+     */
+    public long getPoidsTotal() {
+        return poids.length == 0 ? 0 : poids[poids.length - 1];
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * BilanCodes.java                           18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+/**
+ * Bilan du coût de la limitation de la longueur des codes : nombre de bits
+ * produits avec les codes utilisés, comparé au nombre de bits qu'auraient
+ * produits les codes de Huffman sans limite de longueur.
+ * <br>
+ * Un bilan est complété table par table, puis les bilans des blocs d'un
+ * fichier sont fusionnés, comme les histogrammes d'occurrences.
+ * Il compte aussi les blocs, et parmi eux ceux qui réutilisent la table
+ * du bloc précédent, dont la table n'entre pas dans le bilan.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class BilanCodes {
+
+    /**
+     * Nombre de bits produits avec les codes utilisés.
+     */
+    private long nombreBits;
+
+    /**
+     * Nombre de bits qu'auraient produits les codes sans limite de longueur.
+     */
+    private long nombreBitsSansLimite;
+
+    /**
+     * Longueur du plus long code utilisé.
+     */
+    private int longueurMaximale;
+
+    /**
+     * Nombre de blocs compressés.
+     */
+    private long nombreBlocs;
+
+    /**
+     * Nombre de blocs ayant réutilisé la table du bloc précédent.
+     */
+    private long nombreTablesReutilisees;
+
+    /**
+     * Compte un bloc compressé.
+     *
+     * @param tableReutilisee true si le bloc réutilise la table du bloc
+     *                        précédent ; sa table n'est alors pas ajoutée
+     *                        au bilan.
+     */
+    public void compterBloc(boolean tableReutilisee) {
+        nombreBlocs++;
+        if (tableReutilisee) {
+            nombreTablesReutilisees++;
+        }
+    }
+
+    /**
+     * Ajoute au bilan une table de codes.
+     *
+     * @param frequences La fréquence de chaque symbole.
+     * @param longueursSansLimite Les longueurs de Huffman sans limite.
+     * @param longueurs Les longueurs effectivement utilisées.
+     */
+    public void ajouter(long[] frequences, int[] longueursSansLimite,
+                        int[] longueurs) {
+        for (int symbole = 0; symbole < frequences.length; symbole++) {
+            nombreBits = Math.addExact(nombreBits, Math.multiplyExact(
+                    frequences[symbole], (long) longueurs[symbole]));
+            nombreBitsSansLimite = Math.addExact(nombreBitsSansLimite,
+                    Math.multiplyExact(frequences[symbole],
+                                       (long) longueursSansLimite[symbole]));
+            longueurMaximale = Math.max(longueurMaximale, longueurs[symbole]);
+        }
+    }
+
+    /**
+     * Ajoute à ce bilan celui d'un autre fichier ou d'un autre bloc.
+     *
+     * @param autre Le bilan à ajouter.
+     */
+    public void fusionner(BilanCodes autre) {
+        nombreBits += autre.nombreBits;
+        nombreBitsSansLimite += autre.nombreBitsSansLimite;
+        longueurMaximale = Math.max(longueurMaximale, autre.longueurMaximale);
+        nombreBlocs += autre.nombreBlocs;
+        nombreTablesReutilisees += autre.nombreTablesReutilisees;
+    }
+
+    /**
+     * Retourne le nombre de bits produits avec les codes utilisés.
+     *
+     * @return Le nombre de bits des données compressées.
+     */
+    public long getNombreBits() {
+        return nombreBits;
+    }
+
+    /**
+     * Retourne le nombre de bits qu'auraient produits les codes
+     * sans limite de longueur.
+     *
+     * @return Le nombre de bits optimal, sans limite.
+     */
+    public long getNombreBitsSansLimite() {
+        return nombreBitsSansLimite;
+    }
+
+    /**
+     * Retourne la longueur du plus long code utilisé.
+     *
+     * @return La longueur maximale, en bits.
+     */
+    public int getLongueurMaximale() {
+        return longueurMaximale;
+    }
+
+    /**
+     * Retourne le nombre de blocs compressés.
+     *
+     * @return Le nombre de blocs comptés.
+     */
+    public long getNombreBlocs() {
+        return nombreBlocs;
+    }
+
+    /**
+     * Retourne le nombre de blocs ayant réutilisé la table du bloc
+     * précédent.
+     *
+     * @return Le nombre de tables réutilisées.
+     */
+    public long getNombreTablesReutilisees() {
+        return nombreTablesReutilisees;
+    }
+
+    /**
+     * Retourne la perte de taux de compression due à la limitation
+     * de la longueur des codes.
+     *
+     * @return Le surcoût relatif en bits (0,01 pour 1 %), 0 si aucune
+     *         donnée n'a été codée.
+     */
+    public double getPenalite() {
+        if (nombreBitsSansLimite == 0) {
+            return 0;
+        }
+        return (double) (nombreBits - nombreBitsSansLimite)
+               / nombreBitsSansLimite;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * CodecAdaptatif.java                       18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.objets.HistogrammeOctets;
+import fr.iutrodez.compresseurhuffman.outils.EcrivainBits;
+import fr.iutrodez.compresseurhuffman.outils.GestionFichier;
+import fr.iutrodez.compresseurhuffman.outils.LecteurBits;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Compression et décompression en un seul passage, par un arbre de Huffman
+ * adaptatif (voir {@link ArbreHuffmanAdaptatif}).
+ * <br>
+ * Contrairement à la compression statique, qui doit connaître les
+ * occurrences de tous les octets avant d'écrire la table des codes,
+ * le codage adaptatif traite chaque octet dès sa lecture : il convient
+ * aux flux dont la fin n'est pas connue à l'avance, comme l'entrée
+ * standard. La mémoire utilisée est constante : l'arbre et un tampon
+ * de {@link GestionFichier#TAILLE_BLOC} octets.
+ * <br>
+ * Le fichier produit commence par un en-tête
+ * (voir {@link EnteteArchive#adaptatif()}), suivi des codes des octets,
+ * puis du code du symbole {@link ArbreHuffmanAdaptatif#FIN}.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class CodecAdaptatif {
+
+    /**
+     * Compresse un flux jusqu'à sa fin.
+     * Le flux de sortie est vidé mais n'est pas fermé.
+     *
+     * @param entree Le flux des données à compresser.
+     * @param sortie Le flux recevant les données compressées,
+     *               en-tête compris.
+     * @return L'histogramme des occurrences des octets compressés.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public static HistogrammeOctets compresser(InputStream entree,
+                                               OutputStream sortie)
+            throws IOException {
+
+        EnteteArchive.adaptatif().ecrire(new DataOutputStream(sortie));
+
+        HistogrammeOctets occurences = new HistogrammeOctets();
+        ArbreHuffmanAdaptatif arbre = new ArbreHuffmanAdaptatif();
+        EcrivainBits ecrivain = new EcrivainBits(sortie);
+        byte[] bloc = new byte[GestionFichier.TAILLE_BLOC];
+        int longueur;
+        /*
+         * `read` rend les octets dès qu'ils sont disponibles, sans attendre
+         * de remplir le tableau : un flux lent, comme un tube, est traité
+         * au fur et à mesure.
+         */
+        while ((longueur = entree.read(bloc)) >= 0) {
+            for (int i = 0; i < longueur; i++) {
+                arbre.coder(bloc[i] & 0xFF, ecrivain);
+            }
+            occurences.ajouter(bloc, 0, longueur);
+        }
+        arbre.coder(ArbreHuffmanAdaptatif.FIN, ecrivain);
+        ecrivain.terminer();
+        return occurences;
+    }
+
+    /**
+     * Décompresse des données codées par {@link #compresser}, dont
+     * l'en-tête a déjà été lu.
+     *
+     * @param entree Le flux positionné après l'en-tête.
+     * @param sortie Le flux recevant les octets décodés.
+     * @return Le nombre d'octets décodés.
+     * @throws IOException Si une erreur d'entrée/sortie se produit ou si
+     *                     les données sont tronquées ou corrompues.
+     */
+    public static long decompresser(InputStream entree, OutputStream sortie)
+            throws IOException {
+
+        ArbreHuffmanAdaptatif arbre = new ArbreHuffmanAdaptatif();
+        LecteurBits lecteur = new LecteurBits(entree);
+        byte[] bloc = new byte[GestionFichier.TAILLE_BLOC];
+        int tailleBloc = 0;
+        long nombreOctets = 0;
+
+        int symbole;
+        while ((symbole = arbre.decoder(lecteur)) != ArbreHuffmanAdaptatif.FIN) {
+            bloc[tailleBloc++] = (byte) symbole;
+            if (tailleBloc == bloc.length) {
+                sortie.write(bloc, 0, tailleBloc);
+                nombreOctets += tailleBloc;
+                tailleBloc = 0;
+            }
+        }
+        sortie.write(bloc, 0, tailleBloc);
+        return nombreOctets + tailleBloc;
+    }
+}
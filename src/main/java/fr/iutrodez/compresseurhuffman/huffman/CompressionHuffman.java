@@ -4,16 +4,26 @@
  */
 package fr.iutrodez.compresseurhuffman.huffman;
 
+import fr.iutrodez.compresseurhuffman.outils.EcrivainBits;
 import fr.iutrodez.compresseurhuffman.outils.GestionFichier;
+import fr.iutrodez.compresseurhuffman.outils.MesuresPhases;
+import fr.iutrodez.compresseurhuffman.outils.StrategieES;
+import fr.iutrodez.compresseurhuffman.outils.SurveillanceCompresseur;
+import fr.iutrodez.compresseurhuffman.objets.HistogrammeOctets;
 import fr.iutrodez.compresseurhuffman.objets.Noeud;
+import fr.iutrodez.compresseurhuffman.objets.ParametresCompression;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
-import java.util.Comparator;
 
 import static java.lang.System.out;
 
@@ -23,8 +33,9 @@ import static java.lang.System.out;
  * de compter la fréquence des caractères, de construire l'arbre de Huffman,
  * et de compresser le fichier en une chaîne de bits
  * selon le codage de Huffman.
- * Le résultat est écrit dans un fichier de destination
- * avec les codes Huffman utilisés.
+ * Le résultat est écrit dans un unique fichier de destination,
+ * qui contient aussi les codes Huffman utilisés
+ * (voir {@link EnteteArchive}).
  * Un résumé des fréquences de caractère et
  * des codes de Huffman est également produit.
  *
@@ -46,6 +57,29 @@ public class CompressionHuffman {
      */
     private String cheminFichierDestination;
 
+    /**
+     * Paramètres facultatifs de la compression.
+     */
+    private ParametresCompression parametres;
+
+    /**
+     * Mesures de la dernière compression ou construction de l'arbre,
+     * phase par phase.
+     */
+    private MesuresPhases mesures = new MesuresPhases();
+
+    /**
+     * false pour ne rien afficher pendant la compression : ni les
+     * occurrences des octets, ni le bilan des codes ou des blocs.
+     */
+    private boolean affichage = true;
+
+    /**
+     * Dictionnaire désigné par les paramètres, déjà chargé, ou null pour
+     * le lire.
+     */
+    private Dictionnaire dictionnaireCharge;
+
     /**
      * Constructeur qui initialise les chemins du fichier source
      * et du fichier destination.
@@ -59,210 +93,584 @@ public class CompressionHuffman {
     public CompressionHuffman(String cheminFichierSource,
                               String cheminFichierDestination) {
 
+        this(cheminFichierSource, cheminFichierDestination,
+             new ParametresCompression());
+    }
+
+    /**
+     * Constructeur qui initialise les chemins du fichier source
+     * et du fichier destination ainsi que les paramètres de compression.
+     *
+     * @param cheminFichierSource Chemin complet du fichier à compresser.
+     * @param cheminFichierDestination Chemin complet où le fichier compressé
+     *                                 sera enregistré.
+     * @param parametres Les paramètres de la compression.
+     */
+    public CompressionHuffman(String cheminFichierSource,
+                              String cheminFichierDestination,
+                              ParametresCompression parametres) {
+
         this.cheminFichierSource = cheminFichierSource;
         this.cheminFichierDestination = cheminFichierDestination;
+        this.parametres = parametres;
     }
 
     /**
      * Compresse un fichier source en utilisant l'algorithme de Huffman
      * et écrit le résultat dans un fichier de destination.
      * <br>
-     * La méthode réalise la compression en plusieurs étapes :
-     * 1. Extraction des octets du fichier source.
-     * 2. Analyse des fréquences des octets pour construire le codage Huffman.
-     * 3. Conversion des octets en chaîne de bits Huffman.
-     * 4. Ecriture du résultat compressé et du tableau de codage Huffman.
+     * La compression est réalisée en flux, en deux passes sur le fichier
+     * source, sans jamais le charger entièrement en mémoire :
+     * 1. Comptage des occurrences des octets, en parallèle sur des segments
+     *    du fichier projetés en mémoire
+     *    (voir {@link CompteurOccurrencesParallele}).
+     * 2. Construction des codes de Huffman canoniques à partir de
+     *    ces occurrences, dont la longueur est éventuellement limitée
+     *    (voir {@link LimiteurLongueurs}) ; la perte de taux de compression
+     *    qui en résulte est alors affichée.
+     * 3. Ecriture de l'en-tête du fichier compressé, qui contient la
+     *    longueur du code de chaque octet : elle suffit à reconstruire
+     *    les codes canoniques (voir {@link EnteteArchive}).
+     * 4. Relecture du fichier par blocs, chaque bloc étant encodé
+     *    et écrit immédiatement à la suite de l'en-tête, avec la stratégie
+     *    d'entrées/sorties fixée par les paramètres (voir
+     *    {@link ParametresCompression#choisirStrategieES}).
+     * La mémoire utilisée reste ainsi constante, quelle que soit la taille
+     * du fichier source.
+     * <br>
+     * Si les paramètres demandent une compression par blocs, le fichier
+     * est découpé en blocs compressés indépendamment, sur plusieurs threads
+     * (voir {@link CompressionParBlocs}), éventuellement de tailles
+     * variables ; le nombre de blocs et de tables réutilisées est alors
+     * affiché.
+     * S'ils demandent le codage adaptatif, le fichier est au contraire
+     * compressé en un seul passage (voir {@link CodecAdaptatif}).
+     * <br>
+     * S'ils demandent un index d'accès, des points d'accès sont relevés
+     * pendant l'encodage (voir {@link PointsAcces}) et l'index est écrit
+     * à la fin du fichier compressé (voir {@link IndexAcces}) ; il n'est
+     * pas écrit avec le codage adaptatif.
+     * <br>
+     * S'ils désignent un dictionnaire, le fichier est compressé en un seul
+     * passage avec les codes du dictionnaire, sans comptage ni table
+     * (voir {@link Dictionnaire}) ; les autres réglages sont alors ignorés.
+     * <br>
+     * Chaque phase de la compression est mesurée (voir
+     * {@link #getMesures}), et la compression est comptée par
+     * {@link SurveillanceCompresseur}.
      *
      * @throws IOException Si une erreur d'entrée/sortie se produit
      *                     pendant les opérations de lecture ou d'écriture.
      */
     public void compresserFichier() throws IOException {
-        byte[] octets = GestionFichier.recupererOctets(cheminFichierSource);
-        Map<Byte, Integer> occurencesDesCaracteres = preparerDonnees(octets);
-        Map<Byte, String> codageHuffman =
-                genererCodesHuffman(occurencesDesCaracteres);
+        compresserFichier(null);
+    }
+
+    /**
+     * Compresse le fichier source comme {@link #compresserFichier()},
+     * à partir des occurrences de ses octets lorsqu'elles ont déjà été
+     * comptées : la première passe sur le fichier est alors évitée.
+     * Les occurrences ne servent qu'à la compression avec une seule table
+     * de codes ; elles sont ignorées par la compression par blocs, par
+     * le codage adaptatif et par la compression avec un dictionnaire.
+     *
+     * @param occurences Les occurrences des octets du fichier source,
+     *                   ou null pour les compter.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    void compresserFichier(HistogrammeOctets occurences) throws IOException {
+        mesures = new MesuresPhases("compression", cheminFichierSource,
+                                    cheminFichierDestination);
+        SurveillanceCompresseur surveillance =
+                SurveillanceCompresseur.getInstance();
+        long debut = surveillance.debuter();
+        boolean reussie = false;
+        mesures.debuter();
+        try {
+            compresser(occurences);
+            reussie = true;
+        } finally {
+            mesures.terminer();
+            surveillance.terminerCompression(
+                    debut, new File(cheminFichierSource).length(),
+                    new File(cheminFichierDestination).length(), reussie);
+        }
+    }
+
+    /**
+     * Active ou désactive l'affichage pendant la compression, par exemple
+     * pour compresser de nombreux fichiers en même temps
+     * (voir {@link TraitementLot}) ou au sein d'un serveur.
+     *
+     * @param affichage false pour ne rien afficher.
+     */
+    public void setAffichage(boolean affichage) {
+        this.affichage = affichage;
+    }
+
+    /**
+     * Fournit le dictionnaire désigné par les paramètres, déjà chargé :
+     * il n'est pas relu pour chaque fichier compressé avec lui
+     * (voir {@link TraitementLot}).
+     *
+     * @param dictionnaire Le dictionnaire chargé, ou null pour lire celui
+     *                     désigné par les paramètres.
+     */
+    public void setDictionnaire(Dictionnaire dictionnaire) {
+        this.dictionnaireCharge = dictionnaire;
+    }
 
-        String codage = convertirOctetsEnCodeHuffman(octets, codageHuffman);
-        ecrireResultats(codage, cheminFichierDestination, codageHuffman);
+    /**
+     * Retourne les mesures de la dernière compression ou construction
+     * de l'arbre : durée et débit de chaque phase, mémoire allouée,
+     * pic d'occupation du tas, tables de codes et bits codés.
+     *
+     * @return Les mesures de la dernière opération.
+     */
+    public MesuresPhases getMesures() {
+        return mesures;
     }
 
     /**
-     * Prépare les données en calculant et triant les occurrences
-     * des octets dans la chaîne.
+     * Compresse le fichier source selon les paramètres
+     * (voir {@link #compresserFichier}).
      *
-     * @param octets Un tableau d'octets représentant les données à analyser.
-     * @return Une map contenant les occurrences des octets.
+     * @param occurences Les occurrences des octets du fichier source,
+     *                   ou null pour les compter.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
      */
-    private Map<Byte, Integer> preparerDonnees(byte[] octets) {
-        Map<Byte, Integer> occurencesDesCaracteres =
-                getFrequenceDesOctets(octets);
+    private void compresser(HistogrammeOctets occurences) throws IOException {
+        BilanCodes bilan = new BilanCodes();
+        if (parametres.aUnDictionnaire()) {
+            compresserAvecDictionnaire();
+            return;
+        }
+        if (parametres.estAdaptatif()) {
+            compresserAdaptatif();
+            return;
+        }
+        if (parametres.estParBlocs()) {
+            afficherOccurencesTriees(CompressionParBlocs.compresser(
+                    cheminFichierSource, cheminFichierDestination,
+                    parametres, bilan, mesures));
+        } else {
+            HistogrammeOctets occurencesDesCaracteres = occurences;
+            if (occurencesDesCaracteres == null) {
+                mesures.demarrer(MesuresPhases.HISTOGRAMME);
+                occurencesDesCaracteres = CompteurOccurrencesParallele
+                        .compter(cheminFichierSource);
+                mesures.arreter(occurencesDesCaracteres.getTotal());
+            }
+            afficherOccurencesTriees(occurencesDesCaracteres);
+
+            TableCodesCanonique table = genererTableCanonique(
+                    occurencesDesCaracteres,
+                    parametres.getLongueurMaximaleCodes(), bilan, mesures);
+
+            EnteteBloc bloc = new EnteteBloc(
+                    calculerNombreBits(occurencesDesCaracteres, table), table);
+            encoderEnFlux(new EnteteArchive(
+                    occurencesDesCaracteres.getTotal()), bloc);
+        }
+        if (affichage && parametres.estLongueurLimitee()) {
+            afficherBilanCodes(bilan);
+        }
+        if (affichage && parametres.estParBlocs()
+            && parametres.estDecoupageVariable()) {
+            out.printf("%d blocs de tailles variables, dont %d réutilisant "
+                       + "la table du bloc précédent.%n",
+                       bilan.getNombreBlocs(),
+                       bilan.getNombreTablesReutilisees());
+        }
+    }
+
+    /**
+     * Compresse le fichier source en un seul passage, avec le codage
+     * adaptatif, puis affiche les occurrences des octets relevées
+     * pendant ce passage. L'encodage et la mise à jour du modèle
+     * forment une seule phase.
+     *
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    private void compresserAdaptatif() throws IOException {
+        StrategieES strategie = parametres.choisirStrategieES(
+                Files.size(Path.of(cheminFichierSource)));
+        HistogrammeOctets occurences;
+        try (DataInputStream fluxSource = GestionFichier.ouvrirFluxLecture(
+                     cheminFichierSource, strategie);
+             DataOutputStream fluxDestination =
+                     GestionFichier.ouvrirFluxEcriture(
+                             cheminFichierDestination, strategie)) {
+            mesures.demarrer(MesuresPhases.ENCODAGE);
+            occurences = CodecAdaptatif.compresser(
+                    mesures.mesurerLecture(fluxSource),
+                    mesures.mesurerEcriture(fluxDestination));
+            mesures.arreter(occurences.getTotal());
+        }
+        mesures.noterTable(occurences.getNombreSymboles(), 0);
+        afficherOccurencesTriees(occurences);
+    }
 
-        afficherOccurencesTriees(occurencesDesCaracteres);
-        return occurencesDesCaracteres;
+    /**
+     * Compresse le fichier source en un seul passage, avec les codes
+     * du dictionnaire désigné par les paramètres : l'en-tête, qui ne
+     * contient que la taille du fichier et l'identifiant du dictionnaire,
+     * est directement suivi des octets encodés.
+     *
+     * @throws IOException Si une erreur d'entrée/sortie se produit, si
+     *                     le dictionnaire est invalide ou si le fichier
+     *                     source change de taille pendant la compression.
+     */
+    private void compresserAvecDictionnaire() throws IOException {
+        mesures.demarrer(MesuresPhases.TABLES);
+        Dictionnaire dictionnaire = dictionnaireCharge != null
+                                    ? dictionnaireCharge
+                                    : Dictionnaire.lire(Path.of(
+                                            parametres.getCheminDictionnaire()));
+        long[] codesEmpaquetes = dictionnaire.getCodesEmpaquetes();
+        mesures.arreter(0);
+        mesures.noterTable(dictionnaire.getTable().getNombreSymboles(),
+                           dictionnaire.getTable().getLongueurMax());
+
+        long tailleOriginale = Files.size(Path.of(cheminFichierSource));
+        StrategieES strategie = parametres.choisirStrategieES(tailleOriginale);
+        long[] nombreOctets = new long[1];
+        try (DataOutputStream fluxDonnees = new DataOutputStream(
+                mesures.mesurerEcriture(GestionFichier.ouvrirFluxEcriture(
+                        cheminFichierDestination, strategie)))) {
+
+            EnteteArchive.avecDictionnaire(tailleOriginale,
+                                           dictionnaire.getIdentifiant())
+                         .ecrire(fluxDonnees);
+            EcrivainBits ecrivain = new EcrivainBits(fluxDonnees);
+            mesures.demarrer(MesuresPhases.LECTURE);
+            GestionFichier.lireParBlocs(cheminFichierSource,
+                    (bloc, longueur) -> {
+                        mesures.demarrer(MesuresPhases.ENCODAGE);
+                        convertirOctetsEnCodeHuffman(
+                                bloc, longueur, codesEmpaquetes, ecrivain);
+                        mesures.arreter(longueur);
+                        nombreOctets[0] += longueur;
+                    },
+                    strategie);
+            mesures.arreter(nombreOctets[0]);
+            ecrivain.terminer();
+            mesures.ajouterBits(ecrivain.getNombreBits());
+        }
+        if (nombreOctets[0] != tailleOriginale) {
+            throw fichierModifie();
+        }
+        if (affichage) {
+            out.printf("Compressé en un seul passage avec le dictionnaire "
+                       + "%08x.%n", dictionnaire.getIdentifiant());
+        }
+    }
+
+    /**
+     * Construit l'erreur signalant que le fichier source a changé entre
+     * le début et la fin de sa compression : les données déjà écrites ne
+     * correspondent plus à son contenu.
+     *
+     * @return L'erreur à lever.
+     */
+    private IOException fichierModifie() {
+        return new IOException("Le fichier " + cheminFichierSource
+                               + " a changé de taille pendant sa "
+                               + "compression.");
+    }
+
+    /**
+     * Affiche le coût de la limitation de la longueur des codes :
+     * longueur du plus long code et perte de taux de compression
+     * par rapport aux codes de Huffman sans limite.
+     *
+     * @param bilan Le bilan de la compression.
+     */
+    private void afficherBilanCodes(BilanCodes bilan) {
+        out.printf("Codes limités à %d bits (plus long code : %d bits) : "
+                   + "%d bits au lieu de %d, soit +%.4f %%.%n",
+                   parametres.getLongueurMaximaleCodes(),
+                   bilan.getLongueurMaximale(), bilan.getNombreBits(),
+                   bilan.getNombreBitsSansLimite(),
+                   bilan.getPenalite() * 100);
+    }
+
+    /**
+     * Calcule le nombre de bits du fichier compressé à partir des
+     * occurrences de chaque octet et de la longueur de son code.
+     * Ce nombre étant connu avant la seconde passe, il peut être écrit
+     * dans l'en-tête du fichier compressé avant les données encodées.
+     *
+     * @param occurences L'histogramme des occurrences des octets.
+     * @param table La table des codes canoniques des octets.
+     * @return Le nombre total de bits produits par l'encodage.
+     */
+    static long calculerNombreBits(HistogrammeOctets occurences,
+                                   TableCodesCanonique table) {
+        long nombreBits = 0;
+        for (int valeur = 0; valeur < HistogrammeOctets.NOMBRE_VALEURS;
+             valeur++) {
+            nombreBits = Math.addExact(nombreBits, Math.multiplyExact(
+                    occurences.getOccurrences(valeur),
+                    (long) table.getLongueur(valeur)));
+        }
+        return nombreBits;
+    }
+
+    /**
+     * Écrit l'en-tête du fichier compressé, puis relit le fichier source
+     * bloc par bloc et écrit chaque bloc encodé à la suite (seconde passe
+     * de la compression en flux). Les données encodées suivent le format
+     * de {@link EcrivainBits}.
+     *
+     * Si les paramètres demandent un index d'accès, il est écrit
+     * à la suite des données encodées.
+     * <br>
+     * La taille et le nombre de bits écrits dans les en-têtes viennent
+     * de la première passe : si la seconde ne relit pas autant d'octets
+     * ou ne produit pas autant de bits, le fichier a changé entre
+     * les deux et la compression échoue.
+     * <br>
+     * La lecture du fichier source, l'encodage et l'écriture du fichier
+     * compressé sont mesurés chacun dans sa phase.
+     *
+     * @param entete L'en-tête du fichier compressé.
+     * @param enteteBloc L'en-tête de l'unique bloc du fichier compressé.
+     * @throws IOException Si une erreur d'entrée/sortie se produit ou si
+     *                     le fichier source a changé depuis la première
+     *                     passe.
+     */
+    private void encoderEnFlux(EnteteArchive entete, EnteteBloc enteteBloc)
+            throws IOException {
+
+        long[] codesEmpaquetes = enteteBloc.getTable().getCodesEmpaquetes();
+        StrategieES strategie =
+                parametres.choisirStrategieES(entete.getTailleOriginale());
+        PointsAcces points = parametres.aUnIndexAcces()
+                             ? new PointsAcces(parametres.getIntervalleAcces(),
+                                               parametres.estIndexLignes())
+                             : null;
+        if (points != null) {
+            entete = entete.avecIndexAcces();
+        }
+        long[] nombreOctets = new long[1];
+        try (DataOutputStream fluxDonnees = new DataOutputStream(
+                mesures.mesurerEcriture(GestionFichier.ouvrirFluxEcriture(
+                        cheminFichierDestination, strategie)))) {
+
+            entete.ecrire(fluxDonnees);
+            long positionTable = fluxDonnees.size();
+            enteteBloc.ecrire(fluxDonnees);
+            long positionDonnees = fluxDonnees.size();
+            EcrivainBits ecrivain = new EcrivainBits(fluxDonnees);
+            mesures.demarrer(MesuresPhases.LECTURE);
+            GestionFichier.lireParBlocs(cheminFichierSource,
+                    (bloc, longueur) -> {
+                        mesures.demarrer(MesuresPhases.ENCODAGE);
+                        if (points == null) {
+                            convertirOctetsEnCodeHuffman(
+                                    bloc, longueur, codesEmpaquetes, ecrivain);
+                        } else {
+                            points.encoder(bloc, longueur, codesEmpaquetes,
+                                           ecrivain);
+                        }
+                        mesures.arreter(longueur);
+                        nombreOctets[0] += longueur;
+                    },
+                    strategie);
+            mesures.arreter(nombreOctets[0]);
+            ecrivain.terminer();
+            mesures.ajouterBits(ecrivain.getNombreBits());
+            if (nombreOctets[0] != entete.getTailleOriginale()
+                || ecrivain.getNombreBits() != enteteBloc.getNombreBits()) {
+                throw fichierModifie();
+            }
+
+            if (points != null) {
+                points.terminer(ecrivain);
+                IndexAcces index = new IndexAcces(points.getIntervalle(),
+                                                  points.aDesLignes());
+                index.ajouter(points, positionTable, positionDonnees);
+                index.ecrire(fluxDonnees, positionDonnees
+                                          + (ecrivain.getNombreBits() + 7)
+                                            / Byte.SIZE);
+            }
+        }
     }
 
     /**
      * Calcule et renvoie la fréquence de chaque byte dans un tableau d'octets.
-     * Cette méthode utilise une HashMap pour stocker
-     * et compter la fréquence de chaque byte rencontré.
+     * Les occurrences sont comptées dans un {@link HistogrammeOctets},
+     * dont les compteurs primitifs évitent toute allocation par octet lu.
      *
      * @param octets Le tableau d'octets dont les fréquences
      *              doivent être calculées.
-     * @return Une HashMap où chaque clé est un byte et chaque valeur
-     *         est la fréquence de ce byte dans le tableau.
+     * @return L'histogramme des occurrences de chaque byte du tableau.
      */
-    public HashMap<Byte, Integer> getFrequenceDesOctets(byte[] octets) {
-        /*
-         * HashMap est une structure de données qui stocke les éléments
-         * sous forme de paires clé-valeur.
-         * Elle permet des insertions, des suppressions
-         * et des accès en temps constant en moyenne.
-         */
-        HashMap<Byte, Integer> frequenceDesOctets = new HashMap<>();
-        for (byte octet : octets) {
-            frequenceDesOctets.put(octet,
-                    /*
-                     * La méthode `getOrDefault` est utilisée pour
-                     * obtenir la fréquence actuelle d'un byte
-                     * (représenté par la variable 'octet') dans
-                     * la HashMap `frequenceDesOctets`.
-                     * Si 'octet' est déjà une clé dans la map,
-                     * cette méthode retournera sa valeur associée.
-                     * Si 'octet' n'est pas encore une clé dans la
-                     * map, `getOrDefault` retournera la valeur
-                     * par défaut spécifiée, ici `0`.
-                     * Ensuite, on ajoute 1 à cette valeur
-                     * pour comptabiliser une nouvelle
-                     * occurrence de 'octet'.
-                     */
-                    frequenceDesOctets.getOrDefault(octet, 0)
-                            + 1);
-        }
+    public HistogrammeOctets getFrequenceDesOctets(byte[] octets) {
+        HistogrammeOctets frequenceDesOctets = new HistogrammeOctets();
+        frequenceDesOctets.ajouter(octets);
         return frequenceDesOctets;
     }
 
     /**
-     * Compresse les données en construisant un arbre
-     * de Huffman à partir des occurrences des caractères
-     * et génère les codes de Huffman correspondants.
+     * Construit la table des codes de Huffman canoniques à partir des
+     * occurrences des caractères.
+     * L'arbre de Huffman, construit sous forme de tableaux primitifs
+     * (voir {@link ArbreHuffmanPlat}), ne sert qu'à déterminer la longueur
+     * du code de chaque octet ; les codes eux-mêmes sont ensuite attribués
+     * de manière canonique.
      *
-     * @param occurencesDesCaracteres Une map contenant les occurrences
+     * @param occurencesDesCaracteres L'histogramme des occurrences
      *                                des octets.
-     * @return Une map contenant les octets et
-     *         leurs codes de Huffman correspondants.
+     * @return La table des codes canoniques des octets.
      */
-    public Map<Byte, String> genererCodesHuffman(
-            Map<Byte, Integer> occurencesDesCaracteres
+    public static TableCodesCanonique genererTableCanonique(
+            HistogrammeOctets occurencesDesCaracteres
     ) {
 
-        Noeud racine = construireArbreAvecOccurences(occurencesDesCaracteres);
-        Map<Byte, String> codes = new HashMap<>();
-        recursiveCodeHuffman(racine, "", codes);
-        return codes;
+        return genererTableCanonique(occurencesDesCaracteres,
+                                     TableCodesCanonique.LONGUEUR_MAXIMALE,
+                                     new BilanCodes());
     }
 
     /**
-     * Construit l'arbre de Huffman à partir des occurrences des caractères
-     * et retourne la racine de l'arbre.
+     * Construit la table des codes canoniques à partir des occurrences
+     * des caractères, aucun code ne dépassant une longueur donnée.
+     * Les longueurs de Huffman ne sont recalculées que si l'une d'elles
+     * dépasse la limite (voir {@link LimiteurLongueurs}).
      *
-     * @param occurencesDesCaracteres Une map contenant les occurrences
+     * @param occurencesDesCaracteres L'histogramme des occurrences
      *                                des octets.
-     * @return La racine de l'arbre de Huffman.
+     * @param longueurMaximale La longueur maximale des codes, en bits.
+     * @param bilan Le bilan complété avec le coût de la limitation.
+     * @return La table des codes canoniques des octets.
      */
-    public Noeud construireArbreAvecOccurences(
-            Map<Byte, Integer> occurencesDesCaracteres
+    public static TableCodesCanonique genererTableCanonique(
+            HistogrammeOctets occurencesDesCaracteres, int longueurMaximale,
+            BilanCodes bilan
     ) {
 
-        Noeud[] tableau = new Noeud[occurencesDesCaracteres.size()];
-        int index = 0;
-        for (Byte key : occurencesDesCaracteres.keySet()) {
-            Integer value = occurencesDesCaracteres.get(key);
-            tableau[index++] = new Noeud(key, value);
-        }
-        return construireArbre(tableau);
+        return genererTableCanonique(occurencesDesCaracteres,
+                                     longueurMaximale, bilan,
+                                     new MesuresPhases());
     }
 
     /**
-     * Génère les codes de Huffman de manière récursive à partir
-     * d'un nœud donné et les stocke dans une map.
+     * Construit la table des codes canoniques à partir des occurrences
+     * des caractères, aucun code ne dépassant une longueur donnée,
+     * en mesurant la construction de l'arbre et celle des codes.
      *
-     * @param noeud  Le nœud actuel de l'arbre de Huffman.
-     * @param chemin Le chemin de bits (code) jusqu'au nœud actuel.
-     * @param codes  La map qui stocke les caractères et leurs codes
-     *               de Huffman correspondants.
+     * @param occurencesDesCaracteres L'histogramme des occurrences
+     *                                des octets.
+     * @param longueurMaximale La longueur maximale des codes, en bits.
+     * @param bilan Le bilan complété avec le coût de la limitation.
+     * @param mesures Les mesures complétées avec la durée des phases
+     *                {@link MesuresPhases#ARBRE} et
+     *                {@link MesuresPhases#CODES}, ainsi qu'avec la table
+     *                construite.
+     * @return La table des codes canoniques des octets.
      */
-    private void recursiveCodeHuffman(Noeud noeud, String chemin,
-                                      Map<Byte, String> codes) {
+    public static TableCodesCanonique genererTableCanonique(
+            HistogrammeOctets occurencesDesCaracteres, int longueurMaximale,
+            BilanCodes bilan, MesuresPhases mesures
+    ) {
 
-        if (noeud == null) {
-            return;
-        }
-        if (noeud.isFeuille()) {
-            codes.put(noeud.getCaractere(), chemin);
-        } else {
-            if (noeud.getGauche() != null) {
-                recursiveCodeHuffman(noeud.getGauche(),
-                                     chemin + "0", codes);
-            }
-            if (noeud.getDroite() != null) {
-                recursiveCodeHuffman(noeud.getDroite(),
-                                     chemin + "1", codes);
-            }
-        }
+        long[] frequences = occurencesDesCaracteres.versTableau();
+        mesures.demarrer(MesuresPhases.ARBRE);
+        int[] longueursSansLimite =
+                new ArbreHuffmanPlat(frequences).calculerLongueursCodes();
+        mesures.arreter(0);
+        mesures.demarrer(MesuresPhases.CODES);
+        int[] longueurs = LimiteurLongueurs.limiter(
+                frequences, longueursSansLimite, longueurMaximale);
+        bilan.ajouter(frequences, longueursSansLimite, longueurs);
+        TableCodesCanonique table = new TableCodesCanonique(longueurs);
+        mesures.arreter(0);
+        mesures.noterTable(table.getNombreSymboles(), table.getLongueurMax());
+        return table;
     }
 
-
     /**
-     * Écrit les résultats de la compression,
-     * incluant le codage binaire et l'arbre de Huffman,
-     * dans les fichiers de destination.
+     * Compresse les données en construisant un arbre
+     * de Huffman à partir des occurrences des caractères
+     * et génère les codes de Huffman canoniques correspondants.
      *
-     * @param codage La chaîne de bits résultante de la compression.
-     * @param cheminFichierDestination Le chemin du fichier où écrire
-     *                                 le codage binaire compressé.
-     * @param codageHuffman La map des octets et leurs codes
-     *                      de Huffman correspondants.
-     * @throws IOException Si une erreur d'entrée/sortie se produit
-     *                     pendant l'écriture des fichiers.
+     * @param occurencesDesCaracteres L'histogramme des occurrences
+     *                                des octets.
+     * @return Une map contenant les octets et
+     *         leurs codes de Huffman correspondants.
      */
-    private void ecrireResultats(String codage,
-                                 String cheminFichierDestination,
-                                 Map<Byte, String> codageHuffman)
-            throws IOException {
+    public Map<Byte, String> genererCodesHuffman(
+            HistogrammeOctets occurencesDesCaracteres
+    ) {
 
-        GestionFichier.ecrireChaineBinaireDansFichier(codage,
-                                                      cheminFichierDestination);
+        return versMap(genererTableCanonique(occurencesDesCaracteres));
+    }
 
-        int dernierSeparateur = cheminFichierDestination.lastIndexOf("\\");
-        String cheminDossier =
-                cheminFichierDestination.substring(0, dernierSeparateur + 1);
+    /**
+     * Convertit une table de codes canoniques en une map associant
+     * à chaque octet présent son code sous forme de chaîne de bits.
+     *
+     * @param table La table des codes canoniques des octets.
+     * @return Une map contenant les octets et
+     *         leurs codes de Huffman correspondants.
+     */
+    private static Map<Byte, String> versMap(TableCodesCanonique table) {
+        Map<Byte, String> codes = new HashMap<>();
+        for (int valeur = 0; valeur < table.getTailleAlphabet(); valeur++) {
+            if (table.getLongueur(valeur) > 0) {
+                codes.put((byte) valeur, table.getCodeTexte(valeur));
+            }
+        }
+        return codes;
+    }
 
-        String cheminArbreHuffman = cheminDossier + "arbreHuffman.txt";
+    /**
+     * Construit l'arbre de Huffman à partir des occurrences des caractères
+     * et retourne la racine de l'arbre.
+     * Seuls les octets présents au moins une fois deviennent des feuilles.
+     *
+     * @param occurencesDesCaracteres L'histogramme des occurrences
+     *                                des octets.
+     * @return La racine de l'arbre de Huffman.
+     */
+    public Noeud construireArbreAvecOccurences(
+            HistogrammeOctets occurencesDesCaracteres
+    ) {
 
-        ecrireArbreHuffmanTrie(cheminArbreHuffman, codageHuffman);
+        return new ArbreHuffmanPlat(occurencesDesCaracteres.versTableau())
+                .versNoeud();
     }
 
     /**
      * Affiche les occurrences des caractères triées
-     * par ordre décroissant de fréquence.
+     * par ordre décroissant de fréquence, sauf si l'affichage est
+     * désactivé.
      *
-     * @param occurences La map des occurrences à trier.
+     * @param occurences L'histogramme des occurrences à trier.
      */
-    private void afficherOccurencesTriees(Map<Byte, Integer> occurences) {
+    private void afficherOccurencesTriees(HistogrammeOctets occurences) {
+        if (!affichage) {
+            return;
+        }
+        mesures.demarrer(MesuresPhases.AFFICHAGE);
         out.println("Occurrences des caractères :");
 
-        int totalOccurrences = 0;
-        for (int occurence : occurences.values()) {
-            totalOccurrences += occurence;
-        }
+        long totalOccurrences = occurences.getTotal();
 
-        String[][] tableauOccurences = new String[occurences.size()][3];
+        String[][] tableauOccurences =
+                new String[occurences.getNombreSymboles()][3];
 
         int i = 0;
-        for (Byte indice : occurences.keySet()) {
-            int occurrences = occurences.get(indice);
+        for (int valeur = 0; valeur < HistogrammeOctets.NOMBRE_VALEURS;
+             valeur++) {
+            long occurrences = occurences.getOccurrences(valeur);
+            if (occurrences == 0) {
+                continue;
+            }
             double frequence = (double) occurrences / totalOccurrences;
-            char symbole = (char) indice.byteValue();
+            char symbole = (char) (byte) valeur;
             tableauOccurences[i][0] = String.valueOf(symbole);
             tableauOccurences[i][1] = String.valueOf(occurrences);
             tableauOccurences[i][2] = String.format("%.6f", frequence);
@@ -279,87 +687,58 @@ public class CompressionHuffman {
             out.printf("Caractère : %s ; Occurrences : %s ; Fréquence : %s\n",
                     donneeAAfficher[0], donneeAAfficher[1], donneeAAfficher[2]);
         }
+        mesures.arreter(0);
     }
 
     /**
-     * Encode une chaîne d'octets en utilisant
-     * un mappage spécifié de codes Huffman.
-     * La méthode parcourt chaque byte du tableau
-     * et utilise le mappage de Huffman pour convertir chaque byte
-     * en sa représentation de chaîne de bits correspondante.
-     * Ces chaînes de bits sont ensuite concaténées pour former
-     * une seule chaîne binaire.
+     * Encode une suite d'octets en utilisant les codes Huffman empaquetés
+     * d'une table canonique.
+     * Pour chaque octet, le code et sa longueur sont lus d'un seul accès
+     * dans un tableau primitif, puis décalés directement dans
+     * l'accumulateur de l'écrivain de bits : aucune chaîne intermédiaire
+     * n'est construite.
      *
-     * @param chaineOctets Le tableau d'octets à encoder.
-     * @param mappageHuffman Le mappage de chaque byte à sa chaîne
-     *                      de code Huffman correspondante.
-     * @return La chaîne binaire complète résultante de l'encodage de tous
-     *         les octets de la chaîne initiale.
-     */
-    public String convertirOctetsEnCodeHuffman(byte[] chaineOctets,
-                                               Map<Byte, String> mappageHuffman) {
-
-        StringBuilder codeHuffman = new StringBuilder();
-        for (byte octet : chaineOctets) {
-            codeHuffman.append(mappageHuffman.get(octet));
-        }
-        return codeHuffman.toString();
+     * @param chaineOctets Le tableau contenant les octets à encoder.
+     * @param longueur Le nombre d'octets à encoder au début du tableau.
+     * @param codesEmpaquetes Le code empaqueté de chaque octet
+     *                        (voir {@link TableCodesCanonique#getCodesEmpaquetes}).
+     * @param ecrivain L'écrivain recevant les bits produits.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public static void convertirOctetsEnCodeHuffman(byte[] chaineOctets,
+                                                    int longueur,
+                                                    long[] codesEmpaquetes,
+                                                    EcrivainBits ecrivain)
+            throws IOException {
+
+        convertirOctetsEnCodeHuffman(chaineOctets, 0, longueur,
+                                     codesEmpaquetes, ecrivain);
     }
 
     /**
-     * Construit un arbre de Huffman à partir d'une liste de nœuds.
-     * Les nœuds sont initialement triés et les deux nœuds avec
-     * les plus petites valeurs sont fusionnés à chaque itération,
-     * formant un nouvel arbre binaire jusqu'à ce qu'un seul nœud reste,
-     * servant de racine à l'arbre Huffman.
+     * Encode une partie d'une suite d'octets en utilisant les codes
+     * Huffman empaquetés d'une table canonique.
      *
-     * @param listeDeNoeuds Tableau initial de nœuds, où chaque nœud contient
-     *                     un caractère (ou byte) et sa fréquence.
-     * @return La racine de l'arbre de Huffman,
-     *         représentant la hiérarchie complète des fusions.
-     */
-    private Noeud construireArbre(Noeud[] listeDeNoeuds) {
-        /* Création d'une ArrayList à partir d'un tableau de noeuds.
-         * `Arrays.asList(listeDeNoeuds)` convertit le tableau `listeDeNoeuds`
-         * en une liste fixe de taille, ce qui signifie que la liste résultante
-         * aura la même taille que le tableau et contiendra tous ses éléments.
-         * Cette liste fixe est ensuite utilisée pour initialiser
-         * une nouvelle ArrayList modifiable.
-         * Une ArrayList est une implémentation de la liste basée
-         * sur un tableau redimensionnable qui permet
-         * des accès aléatoires rapides et des ajouts de taille dynamique.
-         * Contrairement à la liste fixe retournée par `Arrays.asList`,
-         * la ArrayList peut être modifiée librement,
-         * ajoutant ou supprimant des éléments.
-         */
-        List<Noeud> noeuds = new ArrayList<>(Arrays.asList(listeDeNoeuds));
-
-
-        while (noeuds.size() > 1) {
-            /* Trie la liste `noeuds` en utilisant un comparateur.
-             * Le comparateur est défini par Comparator.comparingInt,
-             * qui crée un comparateur qui compare les entiers retournés
-             * par la méthode `getFrequence` de chaque objet `Noeud`.
-             * Noeud::getFrequence est une référence de méthode qui renvoie
-             * la valeur de fréquence du nœud.
-             * Cette opération de tri place les noeuds avec
-             * les plus petites valeurs (fréquences) en premier,
-             * ce qui est nécessaire pour la construction de l'arbre de Huffman.
-             */
-            noeuds.sort(Comparator.comparingInt(Noeud::getFrequence));
-
-            Noeud premierNoeud = noeuds.remove(0);
-            Noeud deuxiemeNoeud = noeuds.remove(0);
-
-            Noeud parent = new Noeud(premierNoeud.getFrequence()
-                                     + deuxiemeNoeud.getFrequence());
-
-            parent.setGauche(premierNoeud);
-            parent.setDroite(deuxiemeNoeud);
+     * @param chaineOctets Le tableau contenant les octets à encoder.
+     * @param debut L'indice du premier octet à encoder.
+     * @param fin L'indice suivant le dernier octet à encoder.
+     * @param codesEmpaquetes Le code empaqueté de chaque octet
+     *                        (voir {@link TableCodesCanonique#getCodesEmpaquetes}).
+     * @param ecrivain L'écrivain recevant les bits produits.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public static void convertirOctetsEnCodeHuffman(byte[] chaineOctets,
+                                                    int debut, int fin,
+                                                    long[] codesEmpaquetes,
+                                                    EcrivainBits ecrivain)
+            throws IOException {
 
-            noeuds.add(parent);
+        for (int i = debut; i < fin; i++) {
+            long codeEmpaquete = codesEmpaquetes[chaineOctets[i] & 0xFF];
+            ecrivain.ecrire(codeEmpaquete >>> TableCodesCanonique.BITS_LONGUEUR,
+                            (int) (codeEmpaquete
+                                   & TableCodesCanonique.MASQUE_LONGUEUR));
         }
-        return noeuds.get(0);
     }
 
     /**
@@ -431,17 +810,30 @@ public class CompressionHuffman {
      * Méthode pour générer et enregistrer l'arbre de Huffman en
      * utilisant les données du fichier source et en écrivant
      * l'arbre dans le fichier destination.
+     * Chaque phase est mesurée (voir {@link #getMesures}).
      *
      * @throws IOException Si une erreur d'entrée/sortie se produit.
      */
     public void genererEtEnregistrerArbreHuffman() throws IOException {
-        byte[] octets = GestionFichier.recupererOctets(cheminFichierSource);
-        Map<Byte, Integer> occurencesDesCaracteres =
-                getFrequenceDesOctets(octets);
-
-        Map<Byte, String> codageHuffman =
-                genererCodesHuffman(occurencesDesCaracteres);
-
-        ecrireArbreHuffmanTrie(cheminFichierDestination, codageHuffman);
+        mesures = new MesuresPhases("arbre", cheminFichierSource,
+                                    cheminFichierDestination);
+        mesures.debuter();
+        try {
+            mesures.demarrer(MesuresPhases.HISTOGRAMME);
+            HistogrammeOctets occurencesDesCaracteres =
+                    CompteurOccurrencesParallele.compter(cheminFichierSource);
+            mesures.arreter(occurencesDesCaracteres.getTotal());
+
+            Map<Byte, String> codageHuffman = versMap(genererTableCanonique(
+                    occurencesDesCaracteres,
+                    TableCodesCanonique.LONGUEUR_MAXIMALE, new BilanCodes(),
+                    mesures));
+
+            mesures.demarrer(MesuresPhases.ECRITURE);
+            ecrireArbreHuffmanTrie(cheminFichierDestination, codageHuffman);
+            mesures.arreter(0);
+        } finally {
+            mesures.terminer();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,525 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * CompressionParBlocs.java                  18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.objets.HistogrammeOctets;
+import fr.iutrodez.compresseurhuffman.objets.ParametresCompression;
+import fr.iutrodez.compresseurhuffman.outils.EcrivainBits;
+import fr.iutrodez.compresseurhuffman.outils.GestionFichier;
+import fr.iutrodez.compresseurhuffman.outils.MesuresPhases;
+import fr.iutrodez.compresseurhuffman.outils.StrategieES;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compresse un fichier par blocs indépendants, sur plusieurs threads.
+ * <br>
+ * Le fichier d'origine est découpé en blocs de taille fixe. Chaque bloc
+ * est lu, compté, doté de sa propre table de codes et encodé par un thread
+ * du groupe de travail, sans dépendre des autres blocs. Les blocs encodés
+ * sont écrits dans l'ordre du fichier d'origine, à la suite de l'en-tête
+ * (voir {@link EnteteArchive}), puis suivis de leur index
+ * (voir {@link IndexBlocs}), qui permet de les décompresser en parallèle.
+ * <br>
+ * Si les paramètres demandent un découpage variable, les blocs sont
+ * au contraire coupés là où la répartition des octets change
+ * (voir {@link DecoupeurBlocs}), et chacun réutilise la table du bloc
+ * précédent lorsque c'est moins coûteux que d'écrire la sienne
+ * (voir {@link ModeleCoutBlocs}). Le découpage, le comptage et le choix
+ * des tables se font alors en lisant le fichier dans l'ordre ; seul
+ * l'encodage des blocs est réparti entre les threads, et la boucle
+ * d'encodage reste la même.
+ * <br>
+ * Si les paramètres demandent un index d'accès, chaque tâche relève
+ * les points d'accès de son bloc (voir {@link PointsAcces}), qui sont
+ * placés dans l'index d'accès (voir {@link IndexAcces}) au moment où
+ * le bloc est écrit ; l'index d'accès est écrit après l'index des blocs.
+ * <br>
+ * Le nombre de blocs en cours de traitement est limité à deux par thread :
+ * la mémoire utilisée dépend de la taille des blocs et du nombre de
+ * threads, mais pas de la taille du fichier.
+ * <br>
+ * Chaque thread mesure les phases qu'il exécute (voir
+ * {@link MesuresPhases}) : leurs durées s'additionnent d'un thread
+ * à l'autre. Avec un découpage variable, la lecture du fichier est
+ * comptée dans la phase de comptage des occurrences, qui la fait
+ * au fil du découpage.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class CompressionParBlocs {
+
+    /**
+     * Nombre maximal de blocs en cours de traitement par thread, chacun
+     * occupant un tampon d'origine et un tampon encodé.
+     */
+    public static final int BLOCS_EN_COURS_PAR_THREAD = 2;
+
+    /**
+     * Compresse un fichier par blocs.
+     *
+     * @param cheminFichierSource Le chemin du fichier à compresser.
+     * @param cheminFichierDestination Le chemin du fichier compressé.
+     * @param parametres Les paramètres de compression, qui fixent la
+     *                   taille des blocs, leur découpage, le nombre de
+     *                   threads, la longueur maximale des codes et
+     *                   l'index d'accès.
+     * @param bilan Le bilan complété avec le coût de la limitation
+     *              de la longueur des codes de chaque bloc et le nombre
+     *              de tables réutilisées.
+     * @return L'histogramme des occurrences des octets du fichier entier.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public static HistogrammeOctets compresser(String cheminFichierSource,
+                                               String cheminFichierDestination,
+                                               ParametresCompression parametres,
+                                               BilanCodes bilan)
+            throws IOException {
+
+        return compresser(cheminFichierSource, cheminFichierDestination,
+                          parametres, bilan, new MesuresPhases());
+    }
+
+    /**
+     * Compresse un fichier par blocs, en mesurant chaque phase.
+     *
+     * @param cheminFichierSource Le chemin du fichier à compresser.
+     * @param cheminFichierDestination Le chemin du fichier compressé.
+     * @param parametres Les paramètres de compression.
+     * @param bilan Le bilan complété avec le coût de la limitation
+     *              de la longueur des codes de chaque bloc et le nombre
+     *              de tables réutilisées.
+     * @param mesures Les mesures complétées avec la durée des phases
+     *                de tous les threads.
+     * @return L'histogramme des occurrences des octets du fichier entier.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public static HistogrammeOctets compresser(String cheminFichierSource,
+                                               String cheminFichierDestination,
+                                               ParametresCompression parametres,
+                                               BilanCodes bilan,
+                                               MesuresPhases mesures)
+            throws IOException {
+
+        int tailleBloc = parametres.getTailleBloc();
+        int nombreThreads = parametres.getNombreThreads();
+        HistogrammeOctets occurences = new HistogrammeOctets();
+        StrategieES strategie = parametres.choisirStrategieES(
+                Files.size(Path.of(cheminFichierSource)));
+
+        try (FileChannel canal = FileChannel.open(Path.of(cheminFichierSource),
+                                                  StandardOpenOption.READ);
+             DataOutputStream sortie = new DataOutputStream(
+                     mesures.mesurerEcriture(GestionFichier.ouvrirFluxEcriture(
+                             cheminFichierDestination, strategie)));
+             ExecutorService groupe =
+                     Executors.newFixedThreadPool(nombreThreads)) {
+
+            EnteteArchive entete = new EnteteArchive(
+                    canal.size(), tailleBloc,
+                    parametres.estDecoupageVariable());
+            IndexAcces acces = null;
+            if (parametres.aUnIndexAcces()) {
+                entete = entete.avecIndexAcces();
+                acces = new IndexAcces(parametres.getIntervalleAcces(),
+                                       parametres.estIndexLignes());
+            }
+            entete.ecrire(sortie);
+            long position = sortie.size();
+            long positionTable = position;
+            IndexBlocs index = new IndexBlocs();
+            ProducteurBlocs producteur = entete.estDecoupageVariable()
+                    ? new BlocsVariables(canal, tailleBloc, parametres,
+                                         mesures)
+                    : new BlocsFixes(canal, entete, parametres, mesures);
+
+            /*
+             * Les blocs sont soumis dans l'ordre et leurs résultats attendus
+             * dans le même ordre : la file contient les blocs soumis mais
+             * pas encore écrits.
+             */
+            Deque<Future<BlocCompresse>> enCours = new ArrayDeque<>();
+            try {
+                Callable<BlocCompresse> prochainBloc = producteur.suivant();
+                while (prochainBloc != null || !enCours.isEmpty()) {
+                    while (prochainBloc != null
+                           && enCours.size()
+                              < BLOCS_EN_COURS_PAR_THREAD * nombreThreads) {
+                        enCours.add(groupe.submit(prochainBloc));
+                        prochainBloc = producteur.suivant();
+                    }
+                    BlocCompresse bloc = attendre(enCours.poll());
+                    index.ajouter(position, bloc.tailleOriginale);
+                    if (!bloc.tableReutilisee) {
+                        positionTable = position;
+                    }
+                    if (acces != null) {
+                        acces.ajouter(bloc.points, positionTable,
+                                      position + bloc.tailleEntete);
+                    }
+                    bloc.donnees.writeTo(sortie);
+                    position += bloc.donnees.size();
+                    occurences.fusionner(bloc.occurences);
+                    bilan.fusionner(bloc.bilan);
+                }
+            } finally {
+                groupe.shutdownNow();
+            }
+            index.ecrire(sortie, position);
+            if (acces != null) {
+                acces.ecrire(sortie, position + index.getTailleEcrite());
+            }
+        }
+        return occurences;
+    }
+
+    /**
+     * Attend la fin de la compression d'un bloc.
+     *
+     * @param resultat Le résultat attendu.
+     * @return Le bloc compressé.
+     * @throws IOException Si la compression du bloc a échoué
+     *                     ou a été interrompue.
+     */
+    private static BlocCompresse attendre(Future<BlocCompresse> resultat)
+            throws IOException {
+        try {
+            return resultat.get();
+        } catch (InterruptedException erreur) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Compression interrompue.");
+        } catch (ExecutionException erreur) {
+            if (erreur.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException("Erreur lors de la compression d'un bloc : "
+                                  + erreur.getCause(), erreur.getCause());
+        }
+    }
+
+    /**
+     * Lit et compresse un bloc de taille fixe du fichier d'origine.
+     *
+     * @param canal Le canal ouvert en lecture sur le fichier d'origine.
+     * @param position La position du bloc dans le fichier.
+     * @param longueur La taille d'origine du bloc, en octets.
+     * @param parametres Les paramètres de compression, qui fixent
+     *                   la longueur maximale des codes et l'index d'accès.
+     * @param mesures Les mesures complétées avec la durée des phases.
+     * @return Le bloc compressé, en-tête compris.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    private static BlocCompresse compresserBloc(FileChannel canal,
+                                                long position, int longueur,
+                                                ParametresCompression parametres,
+                                                MesuresPhases mesures)
+            throws IOException {
+
+        byte[] octets = new byte[longueur];
+        mesures.demarrer(MesuresPhases.LECTURE);
+        lireBloc(canal, position, octets);
+        mesures.arreter(longueur);
+
+        mesures.demarrer(MesuresPhases.HISTOGRAMME);
+        HistogrammeOctets occurences = new HistogrammeOctets();
+        occurences.ajouter(octets);
+        mesures.arreter(longueur);
+        BilanCodes bilan = new BilanCodes();
+        bilan.compterBloc(false);
+        TableCodesCanonique table = CompressionHuffman.genererTableCanonique(
+                occurences, parametres.getLongueurMaximaleCodes(), bilan,
+                mesures);
+
+        return encoderBloc(octets, longueur, occurences, bilan,
+                           new EnteteBloc(CompressionHuffman.calculerNombreBits(
+                                   occurences, table), table),
+                           parametres, mesures);
+    }
+
+    /**
+     * Encode un bloc dont la table des codes est déjà choisie.
+     *
+     * @param octets Les octets du bloc.
+     * @param longueur La taille d'origine du bloc, en octets.
+     * @param occurences Les occurrences des octets du bloc.
+     * @param bilan Le bilan de la table de codes du bloc.
+     * @param entete L'en-tête du bloc, qui porte sa table.
+     * @param parametres Les paramètres de compression, qui fixent
+     *                   l'index d'accès.
+     * @param mesures Les mesures complétées avec la durée de l'encodage.
+     * @return Le bloc compressé, en-tête compris.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    private static BlocCompresse encoderBloc(byte[] octets, int longueur,
+                                             HistogrammeOctets occurences,
+                                             BilanCodes bilan,
+                                             EnteteBloc entete,
+                                             ParametresCompression parametres,
+                                             MesuresPhases mesures)
+            throws IOException {
+
+        mesures.demarrer(MesuresPhases.ENCODAGE);
+        ByteArrayOutputStream donnees = new ByteArrayOutputStream(longueur / 2);
+        entete.ecrire(new DataOutputStream(donnees));
+        int tailleEntete = donnees.size();
+        long[] codesEmpaquetes = entete.getTable().getCodesEmpaquetes();
+        EcrivainBits ecrivain = new EcrivainBits(donnees);
+        PointsAcces points = null;
+        if (parametres.aUnIndexAcces()) {
+            points = new PointsAcces(parametres.getIntervalleAcces(),
+                                     parametres.estIndexLignes());
+            points.encoder(octets, longueur, codesEmpaquetes, ecrivain);
+        } else {
+            CompressionHuffman.convertirOctetsEnCodeHuffman(
+                    octets, longueur, codesEmpaquetes, ecrivain);
+        }
+        ecrivain.terminer();
+        if (points != null) {
+            points.terminer(ecrivain);
+        }
+        mesures.arreter(longueur);
+        mesures.ajouterBits(ecrivain.getNombreBits());
+
+        return new BlocCompresse(longueur, donnees, occurences, bilan,
+                                 entete.estTableReutilisee(), tailleEntete,
+                                 points);
+    }
+
+    /**
+     * Lit un bloc du fichier d'origine à une position donnée.
+     * La lecture positionnée ne modifie pas la position du canal :
+     * plusieurs threads peuvent lire le même canal en même temps.
+     *
+     * @param canal Le canal ouvert en lecture sur le fichier d'origine.
+     * @param position La position du bloc dans le fichier.
+     * @param octets Le tableau à remplir entièrement.
+     * @throws IOException Si une erreur d'entrée/sortie se produit ou si
+     *                     le fichier a raccourci pendant la compression.
+     */
+    private static void lireBloc(FileChannel canal, long position,
+                                 byte[] octets) throws IOException {
+        ByteBuffer tampon = ByteBuffer.wrap(octets);
+        while (tampon.hasRemaining()) {
+            int lus = canal.read(tampon, position + tampon.position());
+            if (lus < 0) {
+                throw new EOFException("Le fichier a été modifié pendant "
+                                       + "la compression.");
+            }
+        }
+    }
+
+    /**
+     * Fournit, dans l'ordre du fichier, les tâches compressant
+     * chaque bloc.
+     */
+    private interface ProducteurBlocs {
+
+        /**
+         * Prépare la compression du bloc suivant.
+         *
+         * @return La tâche compressant le bloc, ou null s'il ne reste
+         *         plus de bloc.
+         * @throws IOException Si une erreur d'entrée/sortie se produit.
+         */
+        Callable<BlocCompresse> suivant() throws IOException;
+    }
+
+    /**
+     * Découpage en blocs de taille fixe : chaque tâche lit, compte
+     * et encode son bloc, indépendamment des autres.
+     */
+    private static class BlocsFixes implements ProducteurBlocs {
+
+        /** Canal ouvert en lecture sur le fichier d'origine. */
+        private final FileChannel canal;
+
+        /** En-tête du fichier compressé, qui fixe les blocs. */
+        private final EnteteArchive entete;
+
+        /** Paramètres de compression. */
+        private final ParametresCompression parametres;
+
+        /** Mesures des phases. */
+        private final MesuresPhases mesures;
+
+        /** Numéro du prochain bloc. */
+        private long prochainBloc;
+
+        /**
+         * Construit le découpage d'un fichier en blocs de taille fixe.
+         *
+         * @param canal Le canal ouvert en lecture sur le fichier d'origine.
+         * @param entete L'en-tête du fichier compressé.
+         * @param parametres Les paramètres de compression.
+         * @param mesures Les mesures des phases.
+         */
+        BlocsFixes(FileChannel canal, EnteteArchive entete,
+                   ParametresCompression parametres, MesuresPhases mesures) {
+            this.canal = canal;
+            this.entete = entete;
+            this.parametres = parametres;
+            this.mesures = mesures;
+        }
+
+        @Override
+        public Callable<BlocCompresse> suivant() {
+            if (prochainBloc >= entete.getNombreBlocs()) {
+                return null;
+            }
+            long debut = prochainBloc * entete.getTailleBloc();
+            int longueur = (int) entete.getTailleOriginaleBloc(prochainBloc);
+            prochainBloc++;
+            return () -> compresserBloc(canal, debut, longueur, parametres,
+                                        mesures);
+        }
+    }
+
+    /**
+     * Découpage en blocs de tailles variables : les blocs sont lus,
+     * comptés et dotés de leur table dans l'ordre du fichier, chaque
+     * table pouvant être celle du bloc précédent ; seules les tâches
+     * d'encodage sont réparties entre les threads.
+     */
+    private static class BlocsVariables implements ProducteurBlocs {
+
+        /** Découpeur lisant le fichier d'origine. */
+        private final DecoupeurBlocs decoupeur;
+
+        /** Paramètres de compression. */
+        private final ParametresCompression parametres;
+
+        /** Mesures des phases. */
+        private final MesuresPhases mesures;
+
+        /** Table du bloc précédent, null avant le premier bloc. */
+        private TableCodesCanonique tablePrecedente;
+
+        /**
+         * Construit le découpage d'un fichier en blocs de tailles
+         * variables.
+         *
+         * @param canal Le canal ouvert en lecture sur le fichier d'origine,
+         *              positionné au début.
+         * @param tailleMaximale La taille maximale d'un bloc, en octets.
+         * @param parametres Les paramètres de compression.
+         * @param mesures Les mesures des phases.
+         */
+        BlocsVariables(FileChannel canal, int tailleMaximale,
+                       ParametresCompression parametres,
+                       MesuresPhases mesures) {
+            this.decoupeur = new DecoupeurBlocs(canal, tailleMaximale);
+            this.parametres = parametres;
+            this.mesures = mesures;
+        }
+
+        @Override
+        public Callable<BlocCompresse> suivant() throws IOException {
+            mesures.demarrer(MesuresPhases.HISTOGRAMME);
+            boolean blocLu = decoupeur.avancer();
+            mesures.arreter(decoupeur.getLongueur());
+            if (!blocLu) {
+                return null;
+            }
+            byte[] octets = decoupeur.getOctets();
+            int longueur = decoupeur.getLongueur();
+            HistogrammeOctets occurences = decoupeur.getOccurrences();
+
+            BilanCodes bilanTable = new BilanCodes();
+            TableCodesCanonique table = CompressionHuffman.genererTableCanonique(
+                    occurences, parametres.getLongueurMaximaleCodes(),
+                    bilanTable, mesures);
+            mesures.demarrer(MesuresPhases.CODES);
+            boolean reutilisee = ModeleCoutBlocs.reutiliserTable(
+                    occurences.versTableau(), tablePrecedente, table);
+            mesures.arreter(0);
+            if (reutilisee) {
+                table = tablePrecedente;
+                bilanTable = new BilanCodes();
+            }
+            bilanTable.compterBloc(reutilisee);
+            tablePrecedente = table;
+
+            BilanCodes bilan = bilanTable;
+            EnteteBloc entete = new EnteteBloc(
+                    CompressionHuffman.calculerNombreBits(occurences, table),
+                    table, longueur, reutilisee);
+            return () -> encoderBloc(octets, longueur, occurences, bilan,
+                                     entete, parametres, mesures);
+        }
+    }
+
+    /**
+     * Résultat de la compression d'un bloc : sa taille d'origine, son
+     * en-tête suivi de ses données compressées, les occurrences
+     * de ses octets, le bilan de sa table de codes et ses points d'accès.
+     */
+    private static class BlocCompresse {
+
+        /** Taille d'origine du bloc, en octets. */
+        private final int tailleOriginale;
+
+        /** En-tête et données compressées du bloc. */
+        private final ByteArrayOutputStream donnees;
+
+        /** Occurrences des octets du bloc. */
+        private final HistogrammeOctets occurences;
+
+        /** Bilan de la table de codes du bloc. */
+        private final BilanCodes bilan;
+
+        /** Indique si le bloc réutilise la table du bloc précédent. */
+        private final boolean tableReutilisee;
+
+        /** Taille de l'en-tête du bloc, en octets. */
+        private final int tailleEntete;
+
+        /** Points d'accès du bloc, null sans index d'accès. */
+        private final PointsAcces points;
+
+        /**
+         * Construit le résultat de la compression d'un bloc.
+         *
+         * @param tailleOriginale La taille d'origine du bloc.
+         * @param donnees L'en-tête et les données compressées du bloc.
+         * @param occurences Les occurrences des octets du bloc.
+         * @param bilan Le bilan de la table de codes du bloc.
+         * @param tableReutilisee true si le bloc réutilise la table
+         *                        du bloc précédent.
+         * @param tailleEntete La taille de l'en-tête du bloc.
+         * @param points Les points d'accès du bloc, ou null.
+         */
+        BlocCompresse(int tailleOriginale, ByteArrayOutputStream donnees,
+                      HistogrammeOctets occurences, BilanCodes bilan,
+                      boolean tableReutilisee, int tailleEntete,
+                      PointsAcces points) {
+            this.tailleOriginale = tailleOriginale;
+            this.donnees = donnees;
+            this.occurences = occurences;
+            this.bilan = bilan;
+            this.tableReutilisee = tableReutilisee;
+            this.tailleEntete = tailleEntete;
+            this.points = points;
+        }
+    }
+}
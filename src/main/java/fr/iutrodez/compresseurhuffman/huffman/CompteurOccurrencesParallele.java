@@ -0,0 +1,182 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * CompteurOccurrencesParallele.java         18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.objets.HistogrammeOctets;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Compte les occurrences des octets d'un fichier en parallèle.
+ * Le fichier est découpé en segments projetés en mémoire
+ * ({@link FileChannel#map}), chacun étant compté par une tâche
+ * du {@link ForkJoinPool} commun dans son propre {@link HistogrammeOctets}.
+ * Les histogrammes des tâches sont ensuite additionnés : le résultat est
+ * identique à celui d'un comptage séquentiel du même fichier.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class CompteurOccurrencesParallele {
+
+    /**
+     * Taille maximale, en octets, d'un segment compté par une seule tâche
+     * (8 Mo). En dessous de cette taille, le fichier est compté sans
+     * découpage, dans le thread appelant.
+     */
+    public static final long TAILLE_SEGMENT = 8L * 1024 * 1024;
+
+    /**
+     * Compte les occurrences des octets d'un fichier en découpant celui-ci
+     * en segments de {@link #TAILLE_SEGMENT} octets.
+     *
+     * @param cheminFichier Le chemin du fichier à analyser.
+     * @return L'histogramme des occurrences des octets du fichier.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public static HistogrammeOctets compter(String cheminFichier)
+            throws IOException {
+        return compter(cheminFichier, TAILLE_SEGMENT);
+    }
+
+    /**
+     * Compte les occurrences des octets d'un fichier en le découpant
+     * en segments de taille donnée.
+     *
+     * @param cheminFichier Le chemin du fichier à analyser.
+     * @param tailleSegment La taille maximale d'un segment, en octets.
+     * @return L'histogramme des occurrences des octets du fichier.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    static HistogrammeOctets compter(String cheminFichier, long tailleSegment)
+            throws IOException {
+
+        try (FileChannel canal = FileChannel.open(Path.of(cheminFichier),
+                                                  StandardOpenOption.READ)) {
+
+            TacheComptage tache = new TacheComptage(canal, 0, canal.size(),
+                                                    tailleSegment);
+            if (canal.size() <= tailleSegment) {
+                return tache.compute();
+            }
+            /*
+             * Dans un groupe de threads (traitement d'un lot), le comptage
+             * reste dans ce groupe plutôt que de s'ajouter au groupe commun
+             */
+            return ForkJoinTask.inForkJoinPool()
+                   ? tache.invoke()
+                   : ForkJoinPool.commonPool().invoke(tache);
+        } catch (UncheckedIOException erreur) {
+            throw erreur.getCause();
+        }
+    }
+
+    /**
+     * Tâche comptant les occurrences des octets d'une portion du fichier.
+     * Une portion plus grande qu'un segment est coupée en deux à une
+     * frontière de segment, et chaque moitié est confiée à une sous-tâche.
+     */
+    private static class TacheComptage
+            extends RecursiveTask<HistogrammeOctets> {
+
+        /** Version de la forme sérialisée de la tâche. */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Canal ouvert en lecture sur le fichier analysé, qui ne peut pas
+         * être sérialisé.
+         */
+        private final transient FileChannel canal;
+
+        /** Position du premier octet de la portion (inclus). */
+        private final long debut;
+
+        /** Position de fin de la portion (exclue). */
+        private final long fin;
+
+        /** Taille maximale d'un segment compté sans découpage. */
+        private final long tailleSegment;
+
+        /**
+         * Construit une tâche de comptage d'une portion de fichier.
+         *
+         * @param canal Le canal ouvert sur le fichier.
+         * @param debut La position du début de la portion.
+         * @param fin La position de fin de la portion (exclue).
+         * @param tailleSegment La taille maximale d'un segment.
+         */
+        TacheComptage(FileChannel canal, long debut, long fin,
+                      long tailleSegment) {
+            this.canal = canal;
+            this.debut = debut;
+            this.fin = fin;
+            this.tailleSegment = tailleSegment;
+        }
+
+        /**
+         * Compte la portion, directement ou en la partageant entre
+         * deux sous-tâches.
+         *
+         * @return L'histogramme des occurrences de la portion.
+         */
+        @Override
+        protected HistogrammeOctets compute() {
+            long longueur = fin - debut;
+            if (longueur <= tailleSegment) {
+                return compterSegment(longueur);
+            }
+
+            long nombreSegments = (longueur + tailleSegment - 1) / tailleSegment;
+            long milieu = debut + nombreSegments / 2 * tailleSegment;
+
+            TacheComptage gauche = new TacheComptage(canal, debut, milieu,
+                                                     tailleSegment);
+            TacheComptage droite = new TacheComptage(canal, milieu, fin,
+                                                     tailleSegment);
+            /*
+             * `fork` confie la moitié gauche à un autre thread du pool,
+             * pendant que le thread courant compte la moitié droite.
+             * `join` attend ensuite le résultat de la moitié gauche.
+             */
+            gauche.fork();
+            HistogrammeOctets histogramme = droite.compute();
+            histogramme.fusionner(gauche.join());
+            return histogramme;
+        }
+
+        /**
+         * Projette le segment en mémoire et compte ses octets.
+         *
+         * @param longueur La longueur du segment, en octets.
+         * @return L'histogramme des occurrences du segment.
+         */
+        private HistogrammeOctets compterSegment(long longueur) {
+            HistogrammeOctets histogramme = new HistogrammeOctets();
+            if (longueur == 0) {
+                return histogramme;
+            }
+            try {
+                MappedByteBuffer segment =
+                        canal.map(FileChannel.MapMode.READ_ONLY, debut,
+                                  longueur);
+                histogramme.ajouter(segment);
+            } catch (IOException erreur) {
+                throw new UncheckedIOException(erreur);
+            }
+            return histogramme;
+        }
+    }
+}
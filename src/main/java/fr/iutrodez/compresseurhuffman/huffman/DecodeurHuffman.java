@@ -0,0 +1,294 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * DecodeurHuffman.java                      18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+/**
+ * Décodeur de codes de Huffman canoniques par tables de correspondance.
+ * <br>
+ * Plutôt que de descendre dans l'arbre un bit après l'autre, le décodeur
+ * observe les {@link #BITS_TABLE_PRINCIPALE} prochains bits du flux et
+ * obtient en un seul accès à la table principale le symbole décodé et la
+ * longueur de son code. Les codes plus longs renvoient vers une table
+ * secondaire indexée par les bits suivants. Les très rares codes trop longs
+ * pour une table secondaire raisonnable sont décodés par comparaison avec
+ * les premiers codes canoniques de chaque longueur.
+ * <br>
+ * Une fois construit, le décodeur n'est plus modifié : il peut être partagé
+ * entre plusieurs threads.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class DecodeurHuffman {
+
+    /**
+     * Nombre de bits indexant la table principale.
+     */
+    public static final int BITS_TABLE_PRINCIPALE = 11;
+
+    /**
+     * Nombre maximal de bits indexant une table secondaire.
+     */
+    private static final int BITS_TABLE_SECONDAIRE_MAX = 12;
+
+    /**
+     * Nombre de bits de poids faible d'une entrée contenant la longueur
+     * du code ; les bits suivants contiennent le symbole.
+     */
+    private static final int BITS_LONGUEUR_ENTREE = 8;
+
+    /**
+     * Masque extrayant la longueur du code d'une entrée.
+     */
+    private static final int MASQUE_LONGUEUR_ENTREE =
+            (1 << BITS_LONGUEUR_ENTREE) - 1;
+
+    /**
+     * Nombre de bits de poids faible d'un renvoi vers une table secondaire
+     * contenant la taille de cette table.
+     */
+    private static final int BITS_TAILLE_RENVOI = 5;
+
+    /**
+     * Table principale. Une entrée positive contient le symbole et la
+     * longueur de son code ; une entrée négative renvoie vers une table
+     * secondaire ; une entrée nulle impose le décodage par comparaison.
+     */
+    private final int[] tablePrincipale = new int[1 << BITS_TABLE_PRINCIPALE];
+
+    /**
+     * Tables secondaires mises bout à bout.
+     */
+    private final int[] tablesSecondaires;
+
+    /**
+     * Premier code canonique de chaque longueur.
+     */
+    private final long[] premierCode;
+
+    /**
+     * Nombre de codes de chaque longueur.
+     */
+    private final int[] nombreParLongueur;
+
+    /**
+     * Indice, dans {@link #symbolesTries}, du premier symbole de chaque
+     * longueur.
+     */
+    private final int[] debutParLongueur;
+
+    /**
+     * Symboles triés par ordre canonique (longueur puis valeur).
+     */
+    private final int[] symbolesTries;
+
+    /**
+     * Longueur du plus long code.
+     */
+    private final int longueurMax;
+
+    /**
+     * Construit les tables de décodage d'une table de codes canoniques.
+     *
+     * @param table La table des codes canoniques à décoder.
+     */
+    public DecodeurHuffman(TableCodesCanonique table) {
+        longueurMax = table.getLongueurMax();
+        premierCode = new long[longueurMax + 1];
+        nombreParLongueur = new int[longueurMax + 1];
+        debutParLongueur = new int[longueurMax + 1];
+        symbolesTries = new int[table.getNombreSymboles()];
+        preparerDecodageParComparaison(table);
+
+        int[] bitsSecondaires = calculerTaillesSecondaires(table);
+        int[] debutSecondaire = new int[tablePrincipale.length];
+        int tailleSecondaires = 0;
+        for (int prefixe = 0; prefixe < tablePrincipale.length; prefixe++) {
+            int bits = bitsSecondaires[prefixe];
+            if (bits > 0 && bits <= BITS_TABLE_SECONDAIRE_MAX) {
+                debutSecondaire[prefixe] = tailleSecondaires;
+                tablePrincipale[prefixe] = Integer.MIN_VALUE
+                                           | tailleSecondaires
+                                             << BITS_TAILLE_RENVOI
+                                           | bits;
+                tailleSecondaires += 1 << bits;
+            }
+        }
+        tablesSecondaires = new int[tailleSecondaires];
+        remplirTables(table, bitsSecondaires, debutSecondaire);
+    }
+
+    /**
+     * Range les symboles par ordre canonique et relève, pour chaque
+     * longueur, le premier code et le nombre de codes de cette longueur.
+     *
+     * @param table La table des codes canoniques.
+     */
+    private void preparerDecodageParComparaison(TableCodesCanonique table) {
+        for (int symbole = 0; symbole < table.getTailleAlphabet(); symbole++) {
+            nombreParLongueur[table.getLongueur(symbole)]++;
+        }
+        nombreParLongueur[0] = 0;
+        int debut = 0;
+        for (int longueur = 1; longueur <= longueurMax; longueur++) {
+            debutParLongueur[longueur] = debut;
+            debut += nombreParLongueur[longueur];
+        }
+        int[] rempli = new int[longueurMax + 1];
+        for (int symbole = 0; symbole < table.getTailleAlphabet(); symbole++) {
+            int longueur = table.getLongueur(symbole);
+            if (longueur > 0) {
+                if (rempli[longueur] == 0) {
+                    premierCode[longueur] = table.getCode(symbole);
+                }
+                symbolesTries[debutParLongueur[longueur] + rempli[longueur]++] =
+                        symbole;
+            }
+        }
+    }
+
+    /**
+     * Calcule, pour chaque préfixe de {@link #BITS_TABLE_PRINCIPALE} bits
+     * partagé par des codes plus longs, le nombre de bits supplémentaires
+     * nécessaires pour distinguer ces codes.
+     *
+     * @param table La table des codes canoniques.
+     * @return Le nombre de bits de la table secondaire de chaque préfixe,
+     *         0 si aucun code long ne commence par ce préfixe.
+     */
+    private int[] calculerTaillesSecondaires(TableCodesCanonique table) {
+        int[] bitsSecondaires = new int[tablePrincipale.length];
+        for (int symbole = 0; symbole < table.getTailleAlphabet(); symbole++) {
+            int longueur = table.getLongueur(symbole);
+            if (longueur > BITS_TABLE_PRINCIPALE) {
+                int supplement = longueur - BITS_TABLE_PRINCIPALE;
+                int prefixe = (int) (table.getCode(symbole) >>> supplement);
+                bitsSecondaires[prefixe] =
+                        Math.max(bitsSecondaires[prefixe], supplement);
+            }
+        }
+        return bitsSecondaires;
+    }
+
+    /**
+     * Remplit la table principale et les tables secondaires.
+     * Un code de longueur l, plus court que l'index de sa table, occupe
+     * toutes les entrées dont les l premiers bits sont égaux au code.
+     *
+     * @param table La table des codes canoniques.
+     * @param bitsSecondaires La taille de la table secondaire
+     *                        de chaque préfixe.
+     * @param debutSecondaire La position de la table secondaire
+     *                        de chaque préfixe.
+     */
+    private void remplirTables(TableCodesCanonique table,
+                               int[] bitsSecondaires, int[] debutSecondaire) {
+        for (int symbole = 0; symbole < table.getTailleAlphabet(); symbole++) {
+            int longueur = table.getLongueur(symbole);
+            if (longueur == 0) {
+                continue;
+            }
+            long code = table.getCode(symbole);
+            int entree = symbole << BITS_LONGUEUR_ENTREE | longueur;
+
+            if (longueur <= BITS_TABLE_PRINCIPALE) {
+                int libres = BITS_TABLE_PRINCIPALE - longueur;
+                int debut = (int) code << libres;
+                for (int i = 0; i < 1 << libres; i++) {
+                    tablePrincipale[debut + i] = entree;
+                }
+            } else {
+                int supplement = longueur - BITS_TABLE_PRINCIPALE;
+                int prefixe = (int) (code >>> supplement);
+                int bits = bitsSecondaires[prefixe];
+                if (bits > BITS_TABLE_SECONDAIRE_MAX) {
+                    continue;
+                }
+                int libres = bits - supplement;
+                int suffixe = (int) (code & ((1L << supplement) - 1));
+                int debut = debutSecondaire[prefixe] + (suffixe << libres);
+                for (int i = 0; i < 1 << libres; i++) {
+                    tablesSecondaires[debut + i] = entree;
+                }
+            }
+        }
+    }
+
+    /**
+     * Décode le symbole placé en tête d'une fenêtre de bits.
+     *
+     * @param fenetre Les prochains bits du flux, alignés à gauche (le
+     *                prochain bit est le bit de poids fort). La fenêtre doit
+     *                contenir au moins {@link TableCodesCanonique#LONGUEUR_MAXIMALE}
+     *                bits, ou tous les bits restants du flux complétés
+     *                par des zéros.
+     * @return Une entrée réunissant le symbole décodé et la longueur de son
+     *         code, à extraire avec {@link #symbole} et {@link #longueur} ;
+     *         0 si la fenêtre ne commence par aucun code.
+     */
+    public int decoder(long fenetre) {
+        int entree = tablePrincipale[(int) (fenetre
+                                            >>> Long.SIZE
+                                                - BITS_TABLE_PRINCIPALE)];
+        if (entree > 0) {
+            return entree;
+        }
+        if (entree < 0) {
+            int bits = entree & ((1 << BITS_TAILLE_RENVOI) - 1);
+            int debut = (entree & Integer.MAX_VALUE) >>> BITS_TAILLE_RENVOI;
+            int suffixe = (int) (fenetre << BITS_TABLE_PRINCIPALE
+                                 >>> Long.SIZE - bits);
+            entree = tablesSecondaires[debut + suffixe];
+            if (entree != 0) {
+                return entree;
+            }
+        }
+        return decoderParComparaison(fenetre);
+    }
+
+    /**
+     * Décode le symbole en tête de la fenêtre en essayant chaque longueur
+     * de code : un code de longueur l est valide s'il est compris entre le
+     * premier code canonique de cette longueur et le dernier.
+     *
+     * @param fenetre Les prochains bits du flux, alignés à gauche.
+     * @return L'entrée décodée, 0 si aucun code ne correspond.
+     */
+    private int decoderParComparaison(long fenetre) {
+        for (int longueur = 1; longueur <= longueurMax; longueur++) {
+            long code = fenetre >>> (Long.SIZE - longueur);
+            long rang = code - premierCode[longueur];
+            if (rang >= 0 && rang < nombreParLongueur[longueur]) {
+                int symbole = symbolesTries[debutParLongueur[longueur]
+                                            + (int) rang];
+                return symbole << BITS_LONGUEUR_ENTREE | longueur;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Extrait la longueur du code d'une entrée rendue par {@link #decoder}.
+     *
+     * @param entree L'entrée décodée.
+     * @return La longueur du code, en bits.
+     */
+    public static int longueur(int entree) {
+        return entree & MASQUE_LONGUEUR_ENTREE;
+    }
+
+    /**
+     * Extrait le symbole d'une entrée rendue par {@link #decoder}.
+     *
+     * @param entree L'entrée décodée.
+     * @return Le symbole décodé.
+     */
+    public static int symbole(int entree) {
+        return entree >>> BITS_LONGUEUR_ENTREE;
+    }
+}
@@ -1,24 +1,31 @@
 package fr.iutrodez.compresseurhuffman.huffman;
 
+import fr.iutrodez.compresseurhuffman.objets.ParametresCompression;
 import fr.iutrodez.compresseurhuffman.outils.GestionFichier;
-import fr.iutrodez.compresseurhuffman.objets.Noeud;
+import fr.iutrodez.compresseurhuffman.outils.LecteurBits;
+import fr.iutrodez.compresseurhuffman.outils.MesuresPhases;
+import fr.iutrodez.compresseurhuffman.outils.StrategieES;
+import fr.iutrodez.compresseurhuffman.outils.SurveillanceCompresseur;
 
-import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * Classe permettant la décompression de fichiers
  * utilisant l'algorithme de Huffman.
  * Cette classe prend en charge le processus de décompression
- * d'un fichier compressé, en utilisant un arbre de Huffman
- * stocké séparément pour déterminer la table des codes
- * utilisée lors de la compression.
- * Le processus inclut la lecture d'un fichier binaire compressé,
- * la reconstruction de l'arbre de Huffman à partir d'un fichier texte externe,
- * et la transformation des données binaires compressées
+ * d'un fichier compressé, en utilisant la table des codes
+ * enregistrée dans l'en-tête du fichier (voir {@link EnteteArchive}).
+ * Le processus inclut la lecture de l'en-tête du fichier compressé,
+ * la construction des tables de décodage à partir des longueurs de codes
+ * canoniques qu'il contient,
+ * et la transformation des données binaires compressées qui le suivent
  * en leur format d'origine.
  *
  * @author V. Munier--Genie
@@ -39,6 +46,24 @@ public class DecompressionHuffman {
      */
     private String cheminFichierDestination;
 
+    /**
+     * Paramètres de la décompression, qui fixent la stratégie
+     * d'entrées/sorties et le nombre de threads décodant les blocs
+     * d'un fichier compressé par blocs.
+     */
+    private final ParametresCompression parametres;
+
+    /**
+     * Mesures de la dernière décompression, phase par phase.
+     */
+    private MesuresPhases mesures = new MesuresPhases();
+
+    /**
+     * Dictionnaire désigné par les paramètres, déjà chargé, ou null pour
+     * le lire.
+     */
+    private Dictionnaire dictionnaireCharge;
+
     /**
      * Construit une instance de DecompressionHuffman avec
      * les chemins spécifiés pour le fichier source et destination.
@@ -50,187 +75,390 @@ public class DecompressionHuffman {
      */
     public DecompressionHuffman(String cheminFichierSource,
                                 String cheminFichierDestination) {
+        this(cheminFichierSource, cheminFichierDestination,
+             new ParametresCompression());
+    }
+
+    /**
+     * Construit une instance de DecompressionHuffman avec
+     * les chemins et les paramètres spécifiés.
+     *
+     * @param cheminFichierSource Le chemin vers le fichier
+     *                            compressé à décompresser.
+     * @param cheminFichierDestination Le chemin où le fichier
+     *                                 décompressé sera sauvegardé.
+     * @param parametres Les paramètres de la décompression.
+     */
+    public DecompressionHuffman(String cheminFichierSource,
+                                String cheminFichierDestination,
+                                ParametresCompression parametres) {
         this.cheminFichierSource = cheminFichierSource;
         this.cheminFichierDestination = cheminFichierDestination;
+        this.parametres = parametres;
+    }
+
+    /**
+     * Fournit le dictionnaire désigné par les paramètres, déjà chargé :
+     * il n'est pas relu pour chaque fichier décompressé avec lui
+     * (voir {@link TraitementLot}).
+     *
+     * @param dictionnaire Le dictionnaire chargé, ou null pour lire celui
+     *                     désigné par les paramètres.
+     */
+    public void setDictionnaire(Dictionnaire dictionnaire) {
+        this.dictionnaireCharge = dictionnaire;
     }
 
     /**
      * Lance le processus de décompression du fichier spécifié.
+     * Le fichier compressé est lu en une seule lecture séquentielle :
+     * l'en-tête, puis chaque bloc, qui fournit sa table des codes
+     * avant ses données.
+     * Les bits compressés sont décodés directement depuis les octets lus,
+     * bloc par bloc, et les octets décodés sont écrits au fur et à mesure :
+     * la mémoire utilisée ne dépend pas de la taille des fichiers.
+     * Un fichier compressé par blocs muni d'un index est quant à lui
+     * décompressé en parallèle (voir {@link DecompressionParBlocs}).
+     * <br>
+     * Chaque phase de la décompression est mesurée (voir
+     * {@link #getMesures}), et la décompression est comptée par
+     * {@link SurveillanceCompresseur}.
      *
-     * @throws IOException Si une erreur se produit pendant la décompression.
+     * @throws IOException Si une erreur d'entrée/sortie se produit lors
+     *                     de la lecture ou de l'écriture des fichiers,
+     *                     ou si le fichier compressé est invalide
+     *                     ou corrompu.
      */
     public void decompresserFichier() throws IOException {
-        String cheminArbre = trouverCheminArbre();
-        Noeud racine = preparerArbreHuffman(cheminArbre);
-        decompresser(racine);
+        mesures = new MesuresPhases("decompression", cheminFichierSource,
+                                    cheminFichierDestination);
+        SurveillanceCompresseur surveillance =
+                SurveillanceCompresseur.getInstance();
+        long debut = surveillance.debuter();
+        boolean reussie = false;
+        mesures.debuter();
+        try {
+            decompresser();
+            reussie = true;
+        } finally {
+            mesures.terminer();
+            surveillance.terminerDecompression(
+                    debut, new File(cheminFichierSource).length(),
+                    new File(cheminFichierDestination).length(), reussie);
+        }
     }
 
     /**
-     * Détermine le chemin vers le fichier de l'arbre Huffman basé
-     * sur le chemin du fichier source.
+     * Retourne les mesures de la dernière décompression : durée et débit
+     * de chaque phase, mémoire allouée, pic d'occupation du tas, tables
+     * de codes et bits codés.
      *
-     * @return Le chemin du fichier de l'arbre Huffman.
-     * @throws IOException Si le fichier de l'arbre n'est pas trouvé.
-     */
-    private String trouverCheminArbre() throws IOException {
-        int dernierSeparateur = cheminFichierSource.lastIndexOf("\\");
-        String cheminArbre =
-                cheminFichierSource.substring(0,dernierSeparateur + 1)
-                        + "arbreHuffman.txt";
-
-        if (!new File(cheminArbre).exists()) {
-            throw new IOException("Erreur: fichier de l'arbre d'Huffman "
-                    + "introuvable. Veuillez le placer dans le même "
-                    + "répertoire que le fichier à décompresser avec le nom "
-                    + "\"arbreHuffman.txt\"");
-        }
-        return cheminArbre;
+     * @return Les mesures de la dernière décompression.
+     */
+    public MesuresPhases getMesures() {
+        return mesures;
     }
 
     /**
-     * Prépare l'arbre de Huffman à partir d'un fichier donné.
+     * Décompresse le fichier source (voir {@link #decompresserFichier}).
+     * La stratégie d'entrées/sorties du fichier compressé est choisie
+     * selon sa taille, celle du fichier décompressé selon la taille
+     * d'origine lue dans l'en-tête.
      *
-     * @param cheminArbre Le chemin du fichier contenant la description
-     *                    de l'arbre de Huffman.
-     * @return La racine de l'arbre de Huffman reconstruit.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si le fichier compressé est invalide
+     *                     ou corrompu.
      */
-    private Noeud preparerArbreHuffman(String cheminArbre) {
-        String[] arbreHuffman =
-                GestionFichier.lireFichierArbreHuffman(cheminArbre);
+    private void decompresser() throws IOException {
+        StrategieES strategieLecture = parametres.choisirStrategieES(
+                Files.size(Path.of(cheminFichierSource)));
+        try (DataInputStream fluxSource = new DataInputStream(
+                mesures.mesurerLecture(GestionFichier.ouvrirFluxLecture(
+                        cheminFichierSource, strategieLecture)))) {
+
+            mesures.demarrer(MesuresPhases.TABLES);
+            EnteteArchive entete = EnteteArchive.lire(fluxSource);
+            mesures.arreter(0);
+            if (entete.aUnIndex()) {
+                DecompressionParBlocs.decompresser(
+                        cheminFichierSource, cheminFichierDestination, entete,
+                        parametres.getNombreThreads(), mesures);
+                return;
+            }
 
-        Map<Byte, String> codageHuffman =
-                genererTableDeCodeHuffman(arbreHuffman);
-        return construireArbreHuffmanDepuisMap(codageHuffman);
+            Dictionnaire dictionnaire = null;
+            if (entete.utiliseDictionnaire()) {
+                mesures.demarrer(MesuresPhases.TABLES);
+                dictionnaire = lireDictionnaire(entete, parametres,
+                                                dictionnaireCharge);
+                mesures.arreter(0);
+            }
+            StrategieES strategieEcriture =
+                    parametres.choisirStrategieES(entete.getTailleOriginale());
+            try (OutputStream fluxDestination = mesures.mesurerEcriture(
+                    GestionFichier.ouvrirFluxEcriture(
+                            cheminFichierDestination, strategieEcriture))) {
+                decompresserDonnees(entete, fluxSource, fluxDestination,
+                                    dictionnaire, mesures);
+            }
+        }
     }
 
     /**
-     * Décompresse un fichier en utilisant l'arbre de Huffman.
+     * Lit le dictionnaire désigné par les paramètres, s'il n'est pas déjà
+     * chargé, et vérifie que c'est celui avec lequel le fichier a été
+     * compressé.
      *
-     * @param racine La racine de l'arbre de Huffman utilisé
-     *               pour la décompression.
-     * @throws IOException Si une erreur d'entrée/sortie se produit lors
-     *                     de la lecture ou de l'écriture des fichiers.
+     * @param entete L'en-tête du fichier compressé avec un dictionnaire.
+     * @param parametres Les paramètres de la décompression.
+     * @param charge Le dictionnaire désigné par les paramètres, déjà
+     *               chargé, ou null pour le lire.
+     * @return Le dictionnaire du fichier compressé.
+     * @throws IOException Si aucun dictionnaire n'est désigné, s'il ne peut
+     *                     pas être lu ou si ce n'est pas le bon.
      */
-    private void decompresser(Noeud racine) throws IOException {
-        String code =
-                GestionFichier.lireFichierBinaire(cheminFichierSource);
+    static Dictionnaire lireDictionnaire(EnteteArchive entete,
+                                         ParametresCompression parametres,
+                                         Dictionnaire charge)
+            throws IOException {
+        if (!parametres.aUnDictionnaire()) {
+            throw new IOException(String.format(
+                    "Le fichier a été compressé avec le dictionnaire %08x, "
+                    + "qui doit être indiqué pour le décompresser.",
+                    entete.getIdentifiantDictionnaire()));
+        }
+        Dictionnaire dictionnaire = charge != null
+                                    ? charge
+                                    : Dictionnaire.lire(Path.of(
+                                            parametres.getCheminDictionnaire()));
+        if (dictionnaire.getIdentifiant()
+            != entete.getIdentifiantDictionnaire()) {
+            throw new IOException(String.format(
+                    "Le fichier a été compressé avec le dictionnaire %08x, "
+                    + "et non avec le dictionnaire %08x.",
+                    entete.getIdentifiantDictionnaire(),
+                    dictionnaire.getIdentifiant()));
+        }
+        return dictionnaire;
+    }
 
-        byte[] bytes =
-                transformerChaineEnBytes(code, racine);
+    /**
+     * Décompresse un flux compressé, quel que soit son codage, en une
+     * seule lecture séquentielle. Contrairement à
+     * {@link #decompresserFichier()}, aucun accès direct n'est nécessaire :
+     * l'entrée peut être un tube ou l'entrée standard. L'index éventuel
+     * d'un fichier compressé par blocs est alors ignoré.
+     * Un flux compressé avec un dictionnaire ne peut pas être décompressé
+     * ainsi. Le flux de sortie est vidé mais n'est pas fermé.
+     *
+     * @param entree Le flux des données compressées, en-tête compris.
+     * @param sortie Le flux recevant les octets décodés.
+     * @throws IOException Si une erreur d'entrée/sortie se produit ou si
+     *                     les données compressées sont invalides
+     *                     ou corrompues.
+     */
+    public static void decompresserFlux(InputStream entree,
+                                        OutputStream sortie)
+            throws IOException {
+        DataInputStream fluxSource = new DataInputStream(entree);
+        EnteteArchive entete = EnteteArchive.lire(fluxSource);
+        Dictionnaire dictionnaire = entete.utiliseDictionnaire()
+                                    ? lireDictionnaire(
+                                            entete, new ParametresCompression(),
+                                            null)
+                                    : null;
+        decompresserDonnees(entete, fluxSource, sortie, dictionnaire,
+                            new MesuresPhases());
+        sortie.flush();
+    }
 
-        GestionFichier.ecrireFichierDestination(bytes,
-                cheminFichierDestination);
+    /**
+     * Décompresse les données qui suivent l'en-tête, selon le codage
+     * qu'il indique : adaptatif, avec un dictionnaire, par blocs ou en
+     * un seul bloc.
+     *
+     * @param entete L'en-tête du fichier compressé.
+     * @param fluxSource Le flux positionné après l'en-tête.
+     * @param fluxDestination Le flux recevant les octets décodés.
+     * @param dictionnaire Le dictionnaire du fichier compressé, null s'il
+     *                     n'a pas été compressé avec un dictionnaire.
+     * @param mesures Les mesures complétées avec la durée de la lecture
+     *                des tables et du décodage.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si les données sont corrompues.
+     */
+    private static void decompresserDonnees(EnteteArchive entete,
+                                            DataInputStream fluxSource,
+                                            OutputStream fluxDestination,
+                                            Dictionnaire dictionnaire,
+                                            MesuresPhases mesures)
+            throws IOException {
+        if (entete.estAdaptatif()) {
+            mesures.demarrer(MesuresPhases.DECODAGE);
+            long nombreOctets = CodecAdaptatif.decompresser(fluxSource,
+                                                            fluxDestination);
+            mesures.arreter(nombreOctets);
+        } else if (entete.utiliseDictionnaire()) {
+            mesures.noterTable(dictionnaire.getTable().getNombreSymboles(),
+                               dictionnaire.getTable().getLongueurMax());
+            mesures.demarrer(MesuresPhases.DECODAGE);
+            dictionnaire.decoder(new LecteurBits(fluxSource),
+                                 entete.getTailleOriginale(), fluxDestination);
+            mesures.arreter(entete.getTailleOriginale());
+        } else if (entete.estParBlocs()) {
+            decompresserBlocs(entete, fluxSource, fluxDestination, mesures);
+        } else {
+            mesures.demarrer(MesuresPhases.TABLES);
+            EnteteBloc bloc = entete.lireBloc(fluxSource);
+            DecodeurHuffman decodeur = new DecodeurHuffman(bloc.getTable());
+            mesures.arreter(0);
+            noterBloc(bloc, mesures);
+            mesures.demarrer(MesuresPhases.DECODAGE);
+            long nombreOctets = decoderBits(
+                    new LecteurBits(fluxSource), bloc.getNombreBits(),
+                    decodeur, fluxDestination);
+            mesures.arreter(nombreOctets);
+            verifierTaille(nombreOctets, entete.getTailleOriginale());
+        }
     }
 
     /**
-     * Génère une table de codage Huffman à partir des données
-     * de l'arbre Huffman. Chaque ligne de l'arbre contient un
-     * mappage entre un byte et son code Huffman correspondant.
+     * Décompresse un à un les blocs d'un fichier compressé par blocs.
+     * Les données compressées de chaque bloc sont lues entièrement avant
+     * d'être décodées, afin de ne pas lire au-delà de la fin du bloc.
+     * Les blocs se suivent jusqu'à couvrir la taille du fichier d'origine :
+     * la taille de chaque bloc est donnée par l'en-tête du fichier, ou par
+     * celui du bloc si les blocs sont de tailles variables.
      *
-     * @param arbre Un tableau de chaînes représentant l'arbre Huffman.
-     *              Chaque élément contient un byte et son code Huffman
-     *              séparés par un point-virgule.
-     * @return Une map où chaque clé est un byte et chaque valeur
-     *         est le code Huffman correspondant.
+     * @param entete L'en-tête du fichier compressé.
+     * @param fluxSource Le flux positionné sur le premier bloc.
+     * @param fluxDestination Le flux recevant les octets décodés.
+     * @param mesures Les mesures complétées avec la durée de la lecture
+     *                des tables et du décodage.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si un bloc est corrompu.
      */
-    private Map<Byte, String> genererTableDeCodeHuffman(String[] arbre) {
+    private static void decompresserBlocs(EnteteArchive entete,
+                                          DataInputStream fluxSource,
+                                          OutputStream fluxDestination,
+                                          MesuresPhases mesures)
+            throws IOException {
+
         /*
-         * Utilisation d'une HashMap, la description de HashMap
-         * a été faite dans CompressionHuffman.java
+         * Un octet est codé sur au plus LONGUEUR_MAXIMALE bits :
+         * les données d'un bloc intact ne dépassent donc jamais
+         * cette taille, ce qui évite d'allouer un tableau démesuré
+         * pour un bloc corrompu.
          */
-        Map<Byte, String> tableDeCodeHuffman = new HashMap<>();
-        for (String line : arbre) {
-            if (!line.isBlank()) {
-                String[] separateur = line.split(";");
-
-                byte cle = (byte) Integer.parseInt(separateur[1]
-                                                   .split("=")[1]
-                                                   .trim(), 2);
+        long tailleDonneesMax = ((long) entete.getTailleBloc()
+                                 * TableCodesCanonique.LONGUEUR_MAXIMALE + 7)
+                                / 8;
+        byte[] donnees = new byte[0];
+        long tailleRestante = entete.getTailleOriginale();
+        TableCodesCanonique tablePrecedente = null;
 
-                String valeur = separateur[0].split("=")[1].trim();
-                tableDeCodeHuffman.put(cle, valeur);
+        for (long numero = 0; tailleRestante > 0; numero++) {
+            mesures.demarrer(MesuresPhases.TABLES);
+            EnteteBloc bloc = entete.lireBloc(fluxSource, tablePrecedente);
+            DecodeurHuffman decodeur = new DecodeurHuffman(bloc.getTable());
+            mesures.arreter(0);
+            noterBloc(bloc, mesures);
+            long tailleOriginale = entete.estDecoupageVariable()
+                                   ? bloc.getTailleOriginale()
+                                   : entete.getTailleOriginaleBloc(numero);
+            if (tailleOriginale > tailleRestante) {
+                throw new IOException("Données compressées corrompues : bloc "
+                                      + numero + " trop grand.");
             }
+            if (bloc.getTailleDonnees() > tailleDonneesMax) {
+                throw new IOException("Données compressées corrompues : bloc "
+                                      + numero + " trop grand.");
+            }
+            int tailleDonnees = (int) bloc.getTailleDonnees();
+            if (donnees.length < tailleDonnees) {
+                donnees = new byte[tailleDonnees];
+            }
+            fluxSource.readFully(donnees, 0, tailleDonnees);
+
+            mesures.demarrer(MesuresPhases.DECODAGE);
+            long nombreOctets = decoderBits(
+                    new LecteurBits(ByteBuffer.wrap(donnees, 0, tailleDonnees)),
+                    bloc.getNombreBits(), decodeur, fluxDestination);
+            mesures.arreter(nombreOctets);
+            verifierTaille(nombreOctets, tailleOriginale);
+            tailleRestante -= tailleOriginale;
+            tablePrecedente = bloc.getTable();
         }
-        return tableDeCodeHuffman;
     }
 
     /**
-     * Construit un arbre de Huffman à partir d'une map de codes Huffman.
-     * Chaque entrée de la map représente un caractère et son chemin binaire
-     * correspondant dans l'arbre de Huffman.
+     * Relève dans les mesures la table d'un bloc et le nombre de bits
+     * qu'il code.
      *
-     * @param codeHuffmanMap Une map où chaque clé est un byte (caractère)
-     *                       et chaque valeur est une chaîne de bits
-     *                       représentant le chemin dans l'arbre de Huffman.
-     * @return La racine de l'arbre de Huffman reconstruit.
+     * @param bloc L'en-tête du bloc.
+     * @param mesures Les mesures de la décompression.
      */
-    private static Noeud construireArbreHuffmanDepuisMap(
-            Map<Byte, String> codeHuffmanMap
-    ) {
-
-        Noeud racine = new Noeud();
+    static void noterBloc(EnteteBloc bloc, MesuresPhases mesures) {
+        mesures.noterTable(bloc.getTable().getNombreSymboles(),
+                           bloc.getTable().getLongueurMax());
+        mesures.ajouterBits(bloc.getNombreBits());
+    }
 
-        /*
-         * Parcours de chaque clé de la map.
-         * keySet() : Renvoie un ensemble des clés contenues dans la map.
-         */
-        for (Byte caractere : codeHuffmanMap.keySet()) {
-            String chemin = codeHuffmanMap.get(caractere);
-
-            Noeud noeudCourant = racine;
-
-            /* toCharArray() : Convertit la chaîne en tableau de caractères.*/
-            for (char direction : chemin.toCharArray()) {
-                if (direction == '0') {
-                    if (noeudCourant.getGauche() == null) {
-                        noeudCourant.setGauche(new Noeud());
-                    }
-                    noeudCourant = noeudCourant.getGauche();
-                } else if (direction == '1') {
-                    if (noeudCourant.getDroite() == null) {
-                        noeudCourant.setDroite(new Noeud());
-                    }
-                    noeudCourant = noeudCourant.getDroite();
-                }
-            }
-            noeudCourant.setCaractere(caractere);
+    /**
+     * Vérifie que le nombre d'octets décodés est celui attendu.
+     *
+     * @param nombreOctets Le nombre d'octets décodés.
+     * @param nombreAttendu Le nombre d'octets indiqué par l'en-tête.
+     * @throws IOException Si les deux nombres diffèrent.
+     */
+    static void verifierTaille(long nombreOctets, long nombreAttendu)
+            throws IOException {
+        if (nombreOctets != nombreAttendu) {
+            throw new IOException("Données compressées corrompues : "
+                                  + nombreOctets + " octets décodés au "
+                                  + "lieu de " + nombreAttendu + ".");
         }
-        return racine;
     }
 
     /**
-     * Décode une chaîne binaire en un tableau de bytes en utilisant
-     * l'arbre de Huffman fourni.
-     * Chaque chemin binaire dans la chaîne représente un caractère dans
-     * l'arbre de Huffman.
+     * Décode une suite de bits et écrit les octets décodés dans un flux.
+     * Chaque code est résolu en un seul accès aux tables du décodeur,
+     * à partir de la fenêtre de bits du lecteur, quelle que soit
+     * sa longueur.
      *
-     * @param bits La chaîne binaire à décoder.
-     * @param racine La racine de l'arbre de Huffman utilisé pour
-     *               le décodage.
-     * @return Un tableau de bytes représentant les caractères décodés.
+     * @param lecteur Le lecteur fournissant les bits compressés.
+     * @param nombreBits Le nombre de bits significatifs à décoder.
+     * @param decodeur Le décodeur de Huffman utilisé pour le décodage.
+     * @param sortie Le flux recevant les octets décodés.
+     * @return Le nombre d'octets décodés.
+     * @throws IOException Si une erreur d'entrée/sortie se produit ou si
+     *                     les bits contiennent un code inconnu.
      */
-    private static byte[] transformerChaineEnBytes(String bits,
-                                                      Noeud racine) {
-        /*
-         * Crée un ByteArrayOutputStream pour écrire des données
-         * dans un buffer de mémoire. Ce buffer ajuste automatiquement
-         * sa taille selon les besoins, ce qui évite de spécifier
-         * une taille initiale. Les données peuvent ensuite être récupérées
-         * facilement sous forme de tableau de bytes.
-         */
-        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
-        Noeud noeudCourant = racine;
+    static long decoderBits(LecteurBits lecteur, long nombreBits,
+                            DecodeurHuffman decodeur, OutputStream sortie)
+            throws IOException {
 
-        for (char bit : bits.toCharArray()) {
-            noeudCourant = (bit == '0') ? noeudCourant.getGauche()
-                    : noeudCourant.getDroite();
+        byte[] bloc = new byte[GestionFichier.TAILLE_BLOC];
+        int tailleBloc = 0;
+        long nombreOctets = 0;
 
-            if (noeudCourant.isFeuille()) {
-                byteStream.write(noeudCourant.getCaractere());
-                noeudCourant = racine;
+        while (lecteur.getNombreBitsLus() < nombreBits) {
+            int entree = decodeur.decoder(lecteur.getFenetre());
+            int longueur = DecodeurHuffman.longueur(entree);
+            if (entree == 0
+                || lecteur.getNombreBitsLus() + longueur > nombreBits) {
+                throw new IOException("Données compressées corrompues.");
             }
-        }
+            lecteur.consommer(longueur);
 
-        return byteStream.toByteArray();
+            bloc[tailleBloc++] = (byte) DecodeurHuffman.symbole(entree);
+            if (tailleBloc == bloc.length) {
+                sortie.write(bloc, 0, tailleBloc);
+                nombreOctets += tailleBloc;
+                tailleBloc = 0;
+            }
+        }
+        sortie.write(bloc, 0, tailleBloc);
+        return nombreOctets + tailleBloc;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,327 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * DecompressionParBlocs.java                18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.outils.LecteurBits;
+import fr.iutrodez.compresseurhuffman.outils.MesuresPhases;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Décompresse un fichier compressé par blocs, sur plusieurs threads.
+ * <br>
+ * L'index écrit à la fin du fichier compressé (voir {@link IndexBlocs})
+ * donne la position de chaque bloc et sa taille d'origine : la position
+ * de chaque bloc dans le fichier décompressé s'en déduit avant tout décodage.
+ * Le fichier décompressé est donc créé directement à sa taille finale, puis
+ * chaque bloc est lu, décodé et écrit à sa place par un thread du groupe de
+ * travail, sans attendre les blocs qui le précèdent.
+ * <br>
+ * Les blocs sont lus et leurs en-têtes analysés dans l'ordre, car un bloc
+ * de taille variable peut réutiliser la table du bloc qui le précède ;
+ * seul le décodage est réparti entre les threads.
+ * <br>
+ * Le nombre de blocs lus mais pas encore décodés est limité à deux par
+ * thread : la mémoire utilisée dépend de la taille des blocs et du nombre
+ * de threads, mais pas de la taille du fichier.
+ * <br>
+ * Chaque thread mesure les phases qu'il exécute (voir
+ * {@link MesuresPhases}) : leurs durées s'additionnent d'un thread
+ * à l'autre.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class DecompressionParBlocs {
+
+    /**
+     * Nombre maximal de blocs en cours de traitement par thread, chacun
+     * occupant un tampon encodé et un tampon décodé.
+     */
+    public static final int BLOCS_EN_COURS_PAR_THREAD = 2;
+
+    /**
+     * Décompresse un fichier compressé par blocs muni d'un index.
+     *
+     * @param cheminFichierSource Le chemin du fichier compressé.
+     * @param cheminFichierDestination Le chemin du fichier décompressé.
+     * @param entete L'en-tête déjà lu du fichier compressé.
+     * @param nombreThreads Le nombre de threads décodant des blocs
+     *                      en même temps.
+     * @param mesures Les mesures complétées avec la durée des phases
+     *                de tous les threads.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si le fichier compressé est corrompu.
+     */
+    public static void decompresser(String cheminFichierSource,
+                                    String cheminFichierDestination,
+                                    EnteteArchive entete, int nombreThreads,
+                                    MesuresPhases mesures)
+            throws IOException {
+
+        try (FileChannel source = FileChannel.open(Path.of(cheminFichierSource),
+                                                   StandardOpenOption.READ);
+             RandomAccessFile fichierDestination =
+                     new RandomAccessFile(cheminFichierDestination, "rw");
+             ExecutorService groupe =
+                     Executors.newFixedThreadPool(nombreThreads)) {
+
+            mesures.demarrer(MesuresPhases.TABLES);
+            IndexBlocs index = IndexBlocs.lire(
+                    source, entete.getNombreBlocs(),
+                    entete.aUnIndexAcces() ? IndexAcces.lirePosition(source)
+                                           : source.size());
+            mesures.arreter(0);
+            long[] positionsOriginales = calculerPositionsOriginales(index,
+                                                                     entete);
+
+            /*
+             * Le fichier décompressé reçoit sa taille finale avant l'écriture
+             * des blocs : chaque thread écrit ensuite à une position fixe,
+             * sans modifier la position du canal, ni attendre les autres.
+             */
+            fichierDestination.setLength(entete.getTailleOriginale());
+            FileChannel destination = fichierDestination.getChannel();
+
+            Deque<Future<Void>> enCours = new ArrayDeque<>();
+            TableCodesCanonique tablePrecedente = null;
+            try {
+                for (int bloc = 0; bloc < index.getNombreBlocs(); bloc++) {
+                    if (enCours.size()
+                        >= BLOCS_EN_COURS_PAR_THREAD * nombreThreads) {
+                        attendre(enCours.poll());
+                    }
+                    BlocLu lu = lireBloc(source, entete, index, bloc,
+                                         tablePrecedente, mesures);
+                    tablePrecedente = lu.entete.getTable();
+                    int numero = bloc;
+                    enCours.add(groupe.submit(() -> {
+                        decoderBloc(destination, lu, numero,
+                                    index.getTailleOriginale(numero),
+                                    positionsOriginales[numero], mesures);
+                        return null;
+                    }));
+                }
+                while (!enCours.isEmpty()) {
+                    attendre(enCours.poll());
+                }
+            } finally {
+                groupe.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Calcule la position de chaque bloc dans le fichier décompressé,
+     * en vérifiant que les tailles de l'index concordent avec l'en-tête.
+     *
+     * @param index L'index des blocs.
+     * @param entete L'en-tête du fichier compressé.
+     * @return La position du premier octet de chaque bloc une fois
+     *         décompressé.
+     * @throws IOException Si l'index ne concorde pas avec l'en-tête.
+     */
+    private static long[] calculerPositionsOriginales(IndexBlocs index,
+                                                      EnteteArchive entete)
+            throws IOException {
+
+        long[] positions = new long[index.getNombreBlocs()];
+        long position = 0;
+        for (int bloc = 0; bloc < positions.length; bloc++) {
+            if (index.getTailleOriginale(bloc) > entete.getTailleBloc()
+                || index.getTailleCompressee(bloc) > Integer.MAX_VALUE) {
+                throw new IOException("Index des blocs corrompu.");
+            }
+            positions[bloc] = position;
+            position += index.getTailleOriginale(bloc);
+        }
+        if (position != entete.getTailleOriginale()) {
+            throw new IOException("Index des blocs corrompu.");
+        }
+        return positions;
+    }
+
+    /**
+     * Lit un bloc du fichier compressé et analyse son en-tête.
+     *
+     * @param source Le canal ouvert en lecture sur le fichier compressé.
+     * @param entete L'en-tête du fichier compressé.
+     * @param index L'index des blocs.
+     * @param bloc Le numéro du bloc à lire.
+     * @param tablePrecedente La table du bloc précédent, null pour
+     *                        le premier bloc.
+     * @param mesures Les mesures complétées avec la durée de la lecture
+     *                du bloc et de celle de son en-tête, ainsi qu'avec
+     *                sa table.
+     * @return Le bloc lu, prêt à être décodé.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si l'en-tête du bloc est corrompu.
+     */
+    private static BlocLu lireBloc(FileChannel source, EnteteArchive entete,
+                                   IndexBlocs index, int bloc,
+                                   TableCodesCanonique tablePrecedente,
+                                   MesuresPhases mesures)
+            throws IOException {
+
+        int tailleCompressee = (int) index.getTailleCompressee(bloc);
+        mesures.demarrer(MesuresPhases.LECTURE);
+        ByteBuffer donnees = IndexBlocs.lire(source, index.getPosition(bloc),
+                                             tailleCompressee);
+        mesures.arreter(tailleCompressee);
+
+        mesures.demarrer(MesuresPhases.TABLES);
+
+        DataInputStream fluxEntete = new DataInputStream(new ByteArrayInputStream(
+                donnees.array(), 0, tailleCompressee));
+        EnteteBloc enteteBloc;
+        try {
+            enteteBloc = entete.lireBloc(fluxEntete, tablePrecedente);
+        } catch (EOFException erreur) {
+            throw new IOException("Données compressées corrompues : bloc "
+                                  + bloc + " tronqué.");
+        }
+        donnees.position(tailleCompressee - fluxEntete.available());
+        if (enteteBloc.getTailleDonnees() > donnees.remaining()
+            || entete.estDecoupageVariable()
+               && enteteBloc.getTailleOriginale()
+                  != index.getTailleOriginale(bloc)) {
+            throw new IOException("Données compressées corrompues : bloc "
+                                  + bloc + " tronqué.");
+        }
+        mesures.arreter(0);
+        DecompressionHuffman.noterBloc(enteteBloc, mesures);
+        return new BlocLu(enteteBloc, donnees);
+    }
+
+    /**
+     * Décode un bloc lu et l'écrit à sa place dans le fichier décompressé.
+     *
+     * @param destination Le canal ouvert en écriture sur le fichier
+     *                    décompressé.
+     * @param lu Le bloc lu.
+     * @param bloc Le numéro du bloc.
+     * @param tailleOriginale La taille d'origine du bloc, donnée par
+     *                        l'index.
+     * @param positionOriginale La position du bloc dans le fichier
+     *                          décompressé.
+     * @param mesures Les mesures complétées avec la durée de la
+     *                construction du décodeur, du décodage et de l'écriture.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si le bloc est corrompu.
+     */
+    private static void decoderBloc(FileChannel destination, BlocLu lu,
+                                    int bloc, int tailleOriginale,
+                                    long positionOriginale,
+                                    MesuresPhases mesures)
+            throws IOException {
+
+        mesures.demarrer(MesuresPhases.TABLES);
+        DecodeurHuffman decodeur = new DecodeurHuffman(lu.entete.getTable());
+        mesures.arreter(0);
+        mesures.demarrer(MesuresPhases.DECODAGE);
+        TamponBloc octets = new TamponBloc(tailleOriginale);
+        long nombreOctets = DecompressionHuffman.decoderBits(
+                new LecteurBits(lu.donnees), lu.entete.getNombreBits(),
+                decodeur, octets);
+        mesures.arreter(nombreOctets);
+        DecompressionHuffman.verifierTaille(nombreOctets, tailleOriginale);
+
+        mesures.demarrer(MesuresPhases.ECRITURE);
+        ByteBuffer tampon = octets.enTampon();
+        while (tampon.hasRemaining()) {
+            destination.write(tampon, positionOriginale + tampon.position());
+        }
+        mesures.arreter(tailleOriginale);
+    }
+
+    /**
+     * Attend la fin de la décompression d'un bloc.
+     *
+     * @param resultat Le résultat attendu.
+     * @throws IOException Si la décompression du bloc a échoué
+     *                     ou a été interrompue.
+     */
+    private static void attendre(Future<Void> resultat) throws IOException {
+        try {
+            resultat.get();
+        } catch (InterruptedException erreur) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Décompression interrompue.");
+        } catch (ExecutionException erreur) {
+            if (erreur.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException("Erreur lors de la décompression d'un bloc : "
+                                  + erreur.getCause(), erreur.getCause());
+        }
+    }
+
+    /**
+     * Bloc lu dans le fichier compressé : son en-tête, dont la table est
+     * résolue, et ses données compressées.
+     */
+    private static class BlocLu {
+
+        /** En-tête du bloc. */
+        private final EnteteBloc entete;
+
+        /** Données compressées, positionnées après l'en-tête. */
+        private final ByteBuffer donnees;
+
+        /**
+         * Construit un bloc lu.
+         *
+         * @param entete L'en-tête du bloc.
+         * @param donnees Les données compressées du bloc.
+         */
+        BlocLu(EnteteBloc entete, ByteBuffer donnees) {
+            this.entete = entete;
+            this.donnees = donnees;
+        }
+    }
+
+    /**
+     * Tampon recevant les octets décodés d'un bloc, dimensionné à la taille
+     * d'origine du bloc et écrit sans recopie dans le fichier décompressé.
+     */
+    private static class TamponBloc extends ByteArrayOutputStream {
+
+        /**
+         * Construit un tampon pour un bloc.
+         *
+         * @param taille La taille d'origine du bloc, en octets.
+         */
+        TamponBloc(int taille) {
+            super(taille);
+        }
+
+        /**
+         * Retourne les octets décodés, sans les recopier.
+         *
+         * @return Un tampon prêt à être écrit.
+         */
+        ByteBuffer enTampon() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * DecoupeurBlocs.java                       18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.objets.HistogrammeOctets;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Découpe un fichier en blocs de tailles variables, coupés là où la
+ * répartition des octets change.
+ * <br>
+ * Le fichier est lu séquentiellement par portions de
+ * {@link #TAILLE_PORTION} octets, dont les occurrences sont comptées
+ * au passage. Chaque portion est ajoutée au bloc en cours, sauf si le
+ * modèle de coût (voir {@link ModeleCoutBlocs#doitCouper}) estime qu'elle
+ * se code mieux avec sa propre table : elle commence alors un nouveau bloc.
+ * Un fichier dont la répartition dérive, par exemple un journal contenant
+ * une section JSON puis des traces d'exécution, est ainsi découpé à la
+ * frontière des sections, chacune recevant une table adaptée.
+ * <br>
+ * Un bloc ne dépasse jamais la taille maximale fixée : un long passage
+ * homogène est découpé en plusieurs blocs, qui réutiliseront la même
+ * table (voir {@link ModeleCoutBlocs#reutiliserTable}).
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class DecoupeurBlocs {
+
+    /**
+     * Taille des portions examinées, en octets (64 Ko) : c'est la
+     * précision des coupures.
+     */
+    public static final int TAILLE_PORTION = 64 * 1024;
+
+    /**
+     * Le canal lu séquentiellement.
+     */
+    private final ReadableByteChannel canal;
+
+    /**
+     * Taille maximale d'un bloc, en octets.
+     */
+    private final int tailleMaximale;
+
+    /**
+     * Taille des portions examinées, au plus la taille maximale d'un bloc.
+     */
+    private final int taillePortion;
+
+    /**
+     * Octets du bloc courant.
+     */
+    private byte[] octets;
+
+    /**
+     * Nombre d'octets du bloc courant.
+     */
+    private int longueur;
+
+    /**
+     * Occurrences des octets du bloc courant.
+     */
+    private HistogrammeOctets occurrences;
+
+    /**
+     * Portion lue mais reportée au bloc suivant, qu'elle commence,
+     * ou null.
+     */
+    private byte[] portionReportee;
+
+    /**
+     * Occurrences des octets de la portion reportée.
+     */
+    private HistogrammeOctets occurrencesReportees;
+
+    /**
+     * Indique si la fin du canal a été atteinte.
+     */
+    private boolean finAtteinte;
+
+    /**
+     * Construit un découpeur lisant un canal depuis sa position courante.
+     *
+     * @param canal Le canal à découper.
+     * @param tailleMaximale La taille maximale d'un bloc, en octets.
+     * @throws IllegalArgumentException Si la taille maximale est inférieure
+     *                                  à 1.
+     */
+    public DecoupeurBlocs(ReadableByteChannel canal, int tailleMaximale) {
+        if (tailleMaximale < 1) {
+            throw new IllegalArgumentException("Taille de bloc invalide : "
+                                               + tailleMaximale);
+        }
+        this.canal = canal;
+        this.tailleMaximale = tailleMaximale;
+        this.taillePortion = Math.min(TAILLE_PORTION, tailleMaximale);
+    }
+
+    /**
+     * Lit le bloc suivant. Ses octets et leurs occurrences sont ensuite
+     * donnés par {@link #getOctets()}, {@link #getLongueur()} et
+     * {@link #getOccurrences()} ; le tableau d'octets est propre à ce bloc
+     * et n'est pas réutilisé par la lecture des blocs suivants.
+     *
+     * @return true si un bloc a été lu, false à la fin du canal.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public boolean avancer() throws IOException {
+        octets = new byte[tailleMaximale];
+        longueur = 0;
+        occurrences = new HistogrammeOctets();
+        long[] frequences = new long[HistogrammeOctets.NOMBRE_VALEURS];
+
+        if (portionReportee != null) {
+            longueur = portionReportee.length;
+            System.arraycopy(portionReportee, 0, octets, 0, longueur);
+            ajouterPortion(occurrencesReportees, frequences);
+            portionReportee = null;
+        }
+
+        while (longueur < tailleMaximale && !finAtteinte) {
+            int lus = lirePortion(Math.min(taillePortion,
+                                           tailleMaximale - longueur));
+            if (lus == 0) {
+                break;
+            }
+            HistogrammeOctets portion = new HistogrammeOctets();
+            portion.ajouter(octets, longueur, longueur + lus);
+            if (longueur > 0
+                && ModeleCoutBlocs.doitCouper(frequences, portion.versTableau())) {
+                portionReportee = Arrays.copyOfRange(octets, longueur,
+                                                     longueur + lus);
+                occurrencesReportees = portion;
+                break;
+            }
+            ajouterPortion(portion, frequences);
+            longueur += lus;
+        }
+        return longueur > 0;
+    }
+
+    /**
+     * Ajoute une portion aux occurrences du bloc courant.
+     *
+     * @param portion Les occurrences des octets de la portion.
+     * @param frequences Les occurrences du bloc courant, sous forme de
+     *                   tableau, complétées elles aussi.
+     */
+    private void ajouterPortion(HistogrammeOctets portion, long[] frequences) {
+        occurrences.fusionner(portion);
+        for (int valeur = 0; valeur < frequences.length; valeur++) {
+            frequences[valeur] += portion.getOccurrences(valeur);
+        }
+    }
+
+    /**
+     * Lit une portion à la suite du bloc courant, sans l'y ajouter.
+     * La portion n'est plus courte que demandé qu'à la fin du canal.
+     *
+     * @param taille La taille de la portion, en octets.
+     * @return Le nombre d'octets lus.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    private int lirePortion(int taille) throws IOException {
+        ByteBuffer tampon = ByteBuffer.wrap(octets, longueur, taille);
+        while (tampon.hasRemaining()) {
+            if (canal.read(tampon) < 0) {
+                finAtteinte = true;
+                break;
+            }
+        }
+        return tampon.position() - longueur;
+    }
+
+    /**
+     * Retourne les octets du bloc courant.
+     *
+     * @return Un tableau dont les {@link #getLongueur()} premiers octets
+     *         forment le bloc.
+     */
+    public byte[] getOctets() {
+        return octets;
+    }
+
+    /**
+     * Retourne la taille du bloc courant.
+     *
+     * @return Le nombre d'octets du bloc.
+     */
+    public int getLongueur() {
+        return longueur;
+    }
+
+    /**
+     * Retourne les occurrences des octets du bloc courant.
+     *
+     * @return L'histogramme des occurrences.
+     */
+    public HistogrammeOctets getOccurrences() {
+        return occurrences;
+    }
+}
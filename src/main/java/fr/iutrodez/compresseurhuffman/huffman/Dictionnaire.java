@@ -0,0 +1,329 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * Dictionnaire.java                         18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.objets.HistogrammeOctets;
+import fr.iutrodez.compresseurhuffman.outils.GestionFichier;
+import fr.iutrodez.compresseurhuffman.outils.LecteurBits;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Table de codes partagée, entraînée une fois sur un corpus de fichiers
+ * semblables (configurations, journaux...) et réutilisée pour compresser
+ * chacun d'eux.
+ * <br>
+ * Un fichier compressé avec un dictionnaire ne contient pas de table : son
+ * en-tête ne désigne le dictionnaire que par son identifiant (voir
+ * {@link EnteteArchive#OPTION_DICTIONNAIRE}). Les codes étant connus
+ * d'avance, la compression se fait en un seul passage, sans compter les
+ * occurrences des octets du fichier.
+ * <br>
+ * L'alphabet du dictionnaire compte un symbole de plus que les octets :
+ * le symbole d'échappement {@link #ECHAPPEMENT}. Un octet absent du corpus
+ * d'entraînement est codé par le code d'échappement suivi de ses 8 bits ;
+ * tout fichier peut ainsi être compressé avec n'importe quel dictionnaire.
+ * <br>
+ * Un dictionnaire est enregistré dans un fichier contenant le nombre
+ * magique {@link #NOMBRE_MAGIQUE} (4 octets), la version du format
+ * (1 octet), l'identifiant (4 octets) puis la table des codes (voir
+ * {@link TableCodesCanonique#ecrire}). L'identifiant est la somme de
+ * contrôle CRC-32 de la table : deux dictionnaires aux codes différents
+ * n'ont, en pratique, jamais le même identifiant.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class Dictionnaire {
+
+    /**
+     * Nombre magique placé en tête de chaque fichier dictionnaire
+     * (les caractères "HUFT").
+     */
+    public static final int NOMBRE_MAGIQUE = 0x48554654;
+
+    /**
+     * Version du format des fichiers dictionnaires.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Symbole d'échappement, qui précède les octets absents du corpus
+     * d'entraînement.
+     */
+    public static final int ECHAPPEMENT = HistogrammeOctets.NOMBRE_VALEURS;
+
+    /**
+     * Longueur maximale des codes du dictionnaire : le code d'échappement
+     * suivi d'un octet doit tenir dans un code empaqueté.
+     */
+    public static final int LONGUEUR_MAXIMALE =
+            TableCodesCanonique.LONGUEUR_MAXIMALE - Byte.SIZE;
+
+    /**
+     * Part des octets du corpus attribuée au symbole d'échappement
+     * (1 sur 65 536) : un octet absent du corpus coûte alors au plus
+     * une vingtaine de bits, sans allonger les codes des autres octets.
+     */
+    private static final int DECALAGE_ECHAPPEMENT = 16;
+
+    /**
+     * Identifiant du dictionnaire.
+     */
+    private final int identifiant;
+
+    /**
+     * Table des codes des octets et du symbole d'échappement.
+     */
+    private final TableCodesCanonique table;
+
+    /**
+     * Code empaqueté de chaque octet, précédé du code d'échappement pour
+     * les octets sans code.
+     */
+    private final long[] codesEmpaquetes;
+
+    /**
+     * Décodeur de la table des codes.
+     */
+    private final DecodeurHuffman decodeur;
+
+    /**
+     * Construit un dictionnaire à partir de sa table de codes.
+     *
+     * @param table La table des codes des octets et du symbole
+     *              d'échappement.
+     * @throws IllegalArgumentException Si la table ne couvre pas les octets
+     *                                  et le symbole d'échappement, si
+     *                                  le symbole d'échappement n'a pas de
+     *                                  code ou si un code dépasse
+     *                                  {@link #LONGUEUR_MAXIMALE}.
+     * @throws IOException Si une erreur d'entrée/sortie se produit lors
+     *                     du calcul de l'identifiant.
+     */
+    public Dictionnaire(TableCodesCanonique table) throws IOException {
+        if (table.getTailleAlphabet() != ECHAPPEMENT + 1
+            || table.getLongueur(ECHAPPEMENT) == 0
+            || table.getLongueurMax() > LONGUEUR_MAXIMALE) {
+            throw new IllegalArgumentException("Table de dictionnaire "
+                                               + "invalide.");
+        }
+        this.table = table;
+        this.identifiant = calculerIdentifiant(table);
+        this.decodeur = new DecodeurHuffman(table);
+        this.codesEmpaquetes = new long[HistogrammeOctets.NOMBRE_VALEURS];
+
+        long codeEchappement = table.getCode(ECHAPPEMENT);
+        int longueurEchappement = table.getLongueur(ECHAPPEMENT) + Byte.SIZE;
+        for (int octet = 0; octet < codesEmpaquetes.length; octet++) {
+            long code = table.getLongueur(octet) > 0
+                        ? table.getCode(octet)
+                        : codeEchappement << Byte.SIZE | octet;
+            int longueur = table.getLongueur(octet) > 0
+                           ? table.getLongueur(octet)
+                           : longueurEchappement;
+            codesEmpaquetes[octet] = code << TableCodesCanonique.BITS_LONGUEUR
+                                     | longueur;
+        }
+    }
+
+    /**
+     * Entraîne un dictionnaire sur les occurrences des octets d'un corpus.
+     * Le symbole d'échappement reçoit une part fixe des occurrences
+     * (voir {@link #DECALAGE_ECHAPPEMENT}), et au moins une.
+     *
+     * @param occurences Les occurrences des octets du corpus.
+     * @return Le dictionnaire entraîné.
+     * @throws IOException Si une erreur d'entrée/sortie se produit lors
+     *                     du calcul de l'identifiant.
+     */
+    public static Dictionnaire entrainer(HistogrammeOctets occurences)
+            throws IOException {
+        long[] frequences = new long[ECHAPPEMENT + 1];
+        for (int octet = 0; octet < ECHAPPEMENT; octet++) {
+            frequences[octet] = occurences.getOccurrences(octet);
+        }
+        frequences[ECHAPPEMENT] = Math.max(1, occurences.getTotal()
+                                              >>> DECALAGE_ECHAPPEMENT);
+
+        int[] longueurs = LimiteurLongueurs.limiter(
+                frequences,
+                new ArbreHuffmanPlat(frequences).calculerLongueursCodes(),
+                LONGUEUR_MAXIMALE);
+        return new Dictionnaire(new TableCodesCanonique(longueurs));
+    }
+
+    /**
+     * Entraîne un dictionnaire sur les octets d'un ensemble de fichiers.
+     *
+     * @param fichiers Les fichiers du corpus.
+     * @return Le dictionnaire entraîné.
+     * @throws IOException Si un fichier ne peut pas être lu.
+     */
+    public static Dictionnaire entrainer(List<Path> fichiers)
+            throws IOException {
+        HistogrammeOctets occurences = new HistogrammeOctets();
+        for (Path fichier : fichiers) {
+            occurences.fusionner(
+                    CompteurOccurrencesParallele.compter(fichier.toString()));
+        }
+        return entrainer(occurences);
+    }
+
+    /**
+     * Calcule l'identifiant d'une table : la somme de contrôle CRC-32
+     * de sa forme écrite.
+     *
+     * @param table La table des codes.
+     * @return L'identifiant de la table.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    private static int calculerIdentifiant(TableCodesCanonique table)
+            throws IOException {
+        ByteArrayOutputStream octets = new ByteArrayOutputStream();
+        table.ecrire(new DataOutputStream(octets));
+        CRC32 somme = new CRC32();
+        somme.update(octets.toByteArray());
+        return (int) somme.getValue();
+    }
+
+    /**
+     * Enregistre le dictionnaire dans un fichier.
+     *
+     * @param chemin Le chemin du fichier dictionnaire.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public void ecrire(Path chemin) throws IOException {
+        try (DataOutputStream sortie = new DataOutputStream(
+                Files.newOutputStream(chemin))) {
+            sortie.writeInt(NOMBRE_MAGIQUE);
+            sortie.writeByte(VERSION);
+            sortie.writeInt(identifiant);
+            table.ecrire(sortie);
+        }
+    }
+
+    /**
+     * Lit un dictionnaire enregistré par {@link #ecrire}.
+     *
+     * @param chemin Le chemin du fichier dictionnaire.
+     * @return Le dictionnaire lu.
+     * @throws IOException Si une erreur d'entrée/sortie se produit ou si
+     *                     le fichier n'est pas un dictionnaire valide.
+     */
+    public static Dictionnaire lire(Path chemin) throws IOException {
+        try (DataInputStream entree = new DataInputStream(
+                Files.newInputStream(chemin))) {
+            if (entree.readInt() != NOMBRE_MAGIQUE) {
+                throw new IOException("Le fichier " + chemin + " n'est pas "
+                                      + "un dictionnaire.");
+            }
+            int version = entree.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Version de dictionnaire non prise en "
+                                      + "charge : " + version);
+            }
+            int identifiant = entree.readInt();
+            Dictionnaire dictionnaire;
+            try {
+                dictionnaire = new Dictionnaire(TableCodesCanonique.lire(entree));
+            } catch (IllegalArgumentException erreur) {
+                throw new IOException("Dictionnaire corrompu : "
+                                      + erreur.getMessage());
+            }
+            if (dictionnaire.getIdentifiant() != identifiant) {
+                throw new IOException("Dictionnaire corrompu : identifiant "
+                                      + "incorrect.");
+            }
+            return dictionnaire;
+        }
+    }
+
+    /**
+     * Décode les octets codés avec ce dictionnaire et les écrit dans
+     * un flux. Le décodage s'arrête après le nombre d'octets attendu :
+     * les bits de complément du dernier octet sont ignorés.
+     *
+     * @param lecteur Le lecteur fournissant les bits compressés.
+     * @param nombreOctets Le nombre d'octets à décoder.
+     * @param sortie Le flux recevant les octets décodés.
+     * @throws IOException Si une erreur d'entrée/sortie se produit ou si
+     *                     les bits sont corrompus ou trop courts.
+     */
+    public void decoder(LecteurBits lecteur, long nombreOctets,
+                        OutputStream sortie) throws IOException {
+        byte[] bloc = new byte[GestionFichier.TAILLE_BLOC];
+        int tailleBloc = 0;
+
+        for (long restants = nombreOctets; restants > 0; restants--) {
+            int entree = decodeur.decoder(lecteur.getFenetre());
+            if (entree == 0 || lecteur.estEpuise()) {
+                throw new IOException("Données compressées corrompues.");
+            }
+            lecteur.consommer(DecodeurHuffman.longueur(entree));
+            int symbole = DecodeurHuffman.symbole(entree);
+            if (symbole == ECHAPPEMENT) {
+                symbole = (int) lecteur.lire(Byte.SIZE);
+            }
+
+            bloc[tailleBloc++] = (byte) symbole;
+            if (tailleBloc == bloc.length) {
+                sortie.write(bloc, 0, tailleBloc);
+                tailleBloc = 0;
+            }
+        }
+        sortie.write(bloc, 0, tailleBloc);
+    }
+
+    /**
+     * Retourne l'identifiant du dictionnaire.
+     *
+     * @return L'identifiant, écrit dans l'en-tête des fichiers compressés
+     *         avec ce dictionnaire.
+     */
+    public int getIdentifiant() {
+        return identifiant;
+    }
+
+    /**
+     * Retourne la table des codes du dictionnaire.
+     *
+     * @return La table des codes des octets et du symbole d'échappement.
+     */
+    public TableCodesCanonique getTable() {
+        return table;
+    }
+
+    /**
+     * Retourne, pour chaque octet, son code empaqueté (voir
+     * {@link TableCodesCanonique#getCodesEmpaquetes}) : le code de l'octet,
+     * ou, s'il n'en a pas, le code d'échappement suivi de ses 8 bits.
+     *
+     * @return Un nouveau tableau indicé par octet.
+     */
+    public long[] getCodesEmpaquetes() {
+        return codesEmpaquetes.clone();
+    }
+
+    /**
+     * Retourne le nombre d'octets possédant un code propre.
+     *
+     * @return Le nombre d'octets présents dans le corpus d'entraînement.
+     */
+    public int getNombreOctetsCodes() {
+        return table.getNombreSymboles() - 1;
+    }
+}
@@ -0,0 +1,490 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * EnteteArchive.java                        18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * En-tête d'un fichier compressé.
+ * <br>
+ * Un fichier compressé est autonome : il contient, dans l'ordre,
+ * <ul>
+ *     <li>le nombre magique {@link #NOMBRE_MAGIQUE} (4 octets) ;</li>
+ *     <li>la version du format (1 octet) ;</li>
+ *     <li>les options de compression (1 octet) ;</li>
+ *     <li>la taille du fichier d'origine, en octets (8 octets), sauf si
+ *         l'option {@link #OPTION_ADAPTATIF} est activée ;</li>
+ *     <li>si l'option {@link #OPTION_DICTIONNAIRE} est activée,
+ *         l'identifiant du dictionnaire (4 octets) ;</li>
+ *     <li>si l'option {@link #OPTION_BLOCS} est activée, la taille
+ *         d'origine d'un bloc, en octets (4 octets), ou la taille maximale
+ *         d'un bloc avec l'option {@link #OPTION_DECOUPAGE_VARIABLE} ;</li>
+ *     <li>les blocs : chacun commence par son en-tête
+ *         (voir {@link EnteteBloc}), suivi de ses données compressées ;</li>
+ *     <li>si l'option {@link #OPTION_INDEX} est activée, l'index des blocs
+ *         (voir {@link IndexBlocs}) ;</li>
+ *     <li>si l'option {@link #OPTION_ACCES} est activée, l'index d'accès
+ *         (voir {@link IndexAcces}).</li>
+ * </ul>
+ * Sans l'option {@link #OPTION_BLOCS}, le fichier ne contient qu'un seul
+ * bloc, qui couvre tout le fichier d'origine. Sinon, le fichier d'origine
+ * est découpé en blocs de même taille (le dernier pouvant être plus court),
+ * compressés indépendamment les uns des autres.
+ * Avec l'option {@link #OPTION_DECOUPAGE_VARIABLE}, les blocs sont de
+ * tailles variables, coupés là où la répartition des octets change, et
+ * un bloc peut réutiliser la table de codes du bloc qui le précède
+ * (voir {@link DecoupeurBlocs}).
+ * <br>
+ * Avec l'option {@link #OPTION_ADAPTATIF}, l'en-tête est directement suivi
+ * des données codées en un seul passage (voir {@link CodecAdaptatif}),
+ * sans table ni taille d'origine, qui n'est pas connue au moment d'écrire
+ * l'en-tête : la fin des données est marquée par un symbole spécial.
+ * <br>
+ * Avec l'option {@link #OPTION_DICTIONNAIRE}, l'en-tête est directement
+ * suivi des données codées avec les codes d'un {@link Dictionnaire},
+ * sans table ni nombre de bits : le décodage s'arrête après la taille
+ * d'origine. Le dictionnaire, désigné par son identifiant, n'est pas
+ * contenu dans le fichier.
+ * <br>
+ * Toutes les tailles sont codées sur 64 bits : un fichier de plusieurs
+ * dizaines de Go se compresse comme un petit fichier.
+ * Le tout se lit en une seule lecture séquentielle : aucun fichier annexe
+ * n'est nécessaire pour décompresser.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class EnteteArchive {
+
+    /**
+     * Nombre magique placé en tête de chaque fichier compressé
+     * (les caractères "HUFF").
+     */
+    public static final int NOMBRE_MAGIQUE = 0x48554646;
+
+    /**
+     * Version du format écrite par cette version de l'application.
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * Option indiquant que le fichier d'origine a été découpé en blocs
+     * compressés indépendamment.
+     */
+    public static final int OPTION_BLOCS = 1;
+
+    /**
+     * Option indiquant que les blocs sont suivis de leur index.
+     */
+    public static final int OPTION_INDEX = 2;
+
+    /**
+     * Option indiquant que les données sont codées par un arbre de Huffman
+     * adaptatif, sans table ni taille d'origine.
+     */
+    public static final int OPTION_ADAPTATIF = 4;
+
+    /**
+     * Option indiquant que les blocs sont de tailles variables et que
+     * chacun peut réutiliser la table du bloc précédent.
+     * Elle n'est valide qu'avec l'option {@link #OPTION_BLOCS}.
+     */
+    public static final int OPTION_DECOUPAGE_VARIABLE = 8;
+
+    /**
+     * Option indiquant que le fichier se termine par un index d'accès,
+     * qui permet d'en extraire une partie sans le décompresser entièrement.
+     * Elle n'est pas valide avec l'option {@link #OPTION_ADAPTATIF}.
+     */
+    public static final int OPTION_ACCES = 16;
+
+    /**
+     * Option indiquant que les données sont codées avec les codes d'un
+     * dictionnaire, désigné par son identifiant. Elle n'est valide avec
+     * aucune autre option.
+     */
+    public static final int OPTION_DICTIONNAIRE = 32;
+
+    /**
+     * Ensemble des options connues de cette version de l'application.
+     */
+    private static final int OPTIONS_CONNUES =
+            OPTION_BLOCS | OPTION_INDEX | OPTION_ADAPTATIF
+            | OPTION_DECOUPAGE_VARIABLE | OPTION_ACCES | OPTION_DICTIONNAIRE;
+
+    /**
+     * Options de compression du fichier.
+     */
+    private final int options;
+
+    /**
+     * Taille du fichier d'origine, en octets, -1 si elle est inconnue.
+     */
+    private final long tailleOriginale;
+
+    /**
+     * Taille d'origine d'un bloc, ou taille maximale des blocs de tailles
+     * variables, en octets, 0 si le fichier n'est pas découpé en blocs.
+     */
+    private final int tailleBloc;
+
+    /**
+     * Identifiant du dictionnaire des codes, 0 sans dictionnaire.
+     */
+    private final int identifiantDictionnaire;
+
+    /**
+     * Construit l'en-tête d'un fichier compressé en un seul bloc.
+     *
+     * @param tailleOriginale La taille du fichier d'origine, en octets.
+     */
+    public EnteteArchive(long tailleOriginale) {
+        this(0, tailleOriginale, 0);
+    }
+
+    /**
+     * Construit l'en-tête d'un fichier compressé par blocs,
+     * dont les blocs sont suivis de leur index.
+     *
+     * @param tailleOriginale La taille du fichier d'origine, en octets.
+     * @param tailleBloc La taille d'origine d'un bloc, en octets.
+     */
+    public EnteteArchive(long tailleOriginale, int tailleBloc) {
+        this(tailleOriginale, tailleBloc, false);
+    }
+
+    /**
+     * Construit l'en-tête d'un fichier compressé par blocs de taille fixe
+     * ou variable, dont les blocs sont suivis de leur index.
+     *
+     * @param tailleOriginale La taille du fichier d'origine, en octets.
+     * @param tailleBloc La taille d'origine d'un bloc, ou la taille
+     *                   maximale des blocs de tailles variables, en octets.
+     * @param decoupageVariable true si les blocs sont de tailles variables.
+     */
+    public EnteteArchive(long tailleOriginale, int tailleBloc,
+                         boolean decoupageVariable) {
+        this(OPTION_BLOCS | OPTION_INDEX
+             | (decoupageVariable ? OPTION_DECOUPAGE_VARIABLE : 0),
+             tailleOriginale, tailleBloc);
+    }
+
+    /**
+     * Construit l'en-tête d'un fichier compressé par un arbre de Huffman
+     * adaptatif, dont la taille d'origine n'est pas connue.
+     *
+     * @return L'en-tête créé.
+     */
+    public static EnteteArchive adaptatif() {
+        return new EnteteArchive(OPTION_ADAPTATIF, -1, 0);
+    }
+
+    /**
+     * Construit l'en-tête d'un fichier compressé avec les codes
+     * d'un dictionnaire.
+     *
+     * @param tailleOriginale La taille du fichier d'origine, en octets.
+     * @param identifiantDictionnaire L'identifiant du dictionnaire.
+     * @return L'en-tête créé.
+     */
+    public static EnteteArchive avecDictionnaire(long tailleOriginale,
+                                                 int identifiantDictionnaire) {
+        return new EnteteArchive(OPTION_DICTIONNAIRE, tailleOriginale,
+                                 0, identifiantDictionnaire);
+    }
+
+    /**
+     * Retourne le même en-tête, complété de l'option {@link #OPTION_ACCES} :
+     * le fichier compressé se terminera par un index d'accès.
+     *
+     * @return L'en-tête avec index d'accès.
+     * @throws IllegalStateException Si le fichier est compressé avec
+     *                               le codage adaptatif.
+     */
+    public EnteteArchive avecIndexAcces() {
+        if (estAdaptatif()) {
+            throw new IllegalStateException("Le codage adaptatif ne permet "
+                                            + "pas d'index d'accès.");
+        }
+        if (utiliseDictionnaire()) {
+            throw new IllegalStateException("Le codage avec un dictionnaire "
+                                            + "ne permet pas d'index "
+                                            + "d'accès.");
+        }
+        return new EnteteArchive(options | OPTION_ACCES,
+                                 tailleOriginale, tailleBloc);
+    }
+
+    /**
+     * Construit un en-tête lu dans un fichier compressé.
+     *
+     * @param options Les options de compression du fichier.
+     * @param tailleOriginale La taille du fichier d'origine, en octets.
+     * @param tailleBloc La taille d'origine d'un bloc, 0 sans découpage.
+     */
+    private EnteteArchive(int options, long tailleOriginale, int tailleBloc) {
+        this(options, tailleOriginale, tailleBloc, 0);
+    }
+
+    /**
+     * Construit un en-tête lu dans un fichier compressé, éventuellement
+     * avec un dictionnaire.
+     *
+     * @param options Les options de compression du fichier.
+     * @param tailleOriginale La taille du fichier d'origine, en octets.
+     * @param tailleBloc La taille d'origine d'un bloc, 0 sans découpage.
+     * @param identifiantDictionnaire L'identifiant du dictionnaire,
+     *                                0 sans dictionnaire.
+     */
+    private EnteteArchive(int options, long tailleOriginale, int tailleBloc,
+                          int identifiantDictionnaire) {
+        this.options = options;
+        this.tailleOriginale = tailleOriginale;
+        this.tailleBloc = tailleBloc;
+        this.identifiantDictionnaire = identifiantDictionnaire;
+    }
+
+    /**
+     * Retourne les options de compression du fichier.
+     *
+     * @return Les options, 0 si aucune n'est activée.
+     */
+    public int getOptions() {
+        return options;
+    }
+
+    /**
+     * Indique si le fichier d'origine a été découpé en blocs.
+     *
+     * @return true si l'option {@link #OPTION_BLOCS} est activée.
+     */
+    public boolean estParBlocs() {
+        return (options & OPTION_BLOCS) != 0;
+    }
+
+    /**
+     * Indique si les blocs sont suivis de leur index.
+     *
+     * @return true si l'option {@link #OPTION_INDEX} est activée.
+     */
+    public boolean aUnIndex() {
+        return (options & OPTION_INDEX) != 0;
+    }
+
+    /**
+     * Indique si les données sont codées par un arbre de Huffman adaptatif.
+     *
+     * @return true si l'option {@link #OPTION_ADAPTATIF} est activée.
+     */
+    public boolean estAdaptatif() {
+        return (options & OPTION_ADAPTATIF) != 0;
+    }
+
+    /**
+     * Indique si les blocs sont de tailles variables, chacun pouvant
+     * réutiliser la table du bloc précédent.
+     *
+     * @return true si l'option {@link #OPTION_DECOUPAGE_VARIABLE}
+     *         est activée.
+     */
+    public boolean estDecoupageVariable() {
+        return (options & OPTION_DECOUPAGE_VARIABLE) != 0;
+    }
+
+    /**
+     * Indique si le fichier se termine par un index d'accès.
+     *
+     * @return true si l'option {@link #OPTION_ACCES} est activée.
+     */
+    public boolean aUnIndexAcces() {
+        return (options & OPTION_ACCES) != 0;
+    }
+
+    /**
+     * Indique si les données sont codées avec les codes d'un dictionnaire.
+     *
+     * @return true si l'option {@link #OPTION_DICTIONNAIRE} est activée.
+     */
+    public boolean utiliseDictionnaire() {
+        return (options & OPTION_DICTIONNAIRE) != 0;
+    }
+
+    /**
+     * Retourne l'identifiant du dictionnaire des codes.
+     *
+     * @return L'identifiant du dictionnaire, 0 sans l'option
+     *         {@link #OPTION_DICTIONNAIRE}.
+     */
+    public int getIdentifiantDictionnaire() {
+        return identifiantDictionnaire;
+    }
+
+    /**
+     * Retourne la taille du fichier d'origine.
+     *
+     * @return La taille du fichier d'origine, en octets, -1 si elle
+     *         n'est pas connue (option {@link #OPTION_ADAPTATIF}).
+     */
+    public long getTailleOriginale() {
+        return tailleOriginale;
+    }
+
+    /**
+     * Retourne la taille d'origine d'un bloc.
+     *
+     * @return La taille d'un bloc, ou la taille maximale des blocs
+     *         de tailles variables, en octets, 0 si le fichier n'est pas
+     *         découpé en blocs.
+     */
+    public int getTailleBloc() {
+        return tailleBloc;
+    }
+
+    /**
+     * Retourne le nombre de blocs du fichier.
+     *
+     * @return Le nombre de blocs, 1 si le fichier n'est pas découpé,
+     *         -1 si les blocs sont de tailles variables : leur nombre
+     *         est alors donné par l'index.
+     */
+    public long getNombreBlocs() {
+        if (!estParBlocs()) {
+            return 1;
+        }
+        if (estDecoupageVariable()) {
+            return -1;
+        }
+        return (tailleOriginale + tailleBloc - 1) / tailleBloc;
+    }
+
+    /**
+     * Retourne la taille d'origine d'un bloc donné, lorsque les blocs
+     * sont de taille fixe.
+     *
+     * @param numeroBloc Le numéro du bloc, à partir de 0.
+     * @return La taille d'origine de ce bloc, en octets.
+     */
+    public long getTailleOriginaleBloc(long numeroBloc) {
+        if (!estParBlocs()) {
+            return tailleOriginale;
+        }
+        return Math.min(tailleBloc, tailleOriginale - numeroBloc * tailleBloc);
+    }
+
+    /**
+     * Écrit l'en-tête au début d'un fichier compressé.
+     *
+     * @param sortie Le flux dans lequel écrire l'en-tête.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public void ecrire(DataOutput sortie) throws IOException {
+        sortie.writeInt(NOMBRE_MAGIQUE);
+        sortie.writeByte(VERSION);
+        sortie.writeByte(options);
+        if (!estAdaptatif()) {
+            sortie.writeLong(tailleOriginale);
+        }
+        if (utiliseDictionnaire()) {
+            sortie.writeInt(identifiantDictionnaire);
+        }
+        if (estParBlocs()) {
+            sortie.writeInt(tailleBloc);
+        }
+    }
+
+    /**
+     * Lit l'en-tête d'un fichier compressé.
+     *
+     * @param entree Le flux positionné au début du fichier compressé.
+     * @return L'en-tête lu.
+     * @throws IOException Si une erreur d'entrée/sortie se produit, si le
+     *                     fichier n'est pas un fichier compressé ou si sa
+     *                     version ou ses options ne sont pas prises
+     *                     en charge.
+     */
+    public static EnteteArchive lire(DataInput entree) throws IOException {
+        if (entree.readInt() != NOMBRE_MAGIQUE) {
+            throw new IOException("Le fichier n'est pas un fichier compressé "
+                                  + "par cette application.");
+        }
+        int version = entree.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Version de fichier compressé non prise en "
+                                  + "charge : " + version);
+        }
+        int options = entree.readUnsignedByte();
+        if ((options & ~OPTIONS_CONNUES) != 0) {
+            throw new IOException("Options de compression non prises en "
+                                  + "charge : " + options);
+        }
+        if ((options & OPTION_ADAPTATIF) != 0) {
+            if (options != OPTION_ADAPTATIF) {
+                throw new IOException("En-tête de fichier compressé "
+                                      + "corrompu.");
+            }
+            return new EnteteArchive(options, -1, 0);
+        }
+        long tailleOriginale = entree.readLong();
+        if ((options & OPTION_DICTIONNAIRE) != 0) {
+            if (options != OPTION_DICTIONNAIRE || tailleOriginale < 0) {
+                throw new IOException("En-tête de fichier compressé "
+                                      + "corrompu.");
+            }
+            return new EnteteArchive(options, tailleOriginale, 0,
+                                     entree.readInt());
+        }
+        int tailleBloc = (options & OPTION_BLOCS) != 0 ? entree.readInt() : 0;
+        if (tailleOriginale < 0 || tailleBloc < 0
+            || (options & OPTION_BLOCS) != 0 && tailleBloc == 0
+            || (options & OPTION_INDEX) != 0 && (options & OPTION_BLOCS) == 0
+            || (options & OPTION_DECOUPAGE_VARIABLE) != 0
+               && (options & OPTION_BLOCS) == 0) {
+            throw new IOException("En-tête de fichier compressé corrompu.");
+        }
+        return new EnteteArchive(options, tailleOriginale, tailleBloc);
+    }
+
+    /**
+     * Lit l'en-tête du bloc suivant.
+     *
+     * @param entree Le flux positionné au début du bloc.
+     * @return L'en-tête du bloc.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si l'en-tête est corrompu.
+     */
+    public EnteteBloc lireBloc(DataInput entree) throws IOException {
+        return EnteteBloc.lire(entree);
+    }
+
+    /**
+     * Lit l'en-tête du bloc suivant, selon le découpage des blocs
+     * du fichier.
+     *
+     * @param entree Le flux positionné au début du bloc.
+     * @param tablePrecedente La table du bloc précédent, null pour
+     *                        le premier bloc ; elle n'est utilisée que
+     *                        pour les blocs de tailles variables.
+     * @return L'en-tête du bloc.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si l'en-tête est corrompu.
+     */
+    public EnteteBloc lireBloc(DataInput entree,
+                               TableCodesCanonique tablePrecedente)
+            throws IOException {
+        if (estDecoupageVariable()) {
+            EnteteBloc bloc = EnteteBloc.lire(entree, tablePrecedente);
+            if (bloc.getTailleOriginale() > tailleBloc) {
+                throw new IOException("En-tête de bloc corrompu.");
+            }
+            return bloc;
+        }
+        return lireBloc(entree);
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * EnteteBloc.java                           18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * En-tête d'un bloc de données compressées.
+ * <br>
+ * Chaque bloc est précédé du nombre de bits de ses données compressées
+ * (8 octets) et de la table des codes canoniques qui a servi à les encoder
+ * (voir {@link TableCodesCanonique#ecrire}). Un bloc peut ainsi être
+ * décodé sans connaître les autres blocs du fichier.
+ * <br>
+ * Les blocs de taille variable (voir
+ * {@link EnteteArchive#OPTION_DECOUPAGE_VARIABLE}) commencent par leur
+ * taille d'origine (4 octets), suivie du nombre de bits, puis d'un octet
+ * indiquant si le bloc réutilise la table du bloc précédent : la table
+ * n'est écrite que s'il ne la réutilise pas.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class EnteteBloc {
+
+    /**
+     * Nombre de bits significatifs des données compressées du bloc.
+     */
+    private final long nombreBits;
+
+    /**
+     * Table des codes canoniques utilisée pour encoder le bloc.
+     */
+    private final TableCodesCanonique table;
+
+    /**
+     * Taille d'origine du bloc, en octets, -1 si elle n'est pas écrite
+     * dans l'en-tête (bloc de taille fixe).
+     */
+    private final int tailleOriginale;
+
+    /**
+     * Indique si la table est celle du bloc précédent.
+     */
+    private final boolean tableReutilisee;
+
+    /**
+     * Construit l'en-tête d'un bloc de taille fixe.
+     *
+     * @param nombreBits Le nombre de bits des données compressées du bloc.
+     * @param table La table des codes canoniques utilisée.
+     */
+    public EnteteBloc(long nombreBits, TableCodesCanonique table) {
+        this(nombreBits, table, -1, false);
+    }
+
+    /**
+     * Construit l'en-tête d'un bloc de taille variable.
+     *
+     * @param nombreBits Le nombre de bits des données compressées du bloc.
+     * @param table La table des codes canoniques utilisée.
+     * @param tailleOriginale La taille d'origine du bloc, en octets.
+     * @param tableReutilisee true si la table est celle du bloc précédent,
+     *                        qui n'est alors pas écrite de nouveau.
+     */
+    public EnteteBloc(long nombreBits, TableCodesCanonique table,
+                      int tailleOriginale, boolean tableReutilisee) {
+        this.nombreBits = nombreBits;
+        this.table = table;
+        this.tailleOriginale = tailleOriginale;
+        this.tableReutilisee = tableReutilisee;
+    }
+
+    /**
+     * Retourne le nombre de bits des données compressées du bloc.
+     *
+     * @return Le nombre de bits significatifs qui suivent l'en-tête,
+     *         bits de complément du dernier octet exclus.
+     */
+    public long getNombreBits() {
+        return nombreBits;
+    }
+
+    /**
+     * Retourne le nombre d'octets occupés par les données compressées
+     * du bloc, dernier octet incomplet compris.
+     *
+     * @return La taille des données compressées, en octets.
+     */
+    public long getTailleDonnees() {
+        return (nombreBits + 7) / 8;
+    }
+
+    /**
+     * Retourne la table des codes canoniques utilisée pour le bloc.
+     *
+     * @return La table des codes canoniques.
+     */
+    public TableCodesCanonique getTable() {
+        return table;
+    }
+
+    /**
+     * Retourne la taille d'origine du bloc.
+     *
+     * @return La taille d'origine, en octets, -1 pour un bloc de taille
+     *         fixe, dont la taille est donnée par l'en-tête du fichier.
+     */
+    public int getTailleOriginale() {
+        return tailleOriginale;
+    }
+
+    /**
+     * Indique si le bloc réutilise la table du bloc précédent.
+     *
+     * @return true si la table n'est pas écrite dans l'en-tête du bloc.
+     */
+    public boolean estTableReutilisee() {
+        return tableReutilisee;
+    }
+
+    /**
+     * Écrit l'en-tête du bloc, au format des blocs de taille variable
+     * si sa taille d'origine est connue.
+     *
+     * @param sortie Le flux dans lequel écrire l'en-tête.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public void ecrire(DataOutput sortie) throws IOException {
+        if (tailleOriginale >= 0) {
+            sortie.writeInt(tailleOriginale);
+            sortie.writeLong(nombreBits);
+            sortie.writeBoolean(tableReutilisee);
+            if (!tableReutilisee) {
+                table.ecrire(sortie);
+            }
+        } else {
+            sortie.writeLong(nombreBits);
+            table.ecrire(sortie);
+        }
+    }
+
+    /**
+     * Lit l'en-tête d'un bloc.
+     *
+     * @param entree Le flux positionné au début du bloc.
+     * @return L'en-tête lu.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si l'en-tête est corrompu.
+     */
+    public static EnteteBloc lire(DataInput entree) throws IOException {
+        long nombreBits = entree.readLong();
+        if (nombreBits < 0) {
+            throw new IOException("En-tête de bloc corrompu.");
+        }
+        return new EnteteBloc(nombreBits, TableCodesCanonique.lire(entree));
+    }
+
+    /**
+     * Lit l'en-tête d'un bloc de taille variable.
+     *
+     * @param entree Le flux positionné au début du bloc.
+     * @param tablePrecedente La table du bloc précédent, null pour
+     *                        le premier bloc.
+     * @return L'en-tête lu, dont la table est celle du bloc précédent
+     *         si le bloc la réutilise.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si l'en-tête est corrompu.
+     */
+    public static EnteteBloc lire(DataInput entree,
+                                  TableCodesCanonique tablePrecedente)
+            throws IOException {
+        int tailleOriginale = entree.readInt();
+        long nombreBits = entree.readLong();
+        int reutilisation = entree.readUnsignedByte();
+        if (tailleOriginale <= 0 || nombreBits < 0 || reutilisation > 1
+            || reutilisation == 1 && tablePrecedente == null) {
+            throw new IOException("En-tête de bloc corrompu.");
+        }
+        boolean tableReutilisee = reutilisation == 1;
+        TableCodesCanonique table = tableReutilisee
+                                    ? tablePrecedente
+                                    : TableCodesCanonique.lire(entree);
+        return new EnteteBloc(nombreBits, table, tailleOriginale,
+                              tableReutilisee);
+    }
+}
@@ -0,0 +1,442 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * IndexAcces.java                           18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Index d'accès d'un fichier compressé : il permet d'extraire une partie
+ * du fichier d'origine en ne décodant que les intervalles qui la couvrent
+ * (voir {@link LecteurAccesAleatoire}).
+ * <br>
+ * L'index est écrit à la toute fin du fichier, après l'index des blocs
+ * s'il y en a un. Il contient l'intervalle entre deux points d'accès
+ * (4 octets) et un octet valant 1 si les lignes sont indexées, puis,
+ * pour chaque point d'accès (voir {@link PointsAcces}) :
+ * <ul>
+ *     <li>la position de l'en-tête de bloc qui porte la table de codes
+ *         du point (8 octets) ;</li>
+ *     <li>la position, en bits depuis le début du fichier compressé,
+ *         du premier code du point (8 octets) ;</li>
+ *     <li>le nombre de bits codant les octets du point (8 octets) ;</li>
+ *     <li>la position d'origine du premier octet du point (8 octets) ;</li>
+ *     <li>le nombre de fins de ligne qui le précèdent, ou -1 si les lignes
+ *         ne sont pas indexées (8 octets).</li>
+ * </ul>
+ * Il se termine par la position de son début (8 octets) et le nombre
+ * magique {@link EnteteArchive#NOMBRE_MAGIQUE} (4 octets).
+ * <br>
+ * Chaque point d'accès se décode seul, avec la table de son bloc :
+ * un intervalle ne s'étend jamais sur deux blocs.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class IndexAcces {
+
+    /**
+     * Taille du début de l'index (intervalle et indexation des lignes),
+     * en octets.
+     */
+    private static final int TAILLE_DEBUT = Integer.BYTES + 1;
+
+    /**
+     * Taille d'un point d'accès, en octets.
+     */
+    private static final int TAILLE_POINT = 5 * Long.BYTES;
+
+    /**
+     * Taille de la fin de l'index (position de l'index et nombre magique),
+     * en octets.
+     */
+    private static final int TAILLE_FIN = Long.BYTES + Integer.BYTES;
+
+    /**
+     * Intervalle entre deux points d'accès, en octets d'origine.
+     */
+    private final int intervalle;
+
+    /**
+     * Indique si les lignes sont indexées.
+     */
+    private final boolean lignes;
+
+    /**
+     * Points en cours d'écriture, lors de la construction de l'index.
+     */
+    private final ByteArrayOutputStream entrees;
+
+    /**
+     * Position de l'en-tête de bloc portant la table de chaque point.
+     */
+    private final long[] positionsTables;
+
+    /**
+     * Position du premier code de chaque point, en bits.
+     */
+    private final long[] positionsBits;
+
+    /**
+     * Nombre de bits codant les octets de chaque point.
+     */
+    private final long[] nombresBits;
+
+    /**
+     * Position d'origine de chaque point, suivie de la taille du fichier
+     * d'origine.
+     */
+    private final long[] positionsOriginales;
+
+    /**
+     * Nombre de fins de ligne précédant chaque point.
+     */
+    private final long[] lignesAvant;
+
+    /**
+     * Nombre de points de l'index.
+     */
+    private int nombrePoints;
+
+    /**
+     * Taille d'origine des blocs ajoutés, lors de la construction.
+     */
+    private long tailleOriginale;
+
+    /**
+     * Nombre de fins de ligne des blocs ajoutés, lors de la construction.
+     */
+    private long nombreLignes;
+
+    /**
+     * Construit un index vide, complété bloc par bloc au fur et à mesure
+     * de leur écriture.
+     *
+     * @param intervalle L'intervalle entre deux points d'accès, en octets
+     *                   d'origine.
+     * @param lignes true si les lignes sont indexées.
+     */
+    public IndexAcces(int intervalle, boolean lignes) {
+        this.intervalle = intervalle;
+        this.lignes = lignes;
+        this.entrees = new ByteArrayOutputStream();
+        this.positionsTables = null;
+        this.positionsBits = null;
+        this.nombresBits = null;
+        this.positionsOriginales = null;
+        this.lignesAvant = null;
+    }
+
+    /**
+     * Construit un index lu dans un fichier compressé.
+     *
+     * @param intervalle L'intervalle entre deux points d'accès.
+     * @param lignes true si les lignes sont indexées.
+     * @param positionsTables La position de la table de chaque point.
+     * @param positionsBits La position de chaque point, en bits.
+     * @param nombresBits Le nombre de bits de chaque point.
+     * @param positionsOriginales La position d'origine de chaque point,
+     *                            puis la taille du fichier d'origine.
+     * @param lignesAvant Le nombre de fins de ligne précédant chaque point.
+     */
+    private IndexAcces(int intervalle, boolean lignes, long[] positionsTables,
+                       long[] positionsBits, long[] nombresBits,
+                       long[] positionsOriginales, long[] lignesAvant) {
+        this.intervalle = intervalle;
+        this.lignes = lignes;
+        this.entrees = null;
+        this.positionsTables = positionsTables;
+        this.positionsBits = positionsBits;
+        this.nombresBits = nombresBits;
+        this.positionsOriginales = positionsOriginales;
+        this.lignesAvant = lignesAvant;
+        this.nombrePoints = positionsTables.length;
+    }
+
+    /**
+     * Ajoute à l'index en construction les points d'accès d'un bloc,
+     * en rapportant leurs positions au fichier entier.
+     *
+     * @param points Les points relevés pendant l'encodage du bloc.
+     * @param positionTable La position de l'en-tête de bloc qui porte
+     *                      la table des codes du bloc : celle du bloc
+     *                      lui-même, ou celle du bloc dont il réutilise
+     *                      la table.
+     * @param positionDonnees La position des données compressées du bloc,
+     *                        après son en-tête.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public void ajouter(PointsAcces points, long positionTable,
+                        long positionDonnees) throws IOException {
+        DataOutputStream sortie = new DataOutputStream(entrees);
+        for (int point = 0; point < points.getNombrePoints(); point++) {
+            sortie.writeLong(positionTable);
+            sortie.writeLong(positionDonnees * Byte.SIZE
+                             + points.getPositionBits(point));
+            sortie.writeLong(points.getNombreBits(point));
+            sortie.writeLong(tailleOriginale
+                             + points.getPositionOriginale(point));
+            sortie.writeLong(lignes
+                             ? nombreLignes + points.getLignesAvant(point)
+                             : -1);
+        }
+        nombrePoints += points.getNombrePoints();
+        tailleOriginale += points.getTailleOriginale();
+        nombreLignes += points.getNombreLignes();
+    }
+
+    /**
+     * Écrit l'index construit à la fin du fichier compressé.
+     *
+     * @param sortie Le flux du fichier compressé, positionné après
+     *               le dernier bloc ou l'index des blocs.
+     * @param positionIndex La position courante dans le fichier compressé,
+     *                      où commence l'index.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public void ecrire(OutputStream sortie, long positionIndex)
+            throws IOException {
+        DataOutputStream fluxDonnees = new DataOutputStream(sortie);
+        fluxDonnees.writeInt(intervalle);
+        fluxDonnees.writeByte(lignes ? 1 : 0);
+        entrees.writeTo(fluxDonnees);
+        fluxDonnees.writeLong(positionIndex);
+        fluxDonnees.writeInt(EnteteArchive.NOMBRE_MAGIQUE);
+        fluxDonnees.flush();
+    }
+
+    /**
+     * Lit la position du début de l'index d'accès, à la fin d'un fichier
+     * compressé : tout ce qui précède cette position appartient aux blocs
+     * ou à leur index.
+     *
+     * @param canal Le canal ouvert en lecture sur le fichier compressé.
+     * @return La position du début de l'index d'accès.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si l'index est introuvable.
+     */
+    public static long lirePosition(FileChannel canal) throws IOException {
+        long tailleFichier = canal.size();
+        if (tailleFichier < TAILLE_DEBUT + TAILLE_FIN) {
+            throw new IOException("Index d'accès introuvable.");
+        }
+        ByteBuffer fin = IndexBlocs.lire(canal, tailleFichier - TAILLE_FIN,
+                                         TAILLE_FIN);
+        long positionIndex = fin.getLong();
+        if (fin.getInt() != EnteteArchive.NOMBRE_MAGIQUE
+            || positionIndex < 0
+            || positionIndex > tailleFichier - TAILLE_DEBUT - TAILLE_FIN) {
+            throw new IOException("Index d'accès corrompu.");
+        }
+        return positionIndex;
+    }
+
+    /**
+     * Lit l'index d'accès à la fin d'un fichier compressé.
+     *
+     * @param canal Le canal ouvert en lecture sur le fichier compressé.
+     * @param tailleOriginale La taille du fichier d'origine, annoncée
+     *                        par l'en-tête.
+     * @return L'index lu.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si l'index est corrompu.
+     */
+    public static IndexAcces lire(FileChannel canal, long tailleOriginale)
+            throws IOException {
+        long positionIndex = lirePosition(canal);
+        long taillePoints = canal.size() - TAILLE_FIN - TAILLE_DEBUT
+                            - positionIndex;
+        if (taillePoints % TAILLE_POINT != 0
+            || taillePoints > Integer.MAX_VALUE - TAILLE_DEBUT) {
+            throw new IOException("Index d'accès corrompu.");
+        }
+        int nombre = (int) (taillePoints / TAILLE_POINT);
+        ByteBuffer donnees = IndexBlocs.lire(canal, positionIndex,
+                                             TAILLE_DEBUT + (int) taillePoints);
+        int intervalle = donnees.getInt();
+        int lignes = donnees.get();
+
+        long[] positionsTables = new long[nombre];
+        long[] positionsBits = new long[nombre];
+        long[] nombresBits = new long[nombre];
+        long[] positionsOriginales = new long[nombre + 1];
+        long[] lignesAvant = new long[nombre];
+        for (int point = 0; point < nombre; point++) {
+            positionsTables[point] = donnees.getLong();
+            positionsBits[point] = donnees.getLong();
+            nombresBits[point] = donnees.getLong();
+            positionsOriginales[point] = donnees.getLong();
+            lignesAvant[point] = donnees.getLong();
+        }
+        positionsOriginales[nombre] = tailleOriginale;
+
+        if (intervalle < 1 || (lignes & ~1) != 0
+            || (nombre == 0) != (tailleOriginale == 0)
+            || nombre > 0 && positionsOriginales[0] != 0) {
+            throw new IOException("Index d'accès corrompu.");
+        }
+        for (int point = 0; point < nombre; point++) {
+            long taillePoint = positionsOriginales[point + 1]
+                               - positionsOriginales[point];
+            if (taillePoint < 1 || taillePoint > intervalle
+                || positionsTables[point] < 0
+                || positionsTables[point] >= positionIndex
+                || positionsBits[point] < 0 || nombresBits[point] < 0
+                || nombresBits[point] > positionIndex * Byte.SIZE
+                                        - positionsBits[point]
+                || (lignes == 1) != (lignesAvant[point] >= 0)
+                || point > 0 && lignesAvant[point] < lignesAvant[point - 1]) {
+                throw new IOException("Index d'accès corrompu.");
+            }
+        }
+        return new IndexAcces(intervalle, lignes == 1, positionsTables,
+                              positionsBits, nombresBits, positionsOriginales,
+                              lignesAvant);
+    }
+
+    /**
+     * Cherche le point d'accès dont l'intervalle contient un octet
+     * d'origine.
+     *
+     * @param position La position d'origine de l'octet, inférieure
+     *                 à la taille du fichier d'origine.
+     * @return Le numéro du dernier point placé avant l'octet ou sur lui.
+     */
+    public int chercherOctet(long position) {
+        int debut = 0;
+        int fin = nombrePoints - 1;
+        while (debut < fin) {
+            int milieu = (debut + fin + 1) >>> 1;
+            if (positionsOriginales[milieu] <= position) {
+                debut = milieu;
+            } else {
+                fin = milieu - 1;
+            }
+        }
+        return debut;
+    }
+
+    /**
+     * Cherche un point d'accès placé avant le début d'une ligne : c'est
+     * le dernier point précédé de moins de fins de ligne que la ligne
+     * n'en a avant elle.
+     *
+     * @param numeroLigne Le numéro de la ligne, à partir de 1.
+     * @return Le numéro du point, 0 si aucun point ne convient
+     *         (la ligne commence alors dans le premier intervalle).
+     */
+    public int chercherLigne(long numeroLigne) {
+        int debut = 0;
+        int fin = nombrePoints - 1;
+        while (debut < fin) {
+            int milieu = (debut + fin + 1) >>> 1;
+            if (lignesAvant[milieu] < numeroLigne - 1) {
+                debut = milieu;
+            } else {
+                fin = milieu - 1;
+            }
+        }
+        return debut;
+    }
+
+    /**
+     * Retourne l'intervalle entre deux points d'accès.
+     *
+     * @return L'intervalle, en octets d'origine.
+     */
+    public int getIntervalle() {
+        return intervalle;
+    }
+
+    /**
+     * Indique si les lignes sont indexées.
+     *
+     * @return true si chaque point retient le nombre de fins de ligne
+     *         qui le précèdent.
+     */
+    public boolean aDesLignes() {
+        return lignes;
+    }
+
+    /**
+     * Retourne le nombre de points de l'index.
+     *
+     * @return Le nombre de points d'accès.
+     */
+    public int getNombrePoints() {
+        return nombrePoints;
+    }
+
+    /**
+     * Retourne la position de l'en-tête de bloc qui porte la table
+     * de codes d'un point.
+     *
+     * @param point Le numéro du point, à partir de 0.
+     * @return La position de l'en-tête de bloc dans le fichier compressé.
+     */
+    public long getPositionTable(int point) {
+        return positionsTables[point];
+    }
+
+    /**
+     * Retourne la position du premier code d'un point.
+     *
+     * @param point Le numéro du point, à partir de 0.
+     * @return La position, en bits depuis le début du fichier compressé.
+     */
+    public long getPositionBits(int point) {
+        return positionsBits[point];
+    }
+
+    /**
+     * Retourne le nombre de bits codant les octets d'un point.
+     *
+     * @param point Le numéro du point, à partir de 0.
+     * @return Le nombre de bits de l'intervalle.
+     */
+    public long getNombreBits(int point) {
+        return nombresBits[point];
+    }
+
+    /**
+     * Retourne la position d'origine d'un point.
+     *
+     * @param point Le numéro du point, à partir de 0.
+     * @return La position de son premier octet dans le fichier d'origine.
+     */
+    public long getPositionOriginale(int point) {
+        return positionsOriginales[point];
+    }
+
+    /**
+     * Retourne la taille d'origine de l'intervalle d'un point.
+     *
+     * @param point Le numéro du point, à partir de 0.
+     * @return Le nombre d'octets d'origine jusqu'au point suivant ou la fin
+     *         du fichier, au plus l'intervalle entre deux points.
+     */
+    public int getTailleOriginale(int point) {
+        return (int) (positionsOriginales[point + 1]
+                      - positionsOriginales[point]);
+    }
+
+    /**
+     * Retourne le nombre de fins de ligne précédant un point.
+     *
+     * @param point Le numéro du point, à partir de 0.
+     * @return Le nombre de fins de ligne, -1 si les lignes ne sont pas
+     *         indexées.
+     */
+    public long getLignesAvant(int point) {
+        return lignesAvant[point];
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * IndexBlocs.java                           18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Index des blocs d'un fichier compressé par blocs.
+ * <br>
+ * L'index est écrit à la fin du fichier, après le dernier bloc. Il contient,
+ * pour chaque bloc, sa position dans le fichier compressé (8 octets) et sa
+ * taille d'origine (4 octets), suivis de la position du début de l'index
+ * (8 octets) et du nombre magique {@link EnteteArchive#NOMBRE_MAGIQUE}
+ * (4 octets). Il permet de trouver chaque bloc sans lire ceux qui le
+ * précèdent, et donc de les décompresser en parallèle.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class IndexBlocs {
+
+    /**
+     * Taille d'une entrée de l'index, en octets.
+     */
+    private static final int TAILLE_ENTREE = Long.BYTES + Integer.BYTES;
+
+    /**
+     * Taille de la fin de l'index (position de l'index et nombre magique),
+     * en octets.
+     */
+    private static final int TAILLE_FIN = Long.BYTES + Integer.BYTES;
+
+    /**
+     * Position de chaque bloc dans le fichier compressé, suivie de la
+     * position de l'index, qui marque la fin du dernier bloc.
+     */
+    private final long[] positions;
+
+    /**
+     * Taille d'origine de chaque bloc, en octets.
+     */
+    private final int[] taillesOriginales;
+
+    /**
+     * Entrées en cours d'écriture, lors de la construction de l'index.
+     */
+    private final ByteArrayOutputStream entrees;
+
+    /**
+     * Nombre de blocs de l'index.
+     */
+    private int nombreBlocs;
+
+    /**
+     * Construit un index vide, complété au fur et à mesure de l'écriture
+     * des blocs.
+     */
+    public IndexBlocs() {
+        this.positions = null;
+        this.taillesOriginales = null;
+        this.entrees = new ByteArrayOutputStream();
+    }
+
+    /**
+     * Construit un index lu dans un fichier compressé.
+     *
+     * @param positions La position de chaque bloc puis celle de l'index.
+     * @param taillesOriginales La taille d'origine de chaque bloc.
+     */
+    private IndexBlocs(long[] positions, int[] taillesOriginales) {
+        this.positions = positions;
+        this.taillesOriginales = taillesOriginales;
+        this.entrees = null;
+        this.nombreBlocs = taillesOriginales.length;
+    }
+
+    /**
+     * Ajoute un bloc à la fin de l'index en construction.
+     *
+     * @param position La position du bloc dans le fichier compressé.
+     * @param tailleOriginale La taille d'origine du bloc, en octets.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public void ajouter(long position, int tailleOriginale)
+            throws IOException {
+        DataOutputStream sortie = new DataOutputStream(entrees);
+        sortie.writeLong(position);
+        sortie.writeInt(tailleOriginale);
+        nombreBlocs++;
+    }
+
+    /**
+     * Écrit l'index construit à la fin du fichier compressé.
+     *
+     * @param sortie Le flux du fichier compressé, positionné après
+     *               le dernier bloc.
+     * @param positionIndex La position courante dans le fichier compressé,
+     *                      où commence l'index.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public void ecrire(OutputStream sortie, long positionIndex)
+            throws IOException {
+        DataOutputStream fluxDonnees = new DataOutputStream(sortie);
+        entrees.writeTo(fluxDonnees);
+        fluxDonnees.writeLong(positionIndex);
+        fluxDonnees.writeInt(EnteteArchive.NOMBRE_MAGIQUE);
+        fluxDonnees.flush();
+    }
+
+    /**
+     * Retourne la taille de l'index construit, une fois écrit.
+     *
+     * @return La taille de l'index, en octets.
+     */
+    public long getTailleEcrite() {
+        return (long) nombreBlocs * TAILLE_ENTREE + TAILLE_FIN;
+    }
+
+    /**
+     * Lit l'index à la fin d'un fichier compressé par blocs.
+     *
+     * @param canal Le canal ouvert en lecture sur le fichier compressé.
+     * @param nombreBlocs Le nombre de blocs annoncé par l'en-tête, -1
+     *                    s'il ne l'annonce pas (blocs de tailles
+     *                    variables) : il se déduit alors de la taille
+     *                    de l'index.
+     * @return L'index lu.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si l'index est corrompu.
+     */
+    public static IndexBlocs lire(FileChannel canal, long nombreBlocs)
+            throws IOException {
+        return lire(canal, nombreBlocs, canal.size());
+    }
+
+    /**
+     * Lit l'index des blocs d'un fichier compressé, lorsqu'il est suivi
+     * d'autres données (voir {@link IndexAcces}).
+     *
+     * @param canal Le canal ouvert en lecture sur le fichier compressé.
+     * @param nombreBlocs Le nombre de blocs annoncé par l'en-tête, -1
+     *                    s'il ne l'annonce pas.
+     * @param tailleFichier La position où se termine l'index.
+     * @return L'index lu.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si l'index est corrompu.
+     */
+    public static IndexBlocs lire(FileChannel canal, long nombreBlocs,
+                                  long tailleFichier) throws IOException {
+        if (tailleFichier < TAILLE_FIN) {
+            throw new IOException("Index des blocs introuvable.");
+        }
+        ByteBuffer fin = lire(canal, tailleFichier - TAILLE_FIN, TAILLE_FIN);
+        long positionIndex = fin.getLong();
+        if (nombreBlocs < 0 && positionIndex >= 0) {
+            nombreBlocs = (tailleFichier - TAILLE_FIN - positionIndex)
+                          / TAILLE_ENTREE;
+        }
+        if (fin.getInt() != EnteteArchive.NOMBRE_MAGIQUE
+            || positionIndex < 0 || nombreBlocs < 0
+            || nombreBlocs > Integer.MAX_VALUE / TAILLE_ENTREE
+            || positionIndex + nombreBlocs * TAILLE_ENTREE
+               != tailleFichier - TAILLE_FIN) {
+            throw new IOException("Index des blocs corrompu.");
+        }
+
+        int nombre = (int) nombreBlocs;
+        ByteBuffer entrees = lire(canal, positionIndex, nombre * TAILLE_ENTREE);
+        long[] positions = new long[nombre + 1];
+        int[] taillesOriginales = new int[nombre];
+        for (int bloc = 0; bloc < nombre; bloc++) {
+            positions[bloc] = entrees.getLong();
+            taillesOriginales[bloc] = entrees.getInt();
+        }
+        positions[nombre] = positionIndex;
+        for (int bloc = 0; bloc < nombre; bloc++) {
+            if (positions[bloc] < 0 || positions[bloc] > positions[bloc + 1]
+                || taillesOriginales[bloc] < 0) {
+                throw new IOException("Index des blocs corrompu.");
+            }
+        }
+        return new IndexBlocs(positions, taillesOriginales);
+    }
+
+    /**
+     * Lit une portion d'un fichier à une position donnée.
+     *
+     * @param canal Le canal ouvert en lecture.
+     * @param position La position du premier octet à lire.
+     * @param longueur Le nombre d'octets à lire.
+     * @return Un tampon contenant les octets lus, prêt à être lu.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si le fichier est trop court.
+     */
+    static ByteBuffer lire(FileChannel canal, long position, int longueur)
+            throws IOException {
+        ByteBuffer tampon = ByteBuffer.allocate(longueur);
+        while (tampon.hasRemaining()) {
+            if (canal.read(tampon, position + tampon.position()) < 0) {
+                throw new EOFException("Fichier compressé tronqué.");
+            }
+        }
+        return tampon.flip();
+    }
+
+    /**
+     * Retourne le nombre de blocs de l'index.
+     *
+     * @return Le nombre de blocs.
+     */
+    public int getNombreBlocs() {
+        return nombreBlocs;
+    }
+
+    /**
+     * Retourne la position d'un bloc dans le fichier compressé.
+     *
+     * @param bloc Le numéro du bloc, à partir de 0.
+     * @return La position du début de l'en-tête du bloc.
+     */
+    public long getPosition(int bloc) {
+        return positions[bloc];
+    }
+
+    /**
+     * Retourne la taille d'un bloc dans le fichier compressé.
+     *
+     * @param bloc Le numéro du bloc, à partir de 0.
+     * @return La taille du bloc compressé, en-tête compris, en octets.
+     */
+    public long getTailleCompressee(int bloc) {
+        return positions[bloc + 1] - positions[bloc];
+    }
+
+    /**
+     * Retourne la taille d'origine d'un bloc.
+     *
+     * @param bloc Le numéro du bloc, à partir de 0.
+     * @return La taille d'origine du bloc, en octets.
+     */
+    public int getTailleOriginale(int bloc) {
+        return taillesOriginales[bloc];
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * LecteurAccesAleatoire.java                18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.objets.HistogrammeOctets;
+import fr.iutrodez.compresseurhuffman.outils.LecteurBits;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Extrait des plages d'octets ou de lignes d'un fichier compressé avec
+ * un index d'accès (voir {@link IndexAcces}), sans le décompresser
+ * entièrement.
+ * <br>
+ * Seuls les intervalles entre points d'accès qui couvrent la plage
+ * demandée sont lus et décodés : chacun commence à une position connue,
+ * en bits, et se décode avec la table de codes de son bloc, lue une seule
+ * fois puis gardée en mémoire.
+ * <br>
+ * Un même lecteur peut servir à plusieurs threads en même temps :
+ * le fichier compressé n'est lu que par lectures positionnées, qui ne
+ * modifient pas la position du canal, et les décodeurs, qui ne changent
+ * plus une fois construits, sont partagés par une table concurrente.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class LecteurAccesAleatoire implements Closeable {
+
+    /**
+     * Taille lue pour analyser un en-tête de bloc : elle suffit à tout
+     * en-tête dont l'alphabet est celui des octets.
+     */
+    private static final int TAILLE_ENTETE_BLOC =
+            Integer.BYTES + Long.BYTES + 1 + 2 * Short.BYTES
+            + 2 * HistogrammeOctets.NOMBRE_VALEURS;
+
+    /**
+     * Taille maximale d'un en-tête de bloc, quel que soit son alphabet.
+     */
+    private static final int TAILLE_ENTETE_BLOC_MAXIMALE =
+            Integer.BYTES + Long.BYTES + 1 + 2 * Short.BYTES
+            + 3 * 0xFFFF;
+
+    /**
+     * Canal ouvert en lecture sur le fichier compressé.
+     */
+    private final FileChannel canal;
+
+    /**
+     * En-tête du fichier compressé.
+     */
+    private final EnteteArchive entete;
+
+    /**
+     * Index d'accès du fichier compressé.
+     */
+    private final IndexAcces index;
+
+    /**
+     * Décodeur de chaque table déjà lue, selon la position de l'en-tête
+     * de bloc qui la porte.
+     */
+    private final ConcurrentMap<Long, DecodeurHuffman> decodeurs =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Ouvre un fichier compressé et lit son index d'accès.
+     *
+     * @param cheminFichier Le chemin du fichier compressé.
+     * @throws IOException Si une erreur d'entrée/sortie se produit, si le
+     *                     fichier n'a pas d'index d'accès ou si celui-ci
+     *                     est corrompu.
+     */
+    public LecteurAccesAleatoire(String cheminFichier) throws IOException {
+        canal = FileChannel.open(Path.of(cheminFichier),
+                                 StandardOpenOption.READ);
+        try {
+            entete = EnteteArchive.lire(new DataInputStream(
+                    Channels.newInputStream(canal)));
+            if (!entete.aUnIndexAcces()) {
+                throw new IOException("Le fichier compressé n'a pas d'index "
+                                      + "d'accès : il doit être compressé "
+                                      + "avec l'option --index.");
+            }
+            index = IndexAcces.lire(canal, entete.getTailleOriginale());
+        } catch (IOException | RuntimeException erreur) {
+            canal.close();
+            throw erreur;
+        }
+    }
+
+    /**
+     * Retourne la taille du fichier d'origine.
+     *
+     * @return La taille du fichier d'origine, en octets.
+     */
+    public long getTailleOriginale() {
+        return entete.getTailleOriginale();
+    }
+
+    /**
+     * Indique si les lignes du fichier sont indexées, ce qui permet
+     * d'en extraire par leur numéro.
+     *
+     * @return true si les lignes sont indexées.
+     */
+    public boolean aDesLignes() {
+        return index.aDesLignes();
+    }
+
+    /**
+     * Extrait une plage d'octets du fichier d'origine.
+     *
+     * @param debut La position du premier octet à extraire.
+     * @param longueur Le nombre d'octets à extraire.
+     * @param sortie Le flux recevant les octets extraits.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si le fichier compressé est corrompu.
+     * @throws IllegalArgumentException Si la plage dépasse du fichier
+     *                                  d'origine.
+     */
+    public void extraire(long debut, long longueur, OutputStream sortie)
+            throws IOException {
+        if (debut < 0 || longueur < 0
+            || longueur > getTailleOriginale() - debut) {
+            throw new IllegalArgumentException("Plage d'octets invalide : "
+                                               + debut + " + " + longueur);
+        }
+        if (longueur == 0) {
+            return;
+        }
+        long fin = debut + longueur;
+        for (int point = index.chercherOctet(debut); debut < fin; point++) {
+            byte[] octets = decoderPoint(point);
+            long origine = index.getPositionOriginale(point);
+            int premier = (int) (debut - origine);
+            int dernier = (int) Math.min(octets.length, fin - origine);
+            sortie.write(octets, premier, dernier - premier);
+            debut = origine + dernier;
+        }
+    }
+
+    /**
+     * Extrait des lignes du fichier d'origine, fins de ligne comprises.
+     * Les lignes sont séparées par l'octet '\n' ; la dernière ligne
+     * du fichier peut ne pas en avoir. Les numéros au-delà de la dernière
+     * ligne sont ignorés.
+     *
+     * @param premiere Le numéro de la première ligne à extraire,
+     *                 à partir de 1.
+     * @param derniere Le numéro de la dernière ligne à extraire.
+     * @param sortie Le flux recevant les lignes extraites.
+     * @throws IOException Si une erreur d'entrée/sortie se produit, si les
+     *                     lignes ne sont pas indexées ou si le fichier
+     *                     compressé est corrompu.
+     * @throws IllegalArgumentException Si les numéros de ligne sont
+     *                                  invalides.
+     */
+    public void extraireLignes(long premiere, long derniere,
+                               OutputStream sortie) throws IOException {
+        if (!index.aDesLignes()) {
+            throw new IOException("Le fichier compressé n'indexe pas les "
+                                  + "lignes : il doit être compressé avec "
+                                  + "l'option --lignes.");
+        }
+        if (premiere < 1 || derniere < premiere) {
+            throw new IllegalArgumentException("Plage de lignes invalide : "
+                                               + premiere + "-" + derniere);
+        }
+        if (index.getNombrePoints() == 0) {
+            return;
+        }
+        int point = index.chercherLigne(premiere);
+        long ligne = index.getLignesAvant(point) + 1;
+        for (; point < index.getNombrePoints() && ligne <= derniere; point++) {
+            byte[] octets = decoderPoint(point);
+            int premier = ligne >= premiere ? 0 : octets.length;
+            int dernier = octets.length;
+            for (int i = 0; i < octets.length; i++) {
+                if (octets[i] != '\n') {
+                    continue;
+                }
+                ligne++;
+                if (ligne == premiere) {
+                    premier = i + 1;
+                } else if (ligne > derniere) {
+                    dernier = i + 1;
+                    break;
+                }
+            }
+            if (premier < dernier) {
+                sortie.write(octets, premier, dernier - premier);
+            }
+        }
+    }
+
+    /**
+     * Décode les octets d'un point d'accès jusqu'au suivant.
+     *
+     * @param point Le numéro du point.
+     * @return Les octets d'origine de l'intervalle.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si le fichier compressé est corrompu.
+     */
+    private byte[] decoderPoint(int point) throws IOException {
+        int tailleOriginale = index.getTailleOriginale(point);
+        long positionBits = index.getPositionBits(point);
+        long nombreBits = index.getNombreBits(point);
+        int decalage = (int) (positionBits % Byte.SIZE);
+        /*
+         * Un octet est codé sur au plus LONGUEUR_MAXIMALE bits : un index
+         * intact n'annonce jamais plus, ce qui évite d'allouer un tableau
+         * démesuré pour un index corrompu.
+         */
+        if (nombreBits > (long) tailleOriginale
+                         * TableCodesCanonique.LONGUEUR_MAXIMALE) {
+            throw new IOException("Index d'accès corrompu.");
+        }
+        int tailleDonnees = (int) ((decalage + nombreBits + 7) / Byte.SIZE);
+
+        LecteurBits lecteur = new LecteurBits(IndexBlocs.lire(
+                canal, positionBits / Byte.SIZE, tailleDonnees));
+        if (decalage > 0) {
+            lecteur.lire(decalage);
+        }
+        ByteArrayOutputStream octets =
+                new ByteArrayOutputStream(tailleOriginale);
+        long nombreOctets = DecompressionHuffman.decoderBits(
+                lecteur, decalage + nombreBits,
+                getDecodeur(index.getPositionTable(point)), octets);
+        DecompressionHuffman.verifierTaille(nombreOctets, tailleOriginale);
+        return octets.toByteArray();
+    }
+
+    /**
+     * Retourne le décodeur de la table portée par un en-tête de bloc,
+     * en lisant la table la première fois qu'elle est demandée.
+     * Si deux threads la demandent en même temps, elle est lue deux fois,
+     * mais un seul décodeur est gardé.
+     *
+     * @param positionTable La position de l'en-tête de bloc.
+     * @return Le décodeur de la table.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si l'en-tête est corrompu.
+     */
+    private DecodeurHuffman getDecodeur(long positionTable) throws IOException {
+        DecodeurHuffman decodeur = decodeurs.get(positionTable);
+        if (decodeur == null) {
+            decodeur = new DecodeurHuffman(lireTable(positionTable));
+            DecodeurHuffman existant = decodeurs.putIfAbsent(positionTable,
+                                                             decodeur);
+            if (existant != null) {
+                decodeur = existant;
+            }
+        }
+        return decodeur;
+    }
+
+    /**
+     * Lit la table de codes d'un en-tête de bloc. Une table dont
+     * l'alphabet dépasse celui des octets demande une seconde lecture,
+     * plus longue.
+     *
+     * @param positionTable La position de l'en-tête de bloc.
+     * @return La table de codes.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si l'en-tête est corrompu.
+     */
+    private TableCodesCanonique lireTable(long positionTable)
+            throws IOException {
+        try {
+            return lireTable(positionTable, TAILLE_ENTETE_BLOC);
+        } catch (EOFException erreur) {
+            return lireTable(positionTable, TAILLE_ENTETE_BLOC_MAXIMALE);
+        }
+    }
+
+    /**
+     * Lit la table de codes d'un en-tête de bloc, en lisant au plus
+     * un nombre d'octets donné.
+     *
+     * @param positionTable La position de l'en-tête de bloc.
+     * @param tailleLue Le nombre d'octets lus au plus.
+     * @return La table de codes.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     ou si l'en-tête est corrompu.
+     * @throws EOFException Si l'en-tête dépasse les octets lus.
+     */
+    private TableCodesCanonique lireTable(long positionTable, int tailleLue)
+            throws IOException {
+        int taille = (int) Math.min(tailleLue, canal.size() - positionTable);
+        ByteBuffer octets = IndexBlocs.lire(canal, positionTable, taille);
+        EnteteBloc bloc = entete.lireBloc(new DataInputStream(
+                new ByteArrayInputStream(octets.array(), 0, taille)), null);
+        return bloc.getTable();
+    }
+
+    /**
+     * Ferme le fichier compressé.
+     *
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
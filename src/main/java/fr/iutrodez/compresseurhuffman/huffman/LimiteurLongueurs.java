@@ -0,0 +1,158 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * LimiteurLongueurs.java                    18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import java.util.Arrays;
+
+/**
+ * Calcule des longueurs de codes préfixes optimales sous une contrainte
+ * de longueur maximale, par l'algorithme de fusion de paquets
+ * (« package-merge », Larmore et Hirschberg).
+ * <br>
+ * Un arbre de Huffman n'a pas de profondeur bornée : une répartition très
+ * déséquilibrée des fréquences (suite de Fibonacci, par exemple) produit
+ * des codes de plusieurs dizaines de bits. Limiter la longueur des codes
+ * garantit qu'un code tient toujours dans la fenêtre de bits du décodage
+ * (voir {@link TableCodesCanonique#LONGUEUR_MAXIMALE}) et, pour une limite
+ * basse (12 ou 15 bits), qu'il est résolu par un seul accès aux tables
+ * du décodeur. La perte de taux de compression est en général infime.
+ * <br>
+ * Principe : chaque symbole est une pièce de valeur 2<sup>-l</sup> pour
+ * chaque niveau l de 1 à L, de coût égal à sa fréquence. Choisir les
+ * 2n - 2 pièces les moins coûteuses parmi les listes obtenues en fusionnant
+ * les paquets de deux pièces d'un niveau avec les pièces du niveau
+ * au-dessus donne des longueurs optimales : la longueur d'un symbole est
+ * le nombre de ses pièces choisies.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class LimiteurLongueurs {
+
+    /**
+     * Limite des longueurs de codes si nécessaire.
+     *
+     * @param frequences La fréquence de chaque symbole de l'alphabet.
+     * @param longueurs Les longueurs de Huffman, sans limite, de chaque
+     *                  symbole.
+     * @param longueurMaximale La longueur maximale autorisée.
+     * @return Les longueurs fournies si aucune ne dépasse la limite,
+     *         sinon les longueurs optimales respectant la limite.
+     */
+    public static int[] limiter(long[] frequences, int[] longueurs,
+                                int longueurMaximale) {
+        for (int longueur : longueurs) {
+            if (longueur > longueurMaximale) {
+                return calculerLongueurs(frequences, longueurMaximale);
+            }
+        }
+        return longueurs;
+    }
+
+    /**
+     * Calcule les longueurs de codes optimales d'un alphabet, aucune ne
+     * dépassant une longueur maximale donnée.
+     * Si la limite est trop basse pour coder tous les symboles présents
+     * (n symboles demandent au moins log2(n) bits), elle est relevée
+     * au minimum possible.
+     *
+     * @param frequences La fréquence de chaque symbole de l'alphabet.
+     * @param longueurMaximale La longueur maximale autorisée, au moins 1.
+     * @return La longueur du code de chaque symbole, 0 pour les symboles
+     *         absents.
+     * @throws IllegalArgumentException Si la longueur maximale est
+     *                                  inférieure à 1.
+     */
+    public static int[] calculerLongueurs(long[] frequences,
+                                          int longueurMaximale) {
+        if (longueurMaximale < 1) {
+            throw new IllegalArgumentException("Longueur maximale invalide : "
+                                               + longueurMaximale);
+        }
+        int[] longueurs = new int[frequences.length];
+        int[] symboles = ArbreHuffmanPlat.trierSymbolesParFrequence(frequences);
+        int nombreSymboles = symboles.length;
+        if (nombreSymboles == 1) {
+            longueurs[symboles[0]] = 1;
+        }
+        if (nombreSymboles <= 1) {
+            return longueurs;
+        }
+
+        int niveaux = Math.max(longueurMaximale, Integer.SIZE
+                               - Integer.numberOfLeadingZeros(nombreSymboles - 1));
+        long[] feuilles = new long[nombreSymboles];
+        for (int i = 0; i < nombreSymboles; i++) {
+            feuilles[i] = frequences[symboles[i]];
+        }
+
+        /*
+         * estFeuille[niveau] décrit la liste fusionnée du niveau : pour
+         * chaque élément, par coût croissant, s'il s'agit d'une feuille
+         * (un symbole) ou d'un paquet de deux éléments du niveau inférieur.
+         * Les feuilles d'une liste apparaissent dans l'ordre des symboles
+         * triés : choisir les k premiers éléments d'une liste revient
+         * donc à choisir un préfixe des symboles triés.
+         */
+        boolean[][] estFeuille = new boolean[niveaux][];
+        long[] liste = feuilles;
+        estFeuille[niveaux - 1] = new boolean[nombreSymboles];
+        Arrays.fill(estFeuille[niveaux - 1], true);
+        for (int niveau = niveaux - 2; niveau >= 0; niveau--) {
+            int nombrePaquets = liste.length / 2;
+            long[] fusion = new long[nombreSymboles + nombrePaquets];
+            boolean[] feuillesFusion = new boolean[fusion.length];
+            int feuille = 0;
+            int paquet = 0;
+            for (int i = 0; i < fusion.length; i++) {
+                long coutPaquet = paquet < nombrePaquets
+                                  ? additionner(liste[2 * paquet],
+                                                liste[2 * paquet + 1])
+                                  : Long.MAX_VALUE;
+                /* À coût égal, la feuille passe avant le paquet */
+                if (feuille < nombreSymboles
+                    && (paquet >= nombrePaquets
+                        || feuilles[feuille] <= coutPaquet)) {
+                    fusion[i] = feuilles[feuille++];
+                    feuillesFusion[i] = true;
+                } else {
+                    fusion[i] = coutPaquet;
+                    paquet++;
+                }
+            }
+            liste = fusion;
+            estFeuille[niveau] = feuillesFusion;
+        }
+
+        int choisis = 2 * nombreSymboles - 2;
+        for (int niveau = 0; niveau < niveaux && choisis > 0; niveau++) {
+            int feuillesChoisies = 0;
+            for (int i = 0; i < choisis; i++) {
+                if (estFeuille[niveau][i]) {
+                    longueurs[symboles[feuillesChoisies++]]++;
+                }
+            }
+            choisis = 2 * (choisis - feuillesChoisies);
+        }
+        return longueurs;
+    }
+
+    /**
+     * Additionne deux coûts positifs, le résultat étant plafonné à
+     * {@link Long#MAX_VALUE} : un paquet peut contenir plusieurs fois
+     * chaque fréquence, et leur somme dépasser la capacité d'un long.
+     *
+     * @param premier Le premier coût.
+     * @param second Le second coût.
+     * @return La somme des deux coûts, plafonnée.
+     */
+    private static long additionner(long premier, long second) {
+        long somme = premier + second;
+        return somme < 0 ? Long.MAX_VALUE : somme;
+    }
+}
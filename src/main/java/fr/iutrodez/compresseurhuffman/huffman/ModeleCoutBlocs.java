@@ -0,0 +1,164 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * ModeleCoutBlocs.java                      18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.objets.HistogrammeOctets;
+
+/**
+ * Modèle de coût des blocs de tailles variables : estime, à partir des
+ * seules occurrences des octets, s'il vaut mieux couper un bloc ou le
+ * prolonger, et s'il vaut mieux écrire une nouvelle table de codes ou
+ * réutiliser celle du bloc précédent.
+ * <br>
+ * Le coût d'une portion de fichier est le nombre de bits de ses données
+ * compressées, plus celui de la table de codes écrite dans l'en-tête
+ * de son bloc. Pour décider d'une coupure, le nombre de bits des données
+ * est estimé par l'entropie des occurrences, borne inférieure atteinte
+ * à moins d'un bit par octet près par les codes de Huffman : aucune table
+ * n'a besoin d'être construite pour chaque portion examinée.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class ModeleCoutBlocs {
+
+    /**
+     * Calcule l'entropie totale d'une répartition d'octets,
+     * c'est-à-dire la somme de n × log2(total / n) pour chaque octet
+     * présent n fois.
+     *
+     * @param frequences Les occurrences de chaque octet.
+     * @return Le nombre de bits minimal des données codées
+     *         avec une table propre à cette répartition.
+     */
+    public static double coutEntropique(long[] frequences) {
+        return coutEntropique(frequences, null);
+    }
+
+    /**
+     * Calcule l'entropie totale de la réunion de deux répartitions
+     * d'octets, sans les additionner dans un nouveau tableau.
+     *
+     * @param frequences Les occurrences de chaque octet.
+     * @param ajout Les occurrences ajoutées aux premières, ou null.
+     * @return Le nombre de bits minimal des données réunies, codées
+     *         avec une seule table.
+     */
+    private static double coutEntropique(long[] frequences, long[] ajout) {
+        long total = 0;
+        double somme = 0;
+        for (int valeur = 0; valeur < frequences.length; valeur++) {
+            long frequence = frequences[valeur]
+                             + (ajout == null ? 0 : ajout[valeur]);
+            if (frequence > 0) {
+                total += frequence;
+                somme += frequence * log2(frequence);
+            }
+        }
+        return total == 0 ? 0 : total * log2(total) - somme;
+    }
+
+    /**
+     * Estime la taille de la table de codes d'une répartition d'octets,
+     * une fois écrite (voir {@link TableCodesCanonique#getTailleEcrite()}).
+     *
+     * @param frequences Les occurrences de chaque octet.
+     * @return La taille estimée de la table, en bits.
+     */
+    public static long estimerCoutTable(long[] frequences) {
+        int nombreSymboles = 0;
+        for (long frequence : frequences) {
+            if (frequence > 0) {
+                nombreSymboles++;
+            }
+        }
+        int tailleTable = 2 * Short.BYTES
+                          + Math.min(HistogrammeOctets.NOMBRE_VALEURS,
+                                     2 * nombreSymboles);
+        return (long) tailleTable * Byte.SIZE;
+    }
+
+    /**
+     * Indique s'il vaut mieux commencer un nouveau bloc avant une portion
+     * du fichier que l'ajouter au bloc en cours : c'est le cas si coder
+     * séparément le bloc et la portion, avec une table de plus, coûte
+     * moins cher que les coder ensemble avec une seule table, c'est-à-dire
+     * si la répartition des octets de la portion diffère assez de celle
+     * du bloc.
+     *
+     * @param bloc Les occurrences des octets du bloc en cours.
+     * @param portion Les occurrences des octets de la portion suivante.
+     * @return true s'il faut couper le bloc avant la portion.
+     */
+    public static boolean doitCouper(long[] bloc, long[] portion) {
+        double coutSepare = coutEntropique(bloc) + coutEntropique(portion)
+                            + estimerCoutTable(portion);
+        return coutSepare < coutEntropique(bloc, portion);
+    }
+
+    /**
+     * Calcule le nombre exact de bits des données codées avec une table.
+     *
+     * @param frequences Les occurrences de chaque octet.
+     * @param table La table des codes.
+     * @return Le nombre de bits, ou -1 si un octet présent n'a pas
+     *         de code dans la table.
+     */
+    public static long coutAvecTable(long[] frequences,
+                                     TableCodesCanonique table) {
+        long nombreBits = 0;
+        for (int valeur = 0; valeur < frequences.length; valeur++) {
+            if (frequences[valeur] == 0) {
+                continue;
+            }
+            int longueur = valeur < table.getTailleAlphabet()
+                           ? table.getLongueur(valeur)
+                           : 0;
+            if (longueur == 0) {
+                return -1;
+            }
+            nombreBits += frequences[valeur] * longueur;
+        }
+        return nombreBits;
+    }
+
+    /**
+     * Indique s'il vaut mieux réutiliser la table du bloc précédent
+     * qu'écrire la table propre au bloc : c'est le cas si les bits perdus
+     * en codant le bloc avec l'ancienne table ne dépassent pas la taille
+     * de la nouvelle table.
+     *
+     * @param frequences Les occurrences des octets du bloc.
+     * @param tablePrecedente La table du bloc précédent, ou null pour
+     *                        le premier bloc.
+     * @param nouvelleTable La table construite pour le bloc.
+     * @return true si le bloc doit réutiliser la table précédente.
+     */
+    public static boolean reutiliserTable(long[] frequences,
+                                          TableCodesCanonique tablePrecedente,
+                                          TableCodesCanonique nouvelleTable) {
+        if (tablePrecedente == null) {
+            return false;
+        }
+        long coutPrecedent = coutAvecTable(frequences, tablePrecedente);
+        return coutPrecedent >= 0
+               && coutPrecedent <= coutAvecTable(frequences, nouvelleTable)
+                                  + (long) nouvelleTable.getTailleEcrite()
+                                    * Byte.SIZE;
+    }
+
+    /**
+     * Calcule le logarithme en base 2 d'un nombre.
+     *
+     * @param nombre Le nombre, strictement positif.
+     * @return Le logarithme en base 2.
+     */
+    private static double log2(double nombre) {
+        return Math.log(nombre) / Math.log(2);
+    }
+}
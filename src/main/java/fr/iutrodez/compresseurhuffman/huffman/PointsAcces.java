@@ -0,0 +1,274 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * PointsAcces.java                          18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.outils.EcrivainBits;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Points d'accès relevés pendant l'encodage d'un bloc.
+ * <br>
+ * Un point d'accès est placé au début du bloc, puis tous les
+ * {@code intervalle} octets d'origine. Chaque point retient la position,
+ * en bits, du premier code qui le suit dans les données compressées
+ * du bloc, le nombre de bits jusqu'au point suivant, la position
+ * d'origine du premier octet et, si les lignes sont indexées, le nombre
+ * de fins de ligne qui le précèdent. Toutes ces positions sont relatives
+ * au début du bloc : elles sont ensuite placées dans l'index d'accès
+ * du fichier (voir {@link IndexAcces#ajouter}).
+ * <br>
+ * L'encodage est le même que sans points d'accès : les octets sont
+ * seulement encodés par tranches qui s'arrêtent sur chaque point.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class PointsAcces {
+
+    /**
+     * Capacité initiale des tableaux de points.
+     */
+    private static final int CAPACITE_INITIALE = 16;
+
+    /**
+     * Intervalle entre deux points d'accès, en octets d'origine.
+     */
+    private final int intervalle;
+
+    /**
+     * Indique si les fins de ligne sont comptées.
+     */
+    private final boolean lignes;
+
+    /**
+     * Position de chaque point dans les données du bloc, en bits.
+     */
+    private long[] positionsBits = new long[CAPACITE_INITIALE];
+
+    /**
+     * Nombre de bits codant les octets de chaque point jusqu'au suivant.
+     */
+    private long[] nombresBits = new long[CAPACITE_INITIALE];
+
+    /**
+     * Nombre de fins de ligne précédant chaque point dans le bloc.
+     */
+    private long[] lignesAvant = new long[CAPACITE_INITIALE];
+
+    /**
+     * Nombre de points relevés.
+     */
+    private int nombrePoints;
+
+    /**
+     * Nombre d'octets encodés depuis le début du bloc.
+     */
+    private long tailleOriginale;
+
+    /**
+     * Nombre de fins de ligne encodées depuis le début du bloc.
+     */
+    private long nombreLignes;
+
+    /**
+     * Construit un relevé de points d'accès vide, au début d'un bloc.
+     *
+     * @param intervalle L'intervalle entre deux points, en octets
+     *                   d'origine.
+     * @param lignes true pour compter les fins de ligne.
+     * @throws IllegalArgumentException Si l'intervalle est inférieur à 1.
+     */
+    public PointsAcces(int intervalle, boolean lignes) {
+        if (intervalle < 1) {
+            throw new IllegalArgumentException("Intervalle d'accès invalide : "
+                                               + intervalle);
+        }
+        this.intervalle = intervalle;
+        this.lignes = lignes;
+    }
+
+    /**
+     * Encode une suite d'octets du bloc, à la suite des précédentes,
+     * en relevant les points d'accès qu'elle traverse.
+     *
+     * @param octets Le tableau contenant les octets à encoder.
+     * @param longueur Le nombre d'octets à encoder au début du tableau.
+     * @param codesEmpaquetes Le code empaqueté de chaque octet
+     *                        (voir {@link TableCodesCanonique#getCodesEmpaquetes}).
+     * @param ecrivain L'écrivain recevant les bits du bloc, créé au début
+     *                 de ses données.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public void encoder(byte[] octets, int longueur, long[] codesEmpaquetes,
+                        EcrivainBits ecrivain) throws IOException {
+        int debut = 0;
+        while (debut < longueur) {
+            int resteIntervalle = intervalle
+                                  - (int) (tailleOriginale % intervalle);
+            if (resteIntervalle == intervalle) {
+                ajouterPoint(ecrivain.getNombreBits());
+            }
+            int fin = (int) Math.min(longueur, (long) debut + resteIntervalle);
+            CompressionHuffman.convertirOctetsEnCodeHuffman(
+                    octets, debut, fin, codesEmpaquetes, ecrivain);
+            if (lignes) {
+                nombreLignes += compterLignes(octets, debut, fin);
+            }
+            tailleOriginale += fin - debut;
+            debut = fin;
+        }
+    }
+
+    /**
+     * Termine le relevé, une fois tous les octets du bloc encodés,
+     * en fixant le nombre de bits du dernier point.
+     *
+     * @param ecrivain L'écrivain ayant reçu les bits du bloc.
+     */
+    public void terminer(EcrivainBits ecrivain) {
+        fermerDernierPoint(ecrivain.getNombreBits());
+    }
+
+    /**
+     * Ajoute un point à la position courante, après avoir fixé le nombre
+     * de bits du point précédent.
+     *
+     * @param positionBits La position courante dans les données du bloc,
+     *                     en bits.
+     */
+    private void ajouterPoint(long positionBits) {
+        fermerDernierPoint(positionBits);
+        if (nombrePoints == positionsBits.length) {
+            int capacite = 2 * nombrePoints;
+            positionsBits = Arrays.copyOf(positionsBits, capacite);
+            nombresBits = Arrays.copyOf(nombresBits, capacite);
+            lignesAvant = Arrays.copyOf(lignesAvant, capacite);
+        }
+        positionsBits[nombrePoints] = positionBits;
+        lignesAvant[nombrePoints] = nombreLignes;
+        nombrePoints++;
+    }
+
+    /**
+     * Fixe le nombre de bits du dernier point relevé.
+     *
+     * @param positionBits La position où s'arrêtent ses données, en bits.
+     */
+    private void fermerDernierPoint(long positionBits) {
+        if (nombrePoints > 0) {
+            nombresBits[nombrePoints - 1] =
+                    positionBits - positionsBits[nombrePoints - 1];
+        }
+    }
+
+    /**
+     * Compte les fins de ligne d'une suite d'octets.
+     *
+     * @param octets Le tableau contenant les octets.
+     * @param debut L'indice du premier octet.
+     * @param fin L'indice suivant le dernier octet.
+     * @return Le nombre d'octets '\n'.
+     */
+    static long compterLignes(byte[] octets, int debut, int fin) {
+        long nombre = 0;
+        for (int i = debut; i < fin; i++) {
+            if (octets[i] == '\n') {
+                nombre++;
+            }
+        }
+        return nombre;
+    }
+
+    /**
+     * Retourne l'intervalle entre deux points d'accès.
+     *
+     * @return L'intervalle, en octets d'origine.
+     */
+    public int getIntervalle() {
+        return intervalle;
+    }
+
+    /**
+     * Indique si les fins de ligne sont comptées.
+     *
+     * @return true si les lignes sont indexées.
+     */
+    public boolean aDesLignes() {
+        return lignes;
+    }
+
+    /**
+     * Retourne le nombre de points relevés.
+     *
+     * @return Le nombre de points.
+     */
+    public int getNombrePoints() {
+        return nombrePoints;
+    }
+
+    /**
+     * Retourne la position d'un point dans les données du bloc.
+     *
+     * @param point Le numéro du point, à partir de 0.
+     * @return La position du premier code du point, en bits.
+     */
+    public long getPositionBits(int point) {
+        return positionsBits[point];
+    }
+
+    /**
+     * Retourne le nombre de bits codant les octets d'un point.
+     *
+     * @param point Le numéro du point, à partir de 0.
+     * @return Le nombre de bits jusqu'au point suivant ou la fin du bloc.
+     */
+    public long getNombreBits(int point) {
+        return nombresBits[point];
+    }
+
+    /**
+     * Retourne la position d'origine d'un point dans le bloc.
+     *
+     * @param point Le numéro du point, à partir de 0.
+     * @return La position de son premier octet, en octets d'origine.
+     */
+    public long getPositionOriginale(int point) {
+        return (long) point * intervalle;
+    }
+
+    /**
+     * Retourne le nombre de fins de ligne précédant un point dans le bloc.
+     *
+     * @param point Le numéro du point, à partir de 0.
+     * @return Le nombre de fins de ligne, 0 si les lignes ne sont pas
+     *         comptées.
+     */
+    public long getLignesAvant(int point) {
+        return lignesAvant[point];
+    }
+
+    /**
+     * Retourne le nombre d'octets encodés dans le bloc.
+     *
+     * @return La taille d'origine du bloc, en octets.
+     */
+    public long getTailleOriginale() {
+        return tailleOriginale;
+    }
+
+    /**
+     * Retourne le nombre de fins de ligne encodées dans le bloc.
+     *
+     * @return Le nombre de fins de ligne, 0 si elles ne sont pas comptées.
+     */
+    public long getNombreLignes() {
+        return nombreLignes;
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * TableCodesCanonique.java                  18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Table de codes de Huffman canoniques.
+ * <br>
+ * Un code canonique est entièrement déterminé par la longueur du code de
+ * chaque symbole : les symboles sont rangés par longueur de code croissante
+ * puis par valeur croissante, et reçoivent des codes consécutifs, le code
+ * étant décalé vers la gauche à chaque changement de longueur.
+ * Seules les longueurs ont donc besoin d'être enregistrées avec le fichier
+ * compressé (quelques centaines d'octets au plus), et le décompresseur
+ * reconstruit les mêmes codes sans relire l'arbre.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class TableCodesCanonique {
+
+    /**
+     * Longueur maximale d'un code, en bits.
+     * Les codes sont manipulés dans des mots de 64 bits complétés octet par
+     * octet : un code doit donc tenir dans les 57 bits toujours disponibles
+     * après un remplissage.
+     */
+    public static final int LONGUEUR_MAXIMALE = 57;
+
+    /**
+     * Nombre de bits réservés à la longueur dans un code empaqueté
+     * (voir {@link #getCodesEmpaquetes}).
+     */
+    public static final int BITS_LONGUEUR = 6;
+
+    /**
+     * Masque extrayant la longueur d'un code empaqueté.
+     */
+    public static final long MASQUE_LONGUEUR = (1L << BITS_LONGUEUR) - 1;
+
+    /**
+     * Longueur du code de chaque symbole, 0 pour un symbole absent.
+     */
+    private final int[] longueurs;
+
+    /**
+     * Code canonique de chaque symbole, aligné à droite.
+     */
+    private final long[] codes;
+
+    /**
+     * Longueur du plus long code de la table.
+     */
+    private final int longueurMax;
+
+    /**
+     * Construit la table des codes canoniques correspondant aux longueurs
+     * de codes données.
+     *
+     * @param longueurs La longueur du code de chaque symbole de l'alphabet,
+     *                  0 pour les symboles absents.
+     * @throws IllegalArgumentException Si une longueur dépasse
+     *                                  {@link #LONGUEUR_MAXIMALE} ou si les
+     *                                  longueurs ne décrivent pas un code
+     *                                  préfixe.
+     */
+    public TableCodesCanonique(int[] longueurs) {
+        this.longueurs = longueurs.clone();
+        this.codes = new long[longueurs.length];
+
+        int max = 0;
+        for (int longueur : longueurs) {
+            if (longueur < 0 || longueur > LONGUEUR_MAXIMALE) {
+                throw new IllegalArgumentException("Longueur de code invalide : "
+                                                   + longueur);
+            }
+            max = Math.max(max, longueur);
+        }
+        longueurMax = max;
+        attribuerCodes();
+    }
+
+    /**
+     * Attribue les codes canoniques : le premier code de chaque longueur
+     * suit le dernier code de la longueur précédente, décalé d'un bit.
+     */
+    private void attribuerCodes() {
+        int[] nombreParLongueur = new int[longueurMax + 1];
+        for (int longueur : longueurs) {
+            nombreParLongueur[longueur]++;
+        }
+        nombreParLongueur[0] = 0;
+
+        long[] prochainCode = new long[longueurMax + 1];
+        long code = 0;
+        for (int longueur = 1; longueur <= longueurMax; longueur++) {
+            code = (code + nombreParLongueur[longueur - 1]) << 1;
+            prochainCode[longueur] = code;
+        }
+        /*
+         * Les codes d'une longueur donnée ne doivent pas déborder
+         * sur cette longueur, sinon deux codes auraient le même préfixe.
+         */
+        for (int longueur = 1; longueur <= longueurMax; longueur++) {
+            if (prochainCode[longueur] + nombreParLongueur[longueur]
+                > 1L << longueur) {
+                throw new IllegalArgumentException("Les longueurs de codes ne "
+                                                   + "forment pas un code "
+                                                   + "préfixe.");
+            }
+        }
+        for (int symbole = 0; symbole < longueurs.length; symbole++) {
+            if (longueurs[symbole] > 0) {
+                codes[symbole] = prochainCode[longueurs[symbole]]++;
+            }
+        }
+    }
+
+    /**
+     * Retourne la taille de l'alphabet couvert par la table.
+     *
+     * @return Le nombre de symboles, présents ou non.
+     */
+    public int getTailleAlphabet() {
+        return longueurs.length;
+    }
+
+    /**
+     * Retourne la longueur du code d'un symbole.
+     *
+     * @param symbole Le symbole, entre 0 et la taille de l'alphabet exclue.
+     * @return La longueur de son code, 0 si le symbole est absent.
+     */
+    public int getLongueur(int symbole) {
+        return longueurs[symbole];
+    }
+
+    /**
+     * Retourne le code canonique d'un symbole, aligné à droite.
+     *
+     * @param symbole Le symbole, entre 0 et la taille de l'alphabet exclue.
+     * @return Les {@link #getLongueur} bits de poids faible forment le code.
+     */
+    public long getCode(int symbole) {
+        return codes[symbole];
+    }
+
+    /**
+     * Retourne, pour chaque symbole, son code et sa longueur réunis dans un
+     * seul entier : le code occupe les bits de poids fort et la longueur
+     * les {@link #BITS_LONGUEUR} bits de poids faible.
+     * L'encodeur obtient ainsi les deux valeurs en un seul accès mémoire.
+     *
+     * @return Un nouveau tableau indicé par symbole, 0 pour un symbole absent.
+     */
+    public long[] getCodesEmpaquetes() {
+        long[] codesEmpaquetes = new long[longueurs.length];
+        for (int symbole = 0; symbole < longueurs.length; symbole++) {
+            codesEmpaquetes[symbole] = codes[symbole] << BITS_LONGUEUR
+                                       | longueurs[symbole];
+        }
+        return codesEmpaquetes;
+    }
+
+    /**
+     * Retourne le code d'un symbole sous forme de chaîne de '0' et de '1'.
+     *
+     * @param symbole Le symbole, entre 0 et la taille de l'alphabet exclue.
+     * @return Le code du symbole, null si le symbole est absent.
+     */
+    public String getCodeTexte(int symbole) {
+        int longueur = longueurs[symbole];
+        if (longueur == 0) {
+            return null;
+        }
+        StringBuilder texte = new StringBuilder(longueur);
+        for (int bit = longueur - 1; bit >= 0; bit--) {
+            texte.append((codes[symbole] >>> bit & 1) == 1 ? '1' : '0');
+        }
+        return texte.toString();
+    }
+
+    /**
+     * Retourne la longueur du plus long code de la table.
+     *
+     * @return La longueur maximale, 0 si la table est vide.
+     */
+    public int getLongueurMax() {
+        return longueurMax;
+    }
+
+    /**
+     * Retourne le nombre de symboles possédant un code.
+     *
+     * @return Le nombre de symboles présents.
+     */
+    public int getNombreSymboles() {
+        int nombre = 0;
+        for (int longueur : longueurs) {
+            if (longueur > 0) {
+                nombre++;
+            }
+        }
+        return nombre;
+    }
+
+    /**
+     * Retourne la taille de la table une fois écrite par {@link #ecrire}.
+     *
+     * @return Le nombre d'octets occupés par la table.
+     */
+    public int getTailleEcrite() {
+        int nombreSymboles = getNombreSymboles();
+        if (!estCreuse(longueurs.length, nombreSymboles)) {
+            return 2 * Short.BYTES + longueurs.length;
+        }
+        int tailleSymbole = longueurs.length <= 256 ? 1 : 2;
+        return 2 * Short.BYTES + nombreSymboles * (tailleSymbole + 1);
+    }
+
+    /**
+     * Écrit la table sous sa forme compacte : la taille de l'alphabet et
+     * le nombre de symboles présents (deux entiers sur 16 bits), suivis
+     * soit des longueurs de tous les symboles (un octet chacune), soit,
+     * si c'est plus court, des seuls couples (symbole, longueur).
+     *
+     * @param sortie Le flux dans lequel écrire la table.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public void ecrire(DataOutput sortie) throws IOException {
+        int nombreSymboles = getNombreSymboles();
+        sortie.writeShort(longueurs.length);
+        sortie.writeShort(nombreSymboles);
+
+        if (estCreuse(longueurs.length, nombreSymboles)) {
+            for (int symbole = 0; symbole < longueurs.length; symbole++) {
+                if (longueurs[symbole] > 0) {
+                    ecrireSymbole(sortie, symbole, longueurs.length);
+                    sortie.writeByte(longueurs[symbole]);
+                }
+            }
+        } else {
+            for (int longueur : longueurs) {
+                sortie.writeByte(longueur);
+            }
+        }
+    }
+
+    /**
+     * Lit une table écrite par {@link #ecrire}.
+     *
+     * @param entree Le flux depuis lequel lire la table.
+     * @return La table des codes canoniques reconstruite.
+     * @throws IOException Si une erreur d'entrée/sortie se produit ou si
+     *                     la table lue est invalide.
+     */
+    public static TableCodesCanonique lire(DataInput entree)
+            throws IOException {
+
+        int tailleAlphabet = entree.readUnsignedShort();
+        int nombreSymboles = entree.readUnsignedShort();
+        int[] longueurs = new int[tailleAlphabet];
+
+        if (estCreuse(tailleAlphabet, nombreSymboles)) {
+            for (int i = 0; i < nombreSymboles; i++) {
+                int symbole = tailleAlphabet <= 256
+                              ? entree.readUnsignedByte()
+                              : entree.readUnsignedShort();
+                if (symbole >= tailleAlphabet) {
+                    throw new IOException("Table de codes corrompue.");
+                }
+                longueurs[symbole] = entree.readUnsignedByte();
+            }
+        } else {
+            for (int symbole = 0; symbole < tailleAlphabet; symbole++) {
+                longueurs[symbole] = entree.readUnsignedByte();
+            }
+        }
+
+        try {
+            return new TableCodesCanonique(longueurs);
+        } catch (IllegalArgumentException erreur) {
+            throw new IOException("Table de codes corrompue : "
+                                  + erreur.getMessage());
+        }
+    }
+
+    /**
+     * Indique si la table est plus courte écrite sous forme de couples
+     * (symbole, longueur) que sous forme de liste de toutes les longueurs.
+     *
+     * @param tailleAlphabet La taille de l'alphabet.
+     * @param nombreSymboles Le nombre de symboles présents.
+     * @return true si la forme par couples est plus courte.
+     */
+    private static boolean estCreuse(int tailleAlphabet, int nombreSymboles) {
+        int tailleSymbole = tailleAlphabet <= 256 ? 1 : 2;
+        return nombreSymboles * (tailleSymbole + 1) < tailleAlphabet;
+    }
+
+    /**
+     * Écrit un symbole sur un ou deux octets selon la taille de l'alphabet.
+     *
+     * @param sortie Le flux dans lequel écrire.
+     * @param symbole Le symbole à écrire.
+     * @param tailleAlphabet La taille de l'alphabet.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    private static void ecrireSymbole(DataOutput sortie, int symbole,
+                                      int tailleAlphabet) throws IOException {
+        if (tailleAlphabet <= 256) {
+            sortie.writeByte(symbole);
+        } else {
+            sortie.writeShort(symbole);
+        }
+    }
+}
@@ -0,0 +1,531 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * TraitementLot.java                        18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.objets.HistogrammeOctets;
+import fr.iutrodez.compresseurhuffman.objets.ParametresCompression;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static java.lang.System.out;
+
+/**
+ * Compression ou décompression d'une arborescence entière de fichiers,
+ * en une seule exécution du programme : le coût du démarrage de la machine
+ * virtuelle et de la compilation à la volée n'est payé qu'une fois.
+ * <br>
+ * Les fichiers traités sont ceux d'un dossier et de ses sous-dossiers,
+ * ou ceux qui correspondent à un motif (voir {@link #estLot}). Chacun est
+ * écrit dans le dossier de destination, au même chemin relatif : les
+ * fichiers compressés reçoivent l'extension « .bin », que la décompression
+ * retire.
+ * <br>
+ * Les fichiers sont répartis entre les threads d'un {@link ForkJoinPool} :
+ * un thread inoccupé vole du travail aux autres. Le nombre de threads fixé
+ * par les paramètres est un budget partagé entre ce groupe et les blocs
+ * de chaque fichier (voir {@link #traiter}) : il n'est jamais dépassé.
+ * Les petits fichiers sont regroupés, jusqu'à {@link #TAILLE_LOT} octets,
+ * dans une même tâche, et traités à la suite.
+ * Pendant qu'un fichier est encodé et écrit, le comptage des occurrences
+ * du fichier suivant de la tâche est proposé aux autres threads.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class TraitementLot {
+
+    /**
+     * Taille totale, en octets, en dessous de laquelle des fichiers
+     * sont traités à la suite par une même tâche (1 Mo).
+     */
+    public static final long TAILLE_LOT = 1024 * 1024;
+
+    /**
+     * Extension des fichiers compressés.
+     */
+    public static final String EXTENSION_COMPRESSE = ".bin";
+
+    /**
+     * Extension des fichiers décompressés dont le nom ne se termine pas
+     * par {@link #EXTENSION_COMPRESSE}.
+     */
+    private static final String EXTENSION_DECOMPRESSE = ".txt";
+
+    /**
+     * Caractères désignant un motif plutôt qu'un chemin.
+     */
+    private static final String CARACTERES_MOTIF = "*?[{";
+
+    /**
+     * true pour compresser les fichiers, false pour les décompresser.
+     */
+    private final boolean compression;
+
+    /**
+     * Paramètres de la compression ou de la décompression de chaque
+     * fichier.
+     */
+    private final ParametresCompression parametres;
+
+    /**
+     * Paramètres transmis au traitement de chaque fichier : ceux du lot,
+     * avec la part du budget de threads revenant à un fichier.
+     */
+    private final ParametresCompression parametresFichier;
+
+    /**
+     * Dictionnaire désigné par les paramètres, chargé une seule fois pour
+     * tous les fichiers, ou null.
+     */
+    private final Dictionnaire dictionnaire;
+
+    /**
+     * Fichiers à traiter.
+     */
+    private final List<Path> sources = new ArrayList<>();
+
+    /**
+     * Fichiers à écrire, dans l'ordre des fichiers à traiter.
+     */
+    private final List<Path> destinations = new ArrayList<>();
+
+    /**
+     * Tailles cumulées des fichiers à traiter : l'élément i est la taille
+     * totale des i premiers fichiers.
+     */
+    private final long[] taillesCumulees;
+
+    /**
+     * Nombre de fichiers traités sans erreur.
+     */
+    private final AtomicInteger nombreReussis = new AtomicInteger();
+
+    /**
+     * Nombre de fichiers dont le traitement a échoué.
+     */
+    private final AtomicInteger nombreEchecs = new AtomicInteger();
+
+    /**
+     * Nombre d'octets lus par les traitements réussis.
+     */
+    private final AtomicLong octetsLus = new AtomicLong();
+
+    /**
+     * Nombre d'octets écrits par les traitements réussis.
+     */
+    private final AtomicLong octetsEcrits = new AtomicLong();
+
+    /**
+     * Durée du traitement de tous les fichiers, en nanosecondes.
+     */
+    private long duree;
+
+    /**
+     * Prépare le traitement des fichiers d'un dossier ou correspondant
+     * à un motif. Pour une décompression, seuls les fichiers d'extension
+     * {@link #EXTENSION_COMPRESSE} d'un dossier sont retenus ; ceux
+     * désignés par un motif le sont tous.
+     *
+     * @param source Le dossier ou le motif des fichiers à traiter.
+     * @param dossierDestination Le dossier où écrire les fichiers produits.
+     * @param compression true pour compresser, false pour décompresser.
+     * @param parametres Les paramètres de chaque traitement. Le
+     *                   dictionnaire qu'ils désignent éventuellement est
+     *                   lu ici, une fois pour tous les fichiers.
+     * @throws IOException Si le dossier ne peut pas être parcouru, ou si
+     *                     le dictionnaire ne peut pas être lu.
+     */
+    public TraitementLot(String source, String dossierDestination,
+                         boolean compression,
+                         ParametresCompression parametres) throws IOException {
+        this.compression = compression;
+        this.parametres = parametres;
+        this.parametresFichier = new ParametresCompression(parametres);
+        this.dictionnaire = parametres.aUnDictionnaire()
+                            ? Dictionnaire.lire(
+                                    Path.of(parametres.getCheminDictionnaire()))
+                            : null;
+
+        Path base = dossierBase(source);
+        PathMatcher filtre = filtre(source, compression);
+        Path destination = Path.of(dossierDestination);
+        try (Stream<Path> fichiers = Files.walk(base)) {
+            fichiers.filter(Files::isRegularFile)
+                    .map(base::relativize)
+                    .filter(filtre::matches)
+                    .sorted()
+                    .forEach(relatif -> {
+                        sources.add(base.resolve(relatif));
+                        destinations.add(destination.resolve(
+                                nomDestination(relatif.toString())));
+                    });
+        }
+        taillesCumulees = new long[sources.size() + 1];
+        for (int i = 0; i < sources.size(); i++) {
+            taillesCumulees[i + 1] = taillesCumulees[i]
+                                     + sources.get(i).toFile().length();
+        }
+    }
+
+    /**
+     * Indique si un chemin désigne plusieurs fichiers : un dossier,
+     * ou un motif contenant *, ?, [ ou {. Le motif suit la syntaxe de
+     * {@link FileSystems#getPathMatcher} et s'applique au chemin relatif
+     * au dossier qui le précède : « textes/*.txt » désigne les fichiers
+     * texte du dossier « textes », et « textes/**.txt » ceux de ses
+     * sous-dossiers aussi.
+     *
+     * @param chemin Le chemin donné en argument.
+     * @return true si le chemin désigne un lot de fichiers.
+     */
+    public static boolean estLot(String chemin) {
+        return indicePremierCaractereMotif(chemin) >= 0
+               || new File(chemin).isDirectory();
+    }
+
+    /**
+     * Retourne les fichiers désignés par un chemin : le fichier lui-même,
+     * tous ceux d'un dossier et de ses sous-dossiers, ou ceux qui
+     * correspondent à un motif (voir {@link #estLot}), triés par chemin.
+     *
+     * @param source Le fichier, le dossier ou le motif.
+     * @return Les fichiers désignés.
+     * @throws IOException Si le dossier ne peut pas être parcouru.
+     */
+    public static List<Path> listerFichiers(String source) throws IOException {
+        if (!estLot(source)) {
+            return List.of(Path.of(source));
+        }
+        Path base = dossierBase(source);
+        PathMatcher filtre = filtre(source, true);
+        try (Stream<Path> fichiers = Files.walk(base)) {
+            return fichiers.filter(Files::isRegularFile)
+                           .filter(chemin -> filtre.matches(
+                                   base.relativize(chemin)))
+                           .sorted()
+                           .toList();
+        }
+    }
+
+    /**
+     * Retourne le dossier parcouru pour un dossier ou un motif : le dossier
+     * lui-même, ou celui qui précède le premier caractère du motif.
+     *
+     * @param source Le dossier ou le motif.
+     * @return Le dossier parcouru.
+     */
+    private static Path dossierBase(String source) {
+        if (indicePremierCaractereMotif(source) < 0) {
+            return Path.of(source);
+        }
+        int separateur = indiceSeparateurMotif(source);
+        return Path.of(separateur < 0 ? "."
+                       : separateur == 0 ? File.separator
+                       : source.substring(0, separateur));
+    }
+
+    /**
+     * Retourne le filtre des chemins relatifs au dossier parcouru.
+     * Pour une décompression, seuls les fichiers d'extension
+     * {@link #EXTENSION_COMPRESSE} d'un dossier sont retenus ; ceux
+     * désignés par un motif le sont tous.
+     *
+     * @param source Le dossier ou le motif.
+     * @param compression true pour compresser, false pour décompresser.
+     * @return Le filtre des chemins relatifs.
+     */
+    private static PathMatcher filtre(String source, boolean compression) {
+        if (indicePremierCaractereMotif(source) >= 0) {
+            return FileSystems.getDefault().getPathMatcher(
+                    "glob:" + source.substring(indiceSeparateurMotif(source)
+                                               + 1));
+        }
+        return compression
+               ? chemin -> true
+               : chemin -> chemin.toString().endsWith(EXTENSION_COMPRESSE);
+    }
+
+    /**
+     * Retourne la position du dernier séparateur précédant le premier
+     * caractère de motif d'un chemin : le motif s'applique à ce qui suit.
+     *
+     * @param motif Le chemin contenant un motif.
+     * @return La position du séparateur, -1 si le motif porte sur
+     *         le dossier courant.
+     */
+    private static int indiceSeparateurMotif(String motif) {
+        int premier = indicePremierCaractereMotif(motif);
+        return Math.max(motif.lastIndexOf('/', premier),
+                        motif.lastIndexOf(File.separatorChar, premier));
+    }
+
+    /**
+     * Retourne la position du premier caractère de motif d'un chemin.
+     *
+     * @param chemin Le chemin.
+     * @return La position du caractère, -1 si le chemin n'en contient pas.
+     */
+    private static int indicePremierCaractereMotif(String chemin) {
+        for (int i = 0; i < chemin.length(); i++) {
+            if (CARACTERES_MOTIF.indexOf(chemin.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retourne le chemin relatif du fichier produit à partir de celui
+     * d'un fichier traité.
+     *
+     * @param relatif Le chemin relatif du fichier traité.
+     * @return Le chemin relatif du fichier produit.
+     */
+    private String nomDestination(String relatif) {
+        if (compression) {
+            return relatif + EXTENSION_COMPRESSE;
+        }
+        return relatif.endsWith(EXTENSION_COMPRESSE)
+               ? relatif.substring(0, relatif.length()
+                                      - EXTENSION_COMPRESSE.length())
+               : relatif + EXTENSION_DECOMPRESSE;
+    }
+
+    /**
+     * Traite tous les fichiers, avec autant de threads que le demandent
+     * les paramètres. Les fichiers sont traités en parallèle par autant de
+     * threads qu'il y a de fichiers, dans la limite du budget ; les threads
+     * restants sont partagés entre eux pour les blocs de chaque fichier
+     * compressé ou décompressé par blocs, sans que leur total dépasse
+     * le budget. L'échec du traitement d'un fichier est affiché
+     * et n'interrompt pas celui des autres.
+     */
+    public void traiter() {
+        long debut = System.nanoTime();
+        if (!sources.isEmpty()) {
+            int nombreThreads = parametres.getNombreThreads();
+            int nombreTaches = Math.min(nombreThreads, sources.size());
+            parametresFichier.setNombreThreads(nombreThreads / nombreTaches);
+            ForkJoinPool groupe = new ForkJoinPool(nombreTaches);
+            try {
+                groupe.invoke(new TacheLot(0, sources.size()));
+            } finally {
+                groupe.shutdown();
+            }
+        }
+        duree = System.nanoTime() - debut;
+    }
+
+    /**
+     * Tâche traitant une suite de fichiers consécutifs. Une suite plus
+     * grande que {@link #TAILLE_LOT} octets et de plus d'un fichier est
+     * coupée en deux suites de tailles voisines, confiées chacune à une
+     * sous-tâche.
+     */
+    private class TacheLot extends RecursiveAction {
+
+        /** Version de la forme sérialisée de la tâche. */
+        private static final long serialVersionUID = 1L;
+
+        /** Indice du premier fichier de la suite (inclus). */
+        private final int debut;
+
+        /** Indice de fin de la suite (exclu). */
+        private final int fin;
+
+        /**
+         * Construit une tâche traitant une suite de fichiers.
+         *
+         * @param debut L'indice du premier fichier de la suite.
+         * @param fin L'indice de fin de la suite (exclu).
+         */
+        TacheLot(int debut, int fin) {
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        /**
+         * Traite la suite, directement ou en la partageant entre deux
+         * sous-tâches.
+         */
+        @Override
+        protected void compute() {
+            long taille = taillesCumulees[fin] - taillesCumulees[debut];
+            if (fin - debut == 1 || taille <= TAILLE_LOT) {
+                traiterSuite();
+                return;
+            }
+            int milieu = debut + 1;
+            while (milieu < fin - 1 && taillesCumulees[milieu]
+                                       - taillesCumulees[debut] < taille / 2) {
+                milieu++;
+            }
+            invokeAll(new TacheLot(debut, milieu), new TacheLot(milieu, fin));
+        }
+
+        /**
+         * Traite les fichiers de la suite l'un après l'autre. Avant de
+         * compresser un fichier, le comptage des occurrences du suivant
+         * est placé dans la file du thread, où un autre thread inoccupé
+         * peut le prendre ; sinon, il est fait ici même au moment
+         * d'en avoir besoin. Un fichier modifié après son comptage
+         * échoue à la compression (voir {@link CompressionHuffman}) :
+         * il est compté parmi les échecs, jamais parmi les réussites.
+         */
+        private void traiterSuite() {
+            ForkJoinTask<HistogrammeOctets> suivant = compterOccurrences(debut);
+            for (int i = debut; i < fin; i++) {
+                HistogrammeOctets occurences = null;
+                if (suivant != null) {
+                    try {
+                        occurences = suivant.join();
+                    } catch (RuntimeException erreur) {
+                        /*
+                         * La compression du fichier reprendra le comptage
+                         * et signalera l'erreur
+                         */
+                    }
+                }
+                suivant = i + 1 < fin ? compterOccurrences(i + 1) : null;
+                traiterFichier(i, occurences);
+            }
+        }
+    }
+
+    /**
+     * Lance, dans la file du thread courant, le comptage des occurrences
+     * des octets d'un fichier à compresser, s'il est compressé avec une
+     * seule table de codes construite pour lui (et non avec un
+     * dictionnaire).
+     *
+     * @param indice L'indice du fichier.
+     * @return La tâche de comptage, ou null si elle est inutile.
+     */
+    private ForkJoinTask<HistogrammeOctets> compterOccurrences(int indice) {
+        if (!compression || parametres.estParBlocs()
+            || parametres.estAdaptatif() || parametres.aUnDictionnaire()) {
+            return null;
+        }
+        String source = sources.get(indice).toString();
+        return ForkJoinTask.adapt(
+                () -> CompteurOccurrencesParallele.compter(source)).fork();
+    }
+
+    /**
+     * Compresse ou décompresse un fichier et compte le résultat. Le dossier
+     * du fichier produit est créé si nécessaire.
+     *
+     * @param indice L'indice du fichier.
+     * @param occurences Les occurrences des octets du fichier à compresser,
+     *                   comptées d'avance, ou null pour les compter.
+     */
+    void traiterFichier(int indice, HistogrammeOctets occurences) {
+        Path source = sources.get(indice);
+        Path destination = destinations.get(indice);
+        try {
+            Files.createDirectories(destination.toAbsolutePath().getParent());
+            if (compression) {
+                CompressionHuffman compresseur = new CompressionHuffman(
+                        source.toString(), destination.toString(),
+                        parametresFichier);
+                compresseur.setAffichage(false);
+                compresseur.setDictionnaire(dictionnaire);
+                compresseur.compresserFichier(occurences);
+            } else {
+                DecompressionHuffman decompresseur = new DecompressionHuffman(
+                        source.toString(), destination.toString(),
+                        parametresFichier);
+                decompresseur.setDictionnaire(dictionnaire);
+                decompresseur.decompresserFichier();
+            }
+            nombreReussis.incrementAndGet();
+            octetsLus.addAndGet(Files.size(source));
+            octetsEcrits.addAndGet(Files.size(destination));
+        } catch (IOException | RuntimeException erreur) {
+            nombreEchecs.incrementAndGet();
+            out.println("Erreur lors du traitement du fichier " + source
+                        + " : " + erreur.getMessage());
+        }
+    }
+
+    /**
+     * Retourne le nombre de fichiers à traiter.
+     *
+     * @return Le nombre de fichiers trouvés.
+     */
+    public int getNombreFichiers() {
+        return sources.size();
+    }
+
+    /**
+     * Retourne le nombre de fichiers traités sans erreur.
+     *
+     * @return Le nombre de fichiers réussis.
+     */
+    public int getNombreReussis() {
+        return nombreReussis.get();
+    }
+
+    /**
+     * Retourne le nombre de fichiers dont le traitement a échoué.
+     *
+     * @return Le nombre d'échecs.
+     */
+    public int getNombreEchecs() {
+        return nombreEchecs.get();
+    }
+
+    /**
+     * Retourne le nombre d'octets lus par les traitements réussis.
+     *
+     * @return Le nombre d'octets lus.
+     */
+    public long getOctetsLus() {
+        return octetsLus.get();
+    }
+
+    /**
+     * Retourne le nombre d'octets écrits par les traitements réussis.
+     *
+     * @return Le nombre d'octets écrits.
+     */
+    public long getOctetsEcrits() {
+        return octetsEcrits.get();
+    }
+
+    /**
+     * Retourne la durée du traitement de tous les fichiers.
+     *
+     * @return La durée en nanosecondes, 0 avant {@link #traiter}.
+     */
+    public long getDuree() {
+        return duree;
+    }
+
+    /**
+     * Indique si les fichiers sont compressés ou décompressés.
+     *
+     * @return true pour une compression, false pour une décompression.
+     */
+    public boolean estCompression() {
+        return compression;
+    }
+}
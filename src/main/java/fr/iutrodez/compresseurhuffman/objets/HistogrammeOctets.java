@@ -0,0 +1,192 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * HistogrammeOctets.java                    18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.objets;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Représente le nombre d'occurrences de chacune des 256 valeurs d'octet
+ * dans un ensemble de données.
+ * Les compteurs sont des entiers primitifs sur 64 bits : aucun objet n'est
+ * alloué pendant le comptage et les fichiers contenant plus de 2^31
+ * occurrences d'un même octet sont correctement comptés.
+ * <br>
+ * Le comptage utilise plusieurs tables entrelacées : des octets consécutifs
+ * sont comptés dans des tables différentes, ce qui évite qu'une suite
+ * d'octets identiques n'incrémente plusieurs fois de suite le même compteur
+ * (chaque incrémentation devant alors attendre la fin de la précédente).
+ * Les tables sont additionnées à la lecture des résultats.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class HistogrammeOctets {
+
+    /**
+     * Nombre de valeurs différentes que peut prendre un octet.
+     */
+    public static final int NOMBRE_VALEURS = 256;
+
+    /**
+     * Nombre de tables de compteurs entrelacées.
+     */
+    private static final int NOMBRE_TABLES = 4;
+
+    /**
+     * Taille des paquets recopiés depuis un {@link ByteBuffer} (16 Ko).
+     */
+    private static final int TAILLE_PAQUET = 16 * 1024;
+
+    /**
+     * Compteurs des occurrences, rangés table après table :
+     * le compteur de l'octet {@code o} dans la table {@code t} se trouve
+     * à l'indice {@code t * NOMBRE_VALEURS + o}.
+     */
+    private final long[] compteurs = new long[NOMBRE_TABLES * NOMBRE_VALEURS];
+
+    /**
+     * Ajoute à l'histogramme les occurrences de tous les octets d'un tableau.
+     *
+     * @param octets Le tableau d'octets à comptabiliser.
+     */
+    public void ajouter(byte[] octets) {
+        ajouter(octets, 0, octets.length);
+    }
+
+    /**
+     * Ajoute à l'histogramme les occurrences des octets d'une portion
+     * de tableau.
+     *
+     * @param octets Le tableau contenant les octets à comptabiliser.
+     * @param debut L'indice du premier octet à comptabiliser (inclus).
+     * @param fin L'indice de fin de la portion (exclu).
+     */
+    public void ajouter(byte[] octets, int debut, int fin) {
+        long[] tables = compteurs;
+        int i = debut;
+        for (; i + NOMBRE_TABLES <= fin; i += NOMBRE_TABLES) {
+            /*
+             * `& 0xFF` convertit l'octet signé (-128 à 127)
+             * en indice non signé (0 à 255).
+             */
+            tables[octets[i] & 0xFF]++;
+            tables[NOMBRE_VALEURS + (octets[i + 1] & 0xFF)]++;
+            tables[2 * NOMBRE_VALEURS + (octets[i + 2] & 0xFF)]++;
+            tables[3 * NOMBRE_VALEURS + (octets[i + 3] & 0xFF)]++;
+        }
+        for (; i < fin; i++) {
+            tables[octets[i] & 0xFF]++;
+        }
+    }
+
+    /**
+     * Ajoute à l'histogramme les occurrences des octets restant dans
+     * un tampon, par exemple une portion de fichier projetée en mémoire.
+     * Les octets sont recopiés par paquets dans un tableau intermédiaire
+     * afin de réutiliser la boucle de comptage sur tableau.
+     * La position du tampon est avancée jusqu'à sa limite.
+     *
+     * @param tampon Le tampon dont les octets restants sont comptabilisés.
+     */
+    public void ajouter(ByteBuffer tampon) {
+        byte[] paquet = new byte[Math.min(tampon.remaining(), TAILLE_PAQUET)];
+        while (tampon.hasRemaining()) {
+            int longueur = Math.min(tampon.remaining(), paquet.length);
+            tampon.get(paquet, 0, longueur);
+            ajouter(paquet, 0, longueur);
+        }
+    }
+
+    /**
+     * Ajoute un nombre d'occurrences donné à un octet.
+     *
+     * @param octet L'octet concerné.
+     * @param nombre Le nombre d'occurrences à ajouter.
+     */
+    public void ajouterOccurrences(byte octet, long nombre) {
+        compteurs[octet & 0xFF] += nombre;
+    }
+
+    /**
+     * Ajoute à cet histogramme toutes les occurrences d'un autre histogramme.
+     *
+     * @param autre L'histogramme à fusionner dans celui-ci.
+     */
+    public void fusionner(HistogrammeOctets autre) {
+        for (int i = 0; i < compteurs.length; i++) {
+            compteurs[i] += autre.compteurs[i];
+        }
+    }
+
+    /**
+     * Retourne le nombre d'occurrences d'un octet.
+     *
+     * @param octet L'octet dont on veut le nombre d'occurrences.
+     * @return Le nombre d'occurrences de cet octet.
+     */
+    public long getOccurrences(byte octet) {
+        return getOccurrences(octet & 0xFF);
+    }
+
+    /**
+     * Retourne le nombre d'occurrences d'une valeur d'octet non signée.
+     *
+     * @param valeur La valeur de l'octet, entre 0 et 255.
+     * @return Le nombre d'occurrences de cette valeur.
+     */
+    public long getOccurrences(int valeur) {
+        long total = 0;
+        for (int table = 0; table < NOMBRE_TABLES; table++) {
+            total += compteurs[table * NOMBRE_VALEURS + valeur];
+        }
+        return total;
+    }
+
+    /**
+     * Retourne les occurrences des 256 valeurs d'octet, indicées par
+     * leur valeur non signée.
+     *
+     * @return Un nouveau tableau de 256 compteurs.
+     */
+    public long[] versTableau() {
+        long[] occurrences = new long[NOMBRE_VALEURS];
+        for (int valeur = 0; valeur < NOMBRE_VALEURS; valeur++) {
+            occurrences[valeur] = getOccurrences(valeur);
+        }
+        return occurrences;
+    }
+
+    /**
+     * Retourne le nombre de valeurs d'octet différentes présentes au moins
+     * une fois.
+     *
+     * @return Le nombre de symboles distincts.
+     */
+    public int getNombreSymboles() {
+        int nombreSymboles = 0;
+        for (int valeur = 0; valeur < NOMBRE_VALEURS; valeur++) {
+            if (getOccurrences(valeur) > 0) {
+                nombreSymboles++;
+            }
+        }
+        return nombreSymboles;
+    }
+
+    /**
+     * Retourne le nombre total d'octets comptabilisés.
+     *
+     * @return La somme de toutes les occurrences.
+     */
+    public long getTotal() {
+        long total = 0;
+        for (long compteur : compteurs) {
+            total += compteur;
+        }
+        return total;
+    }
+}
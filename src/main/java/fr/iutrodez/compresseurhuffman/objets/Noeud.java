@@ -26,7 +26,7 @@ public class Noeud {
     /**
      * La fréquence d'apparition de ce caractère.
      */
-    private int frequence;
+    private long frequence;
 
     /**
      * L'enfant gauche de ce nœud.
@@ -44,7 +44,7 @@ public class Noeud {
      * @param caractere Le caractère représenté par ce nœud.
      * @param frequence La fréquence d'apparition de ce caractère.
      */
-    public Noeud(byte caractere, int frequence) {
+    public Noeud(byte caractere, long frequence) {
         this.caractere = caractere;
         this.frequence = frequence;
     }
@@ -56,7 +56,7 @@ public class Noeud {
      * @param frequence La fréquence d'apparition des caractères
      *                  dans ce sous-arbre.
      */
-    public Noeud(int frequence) {
+    public Noeud(long frequence) {
         this.frequence = frequence;
     }
 
@@ -82,7 +82,7 @@ public class Noeud {
      *
      * @return La fréquence d'apparition du caractère.
      */
-    public int getFrequence() {
+    public long getFrequence() {
         return frequence;
     }
 
@@ -0,0 +1,502 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * ParametresCompression.java                18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.objets;
+
+import fr.iutrodez.compresseurhuffman.huffman.TableCodesCanonique;
+import fr.iutrodez.compresseurhuffman.outils.GestionFichier;
+import fr.iutrodez.compresseurhuffman.outils.StrategieES;
+
+/**
+ * Regroupe les réglages facultatifs de la compression et de la
+ * décompression.
+ * Un objet créé sans modification donne le comportement par défaut :
+ * le fichier est compressé en un seul bloc.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class ParametresCompression {
+
+    /**
+     * Taille de bloc proposée pour la compression par blocs (1 Mo).
+     */
+    public static final int TAILLE_BLOC_DEFAUT = 1024 * 1024;
+
+    /**
+     * Taille de bloc maximale autorisée (256 Mo) : chaque thread
+     * de compression garde un bloc entier en mémoire.
+     */
+    public static final int TAILLE_BLOC_MAXIMALE = 256 * 1024 * 1024;
+
+    /**
+     * Taille maximale des tampons d'entrées/sorties (64 Mo).
+     */
+    public static final int TAILLE_TAMPON_MAXIMALE = 64 * 1024 * 1024;
+
+    /**
+     * Intervalle proposé entre deux points d'accès de l'index d'accès
+     * (64 Ko).
+     */
+    public static final int INTERVALLE_ACCES_DEFAUT = 64 * 1024;
+
+    /**
+     * Taille d'origine d'un bloc, en octets, 0 pour compresser le fichier
+     * en un seul bloc.
+     */
+    private int tailleBloc;
+
+    /**
+     * Indique si les blocs sont de tailles variables, coupés là où la
+     * répartition des octets change.
+     */
+    private boolean decoupageVariable;
+
+    /**
+     * Nombre de threads compressant des blocs en même temps.
+     */
+    private int nombreThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Nom de la stratégie d'entrées/sorties imposée, ou
+     * {@link StrategieES#AUTOMATIQUE} pour la choisir d'après la taille
+     * du fichier lu.
+     */
+    private String strategieES = StrategieES.AUTOMATIQUE;
+
+    /**
+     * Taille des tampons d'entrées/sorties, en octets.
+     */
+    private int tailleTampon = GestionFichier.TAILLE_BLOC;
+
+    /**
+     * Longueur maximale des codes, en bits.
+     */
+    private int longueurMaximaleCodes = TableCodesCanonique.LONGUEUR_MAXIMALE;
+
+    /**
+     * Indique si le codage adaptatif, en un seul passage, remplace
+     * le codage statique.
+     */
+    private boolean adaptatif;
+
+    /**
+     * Intervalle entre deux points d'accès, en octets d'origine, 0 pour
+     * ne pas écrire d'index d'accès.
+     */
+    private int intervalleAcces;
+
+    /**
+     * Indique si l'index d'accès compte aussi les lignes.
+     */
+    private boolean indexLignes;
+
+    /**
+     * Indique si le résumé de l'opération est affiché en JSON plutôt
+     * qu'en texte.
+     */
+    private boolean rapportJson;
+
+    /**
+     * Chemin de la socket du serveur de compression auquel confier
+     * l'opération, ou null pour la faire dans ce programme.
+     */
+    private String cheminServeur;
+
+    /**
+     * Chemin du dictionnaire de codes avec lequel compresser
+     * ou décompresser, ou null pour des codes propres à chaque fichier.
+     */
+    private String cheminDictionnaire;
+
+    /**
+     * Construit des paramètres donnant le comportement par défaut.
+     */
+    public ParametresCompression() {
+    }
+
+    /**
+     * Construit une copie de paramètres, qui peut être modifiée sans
+     * changer les paramètres d'origine.
+     *
+     * @param modele Les paramètres copiés.
+     */
+    public ParametresCompression(ParametresCompression modele) {
+        this.tailleBloc = modele.tailleBloc;
+        this.decoupageVariable = modele.decoupageVariable;
+        this.nombreThreads = modele.nombreThreads;
+        this.strategieES = modele.strategieES;
+        this.tailleTampon = modele.tailleTampon;
+        this.longueurMaximaleCodes = modele.longueurMaximaleCodes;
+        this.adaptatif = modele.adaptatif;
+        this.intervalleAcces = modele.intervalleAcces;
+        this.indexLignes = modele.indexLignes;
+        this.rapportJson = modele.rapportJson;
+        this.cheminServeur = modele.cheminServeur;
+        this.cheminDictionnaire = modele.cheminDictionnaire;
+    }
+
+    /**
+     * Retourne la taille d'origine d'un bloc.
+     *
+     * @return La taille d'un bloc, en octets, 0 si le fichier est
+     *         compressé en un seul bloc.
+     */
+    public int getTailleBloc() {
+        return tailleBloc;
+    }
+
+    /**
+     * Modifie la taille d'origine d'un bloc.
+     *
+     * @param tailleBloc La taille d'un bloc, en octets, entre 1 et
+     *                   {@link #TAILLE_BLOC_MAXIMALE}, ou 0 pour compresser
+     *                   le fichier en un seul bloc.
+     * @throws IllegalArgumentException Si la taille est invalide.
+     */
+    public void setTailleBloc(int tailleBloc) {
+        if (tailleBloc < 0 || tailleBloc > TAILLE_BLOC_MAXIMALE) {
+            throw new IllegalArgumentException("Taille de bloc invalide : "
+                                               + tailleBloc);
+        }
+        this.tailleBloc = tailleBloc;
+    }
+
+    /**
+     * Indique si le fichier doit être découpé en blocs.
+     *
+     * @return true si une taille de bloc a été choisie.
+     */
+    public boolean estParBlocs() {
+        return tailleBloc > 0;
+    }
+
+    /**
+     * Indique si les blocs sont de tailles variables.
+     *
+     * @return true si le découpage variable a été choisi.
+     */
+    public boolean estDecoupageVariable() {
+        return decoupageVariable;
+    }
+
+    /**
+     * Choisit entre des blocs de taille fixe, par défaut, et des blocs
+     * de tailles variables, coupés là où la répartition des octets change
+     * et pouvant réutiliser la table du bloc précédent. La taille de bloc
+     * devient alors la taille maximale d'un bloc ; si aucune n'a été
+     * choisie, c'est {@link #TAILLE_BLOC_DEFAUT}.
+     *
+     * @param decoupageVariable true pour des blocs de tailles variables.
+     */
+    public void setDecoupageVariable(boolean decoupageVariable) {
+        this.decoupageVariable = decoupageVariable;
+        if (decoupageVariable && tailleBloc == 0) {
+            tailleBloc = TAILLE_BLOC_DEFAUT;
+        }
+    }
+
+    /**
+     * Retourne le nombre de threads compressant des blocs en même temps.
+     *
+     * @return Le nombre de threads, par défaut le nombre de processeurs.
+     */
+    public int getNombreThreads() {
+        return nombreThreads;
+    }
+
+    /**
+     * Modifie le nombre de threads compressant des blocs en même temps.
+     *
+     * @param nombreThreads Le nombre de threads, au moins 1.
+     * @throws IllegalArgumentException Si le nombre est inférieur à 1.
+     */
+    public void setNombreThreads(int nombreThreads) {
+        if (nombreThreads < 1) {
+            throw new IllegalArgumentException("Nombre de threads invalide : "
+                                               + nombreThreads);
+        }
+        this.nombreThreads = nombreThreads;
+    }
+
+    /**
+     * Retourne le nom de la stratégie d'entrées/sorties imposée.
+     *
+     * @return Le nom de la stratégie, {@link StrategieES#AUTOMATIQUE}
+     *         par défaut.
+     */
+    public String getStrategieES() {
+        return strategieES;
+    }
+
+    /**
+     * Impose une stratégie d'entrées/sorties.
+     *
+     * @param strategieES Le nom de la stratégie (voir
+     *                    {@link StrategieES#parNom}), ou
+     *                    {@link StrategieES#AUTOMATIQUE} pour la choisir
+     *                    d'après la taille du fichier lu.
+     * @throws IllegalArgumentException Si aucune stratégie ne porte ce nom.
+     */
+    public void setStrategieES(String strategieES) {
+        if (!strategieES.equals(StrategieES.AUTOMATIQUE)) {
+            StrategieES.parNom(strategieES, tailleTampon);
+        }
+        this.strategieES = strategieES;
+    }
+
+    /**
+     * Retourne la taille des tampons d'entrées/sorties.
+     *
+     * @return La taille des tampons, en octets.
+     */
+    public int getTailleTampon() {
+        return tailleTampon;
+    }
+
+    /**
+     * Modifie la taille des tampons d'entrées/sorties.
+     *
+     * @param tailleTampon La taille des tampons, en octets, entre 1 et
+     *                     {@link #TAILLE_TAMPON_MAXIMALE}.
+     * @throws IllegalArgumentException Si la taille est invalide.
+     */
+    public void setTailleTampon(int tailleTampon) {
+        if (tailleTampon < 1 || tailleTampon > TAILLE_TAMPON_MAXIMALE) {
+            throw new IllegalArgumentException("Taille de tampon invalide : "
+                                               + tailleTampon);
+        }
+        this.tailleTampon = tailleTampon;
+    }
+
+    /**
+     * Retourne la longueur maximale des codes.
+     *
+     * @return La longueur maximale, en bits, par défaut
+     *         {@link TableCodesCanonique#LONGUEUR_MAXIMALE}.
+     */
+    public int getLongueurMaximaleCodes() {
+        return longueurMaximaleCodes;
+    }
+
+    /**
+     * Modifie la longueur maximale des codes. Une limite basse accélère
+     * le décodage, au prix d'une légère perte de taux de compression.
+     *
+     * @param longueurMaximaleCodes La longueur maximale, en bits, entre 1 et
+     *                              {@link TableCodesCanonique#LONGUEUR_MAXIMALE}.
+     * @throws IllegalArgumentException Si la longueur est invalide.
+     */
+    public void setLongueurMaximaleCodes(int longueurMaximaleCodes) {
+        if (longueurMaximaleCodes < 1
+            || longueurMaximaleCodes > TableCodesCanonique.LONGUEUR_MAXIMALE) {
+            throw new IllegalArgumentException("Longueur maximale des codes "
+                                               + "invalide : "
+                                               + longueurMaximaleCodes);
+        }
+        this.longueurMaximaleCodes = longueurMaximaleCodes;
+    }
+
+    /**
+     * Indique si une longueur maximale des codes a été choisie,
+     * plus basse que celle imposée par le format.
+     *
+     * @return true si la longueur des codes est limitée.
+     */
+    public boolean estLongueurLimitee() {
+        return longueurMaximaleCodes < TableCodesCanonique.LONGUEUR_MAXIMALE;
+    }
+
+    /**
+     * Indique si le codage adaptatif a été choisi.
+     *
+     * @return true si le fichier est compressé en un seul passage,
+     *         avec un arbre de Huffman adaptatif.
+     */
+    public boolean estAdaptatif() {
+        return adaptatif;
+    }
+
+    /**
+     * Choisit entre le codage statique, par défaut, et le codage
+     * adaptatif. Le codage adaptatif ne découpe pas le fichier en blocs
+     * et ne limite pas la longueur des codes : la taille de bloc et la
+     * longueur maximale des codes sont alors ignorées.
+     *
+     * @param adaptatif true pour le codage adaptatif.
+     */
+    public void setAdaptatif(boolean adaptatif) {
+        this.adaptatif = adaptatif;
+    }
+
+    /**
+     * Retourne l'intervalle entre deux points d'accès.
+     *
+     * @return L'intervalle, en octets d'origine, 0 si aucun index d'accès
+     *         n'est écrit.
+     */
+    public int getIntervalleAcces() {
+        return intervalleAcces;
+    }
+
+    /**
+     * Modifie l'intervalle entre deux points d'accès de l'index d'accès,
+     * qui permet d'extraire une partie du fichier compressé sans le
+     * décompresser entièrement (voir {@link
+     * fr.iutrodez.compresseurhuffman.huffman.IndexAcces}). Plus il est
+     * court, plus l'extraction est rapide et l'index volumineux.
+     * L'index d'accès n'est pas écrit avec le codage adaptatif.
+     *
+     * @param intervalleAcces L'intervalle, en octets, entre 1 et
+     *                        {@link #TAILLE_BLOC_MAXIMALE}, ou 0 pour
+     *                        ne pas écrire d'index d'accès.
+     * @throws IllegalArgumentException Si l'intervalle est invalide.
+     */
+    public void setIntervalleAcces(int intervalleAcces) {
+        if (intervalleAcces < 0 || intervalleAcces > TAILLE_BLOC_MAXIMALE) {
+            throw new IllegalArgumentException("Intervalle d'accès invalide : "
+                                               + intervalleAcces);
+        }
+        this.intervalleAcces = intervalleAcces;
+    }
+
+    /**
+     * Indique si un index d'accès doit être écrit.
+     *
+     * @return true si un intervalle entre points d'accès a été choisi.
+     */
+    public boolean aUnIndexAcces() {
+        return intervalleAcces > 0;
+    }
+
+    /**
+     * Indique si l'index d'accès compte les lignes.
+     *
+     * @return true si les lignes sont indexées.
+     */
+    public boolean estIndexLignes() {
+        return indexLignes;
+    }
+
+    /**
+     * Choisit de compter les lignes dans l'index d'accès, pour pouvoir
+     * extraire des lignes par leur numéro. Si aucun intervalle entre
+     * points d'accès n'a été choisi, c'est {@link #INTERVALLE_ACCES_DEFAUT}.
+     *
+     * @param indexLignes true pour indexer les lignes.
+     */
+    public void setIndexLignes(boolean indexLignes) {
+        this.indexLignes = indexLignes;
+        if (indexLignes && intervalleAcces == 0) {
+            intervalleAcces = INTERVALLE_ACCES_DEFAUT;
+        }
+    }
+
+    /**
+     * Indique si le résumé de l'opération doit être affiché en JSON.
+     *
+     * @return true pour un résumé en JSON, false pour un résumé en texte.
+     */
+    public boolean estRapportJson() {
+        return rapportJson;
+    }
+
+    /**
+     * Choisit entre un résumé de l'opération en texte, par défaut, et
+     * un résumé en JSON, sur une seule ligne, destiné à être lu par
+     * un programme (voir
+     * {@link fr.iutrodez.compresseurhuffman.outils.StatistiquesCompresseur}).
+     *
+     * @param rapportJson true pour un résumé en JSON.
+     */
+    public void setRapportJson(boolean rapportJson) {
+        this.rapportJson = rapportJson;
+    }
+
+    /**
+     * Retourne le chemin de la socket du serveur de compression
+     * auquel confier l'opération.
+     *
+     * @return Le chemin de la socket, null si l'opération est faite
+     *         dans ce programme.
+     */
+    public String getCheminServeur() {
+        return cheminServeur;
+    }
+
+    /**
+     * Indique si l'opération est confiée à un serveur de compression
+     * (voir {@link fr.iutrodez.compresseurhuffman.serveur.ServeurCompression}).
+     *
+     * @return true si l'opération est confiée à un serveur.
+     */
+    public boolean estParServeur() {
+        return cheminServeur != null;
+    }
+
+    /**
+     * Confie l'opération au serveur de compression qui écoute sur
+     * une socket locale : le coût du démarrage et de la compilation
+     * à la volée de la machine virtuelle est alors évité.
+     *
+     * @param cheminServeur Le chemin de la socket du serveur,
+     *                      null pour faire l'opération dans ce programme.
+     */
+    public void setCheminServeur(String cheminServeur) {
+        this.cheminServeur = cheminServeur;
+    }
+
+    /**
+     * Retourne le chemin du dictionnaire de codes.
+     *
+     * @return Le chemin du dictionnaire, null si chaque fichier est
+     *         compressé avec ses propres codes.
+     */
+    public String getCheminDictionnaire() {
+        return cheminDictionnaire;
+    }
+
+    /**
+     * Indique si un dictionnaire de codes a été choisi.
+     *
+     * @return true si la compression utilise un dictionnaire.
+     */
+    public boolean aUnDictionnaire() {
+        return cheminDictionnaire != null;
+    }
+
+    /**
+     * Choisit un dictionnaire de codes, entraîné sur des fichiers
+     * semblables à ceux à compresser (voir {@link
+     * fr.iutrodez.compresseurhuffman.huffman.Dictionnaire}) : la
+     * compression se fait alors en un seul passage et le fichier compressé
+     * ne contient aucune table. Le même dictionnaire est nécessaire pour
+     * le décompresser. La taille de bloc, le codage adaptatif, la longueur
+     * maximale des codes et l'index d'accès sont ignorés.
+     *
+     * @param cheminDictionnaire Le chemin du dictionnaire, null pour
+     *                           des codes propres à chaque fichier.
+     */
+    public void setCheminDictionnaire(String cheminDictionnaire) {
+        this.cheminDictionnaire = cheminDictionnaire;
+    }
+
+    /**
+     * Retourne la stratégie d'entrées/sorties à utiliser pour un fichier
+     * lu d'une taille donnée : la stratégie imposée, ou à défaut celle
+     * qui convient le mieux à cette taille.
+     *
+     * @param tailleFichier La taille du fichier lu, en octets.
+     * @return La stratégie d'entrées/sorties.
+     */
+    public StrategieES choisirStrategieES(long tailleFichier) {
+        if (strategieES.equals(StrategieES.AUTOMATIQUE)) {
+            return StrategieES.choisir(tailleFichier, tailleTampon);
+        }
+        return StrategieES.parNom(strategieES, tailleTampon);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * EcrivainBits.java                         18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.outils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Écrit une suite de codes binaires dans un flux de sortie au fur et à
+ * mesure de l'encodage, sans jamais conserver la totalité de la suite
+ * de bits en mémoire.
+ * <br>
+ * Les codes sont décalés dans un accumulateur de 64 bits ; dès qu'il est
+ * plein, le mot complet est recopié d'un seul coup dans un tampon d'octets,
+ * lui-même écrit dans le flux lorsqu'il est rempli.
+ * <br>
+ * Les bits sont écrits à la suite, sans séparateur ni longueur : chaque
+ * code est rangé bit de poids fort en tête, et chaque octet se remplit
+ * de son bit de poids fort à son bit de poids faible. Le premier bit
+ * écrit est ainsi le bit de poids fort du premier octet. Le dernier
+ * octet est complété à droite par des zéros (voir {@link #terminer}) :
+ * le nombre de bits utiles doit être connu du lecteur
+ * (voir {@link LecteurBits}).
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class EcrivainBits {
+
+    /**
+     * Accès à un tableau d'octets comme à une suite de mots de 64 bits
+     * rangés octet de poids fort en tête (big-endian).
+     */
+    private static final VarHandle MOT_BIG_ENDIAN =
+            MethodHandles.byteArrayViewVarHandle(long[].class,
+                                                 ByteOrder.BIG_ENDIAN);
+
+    /**
+     * Flux dans lequel le tampon est écrit lorsqu'il est plein.
+     */
+    private final OutputStream sortie;
+
+    /**
+     * Tampon recevant les mots de 64 bits complets.
+     */
+    private final byte[] tampon = new byte[GestionFichier.TAILLE_BLOC];
+
+    /**
+     * Nombre d'octets occupés dans le tampon.
+     */
+    private int positionTampon;
+
+    /**
+     * Bits en attente d'écriture, alignés à droite.
+     */
+    private long accumulateur;
+
+    /**
+     * Nombre de bits en attente dans l'accumulateur (toujours inférieur
+     * à 64).
+     */
+    private int nombreBitsAccumules;
+
+    /**
+     * Nombre de mots de 64 bits complets déjà produits.
+     */
+    private long nombreMots;
+
+    /**
+     * Construit un écrivain de bits au-dessus d'un flux de sortie.
+     *
+     * @param sortie Le flux dans lequel écrire les octets.
+     */
+    public EcrivainBits(OutputStream sortie) {
+        this.sortie = sortie;
+    }
+
+    /**
+     * Ajoute un code à la suite des bits déjà écrits.
+     *
+     * @param code Le code à écrire, aligné à droite ; les bits situés
+     *             au-delà de sa longueur doivent être nuls.
+     * @param longueur La longueur du code, entre 1 et 63 bits.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public void ecrire(long code, int longueur) throws IOException {
+        int bitsLibres = Long.SIZE - nombreBitsAccumules;
+        if (longueur < bitsLibres) {
+            accumulateur = (accumulateur << longueur) | code;
+            nombreBitsAccumules += longueur;
+            return;
+        }
+        /*
+         * Le code ne tient pas entièrement : ses bits de poids fort
+         * complètent le mot, qui est écrit, et ses `reste` bits de poids
+         * faible restent dans l'accumulateur.
+         */
+        int reste = longueur - bitsLibres;
+        ecrireMot((accumulateur << bitsLibres) | (code >>> reste));
+        accumulateur = code & ((1L << reste) - 1);
+        nombreBitsAccumules = reste;
+    }
+
+    /**
+     * Range un mot complet de 64 bits dans le tampon, en écrivant
+     * d'abord le tampon dans le flux s'il est plein.
+     *
+     * @param mot Le mot à écrire.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    private void ecrireMot(long mot) throws IOException {
+        if (positionTampon + Long.BYTES > tampon.length) {
+            viderTampon();
+        }
+        MOT_BIG_ENDIAN.set(tampon, positionTampon, mot);
+        positionTampon += Long.BYTES;
+        nombreMots++;
+    }
+
+    /**
+     * Écrit le contenu du tampon dans le flux de sortie.
+     *
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    private void viderTampon() throws IOException {
+        sortie.write(tampon, 0, positionTampon);
+        positionTampon = 0;
+    }
+
+    /**
+     * Écrit les bits encore en attente, le dernier octet étant complété
+     * à droite par des zéros, puis vide le tampon.
+     * Aucun code ne doit plus être écrit ensuite ; le flux sous-jacent
+     * n'est pas fermé.
+     *
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public void terminer() throws IOException {
+        if (positionTampon + Long.BYTES > tampon.length) {
+            viderTampon();
+        }
+        long bitsAlignes = nombreBitsAccumules == 0
+                           ? 0
+                           : accumulateur << (Long.SIZE - nombreBitsAccumules);
+        int nombreOctets = (nombreBitsAccumules + 7) / 8;
+        for (int i = 0; i < nombreOctets; i++) {
+            tampon[positionTampon++] =
+                    (byte) (bitsAlignes >>> (Long.SIZE - 8 * (i + 1)));
+        }
+        viderTampon();
+        sortie.flush();
+    }
+
+    /**
+     * Retourne le nombre total de bits écrits.
+     *
+     * @return Le nombre de bits écrits depuis la création de l'écrivain,
+     *         bits de complément exclus.
+     */
+    public long getNombreBits() {
+        return nombreMots * Long.SIZE + nombreBitsAccumules;
+    }
+}
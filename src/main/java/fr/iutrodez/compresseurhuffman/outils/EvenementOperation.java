@@ -0,0 +1,84 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * EvenementOperation.java                   18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.outils;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Événement Java Flight Recorder couvrant une opération entière :
+ * compression, décompression ou construction de l'arbre de Huffman
+ * d'un fichier. Il est émis par {@link MesuresPhases#terminer}, avec
+ * la pile d'appels de l'opération.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+@Name("fr.iutrodez.compresseurhuffman.Operation")
+@Label("Opération Huffman")
+@Category("Compresseur Huffman")
+@Description("Compression, décompression ou construction de l'arbre "
+             + "de Huffman d'un fichier.")
+class EvenementOperation extends Event {
+
+    /**
+     * Nom de l'opération.
+     */
+    @Label("Opération")
+    String operation;
+
+    /**
+     * Chemin du fichier lu.
+     */
+    @Label("Fichier source")
+    String source;
+
+    /**
+     * Chemin du fichier écrit.
+     */
+    @Label("Fichier destination")
+    String destination;
+
+    /**
+     * Taille du fichier lu.
+     */
+    @Label("Taille source")
+    @DataAmount
+    long tailleSource;
+
+    /**
+     * Taille du fichier écrit.
+     */
+    @Label("Taille destination")
+    @DataAmount
+    long tailleDestination;
+
+    /**
+     * Plus grand nombre de symboles codés par une même table.
+     */
+    @Label("Nombre de symboles")
+    int nombreSymboles;
+
+    /**
+     * Longueur du plus long code, en bits.
+     */
+    @Label("Longueur maximale des codes")
+    int longueurMaximale;
+
+    /**
+     * Nombre de bits codés, écrits à la compression ou lus
+     * à la décompression.
+     */
+    @Label("Bits codés")
+    @DataAmount(DataAmount.BITS)
+    long nombreBits;
+}
@@ -0,0 +1,59 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * EvenementPhase.java                       18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.outils;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement Java Flight Recorder émis à la fin de chaque phase mesurée
+ * par {@link MesuresPhases}, dans le thread qui l'a exécutée : il se
+ * place ainsi, dans JDK Mission Control, à côté des événements
+ * d'entrées/sorties et de ramasse-miettes de ce thread.
+ * <br>
+ * Contrairement aux durées de {@link MesuresPhases}, la durée d'un
+ * événement comprend celle des phases qui y sont imbriquées. Les phases
+ * traitées par tampons, comme l'encodage, produisent un événement par
+ * tampon : un seuil de durée, par exemple
+ * {@code fr.iutrodez.compresseurhuffman.Phase#threshold=1 ms}, en réduit
+ * le nombre.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+@Name("fr.iutrodez.compresseurhuffman.Phase")
+@Label("Phase Huffman")
+@Category("Compresseur Huffman")
+@Description("Phase d'une compression ou d'une décompression de Huffman.")
+@StackTrace(false)
+class EvenementPhase extends Event {
+
+    /**
+     * Opération à laquelle appartient la phase.
+     */
+    @Label("Opération")
+    String operation;
+
+    /**
+     * Nom de la phase (voir {@link MesuresPhases#getNom}).
+     */
+    @Label("Phase")
+    String phase;
+
+    /**
+     * Nombre d'octets traités par la phase.
+     */
+    @Label("Octets traités")
+    @DataAmount
+    long octets;
+}
@@ -0,0 +1,627 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * GenerateurCorpus.java                     18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.outils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Génère des fichiers de test de taille quelconque, selon un profil
+ * de répartition des octets, pour mesurer le compresseur bien au-delà
+ * des petits fichiers du dossier de test.
+ * <br>
+ * Cinq profils sont disponibles :
+ * <ul>
+ *     <li>{@value #UNIFORME} : octets uniformément répartis, le pire cas
+ *         pour le taux de compression ;</li>
+ *     <li>{@value #ZIPF} : mots séparés par des espaces et des fins
+ *         de ligne, le rang de chaque mot suivant une loi de Zipf, proche
+ *         d'un texte courant ;</li>
+ *     <li>{@value #REPETITIONS} : suites d'un même octet, de longueurs
+ *         très variables, dont beaucoup couvrent un bloc entier ;</li>
+ *     <li>{@value #FIBONACCI} : occurrences des octets proportionnelles
+ *         aux nombres de Fibonacci, ce qui donne l'arbre de Huffman le plus
+ *         profond possible, donc les codes les plus longs ;</li>
+ *     <li>{@value #DERIVE} : mélange de plusieurs répartitions dont
+ *         les poids évoluent le long du fichier, pour le découpage des
+ *         blocs d'après l'entropie.</li>
+ * </ul>
+ * Le contenu ne dépend que du profil, de la graine et de la taille :
+ * il est produit par tampons successifs, sans jamais être entièrement
+ * en mémoire, et reste identique d'une exécution à l'autre, ce qui rend
+ * les mesures reproductibles quelle que soit la taille demandée.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class GenerateurCorpus {
+
+    /**
+     * Profil d'octets uniformément répartis.
+     */
+    public static final String UNIFORME = "uniforme";
+
+    /**
+     * Profil de texte dont les mots suivent une loi de Zipf.
+     */
+    public static final String ZIPF = "zipf";
+
+    /**
+     * Profil de suites d'un même octet.
+     */
+    public static final String REPETITIONS = "repetitions";
+
+    /**
+     * Profil d'occurrences suivant les nombres de Fibonacci.
+     */
+    public static final String FIBONACCI = "fibonacci";
+
+    /**
+     * Profil de mélange de répartitions qui dérive le long du fichier.
+     */
+    public static final String DERIVE = "derive";
+
+    /**
+     * Noms des profils disponibles.
+     */
+    public static final List<String> PROFILS =
+            List.of(UNIFORME, ZIPF, REPETITIONS, FIBONACCI, DERIVE);
+
+    /**
+     * Graine utilisée quand aucune n'est précisée.
+     */
+    public static final long GRAINE_DEFAUT = 20261018L;
+
+    /**
+     * Nombre de mots distincts des textes générés.
+     */
+    private static final int NOMBRE_MOTS = 5_000;
+
+    /**
+     * Logarithme en base 2 de la longueur maximale d'une suite d'un même
+     * octet : les longueurs vont de 1 octet à 1 Mo, en proportions
+     * semblables pour chaque ordre de grandeur.
+     */
+    private static final int LOG_REPETITION_MAXIMALE = 20;
+
+    /**
+     * Longueur maximale du motif répété par le profil de Fibonacci (1 Mo).
+     * Le motif compte 28 octets distincts, dont les codes vont jusqu'à
+     * 27 bits.
+     */
+    private static final int PERIODE_FIBONACCI_MAXIMALE = 1024 * 1024;
+
+    /**
+     * Nombre d'octets après lequel le mélange du profil de dérive
+     * retrouve ses poids de départ (4 Mo).
+     */
+    private static final int PERIODE_DERIVE = 4 * 1024 * 1024;
+
+    /**
+     * Nombre d'octets entre deux mises à jour des poids du mélange.
+     */
+    private static final int TRANCHE_DERIVE = 4096;
+
+    /**
+     * Nombre de répartitions mélangées par le profil de dérive.
+     */
+    private static final int NOMBRE_REPARTITIONS = 4;
+
+    /**
+     * Nombre de bits du tirage d'un octet dans une répartition du mélange.
+     */
+    private static final int PRECISION_REPARTITION = 12;
+
+    /**
+     * Profil du contenu généré.
+     */
+    private final String profil;
+
+    /**
+     * Graine des tirages aléatoires.
+     */
+    private final long graine;
+
+    /**
+     * Construit un générateur.
+     *
+     * @param profil Le nom du profil (voir {@link #PROFILS}).
+     * @param graine La graine des tirages aléatoires.
+     * @throws IllegalArgumentException Si le profil est inconnu.
+     */
+    public GenerateurCorpus(String profil, long graine) {
+        if (!PROFILS.contains(profil)) {
+            throw new IllegalArgumentException("Profil inconnu : " + profil
+                                               + " " + PROFILS);
+        }
+        this.profil = profil;
+        this.graine = graine;
+    }
+
+    /**
+     * Retourne le nom du profil du contenu généré.
+     *
+     * @return Le nom du profil.
+     */
+    public String getProfil() {
+        return profil;
+    }
+
+    /**
+     * Retourne la graine des tirages aléatoires.
+     *
+     * @return La graine.
+     */
+    public long getGraine() {
+        return graine;
+    }
+
+    /**
+     * Génère un contenu et l'écrit dans un flux, par tampons de
+     * {@link GestionFichier#TAILLE_BLOC} octets.
+     *
+     * @param taille La taille du contenu, en octets.
+     * @param sortie Le flux recevant le contenu.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     * @throws IllegalArgumentException Si la taille est négative.
+     */
+    public void generer(long taille, OutputStream sortie) throws IOException {
+        Source source = creerSource(taille);
+        byte[] tampon = new byte[(int) Math.min(taille,
+                                                GestionFichier.TAILLE_BLOC)];
+        for (long reste = taille; reste > 0; ) {
+            int longueur = (int) Math.min(reste, tampon.length);
+            source.remplir(tampon, 0, longueur);
+            sortie.write(tampon, 0, longueur);
+            reste -= longueur;
+        }
+    }
+
+    /**
+     * Génère un contenu en mémoire. Il est identique à celui qu'écrit
+     * {@link #generer(long, OutputStream)} pour la même taille.
+     *
+     * @param taille La taille du contenu, en octets.
+     * @return Le contenu généré.
+     * @throws IllegalArgumentException Si la taille est négative.
+     */
+    public byte[] generer(int taille) {
+        Source source = creerSource(taille);
+        byte[] contenu = new byte[taille];
+        source.remplir(contenu, 0, taille);
+        return contenu;
+    }
+
+    /**
+     * Crée la source des octets du profil.
+     *
+     * @param taille La taille du contenu à générer.
+     * @return La source, au début du contenu.
+     * @throws IllegalArgumentException Si la taille est négative.
+     */
+    private Source creerSource(long taille) {
+        if (taille < 0) {
+            throw new IllegalArgumentException("Taille invalide : " + taille);
+        }
+        SplittableRandom aleatoire = new SplittableRandom(graine);
+        switch (profil) {
+            case ZIPF:
+                return new SourceZipf(aleatoire);
+            case REPETITIONS:
+                return new SourceRepetitions(aleatoire);
+            case FIBONACCI:
+                return new SourceFibonacci(aleatoire, taille);
+            case DERIVE:
+                return new SourceDerive(aleatoire);
+            default:
+                return new SourceUniforme(aleatoire);
+        }
+    }
+
+    /**
+     * Producteur des octets d'un profil. Le contenu produit ne dépend pas
+     * du découpage en tampons : les octets suivent toujours les derniers
+     * produits.
+     */
+    private interface Source {
+
+        /**
+         * Produit les octets suivants du contenu.
+         *
+         * @param tampon Le tableau recevant les octets.
+         * @param debut L'indice du premier octet à produire.
+         * @param fin L'indice suivant le dernier octet à produire.
+         */
+        void remplir(byte[] tampon, int debut, int fin);
+    }
+
+    /**
+     * Octets uniformément répartis, tirés huit par huit.
+     */
+    private static final class SourceUniforme implements Source {
+
+        /**
+         * Générateur des tirages.
+         */
+        private final SplittableRandom aleatoire;
+
+        /**
+         * Bits du dernier tirage pas encore utilisés.
+         */
+        private long bits;
+
+        /**
+         * Nombre d'octets restant dans {@link #bits}.
+         */
+        private int restants;
+
+        /**
+         * Construit la source.
+         *
+         * @param aleatoire Le générateur des tirages.
+         */
+        SourceUniforme(SplittableRandom aleatoire) {
+            this.aleatoire = aleatoire;
+        }
+
+        @Override
+        public void remplir(byte[] tampon, int debut, int fin) {
+            for (int i = debut; i < fin; i++) {
+                if (restants == 0) {
+                    bits = aleatoire.nextLong();
+                    restants = Long.BYTES;
+                }
+                tampon[i] = (byte) bits;
+                bits >>>= Byte.SIZE;
+                restants--;
+            }
+        }
+    }
+
+    /**
+     * Texte de mots tirés selon une loi de Zipf, chacun suivi d'une espace
+     * ou, une fois sur douze, d'une fin de ligne.
+     */
+    private static final class SourceZipf implements Source {
+
+        /**
+         * Générateur des tirages.
+         */
+        private final SplittableRandom aleatoire;
+
+        /**
+         * Mots du vocabulaire, du plus fréquent au plus rare.
+         */
+        private final byte[][] mots = new byte[NOMBRE_MOTS][];
+
+        /**
+         * Probabilités cumulées des rangs, en 1 / rang, non normalisées.
+         */
+        private final double[] cumul = new double[NOMBRE_MOTS];
+
+        /**
+         * Premier rang de chaque intervalle de probabilité cumulée :
+         * le rang tiré est cherché à partir du premier rang de son
+         * intervalle, ce qui évite une recherche dichotomique par mot.
+         */
+        private final int[] guides = new int[1 << 14];
+
+        /**
+         * Mot en cours d'écriture.
+         */
+        private byte[] mot = new byte[0];
+
+        /**
+         * Séparateur écrit après le mot en cours.
+         */
+        private byte separateur;
+
+        /**
+         * Position dans le mot en cours ; sa longueur désigne
+         * le séparateur.
+         */
+        private int position = 1;
+
+        /**
+         * Construit la source et tire son vocabulaire.
+         *
+         * @param aleatoire Le générateur des tirages.
+         */
+        SourceZipf(SplittableRandom aleatoire) {
+            this.aleatoire = aleatoire;
+            double somme = 0;
+            for (int rang = 0; rang < NOMBRE_MOTS; rang++) {
+                byte[] nouveau = new byte[2 + aleatoire.nextInt(9)];
+                for (int i = 0; i < nouveau.length; i++) {
+                    nouveau[i] = (byte) ('a' + aleatoire.nextInt(26));
+                }
+                mots[rang] = nouveau;
+                somme += 1.0 / (rang + 1);
+                cumul[rang] = somme;
+            }
+            for (int intervalle = 0, rang = 0; intervalle < guides.length;
+                 intervalle++) {
+                while (cumul[rang] < somme * intervalle / guides.length) {
+                    rang++;
+                }
+                guides[intervalle] = rang;
+            }
+        }
+
+        @Override
+        public void remplir(byte[] tampon, int debut, int fin) {
+            while (debut < fin) {
+                if (position > mot.length) {
+                    double tirage = aleatoire.nextDouble();
+                    int rang = guides[(int) (tirage * guides.length)];
+                    tirage *= cumul[NOMBRE_MOTS - 1];
+                    while (rang < NOMBRE_MOTS - 1 && cumul[rang] <= tirage) {
+                        rang++;
+                    }
+                    mot = mots[rang];
+                    separateur = (byte) (aleatoire.nextInt(12) == 0
+                                         ? '\n' : ' ');
+                    position = 0;
+                }
+                if (position == mot.length) {
+                    tampon[debut++] = separateur;
+                    position++;
+                } else {
+                    int longueur = Math.min(mot.length - position,
+                                            fin - debut);
+                    System.arraycopy(mot, position, tampon, debut, longueur);
+                    debut += longueur;
+                    position += longueur;
+                }
+            }
+        }
+    }
+
+    /**
+     * Suites d'un même octet, dont la longueur est tirée entre 1 octet
+     * et 1 Mo, chaque ordre de grandeur étant aussi probable.
+     */
+    private static final class SourceRepetitions implements Source {
+
+        /**
+         * Générateur des tirages.
+         */
+        private final SplittableRandom aleatoire;
+
+        /**
+         * Octet de la suite en cours.
+         */
+        private byte octet;
+
+        /**
+         * Nombre d'octets restant dans la suite en cours.
+         */
+        private int reste;
+
+        /**
+         * Construit la source.
+         *
+         * @param aleatoire Le générateur des tirages.
+         */
+        SourceRepetitions(SplittableRandom aleatoire) {
+            this.aleatoire = aleatoire;
+        }
+
+        @Override
+        public void remplir(byte[] tampon, int debut, int fin) {
+            while (debut < fin) {
+                if (reste == 0) {
+                    octet = (byte) aleatoire.nextInt(256);
+                    reste = 1 + aleatoire.nextInt(
+                            1 << aleatoire.nextInt(LOG_REPETITION_MAXIMALE + 1));
+                }
+                int longueur = Math.min(reste, fin - debut);
+                Arrays.fill(tampon, debut, debut + longueur, octet);
+                debut += longueur;
+                reste -= longueur;
+            }
+        }
+    }
+
+    /**
+     * Motif répété dont les octets 0, 1, 2... apparaissent
+     * respectivement F(1), F(2), F(3)... fois, F étant la suite
+     * de Fibonacci. Le motif compte autant d'octets distincts que le permet
+     * la taille du contenu, dans la limite de
+     * {@link #PERIODE_FIBONACCI_MAXIMALE} octets, et ses octets sont
+     * mélangés une fois pour toutes : tout le contenu, ainsi que chacun
+     * de ses grands blocs, garde les proportions de Fibonacci.
+     */
+    private static final class SourceFibonacci implements Source {
+
+        /**
+         * Motif répété.
+         */
+        private final byte[] motif;
+
+        /**
+         * Position dans le motif.
+         */
+        private int position;
+
+        /**
+         * Construit la source et son motif.
+         *
+         * @param aleatoire Le générateur du mélange du motif.
+         * @param taille La taille du contenu à générer.
+         */
+        SourceFibonacci(SplittableRandom aleatoire, long taille) {
+            long limite = Math.max(1, Math.min(taille,
+                                               PERIODE_FIBONACCI_MAXIMALE));
+            /*
+             * F(1) + ... + F(k) = F(k + 2) - 1 : k est le plus grand possible
+             */
+            long precedent = 1;
+            long courant = 1;
+            long longueur = 0;
+            int nombreOctets = 0;
+            while (longueur + precedent <= limite) {
+                longueur += precedent;
+                nombreOctets++;
+                long suivant = precedent + courant;
+                precedent = courant;
+                courant = suivant;
+            }
+            motif = new byte[(int) longueur];
+            precedent = 1;
+            courant = 1;
+            for (int octet = 0, position = 0; octet < nombreOctets; octet++) {
+                Arrays.fill(motif, position, position + (int) precedent,
+                            (byte) octet);
+                position += (int) precedent;
+                long suivant = precedent + courant;
+                precedent = courant;
+                courant = suivant;
+            }
+            for (int i = motif.length - 1; i > 0; i--) {
+                int j = aleatoire.nextInt(i + 1);
+                byte echange = motif[i];
+                motif[i] = motif[j];
+                motif[j] = echange;
+            }
+        }
+
+        @Override
+        public void remplir(byte[] tampon, int debut, int fin) {
+            while (debut < fin) {
+                int longueur = Math.min(motif.length - position, fin - debut);
+                System.arraycopy(motif, position, tampon, debut, longueur);
+                debut += longueur;
+                position = (position + longueur) % motif.length;
+            }
+        }
+    }
+
+    /**
+     * Mélange de {@link #NOMBRE_REPARTITIONS} répartitions des 256 octets,
+     * plus ou moins déséquilibrées, dont les poids tournent le long du
+     * contenu : chaque répartition domine à son tour, une fois par période
+     * de {@link #PERIODE_DERIVE} octets.
+     */
+    private static final class SourceDerive implements Source {
+
+        /**
+         * Générateur des tirages.
+         */
+        private final SplittableRandom aleatoire;
+
+        /**
+         * Table de tirage de chaque répartition : un indice tiré
+         * uniformément donne un octet selon la répartition.
+         */
+        private final byte[][] tables =
+                new byte[NOMBRE_REPARTITIONS][1 << PRECISION_REPARTITION];
+
+        /**
+         * Seuils de choix des répartitions dans la tranche en cours :
+         * poids cumulés, rapportés à 2^52.
+         */
+        private final long[] seuils = new long[NOMBRE_REPARTITIONS];
+
+        /**
+         * Position dans le contenu, en octets.
+         */
+        private long position;
+
+        /**
+         * Construit la source et tire ses répartitions : l'octet de rang r
+         * d'une répartition a un poids en 1 / (r + 1)^e, l'exposant e
+         * allant de 0,5 à 2 selon la répartition, et les rangs sont
+         * attribués aux octets dans un ordre tiré au hasard.
+         *
+         * @param aleatoire Le générateur des tirages.
+         */
+        SourceDerive(SplittableRandom aleatoire) {
+            this.aleatoire = aleatoire;
+            for (int repartition = 0; repartition < NOMBRE_REPARTITIONS;
+                 repartition++) {
+                double exposant = 0.5 * (repartition + 1);
+                int[] ordre = new int[256];
+                for (int i = 0; i < ordre.length; i++) {
+                    int j = aleatoire.nextInt(i + 1);
+                    ordre[i] = ordre[j];
+                    ordre[j] = i;
+                }
+                double somme = 0;
+                for (int rang = 0; rang < ordre.length; rang++) {
+                    somme += Math.pow(rang + 1, -exposant);
+                }
+                byte[] table = tables[repartition];
+                double cumulRangs = 0;
+                int indice = 0;
+                for (int rang = 0; rang < ordre.length; rang++) {
+                    cumulRangs += Math.pow(rang + 1, -exposant) / somme;
+                    int limite = rang == ordre.length - 1
+                                 ? table.length
+                                 : (int) Math.round(cumulRangs * table.length);
+                    for (; indice < limite; indice++) {
+                        table[indice] = (byte) ordre[rang];
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void remplir(byte[] tampon, int debut, int fin) {
+            int masque = (1 << PRECISION_REPARTITION) - 1;
+            while (debut < fin) {
+                int resteTranche = TRANCHE_DERIVE
+                                   - (int) (position % TRANCHE_DERIVE);
+                if (resteTranche == TRANCHE_DERIVE) {
+                    calculerSeuils();
+                }
+                int finTranche = Math.min(fin, debut + resteTranche);
+                for (int i = debut; i < finTranche; i++) {
+                    long tirage = aleatoire.nextLong();
+                    long choix = tirage >>> PRECISION_REPARTITION;
+                    int repartition = 0;
+                    while (repartition < NOMBRE_REPARTITIONS - 1
+                           && choix >= seuils[repartition]) {
+                        repartition++;
+                    }
+                    tampon[i] = tables[repartition][(int) tirage & masque];
+                }
+                position += finTranche - debut;
+                debut = finTranche;
+            }
+        }
+
+        /**
+         * Calcule les seuils de choix des répartitions à la position
+         * courante : le poids de chacune suit le carré d'un cosinus décalé
+         * d'une répartition à l'autre.
+         */
+        private void calculerSeuils() {
+            double phase = 2 * Math.PI * (position % PERIODE_DERIVE)
+                           / PERIODE_DERIVE;
+            double[] poids = new double[NOMBRE_REPARTITIONS];
+            double somme = 0;
+            for (int repartition = 0; repartition < NOMBRE_REPARTITIONS;
+                 repartition++) {
+                double cosinus = Math.max(0, Math.cos(
+                        phase - 2 * Math.PI * repartition / NOMBRE_REPARTITIONS));
+                poids[repartition] = cosinus * cosinus;
+                somme += poids[repartition];
+            }
+            double cumul = 0;
+            for (int repartition = 0; repartition < NOMBRE_REPARTITIONS;
+                 repartition++) {
+                cumul += poids[repartition] / somme;
+                seuils[repartition] = (long) (cumul * 0x1.0p52);
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * LecteurBits.java                          18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.outils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Lit une suite de bits directement dans les octets qui la contiennent,
+ * sans jamais la développer en caractères '0' et '1'.
+ * <br>
+ * Les prochains bits sont présentés dans une fenêtre de 64 bits alignée à
+ * gauche, rechargée par mots entiers tant que la source le permet.
+ * Le décodeur examine le début de la fenêtre puis indique combien de bits
+ * il a consommés. Les bits sont lus du poids fort vers le poids faible de
+ * chaque octet, comme les écrit {@link EcrivainBits}.
+ * <br>
+ * La source peut être un tableau d'octets, un {@link ByteBuffer} (par
+ * exemple un fichier projeté en mémoire) ou un flux d'entrée, lu alors par
+ * blocs de {@link GestionFichier#TAILLE_BLOC} octets : la mémoire utilisée
+ * ne dépend pas de la taille des données.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class LecteurBits {
+
+    /**
+     * Nombre de bits toujours présents dans la fenêtre après un
+     * remplissage, tant que la source n'est pas épuisée.
+     */
+    public static final int BITS_GARANTIS = Long.SIZE - Byte.SIZE + 1;
+
+    /**
+     * Octets disponibles, entre la position et la limite du tampon.
+     */
+    private final ByteBuffer tampon;
+
+    /**
+     * Flux rechargeant le tampon, null si la source est entièrement
+     * en mémoire.
+     */
+    private final InputStream entree;
+
+    /**
+     * Indique si le flux d'entrée a atteint sa fin.
+     */
+    private boolean fluxEpuise;
+
+    /**
+     * Prochains bits à lire, alignés à gauche.
+     */
+    private long fenetre;
+
+    /**
+     * Nombre de bits de la fenêtre provenant de la source ; au-delà,
+     * la fenêtre contient des zéros ou des bits déjà chargés une
+     * seconde fois par le remplissage par mots.
+     */
+    private int bitsDansFenetre;
+
+    /**
+     * Nombre de bits consommés depuis la création du lecteur.
+     */
+    private long nombreBitsLus;
+
+    /**
+     * Construit un lecteur de bits sur un tableau d'octets.
+     *
+     * @param octets Les octets contenant les bits à lire.
+     */
+    public LecteurBits(byte[] octets) {
+        this(ByteBuffer.wrap(octets));
+    }
+
+    /**
+     * Construit un lecteur de bits sur les octets restants d'un tampon,
+     * de sa position à sa limite. Le tampon fourni n'est pas modifié.
+     *
+     * @param octets Le tampon contenant les bits à lire.
+     */
+    public LecteurBits(ByteBuffer octets) {
+        /*
+         * `slice` crée une vue indépendante des octets restants, dont
+         * la position est propre au lecteur et l'ordre des octets
+         * big-endian, quel que soit celui du tampon d'origine.
+         */
+        this.tampon = octets.slice();
+        this.entree = null;
+        this.fluxEpuise = true;
+    }
+
+    /**
+     * Construit un lecteur de bits sur un flux d'entrée, lu par blocs.
+     * Le flux n'est pas fermé par le lecteur.
+     *
+     * @param entree Le flux contenant les bits à lire.
+     */
+    public LecteurBits(InputStream entree) {
+        this.tampon = ByteBuffer.allocate(GestionFichier.TAILLE_BLOC);
+        this.tampon.limit(0);
+        this.entree = entree;
+    }
+
+    /**
+     * Retourne les prochains bits, alignés à gauche, sans les consommer.
+     * La fenêtre contient au moins {@link #BITS_GARANTIS} bits, ou tous
+     * les bits restants complétés par des zéros.
+     *
+     * @return La fenêtre des prochains bits.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public long getFenetre() throws IOException {
+        if (bitsDansFenetre < BITS_GARANTIS) {
+            remplir();
+        }
+        return fenetre;
+    }
+
+    /**
+     * Consomme des bits en tête de la fenêtre.
+     *
+     * @param nombreBits Le nombre de bits consommés, entre 0 et
+     *                   {@link #BITS_GARANTIS}.
+     */
+    public void consommer(int nombreBits) {
+        fenetre <<= nombreBits;
+        bitsDansFenetre = Math.max(bitsDansFenetre - nombreBits, 0);
+        nombreBitsLus += nombreBits;
+    }
+
+    /**
+     * Lit et consomme les prochains bits.
+     *
+     * @param nombreBits Le nombre de bits à lire, entre 1 et
+     *                   {@link #BITS_GARANTIS}.
+     * @return Les bits lus, alignés à droite.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public long lire(int nombreBits) throws IOException {
+        long bits = getFenetre() >>> (Long.SIZE - nombreBits);
+        consommer(nombreBits);
+        return bits;
+    }
+
+    /**
+     * Indique si tous les bits de la source ont été consommés, y compris
+     * les bits de complément du dernier octet.
+     *
+     * @return true si la source est épuisée.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    public boolean estEpuise() throws IOException {
+        getFenetre();
+        return bitsDansFenetre == 0;
+    }
+
+    /**
+     * Retourne le nombre de bits consommés.
+     *
+     * @return Le nombre de bits consommés depuis la création du lecteur.
+     */
+    public long getNombreBitsLus() {
+        return nombreBitsLus;
+    }
+
+    /**
+     * Complète la fenêtre avec les octets suivants de la source.
+     *
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    private void remplir() throws IOException {
+        if (tampon.remaining() < Long.BYTES && !fluxEpuise) {
+            recharger();
+        }
+        if (tampon.remaining() >= Long.BYTES) {
+            /*
+             * Un mot entier est lu d'un coup et placé derrière les bits
+             * déjà présents. Seuls les octets entièrement entrés dans la
+             * fenêtre sont retirés du tampon : les bits du mot qui
+             * dépassent seront relus au prochain remplissage, à la même
+             * place, et le OU les laisse donc inchangés.
+             */
+            fenetre |= tampon.getLong(tampon.position()) >>> bitsDansFenetre;
+            int octets = (Long.SIZE - 1 - bitsDansFenetre) / Byte.SIZE;
+            tampon.position(tampon.position() + octets);
+            bitsDansFenetre += octets * Byte.SIZE;
+        }
+        while (bitsDansFenetre < BITS_GARANTIS && tampon.hasRemaining()) {
+            fenetre |= (tampon.get() & 0xFFL)
+                       << (Long.SIZE - Byte.SIZE - bitsDansFenetre);
+            bitsDansFenetre += Byte.SIZE;
+        }
+    }
+
+    /**
+     * Déplace les octets non lus au début du tampon puis le complète
+     * avec la suite du flux d'entrée.
+     *
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    private void recharger() throws IOException {
+        tampon.compact();
+        int demandes = tampon.remaining();
+        /*
+         * `readNBytes` ne rend moins d'octets que demandé qu'à la fin
+         * du flux.
+         */
+        int lus = entree.readNBytes(tampon.array(), tampon.position(),
+                                    demandes);
+        fluxEpuise = lus < demandes;
+        tampon.position(tampon.position() + lus);
+        tampon.flip();
+    }
+}
@@ -0,0 +1,700 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * MesuresPhases.java                        18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.outils;
+
+import jdk.jfr.EventType;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Mesures d'une compression ou d'une décompression, phase par phase :
+ * durée de chaque phase, en nanosecondes, et nombre d'octets qu'elle a
+ * traités, d'où son débit.
+ * <br>
+ * Une phase est mesurée entre {@link #demarrer} et {@link #arreter}.
+ * Les phases peuvent s'imbriquer : une phase démarrée pendant une autre
+ * suspend cette dernière, si bien que chaque nanoseconde n'est comptée
+ * que dans une seule phase. Les lectures et écritures faites pendant
+ * l'encodage, par exemple, sont comptées dans les phases de lecture et
+ * d'écriture, et non dans celle d'encodage.
+ * <br>
+ * Les phases peuvent être mesurées par plusieurs threads en même temps :
+ * chaque thread a sa propre pile de phases en cours, et les durées
+ * de tous les threads s'additionnent. Elles peuvent alors dépasser
+ * la durée totale de l'opération.
+ * <br>
+ * L'opération elle-même est mesurée entre {@link #debuter} et
+ * {@link #terminer} : durée totale, octets alloués par tous les threads
+ * et pic d'occupation du tas, lorsque la machine virtuelle sait
+ * les mesurer. Le pic du tas étant commun à toute la machine virtuelle,
+ * il n'est mesuré que pour une opération restée seule en cours du début
+ * à la fin : les opérations simultanées (traitement d'un lot, serveur)
+ * ne le mesurent pas. Les tables de codes et les bits codés sont aussi
+ * relevés.
+ * <br>
+ * Pendant un enregistrement Java Flight Recorder, chaque phase émet
+ * un {@link EvenementPhase} et chaque opération un
+ * {@link EvenementOperation}. Sans enregistrement en cours, aucun
+ * événement n'est créé.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class MesuresPhases {
+
+    /** Lecture du fichier source ou compressé. */
+    public static final int LECTURE = 0;
+
+    /** Comptage des occurrences des octets. */
+    public static final int HISTOGRAMME = 1;
+
+    /** Construction de l'arbre de Huffman. */
+    public static final int ARBRE = 2;
+
+    /** Limitation des longueurs et attribution des codes canoniques. */
+    public static final int CODES = 3;
+
+    /**
+     * Encodage des octets, empaquetage des bits compris : les codes
+     * sont décalés directement dans l'accumulateur de l'écrivain de bits.
+     */
+    public static final int ENCODAGE = 4;
+
+    /** Lecture des en-têtes et construction des tables de décodage. */
+    public static final int TABLES = 5;
+
+    /** Décodage des bits. */
+    public static final int DECODAGE = 6;
+
+    /** Écriture du fichier compressé ou décompressé. */
+    public static final int ECRITURE = 7;
+
+    /** Affichage des occurrences des octets. */
+    public static final int AFFICHAGE = 8;
+
+    /**
+     * Nom de chaque phase, selon son numéro.
+     */
+    private static final String[] NOMS = {
+        "lecture", "histogramme", "arbre", "codes", "encodage", "tables",
+        "decodage", "ecriture", "affichage"
+    };
+
+    /**
+     * Nombre de phases mesurées.
+     */
+    public static final int NOMBRE_PHASES = NOMS.length;
+
+    /**
+     * Nombre maximal de phases imbriquées dans un même thread.
+     */
+    private static final int PROFONDEUR_MAXIMALE = 16;
+
+    /**
+     * Type des événements de phase, qui indique si un enregistrement
+     * les attend.
+     */
+    private static final EventType TYPE_PHASE =
+            EventType.getEventType(EvenementPhase.class);
+
+    /**
+     * Zones mémoire du tas, dont les pics d'occupation forment le pic
+     * du tas.
+     */
+    private static final List<MemoryPoolMXBean> ZONES_TAS =
+            ManagementFactory.getMemoryPoolMXBeans().stream()
+                             .filter(zone -> zone.getType() == MemoryType.HEAP)
+                             .toList();
+
+    /**
+     * Verrou protégeant le suivi des opérations en cours.
+     */
+    private static final Object VERROU = new Object();
+
+    /**
+     * Nombre d'opérations en cours, entre {@link #debuter}
+     * et {@link #terminer}.
+     */
+    private static int operationsEnCours;
+
+    /**
+     * Opération débutée seule et restée seule depuis, ou null.
+     */
+    private static MesuresPhases operationSeule;
+
+    /**
+     * Nom de l'opération mesurée.
+     */
+    private final String operation;
+
+    /**
+     * Chemin du fichier lu par l'opération, ou null.
+     */
+    private final String cheminSource;
+
+    /**
+     * Chemin du fichier écrit par l'opération, ou null.
+     */
+    private final String cheminDestination;
+
+    /**
+     * Durée cumulée de chaque phase, en nanosecondes.
+     */
+    private final AtomicLongArray durees = new AtomicLongArray(NOMBRE_PHASES);
+
+    /**
+     * Nombre d'octets traités par chaque phase.
+     */
+    private final AtomicLongArray octets = new AtomicLongArray(NOMBRE_PHASES);
+
+    /**
+     * Nombre de threads ayant mesuré au moins une phase.
+     */
+    private final AtomicInteger nombreThreads = new AtomicInteger();
+
+    /**
+     * Plus grand nombre de symboles d'une table de codes.
+     */
+    private final AtomicInteger nombreSymboles = new AtomicInteger();
+
+    /**
+     * Longueur du plus long code, en bits.
+     */
+    private final AtomicInteger longueurMaximale = new AtomicInteger();
+
+    /**
+     * Nombre de bits codés.
+     */
+    private final AtomicLong nombreBits = new AtomicLong();
+
+    /**
+     * Pile des phases en cours, propre à chaque thread.
+     */
+    private final ThreadLocal<PilePhases> piles =
+            ThreadLocal.withInitial(() -> {
+                nombreThreads.incrementAndGet();
+                return new PilePhases();
+            });
+
+    /**
+     * Instant du début de l'opération, en nanosecondes.
+     */
+    private long debut;
+
+    /**
+     * Durée totale de l'opération, en nanosecondes.
+     */
+    private long dureeTotale;
+
+    /**
+     * Octets alloués par tous les threads au début de l'opération.
+     */
+    private long allocationsDebut;
+
+    /**
+     * Octets alloués pendant l'opération, ou -1 s'ils ne sont pas mesurés.
+     */
+    private long octetsAlloues = -1;
+
+    /**
+     * Pic d'occupation du tas pendant l'opération, ou -1 s'il n'est pas
+     * mesuré.
+     */
+    private long picTas = -1;
+
+    /**
+     * Indique si l'opération est restée seule en cours depuis son début,
+     * protégé par {@link #VERROU}.
+     */
+    private boolean seule;
+
+    /**
+     * Événement couvrant l'opération, entre {@link #debuter} et
+     * {@link #terminer}.
+     */
+    private EvenementOperation evenement;
+
+    /**
+     * Pile des phases en cours dans un thread, avec l'instant où
+     * la phase du sommet a commencé ou repris.
+     */
+    private static class PilePhases {
+
+        /** Phases en cours, de la plus ancienne à la plus récente. */
+        private final int[] phases = new int[PROFONDEUR_MAXIMALE];
+
+        /** Nombre de phases en cours. */
+        private int profondeur;
+
+        /** Instant où la phase du sommet a commencé ou repris. */
+        private long reprise;
+
+        /**
+         * Événement de chaque phase en cours, null si aucun
+         * enregistrement ne l'attendait à son démarrage.
+         */
+        private final EvenementPhase[] evenements =
+                new EvenementPhase[PROFONDEUR_MAXIMALE];
+    }
+
+    /**
+     * Construit les mesures d'une opération qui n'est pas décrite :
+     * ses phases peuvent être mesurées, mais elle-même ne l'est pas.
+     */
+    public MesuresPhases() {
+        this("", null, null);
+    }
+
+    /**
+     * Construit les mesures d'une opération sur des fichiers.
+     *
+     * @param operation Le nom de l'opération, repris par les événements
+     *                  Java Flight Recorder.
+     * @param cheminSource Le chemin du fichier lu.
+     * @param cheminDestination Le chemin du fichier écrit.
+     */
+    public MesuresPhases(String operation, String cheminSource,
+                         String cheminDestination) {
+        this.operation = operation;
+        this.cheminSource = cheminSource;
+        this.cheminDestination = cheminDestination;
+    }
+
+    /**
+     * Retourne le nom d'une phase, tel qu'il apparaît dans les rapports.
+     *
+     * @param phase Le numéro de la phase.
+     * @return Le nom de la phase.
+     */
+    public static String getNom(int phase) {
+        return NOMS[phase];
+    }
+
+    /**
+     * Débute la mesure de l'opération : relève l'instant de début
+     * et les octets déjà alloués et, si aucune autre opération n'est
+     * en cours, remet à zéro le pic d'occupation du tas.
+     */
+    public void debuter() {
+        boolean premiere;
+        synchronized (VERROU) {
+            premiere = operationsEnCours++ == 0;
+            seule = premiere;
+            /* L'opération restée seule partage désormais le tas */
+            if (operationSeule != null) {
+                operationSeule.seule = false;
+            }
+            operationSeule = premiere ? this : null;
+        }
+        if (premiere) {
+            for (MemoryPoolMXBean zone : ZONES_TAS) {
+                if (zone.isValid()) {
+                    zone.resetPeakUsage();
+                }
+            }
+        }
+        allocationsDebut = lireOctetsAlloues();
+        evenement = new EvenementOperation();
+        evenement.begin();
+        debut = System.nanoTime();
+    }
+
+    /**
+     * Termine la mesure de l'opération : relève sa durée totale,
+     * les octets alloués depuis {@link #debuter} et, si l'opération est
+     * restée seule en cours, le pic d'occupation du tas. Ce pic est
+     * la somme des pics de chaque zone du tas : il peut dépasser
+     * légèrement l'occupation réelle la plus haute.
+     * <br>
+     * L'événement de l'opération est alors émis, si un enregistrement
+     * l'attend.
+     */
+    public void terminer() {
+        dureeTotale = System.nanoTime() - debut;
+        evenement.end();
+        long alloues = lireOctetsAlloues();
+        octetsAlloues = alloues < 0 || allocationsDebut < 0
+                        ? -1
+                        : alloues - allocationsDebut;
+        boolean mesurerPic;
+        synchronized (VERROU) {
+            operationsEnCours--;
+            mesurerPic = seule;
+            if (operationSeule == this) {
+                operationSeule = null;
+            }
+        }
+        picTas = mesurerPic ? lirePicTas() : -1;
+
+        if (evenement.shouldCommit()) {
+            evenement.operation = operation;
+            evenement.source = cheminSource;
+            evenement.destination = cheminDestination;
+            evenement.tailleSource = cheminSource == null
+                                     ? 0 : new File(cheminSource).length();
+            evenement.tailleDestination =
+                    cheminDestination == null
+                    ? 0 : new File(cheminDestination).length();
+            evenement.nombreSymboles = getNombreSymboles();
+            evenement.longueurMaximale = getLongueurMaximale();
+            evenement.nombreBits = getNombreBits();
+            evenement.commit();
+        }
+    }
+
+    /**
+     * Démarre une phase dans le thread courant, en suspendant la phase
+     * en cours s'il y en a une.
+     *
+     * @param phase Le numéro de la phase.
+     */
+    public void demarrer(int phase) {
+        PilePhases pile = piles.get();
+        long maintenant = System.nanoTime();
+        if (pile.profondeur > 0) {
+            durees.addAndGet(pile.phases[pile.profondeur - 1],
+                             maintenant - pile.reprise);
+        }
+        if (TYPE_PHASE.isEnabled()) {
+            EvenementPhase evenementPhase = new EvenementPhase();
+            evenementPhase.begin();
+            pile.evenements[pile.profondeur] = evenementPhase;
+        }
+        pile.phases[pile.profondeur++] = phase;
+        pile.reprise = maintenant;
+    }
+
+    /**
+     * Arrête la dernière phase démarrée dans le thread courant, et reprend
+     * celle qu'elle avait suspendue.
+     *
+     * @param nombreOctets Le nombre d'octets traités par la phase.
+     */
+    public void arreter(long nombreOctets) {
+        PilePhases pile = piles.get();
+        long maintenant = System.nanoTime();
+        int phase = pile.phases[--pile.profondeur];
+        durees.addAndGet(phase, maintenant - pile.reprise);
+        octets.addAndGet(phase, nombreOctets);
+        pile.reprise = maintenant;
+
+        EvenementPhase evenementPhase = pile.evenements[pile.profondeur];
+        if (evenementPhase != null) {
+            pile.evenements[pile.profondeur] = null;
+            evenementPhase.end();
+            if (evenementPhase.shouldCommit()) {
+                evenementPhase.operation = operation;
+                evenementPhase.phase = NOMS[phase];
+                evenementPhase.octets = nombreOctets;
+                evenementPhase.commit();
+            }
+        }
+    }
+
+    /**
+     * Relève une table de codes utilisée par l'opération.
+     *
+     * @param nombreSymbolesTable Le nombre de symboles codés par la table.
+     * @param longueurMaximaleTable La longueur du plus long code
+     *                              de la table, en bits.
+     */
+    public void noterTable(int nombreSymbolesTable,
+                           int longueurMaximaleTable) {
+        nombreSymboles.accumulateAndGet(nombreSymbolesTable, Math::max);
+        longueurMaximale.accumulateAndGet(longueurMaximaleTable, Math::max);
+    }
+
+    /**
+     * Ajoute des bits codés, écrits à la compression ou lus
+     * à la décompression.
+     *
+     * @param bits Le nombre de bits codés.
+     */
+    public void ajouterBits(long bits) {
+        nombreBits.addAndGet(bits);
+    }
+
+    /**
+     * Retourne un flux qui mesure les lectures d'un autre flux dans
+     * la phase {@link #LECTURE}.
+     *
+     * @param entree Le flux à mesurer.
+     * @return Le flux mesuré.
+     */
+    public InputStream mesurerLecture(InputStream entree) {
+        return new FluxLectureMesure(entree, this);
+    }
+
+    /**
+     * Retourne un flux qui mesure les écritures dans un autre flux dans
+     * la phase {@link #ECRITURE}. Fermer le flux retourné ferme l'autre.
+     *
+     * @param sortie Le flux à mesurer.
+     * @return Le flux mesuré.
+     */
+    public OutputStream mesurerEcriture(OutputStream sortie) {
+        return new FluxEcritureMesure(sortie, this);
+    }
+
+    /**
+     * Retourne la durée cumulée d'une phase.
+     *
+     * @param phase Le numéro de la phase.
+     * @return La durée de la phase, en nanosecondes.
+     */
+    public long getDuree(int phase) {
+        return durees.get(phase);
+    }
+
+    /**
+     * Retourne le nombre d'octets traités par une phase.
+     *
+     * @param phase Le numéro de la phase.
+     * @return Le nombre d'octets traités.
+     */
+    public long getOctets(int phase) {
+        return octets.get(phase);
+    }
+
+    /**
+     * Retourne le débit d'une phase, en mégaoctets (2^20 octets)
+     * par seconde.
+     *
+     * @param phase Le numéro de la phase.
+     * @return Le débit de la phase, ou 0 si elle n'a traité aucun octet
+     *         ou n'a pas duré.
+     */
+    public double getDebit(int phase) {
+        long duree = getDuree(phase);
+        long nombreOctets = getOctets(phase);
+        return duree <= 0 || nombreOctets <= 0
+               ? 0
+               : nombreOctets / (1024.0 * 1024.0) / (duree / 1e9);
+    }
+
+    /**
+     * Retourne la durée totale de l'opération.
+     *
+     * @return La durée mesurée entre {@link #debuter} et {@link #terminer},
+     *         en nanosecondes.
+     */
+    public long getDureeTotale() {
+        return dureeTotale;
+    }
+
+    /**
+     * Retourne le nombre d'octets alloués pendant l'opération.
+     *
+     * @return Le nombre d'octets alloués, ou -1 s'il n'est pas mesuré.
+     */
+    public long getOctetsAlloues() {
+        return octetsAlloues;
+    }
+
+    /**
+     * Retourne le pic d'occupation du tas pendant l'opération.
+     *
+     * @return Le pic d'occupation du tas, en octets, ou -1 s'il n'est
+     *         pas mesuré, notamment lorsque d'autres opérations étaient
+     *         en cours en même temps.
+     */
+    public long getPicTas() {
+        return picTas;
+    }
+
+    /**
+     * Retourne le plus grand nombre de symboles d'une table de codes
+     * relevée par {@link #noterTable}.
+     *
+     * @return Le nombre de symboles, 0 si aucune table n'a été relevée.
+     */
+    public int getNombreSymboles() {
+        return nombreSymboles.get();
+    }
+
+    /**
+     * Retourne la longueur du plus long code des tables relevées.
+     *
+     * @return La longueur maximale, en bits, 0 si aucune table n'a été
+     *         relevée.
+     */
+    public int getLongueurMaximale() {
+        return longueurMaximale.get();
+    }
+
+    /**
+     * Retourne le nombre de bits codés ajoutés par {@link #ajouterBits}.
+     *
+     * @return Le nombre de bits codés.
+     */
+    public long getNombreBits() {
+        return nombreBits.get();
+    }
+
+    /**
+     * Retourne le nombre de threads ayant mesuré au moins une phase.
+     *
+     * @return Le nombre de threads.
+     */
+    public int getNombreThreads() {
+        return nombreThreads.get();
+    }
+
+    /**
+     * Lit le nombre d'octets alloués par tous les threads depuis
+     * le démarrage de la machine virtuelle.
+     *
+     * @return Le nombre d'octets alloués, ou -1 si la machine virtuelle
+     *         ne sait pas le mesurer.
+     */
+    private static long lireOctetsAlloues() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean mesure
+            && mesure.isThreadAllocatedMemorySupported()
+            && mesure.isThreadAllocatedMemoryEnabled()) {
+            return mesure.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * Lit le pic d'occupation du tas depuis sa dernière remise à zéro.
+     *
+     * @return La somme des pics d'occupation des zones du tas, en octets.
+     */
+    private static long lirePicTas() {
+        long pic = 0;
+        for (MemoryPoolMXBean zone : ZONES_TAS) {
+            if (zone.isValid() && zone.getPeakUsage() != null) {
+                pic += zone.getPeakUsage().getUsed();
+            }
+        }
+        return pic;
+    }
+
+    /**
+     * Flux dont les lectures sont mesurées dans la phase {@link #LECTURE}.
+     */
+    private static class FluxLectureMesure extends FilterInputStream {
+
+        /** Mesures recevant la durée des lectures. */
+        private final MesuresPhases mesures;
+
+        /**
+         * Construit le flux.
+         *
+         * @param entree Le flux à mesurer.
+         * @param mesures Les mesures recevant la durée des lectures.
+         */
+        FluxLectureMesure(InputStream entree, MesuresPhases mesures) {
+            super(entree);
+            this.mesures = mesures;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int octet = -1;
+            mesures.demarrer(LECTURE);
+            try {
+                octet = in.read();
+            } finally {
+                mesures.arreter(octet < 0 ? 0 : 1);
+            }
+            return octet;
+        }
+
+        @Override
+        public int read(byte[] tampon, int debut, int longueur)
+                throws IOException {
+            int lus = -1;
+            mesures.demarrer(LECTURE);
+            try {
+                lus = in.read(tampon, debut, longueur);
+            } finally {
+                mesures.arreter(Math.max(lus, 0));
+            }
+            return lus;
+        }
+    }
+
+    /**
+     * Flux dont les écritures sont mesurées dans la phase {@link #ECRITURE}.
+     * Contrairement à {@link FilterOutputStream}, les tableaux sont
+     * transmis d'un seul appel au flux mesuré.
+     */
+    private static class FluxEcritureMesure extends FilterOutputStream {
+
+        /** Mesures recevant la durée des écritures. */
+        private final MesuresPhases mesures;
+
+        /**
+         * Construit le flux.
+         *
+         * @param sortie Le flux à mesurer.
+         * @param mesures Les mesures recevant la durée des écritures.
+         */
+        FluxEcritureMesure(OutputStream sortie, MesuresPhases mesures) {
+            super(sortie);
+            this.mesures = mesures;
+        }
+
+        @Override
+        public void write(int octet) throws IOException {
+            mesures.demarrer(ECRITURE);
+            try {
+                out.write(octet);
+            } finally {
+                mesures.arreter(1);
+            }
+        }
+
+        @Override
+        public void write(byte[] tampon, int debut, int longueur)
+                throws IOException {
+            mesures.demarrer(ECRITURE);
+            try {
+                out.write(tampon, debut, longueur);
+            } finally {
+                mesures.arreter(longueur);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            mesures.demarrer(ECRITURE);
+            try {
+                out.flush();
+            } finally {
+                mesures.arreter(0);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            mesures.demarrer(ECRITURE);
+            try {
+                super.close();
+            } finally {
+                mesures.arreter(0);
+            }
+        }
+    }
+}
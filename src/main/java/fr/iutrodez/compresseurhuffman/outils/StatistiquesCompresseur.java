@@ -5,6 +5,7 @@
 package fr.iutrodez.compresseurhuffman.outils;
 
 import java.io.File;
+import java.util.Locale;
 
 import static java.lang.System.out;
 
@@ -12,8 +13,12 @@ import static java.lang.System.out;
 /**
  * Classe permettant de résumer les statistiques de compression
  * et de décompression.
- * Cette classe fournit des méthodes pour afficher les tailles de fichiers
- * et les taux de compression et de décompression.
+ * Cette classe fournit des méthodes pour afficher les tailles de fichiers,
+ * les taux de compression et de décompression, ainsi que la durée et
+ * le débit de chaque phase mesurée (voir {@link MesuresPhases}).
+ * <br>
+ * Le résumé est affiché sous forme de texte, ou sous forme d'un objet
+ * JSON sur une seule ligne, destiné à être lu par un programme.
  *
  * @author V. Munier--Genie
  * @author R. Xaviertaborda
@@ -22,61 +27,78 @@ import static java.lang.System.out;
  * @version 1.0
  */
 public class StatistiquesCompresseur {
+
+    /**
+     * Nombre de nanosecondes dans une milliseconde.
+     */
+    private static final double NANOSECONDES_PAR_MILLISECONDE = 1e6;
+
     /**
      * Affiche un résumé de la compression, incluant les tailles du fichier
-     * original et compressé, ainsi que le taux de compression.
+     * original et compressé, le taux de compression et les mesures
+     * de chaque phase.
      *
-     * @param cheminFichierSource Le chemin du fichier compressé.
-     * @param cheminFichierDestination Le chemin du fichier original.
+     * @param cheminFichierSource Le chemin du fichier original.
+     * @param cheminFichierDestination Le chemin du fichier compressé.
+     * @param mesures Les mesures de la compression.
+     * @param json true pour afficher le résumé en JSON.
      */
     public static void resumeCompression(String cheminFichierSource,
                                          String cheminFichierDestination,
-                                         long tempsCompression) {
-        File fichierOriginal = new File(cheminFichierSource);
-        File fichierCompile = new File(cheminFichierDestination);
-        long tailleFichierOriginal = fichierOriginal.length();
-        long tailleFichierCompile = fichierCompile.length();
+                                         MesuresPhases mesures,
+                                         boolean json) {
+        long tailleFichierOriginal = new File(cheminFichierSource).length();
+        long tailleFichierCompile = new File(cheminFichierDestination).length();
+        double tauxCompression =
+                (double) tailleFichierCompile / tailleFichierOriginal * 100;
 
+        if (json) {
+            out.println(versJson("compression", cheminFichierSource,
+                                 cheminFichierDestination,
+                                 tailleFichierOriginal, tailleFichierCompile,
+                                 tauxCompression, mesures));
+            return;
+        }
         out.println("Taille du fichier original : "
                     + tailleFichierOriginal
                     + " octets");
         out.println("Taille du fichier compressé : "
                     + tailleFichierCompile
                     + " octets");
-
-        double tauxCompression =
-                (double) tailleFichierCompile / tailleFichierOriginal * 100;
         out.printf("Taux de compression : %.2f %%\n", tauxCompression);
-
-        long tempsDeCompression = System.currentTimeMillis()
-                                  - tempsCompression;
-        out.println("Temps de compression : " + tempsDeCompression
-                    + " millisecondes");
+        out.printf("Temps de compression : %.3f millisecondes\n",
+                   mesures.getDureeTotale() / NANOSECONDES_PAR_MILLISECONDE);
+        afficherPhases(mesures);
     }
 
     /**
      * Affiche un résumé de la décompression, incluant les tailles du fichier
-     * compressé et décompressé, le taux de décompression
-     * et le temps pris pour la décompression.
+     * compressé et décompressé, le taux de décompression et les mesures
+     * de chaque phase.
      *
-     * @param source Le chemin du fichier décompressé.
-     * @param cheminFichierDestination Le chemin du fichier compressé
-     *                                 à décompresser.
-     * @param tempsDecompression Le temps initial en millisecondes avant
-     *                           la décompression pour calculer le temps total
-     *                           de décompression.
+     * @param source Le chemin du fichier compressé.
+     * @param cheminFichierDestination Le chemin du fichier décompressé.
+     * @param mesures Les mesures de la décompression.
+     * @param json true pour afficher le résumé en JSON.
      */
     public static void resumeDecompression(String source,
                                            String cheminFichierDestination,
-                                           long tempsDecompression) {
-        File fichierCompresse = new File(source);
-        File fichierDecompile = new File(cheminFichierDestination);
-        long tailleFichierCompresse = fichierCompresse.length();
-        long tailleFichierDecompresse = fichierDecompile.length();
-
+                                           MesuresPhases mesures,
+                                           boolean json) {
+        long tailleFichierCompresse = new File(source).length();
+        long tailleFichierDecompresse =
+                new File(cheminFichierDestination).length();
         double tauxDecompression =
                 100.0 * tailleFichierCompresse / tailleFichierDecompresse;
 
+        if (json) {
+            out.println(versJson("decompression", source,
+                                 cheminFichierDestination,
+                                 tailleFichierCompresse,
+                                 tailleFichierDecompresse,
+                                 tauxDecompression, mesures));
+            return;
+        }
         out.println("Taille du fichier compressé : "
                     + tailleFichierCompresse
                     + " octets");
@@ -84,10 +106,236 @@ public class StatistiquesCompresseur {
                     + tailleFichierDecompresse
                     + " octets");
         out.printf("Taux de décompression : %.2f %%\n", tauxDecompression);
+        out.printf("Temps de décompression : %.3f millisecondes\n",
+                   mesures.getDureeTotale() / NANOSECONDES_PAR_MILLISECONDE);
+        afficherPhases(mesures);
+    }
+
+    /**
+     * Affiche le résumé d'une compression ou d'une décompression faite par
+     * le serveur de compression : tailles des fichiers, taux, durée de
+     * l'opération et durée pendant laquelle elle a attendu son tour.
+     *
+     * @param compression true pour une compression, false pour
+     *                    une décompression.
+     * @param source Le chemin du fichier lu.
+     * @param destination Le chemin du fichier écrit.
+     * @param tailleSource La taille du fichier lu, en octets.
+     * @param tailleDestination La taille du fichier écrit, en octets.
+     * @param dureeAttente La durée d'attente, en nanosecondes.
+     * @param dureeTraitement La durée de l'opération, en nanosecondes.
+     * @param json true pour afficher le résumé en JSON.
+     */
+    public static void resumeServeur(boolean compression, String source,
+                                     String destination, long tailleSource,
+                                     long tailleDestination, long dureeAttente,
+                                     long dureeTraitement, boolean json) {
+        double taux = compression ? 100.0 * tailleDestination / tailleSource
+                                  : 100.0 * tailleSource / tailleDestination;
+        String operation = compression ? "compression" : "décompression";
+
+        if (json) {
+            out.println("{\"operation\":\""
+                        + (compression ? "compression" : "decompression")
+                        + "\",\"source\":" + chaineJson(source)
+                        + ",\"destination\":" + chaineJson(destination)
+                        + ",\"tailleSource\":" + tailleSource
+                        + ",\"tailleDestination\":" + tailleDestination
+                        + ",\"taux\":" + nombreJson(taux)
+                        + ",\"dureeNs\":" + dureeTraitement
+                        + ",\"attenteNs\":" + dureeAttente
+                        + ",\"serveur\":true}");
+            return;
+        }
+        out.println("Taille du fichier lu : " + tailleSource + " octets");
+        out.println("Taille du fichier écrit : " + tailleDestination
+                    + " octets");
+        out.printf("Taux de %s : %.2f %%\n", operation, taux);
+        out.printf("Temps de %s par le serveur : %.3f millisecondes "
+                   + "(attente : %.3f millisecondes)\n", operation,
+                   dureeTraitement / NANOSECONDES_PAR_MILLISECONDE,
+                   dureeAttente / NANOSECONDES_PAR_MILLISECONDE);
+    }
+
+    /**
+     * Affiche le résumé de la compression ou de la décompression d'un lot
+     * de fichiers : nombre de fichiers traités et d'échecs, octets lus
+     * et écrits, taux global, durée totale et débit. Le débit est celui
+     * des données non compressées : octets lus par une compression,
+     * écrits par une décompression.
+     *
+     * @param compression true pour une compression, false pour
+     *                    une décompression.
+     * @param nombreFichiers Le nombre de fichiers traités sans erreur.
+     * @param nombreEchecs Le nombre de fichiers en échec.
+     * @param octetsLus Le nombre d'octets lus.
+     * @param octetsEcrits Le nombre d'octets écrits.
+     * @param duree La durée totale, en nanosecondes.
+     * @param nombreThreads Le nombre de threads utilisés.
+     * @param json true pour afficher le résumé en JSON.
+     */
+    public static void resumeLot(boolean compression, int nombreFichiers,
+                                 int nombreEchecs, long octetsLus,
+                                 long octetsEcrits, long duree,
+                                 int nombreThreads, boolean json) {
+        double taux = compression ? 100.0 * octetsEcrits / octetsLus
+                                  : 100.0 * octetsLus / octetsEcrits;
+        double secondes = Math.max(duree, 1) / 1e9;
+        double debit = (compression ? octetsLus : octetsEcrits)
+                       / secondes / (1024 * 1024);
+        double fichiersParSeconde = nombreFichiers / secondes;
+
+        if (json) {
+            out.println("{\"operation\":\""
+                        + (compression ? "compression" : "decompression")
+                        + "-lot\",\"fichiers\":" + nombreFichiers
+                        + ",\"echecs\":" + nombreEchecs
+                        + ",\"octetsLus\":" + octetsLus
+                        + ",\"octetsEcrits\":" + octetsEcrits
+                        + ",\"taux\":" + nombreJson(taux)
+                        + ",\"dureeNs\":" + duree
+                        + ",\"threads\":" + nombreThreads
+                        + ",\"debit\":" + nombreJson(debit)
+                        + ",\"fichiersParSeconde\":"
+                        + nombreJson(fichiersParSeconde) + "}");
+            return;
+        }
+        out.println("Fichiers traités : " + nombreFichiers
+                    + " ; échecs : " + nombreEchecs);
+        out.println("Octets lus : " + octetsLus
+                    + " ; octets écrits : " + octetsEcrits);
+        out.printf("Taux de %s : %.2f %%\n",
+                   compression ? "compression" : "décompression", taux);
+        out.printf("Temps total : %.3f millisecondes sur %d threads\n",
+                   duree / NANOSECONDES_PAR_MILLISECONDE, nombreThreads);
+        out.printf("Débit : %.2f Mo/s ; %.1f fichiers/s\n",
+                   debit, fichiersParSeconde);
+    }
+
+    /**
+     * Affiche la durée, le nombre d'octets et le débit de chaque phase
+     * mesurée, puis la mémoire allouée et le pic d'occupation du tas.
+     * Les phases qui n'ont pas été mesurées ne sont pas affichées, et
+     * le débit des phases qui ne traitent pas d'octets non plus.
+     *
+     * @param mesures Les mesures à afficher.
+     */
+    private static void afficherPhases(MesuresPhases mesures) {
+        out.println("Phases :");
+        for (int phase = 0; phase < MesuresPhases.NOMBRE_PHASES; phase++) {
+            if (mesures.getDuree(phase) == 0) {
+                continue;
+            }
+            out.printf("  %-12s : %12.3f ms", MesuresPhases.getNom(phase),
+                       mesures.getDuree(phase) / NANOSECONDES_PAR_MILLISECONDE);
+            if (mesures.getOctets(phase) > 0) {
+                out.printf(" ; %15d octets ; %10.2f Mo/s",
+                           mesures.getOctets(phase), mesures.getDebit(phase));
+            }
+            out.println();
+        }
+        if (mesures.getNombreThreads() > 1) {
+            out.println("  (durées cumulées sur " + mesures.getNombreThreads()
+                        + " threads)");
+        }
+        out.println("Mémoire allouée : "
+                    + afficherOctets(mesures.getOctetsAlloues())
+                    + " ; pic du tas : "
+                    + afficherOctets(mesures.getPicTas()));
+    }
+
+    /**
+     * Retourne un nombre d'octets mesuré, sous forme de texte.
+     *
+     * @param nombreOctets Le nombre d'octets, ou -1 s'il n'est pas mesuré.
+     * @return Le nombre d'octets suivi de son unité, ou "non mesuré".
+     */
+    private static String afficherOctets(long nombreOctets) {
+        return nombreOctets < 0 ? "non mesuré" : nombreOctets + " octets";
+    }
+
+    /**
+     * Construit le résumé d'une opération sous forme d'un objet JSON,
+     * sur une seule ligne. Les durées sont en nanosecondes, les débits
+     * en mégaoctets (2^20 octets) par seconde ; un taux indéfini, pour
+     * un fichier vide, vaut null.
+     *
+     * @param operation Le nom de l'opération.
+     * @param source Le chemin du fichier lu.
+     * @param destination Le chemin du fichier écrit.
+     * @param tailleSource La taille du fichier lu, en octets.
+     * @param tailleDestination La taille du fichier écrit, en octets.
+     * @param taux Le taux de compression ou de décompression, en pourcents.
+     * @param mesures Les mesures de l'opération.
+     * @return L'objet JSON.
+     */
+    static String versJson(String operation, String source,
+                           String destination, long tailleSource,
+                           long tailleDestination, double taux,
+                           MesuresPhases mesures) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"operation\":\"").append(operation)
+            .append("\",\"source\":").append(chaineJson(source))
+            .append(",\"destination\":").append(chaineJson(destination))
+            .append(",\"tailleSource\":").append(tailleSource)
+            .append(",\"tailleDestination\":").append(tailleDestination)
+            .append(",\"taux\":").append(nombreJson(taux))
+            .append(",\"dureeNs\":").append(mesures.getDureeTotale())
+            .append(",\"threads\":").append(mesures.getNombreThreads())
+            .append(",\"octetsAlloues\":").append(mesures.getOctetsAlloues())
+            .append(",\"picTas\":").append(mesures.getPicTas())
+            .append(",\"phases\":[");
+        boolean premiere = true;
+        for (int phase = 0; phase < MesuresPhases.NOMBRE_PHASES; phase++) {
+            if (mesures.getDuree(phase) == 0) {
+                continue;
+            }
+            if (!premiere) {
+                json.append(',');
+            }
+            premiere = false;
+            json.append("{\"nom\":\"").append(MesuresPhases.getNom(phase))
+                .append("\",\"dureeNs\":").append(mesures.getDuree(phase))
+                .append(",\"octets\":").append(mesures.getOctets(phase))
+                .append(",\"debit\":")
+                .append(nombreJson(mesures.getDebit(phase)))
+                .append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Retourne une chaîne sous forme de chaîne JSON, entre guillemets,
+     * ses caractères spéciaux étant échappés.
+     *
+     * @param chaine La chaîne à convertir.
+     * @return La chaîne JSON.
+     */
+    private static String chaineJson(String chaine) {
+        StringBuilder json = new StringBuilder("\"");
+        for (int i = 0; i < chaine.length(); i++) {
+            char caractere = chaine.charAt(i);
+            if (caractere == '"' || caractere == '\\') {
+                json.append('\\').append(caractere);
+            } else if (caractere < ' ') {
+                json.append(String.format("\\u%04x", (int) caractere));
+            } else {
+                json.append(caractere);
+            }
+        }
+        return json.append('"').toString();
+    }
 
-        long tempsDeDecompression = System.currentTimeMillis()
-                                    - tempsDecompression;
-        out.println("Temps de décompression : " + tempsDeDecompression
-                    + " millisecondes");
+    /**
+     * Retourne un nombre décimal sous forme de nombre JSON, arrondi
+     * au centième, ou null s'il n'est pas fini.
+     *
+     * @param nombre Le nombre à convertir.
+     * @return Le nombre JSON.
+     */
+    private static String nombreJson(double nombre) {
+        return Double.isFinite(nombre)
+               ? String.format(Locale.ROOT, "%.2f", nombre)
+               : "null";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,202 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * StrategieCanal.java                       18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.outils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Stratégie d'entrées/sorties par {@link FileChannel}, au travers d'un
+ * tampon direct de taille réglable.
+ * <br>
+ * Un tampon direct est alloué hors du tas Java : le système le remplit
+ * ou le vide lui-même, sans la copie intermédiaire qu'impose un tableau
+ * d'octets ordinaire.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class StrategieCanal implements StrategieES {
+
+    /**
+     * Nom de la stratégie.
+     */
+    public static final String NOM = "canal";
+
+    /**
+     * Taille des tampons directs, en octets.
+     */
+    private final int tailleTampon;
+
+    /**
+     * Construit la stratégie.
+     *
+     * @param tailleTampon La taille des tampons directs, en octets.
+     */
+    public StrategieCanal(int tailleTampon) {
+        this.tailleTampon = tailleTampon;
+    }
+
+    @Override
+    public String getNom() {
+        return NOM;
+    }
+
+    @Override
+    public InputStream ouvrirLecture(String cheminFichier) throws IOException {
+        return new LectureCanal(FileChannel.open(Path.of(cheminFichier),
+                                                 StandardOpenOption.READ),
+                                tailleTampon);
+    }
+
+    @Override
+    public OutputStream ouvrirEcriture(String cheminFichier)
+            throws IOException {
+        return new EcritureCanal(FileChannel.open(
+                Path.of(cheminFichier), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING), tailleTampon);
+    }
+
+    /**
+     * Flux d'entrée lisant un canal au travers d'un tampon direct.
+     */
+    private static class LectureCanal extends InputStream {
+
+        /** Canal lu. */
+        private final FileChannel canal;
+
+        /** Tampon contenant les octets lus et pas encore consommés. */
+        private final ByteBuffer tampon;
+
+        /**
+         * Construit le flux.
+         *
+         * @param canal Le canal à lire.
+         * @param tailleTampon La taille du tampon, en octets.
+         */
+        LectureCanal(FileChannel canal, int tailleTampon) {
+            this.canal = canal;
+            this.tampon = ByteBuffer.allocateDirect(tailleTampon).flip();
+        }
+
+        /**
+         * Remplit le tampon s'il a été entièrement consommé.
+         *
+         * @return false si la fin du fichier est atteinte.
+         * @throws IOException Si une erreur d'entrée/sortie se produit.
+         */
+        private boolean remplir() throws IOException {
+            if (tampon.hasRemaining()) {
+                return true;
+            }
+            tampon.clear();
+            int lus;
+            do {
+                lus = canal.read(tampon);
+            } while (lus == 0);
+            tampon.flip();
+            return lus > 0;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return remplir() ? tampon.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] octets, int debut, int longueur)
+                throws IOException {
+            if (longueur == 0) {
+                return 0;
+            }
+            if (!remplir()) {
+                return -1;
+            }
+            int nombre = Math.min(longueur, tampon.remaining());
+            tampon.get(octets, debut, nombre);
+            return nombre;
+        }
+
+        @Override
+        public int available() {
+            return tampon.remaining();
+        }
+
+        @Override
+        public void close() throws IOException {
+            canal.close();
+        }
+    }
+
+    /**
+     * Flux de sortie écrivant dans un canal au travers d'un tampon direct.
+     */
+    private static class EcritureCanal extends OutputStream {
+
+        /** Canal écrit. */
+        private final FileChannel canal;
+
+        /** Tampon contenant les octets pas encore écrits. */
+        private final ByteBuffer tampon;
+
+        /**
+         * Construit le flux.
+         *
+         * @param canal Le canal à écrire.
+         * @param tailleTampon La taille du tampon, en octets.
+         */
+        EcritureCanal(FileChannel canal, int tailleTampon) {
+            this.canal = canal;
+            this.tampon = ByteBuffer.allocateDirect(tailleTampon);
+        }
+
+        @Override
+        public void write(int octet) throws IOException {
+            if (!tampon.hasRemaining()) {
+                flush();
+            }
+            tampon.put((byte) octet);
+        }
+
+        @Override
+        public void write(byte[] octets, int debut, int longueur)
+                throws IOException {
+            while (longueur > 0) {
+                if (!tampon.hasRemaining()) {
+                    flush();
+                }
+                int nombre = Math.min(longueur, tampon.remaining());
+                tampon.put(octets, debut, nombre);
+                debut += nombre;
+                longueur -= nombre;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            tampon.flip();
+            while (tampon.hasRemaining()) {
+                canal.write(tampon);
+            }
+            tampon.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (canal) {
+                flush();
+            }
+        }
+    }
+}
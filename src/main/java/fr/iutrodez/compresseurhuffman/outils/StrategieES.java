@@ -0,0 +1,115 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * StrategieES.java                          18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.outils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Manière de lire et d'écrire les fichiers traités par
+ * {@link GestionFichier}.
+ * <br>
+ * Trois stratégies sont disponibles :
+ * <ul>
+ *     <li>{@link StrategieProjection} : le fichier lu est projeté en
+ *         mémoire, sans recopie par le système ;</li>
+ *     <li>{@link StrategieCanal} : les octets transitent par un
+ *         {@link java.nio.channels.FileChannel} et un tampon hors du tas
+ *         Java, de taille réglable ;</li>
+ *     <li>{@link StrategieFlux} : flux tamponnés classiques, dont
+ *         l'ouverture est la moins coûteuse.</li>
+ * </ul>
+ * Sans choix explicite, la stratégie est choisie d'après la taille
+ * du fichier lu (voir {@link #choisir}).
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public interface StrategieES {
+
+    /**
+     * Nom désignant le choix automatique de la stratégie.
+     */
+    String AUTOMATIQUE = "auto";
+
+    /**
+     * Taille en dessous de laquelle un fichier est lu par des flux
+     * tamponnés (1 Mo) : ouvrir un canal ou projeter le fichier coûte
+     * alors plus que la lecture elle-même.
+     */
+    long SEUIL_CANAL = 1024 * 1024;
+
+    /**
+     * Taille à partir de laquelle un fichier est projeté en mémoire
+     * (64 Mo) : le coût de la projection est alors négligeable devant
+     * les recopies qu'elle évite.
+     */
+    long SEUIL_PROJECTION = 64L * 1024 * 1024;
+
+    /**
+     * Retourne le nom de la stratégie, tel qu'accepté par {@link #parNom}.
+     *
+     * @return Le nom de la stratégie.
+     */
+    String getNom();
+
+    /**
+     * Ouvre un fichier en lecture.
+     *
+     * @param cheminFichier Le chemin du fichier à lire.
+     * @return Le flux d'entrée ouvert, à fermer par l'appelant.
+     * @throws IOException Si le fichier ne peut pas être ouvert.
+     */
+    InputStream ouvrirLecture(String cheminFichier) throws IOException;
+
+    /**
+     * Ouvre un fichier en écriture, en le créant ou en le vidant.
+     *
+     * @param cheminFichier Le chemin du fichier à écrire.
+     * @return Le flux de sortie ouvert, à fermer par l'appelant.
+     * @throws IOException Si le fichier ne peut pas être créé.
+     */
+    OutputStream ouvrirEcriture(String cheminFichier) throws IOException;
+
+    /**
+     * Choisit la stratégie la mieux adaptée à la taille d'un fichier.
+     *
+     * @param tailleFichier La taille du fichier lu, en octets.
+     * @param tailleTampon La taille des tampons, en octets.
+     * @return La stratégie choisie.
+     */
+    static StrategieES choisir(long tailleFichier, int tailleTampon) {
+        if (tailleFichier < SEUIL_CANAL) {
+            return new StrategieFlux(tailleTampon);
+        }
+        if (tailleFichier < SEUIL_PROJECTION) {
+            return new StrategieCanal(tailleTampon);
+        }
+        return new StrategieProjection(tailleTampon);
+    }
+
+    /**
+     * Retourne la stratégie portant un nom donné.
+     *
+     * @param nom Le nom de la stratégie : "projection", "canal" ou "flux".
+     * @param tailleTampon La taille des tampons, en octets.
+     * @return La stratégie correspondante.
+     * @throws IllegalArgumentException Si aucune stratégie ne porte ce nom.
+     */
+    static StrategieES parNom(String nom, int tailleTampon) {
+        return switch (nom) {
+            case StrategieProjection.NOM ->
+                    new StrategieProjection(tailleTampon);
+            case StrategieCanal.NOM -> new StrategieCanal(tailleTampon);
+            case StrategieFlux.NOM -> new StrategieFlux(tailleTampon);
+            default -> throw new IllegalArgumentException(
+                    "Stratégie d'entrées/sorties inconnue : " + nom);
+        };
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * StrategieFlux.java                        18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.outils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Stratégie d'entrées/sorties par flux tamponnés classiques.
+ * Leur ouverture est la moins coûteuse : ils conviennent aux petits
+ * fichiers.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class StrategieFlux implements StrategieES {
+
+    /**
+     * Nom de la stratégie.
+     */
+    public static final String NOM = "flux";
+
+    /**
+     * Taille des tampons des flux, en octets.
+     */
+    private final int tailleTampon;
+
+    /**
+     * Construit la stratégie.
+     *
+     * @param tailleTampon La taille des tampons des flux, en octets.
+     */
+    public StrategieFlux(int tailleTampon) {
+        this.tailleTampon = tailleTampon;
+    }
+
+    @Override
+    public String getNom() {
+        return NOM;
+    }
+
+    @Override
+    public InputStream ouvrirLecture(String cheminFichier) throws IOException {
+        return new BufferedInputStream(new FileInputStream(cheminFichier),
+                                       tailleTampon);
+    }
+
+    @Override
+    public OutputStream ouvrirEcriture(String cheminFichier)
+            throws IOException {
+        return new BufferedOutputStream(new FileOutputStream(cheminFichier),
+                                        tailleTampon);
+    }
+}
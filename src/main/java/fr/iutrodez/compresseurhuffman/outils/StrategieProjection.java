@@ -0,0 +1,169 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * StrategieProjection.java                  18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.outils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Stratégie d'entrées/sorties projetant en mémoire les fichiers lus
+ * ({@link FileChannel#map}).
+ * <br>
+ * Les octets d'un fichier projeté sont lus directement dans le cache
+ * du système, sans appel système ni recopie par lecture : c'est la
+ * stratégie la plus rapide pour les gros fichiers. Le fichier est projeté
+ * par segments successifs de {@link #TAILLE_SEGMENT} octets, une projection
+ * étant limitée à 2 Go.
+ * <br>
+ * La taille d'un fichier écrit n'étant pas connue à l'avance, il ne peut
+ * pas être projeté : les écritures passent par un canal
+ * (voir {@link StrategieCanal}).
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class StrategieProjection implements StrategieES {
+
+    /**
+     * Nom de la stratégie.
+     */
+    public static final String NOM = "projection";
+
+    /**
+     * Taille maximale d'un segment projeté en mémoire (1 Go).
+     */
+    public static final long TAILLE_SEGMENT = 1024L * 1024 * 1024;
+
+    /**
+     * Stratégie utilisée pour les écritures.
+     */
+    private final StrategieCanal ecriture;
+
+    /**
+     * Construit la stratégie.
+     *
+     * @param tailleTampon La taille du tampon des écritures, en octets.
+     */
+    public StrategieProjection(int tailleTampon) {
+        this.ecriture = new StrategieCanal(tailleTampon);
+    }
+
+    @Override
+    public String getNom() {
+        return NOM;
+    }
+
+    @Override
+    public InputStream ouvrirLecture(String cheminFichier) throws IOException {
+        return new LectureProjection(FileChannel.open(
+                Path.of(cheminFichier), StandardOpenOption.READ));
+    }
+
+    @Override
+    public OutputStream ouvrirEcriture(String cheminFichier)
+            throws IOException {
+        return ecriture.ouvrirEcriture(cheminFichier);
+    }
+
+    /**
+     * Flux d'entrée lisant un fichier projeté en mémoire segment
+     * par segment.
+     */
+    private static class LectureProjection extends InputStream {
+
+        /** Canal du fichier lu. */
+        private final FileChannel canal;
+
+        /** Taille du fichier lu, en octets. */
+        private final long tailleFichier;
+
+        /** Position dans le fichier du segment suivant. */
+        private long positionSuivante;
+
+        /** Segment en cours de lecture. */
+        private MappedByteBuffer segment;
+
+        /**
+         * Construit le flux.
+         *
+         * @param canal Le canal du fichier à lire.
+         * @throws IOException Si la taille du fichier ne peut être lue.
+         */
+        LectureProjection(FileChannel canal) throws IOException {
+            this.canal = canal;
+            this.tailleFichier = canal.size();
+        }
+
+        /**
+         * Projette le segment suivant si le segment courant a été
+         * entièrement lu.
+         *
+         * @return false si la fin du fichier est atteinte.
+         * @throws IOException Si la projection échoue.
+         */
+        private boolean projeter() throws IOException {
+            if (segment != null && segment.hasRemaining()) {
+                return true;
+            }
+            if (positionSuivante >= tailleFichier) {
+                return false;
+            }
+            long taille = Math.min(TAILLE_SEGMENT,
+                                   tailleFichier - positionSuivante);
+            segment = canal.map(FileChannel.MapMode.READ_ONLY,
+                                positionSuivante, taille);
+            positionSuivante += taille;
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return projeter() ? segment.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] octets, int debut, int longueur)
+                throws IOException {
+            if (longueur == 0) {
+                return 0;
+            }
+            if (!projeter()) {
+                return -1;
+            }
+            int nombre = Math.min(longueur, segment.remaining());
+            segment.get(octets, debut, nombre);
+            return nombre;
+        }
+
+        @Override
+        public long skip(long nombre) throws IOException {
+            long sautes = 0;
+            while (sautes < nombre && projeter()) {
+                int pas = (int) Math.min(nombre - sautes, segment.remaining());
+                segment.position(segment.position() + pas);
+                sautes += pas;
+            }
+            return sautes;
+        }
+
+        @Override
+        public int available() {
+            return segment == null ? 0 : segment.remaining();
+        }
+
+        @Override
+        public void close() throws IOException {
+            canal.close();
+        }
+    }
+}
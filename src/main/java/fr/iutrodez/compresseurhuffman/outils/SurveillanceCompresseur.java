@@ -0,0 +1,422 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * SurveillanceCompresseur.java              18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.outils;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs de l'activité du compresseur depuis le lancement du programme,
+ * exposés par JMX sous le nom {@value #NOM_JMX} (voir
+ * {@link SurveillanceCompresseurMBean}).
+ * <br>
+ * Ils sont alimentés par les compressions et décompressions de fichiers
+ * (voir {@link #debuter} et {@link #terminerCompression}), depuis
+ * n'importe quel thread. Aucun verrou n'est pris : les compteurs sont des
+ * {@link LongAdder} et les histogrammes des tableaux atomiques, si bien
+ * que la surveillance peut rester active en permanence. En contrepartie,
+ * une lecture faite pendant une opération peut ne refléter qu'une partie
+ * de ses compteurs.
+ * <br>
+ * Les latences sont rangées dans un histogramme logarithmique : chaque
+ * puissance de deux est divisée en 8 tranches, si bien qu'un centile est
+ * connu à 12,5 % près.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class SurveillanceCompresseur implements SurveillanceCompresseurMBean {
+
+    /**
+     * Nom sous lequel l'instance partagée est enregistrée auprès
+     * du serveur JMX de la machine virtuelle.
+     */
+    public static final String NOM_JMX =
+            "fr.iutrodez.compresseurhuffman:type=SurveillanceCompresseur";
+
+    /**
+     * Nombre de tranches de la répartition des taux de compression :
+     * une par dizaine de pourcents, plus une pour les fichiers agrandis.
+     */
+    public static final int TRANCHES_TAUX = 11;
+
+    /**
+     * Nombre de nanosecondes dans une milliseconde.
+     */
+    private static final double NANOSECONDES_PAR_MILLISECONDE = 1e6;
+
+    /**
+     * Compteurs des compressions.
+     */
+    private final Compteurs compressions = new Compteurs();
+
+    /**
+     * Compteurs des décompressions.
+     */
+    private final Compteurs decompressions = new Compteurs();
+
+    /**
+     * Nombre d'opérations en cours.
+     */
+    private final AtomicInteger operationsEnCours = new AtomicInteger();
+
+    /**
+     * Nombre de compressions par tranche de taux.
+     */
+    private final AtomicLongArray repartitionTaux =
+            new AtomicLongArray(TRANCHES_TAUX);
+
+    /**
+     * Instance partagée, créée et enregistrée auprès du serveur JMX
+     * au premier accès.
+     */
+    private static class Partagee {
+
+        /** L'instance partagée. */
+        private static final SurveillanceCompresseur INSTANCE =
+                new SurveillanceCompresseur();
+
+        static {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(
+                        INSTANCE, new ObjectName(NOM_JMX));
+            } catch (JMException erreur) {
+                /*
+                 * Nom déjà pris : les compteurs restent alimentés,
+                 * seulement ils ne sont pas consultables par JMX
+                 */
+            }
+        }
+    }
+
+    /**
+     * Compteurs d'un type d'opération.
+     */
+    private static class Compteurs {
+
+        /** Nombre d'opérations réussies. */
+        private final LongAdder reussies = new LongAdder();
+
+        /** Nombre d'opérations interrompues par une erreur. */
+        private final LongAdder echecs = new LongAdder();
+
+        /** Nombre d'octets lus. */
+        private final LongAdder octetsLus = new LongAdder();
+
+        /** Nombre d'octets écrits. */
+        private final LongAdder octetsEcrits = new LongAdder();
+
+        /** Latences des opérations réussies, en nanosecondes. */
+        private final HistogrammeLatences latences = new HistogrammeLatences();
+
+        /**
+         * Compte une opération terminée.
+         *
+         * @param duree La durée de l'opération, en nanosecondes.
+         * @param tailleLue Le nombre d'octets lus.
+         * @param tailleEcrite Le nombre d'octets écrits.
+         * @param reussie false si l'opération a été interrompue.
+         */
+        private void compter(long duree, long tailleLue, long tailleEcrite,
+                             boolean reussie) {
+            if (!reussie) {
+                echecs.increment();
+                return;
+            }
+            reussies.increment();
+            octetsLus.add(tailleLue);
+            octetsEcrits.add(tailleEcrite);
+            latences.ajouter(duree);
+        }
+
+        /**
+         * Remet les compteurs à zéro.
+         */
+        private void reinitialiser() {
+            reussies.reset();
+            echecs.reset();
+            octetsLus.reset();
+            octetsEcrits.reset();
+            latences.reinitialiser();
+        }
+    }
+
+    /**
+     * Histogramme logarithmique de durées en nanosecondes. Les durées
+     * inférieures à 8 ont chacune leur case ; au-delà, chaque intervalle
+     * [2^e, 2^(e+1)[ est divisé en 8 cases de même largeur.
+     */
+    static class HistogrammeLatences {
+
+        /** Nombre de bits désignant la case dans une puissance de deux. */
+        private static final int BITS_CASE = 3;
+
+        /** Nombre de cases par puissance de deux. */
+        private static final int CASES = 1 << BITS_CASE;
+
+        /** Nombre d'opérations par case. */
+        private final AtomicLongArray cases =
+                new AtomicLongArray(indice(Long.MAX_VALUE) + 1);
+
+        /**
+         * Retourne la case d'une durée.
+         *
+         * @param duree La durée, positive ou nulle.
+         * @return L'indice de sa case.
+         */
+        static int indice(long duree) {
+            if (duree < CASES) {
+                return (int) duree;
+            }
+            int exposant = 63 - Long.numberOfLeadingZeros(duree);
+            return ((exposant - BITS_CASE + 1) << BITS_CASE)
+                   + (int) ((duree >>> (exposant - BITS_CASE)) & (CASES - 1));
+        }
+
+        /**
+         * Retourne la plus grande durée rangée dans une case.
+         *
+         * @param indice L'indice de la case.
+         * @return La borne supérieure de la case, incluse.
+         */
+        static long borneSuperieure(int indice) {
+            if (indice < CASES) {
+                return indice;
+            }
+            int decalage = (indice >>> BITS_CASE) - 1;
+            long debut = (long) (CASES + (indice & (CASES - 1))) << decalage;
+            return debut + (1L << decalage) - 1;
+        }
+
+        /**
+         * Ajoute une durée à l'histogramme.
+         *
+         * @param duree La durée, en nanosecondes.
+         */
+        void ajouter(long duree) {
+            cases.incrementAndGet(indice(Math.max(duree, 0)));
+        }
+
+        /**
+         * Retourne un centile des durées : la borne supérieure de la case
+         * qui contient la durée de ce rang.
+         *
+         * @param fraction La fraction des durées qui lui sont inférieures,
+         *                 entre 0 et 1 (0,99 pour le 99e centile).
+         * @return Le centile en nanosecondes, 0 si l'histogramme est vide.
+         */
+        long centile(double fraction) {
+            long[] copie = new long[cases.length()];
+            long total = 0;
+            for (int i = 0; i < copie.length; i++) {
+                copie[i] = cases.get(i);
+                total += copie[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rang = Math.max(1, (long) Math.ceil(fraction * total));
+            long cumul = 0;
+            for (int i = 0; i < copie.length; i++) {
+                cumul += copie[i];
+                if (cumul >= rang) {
+                    return borneSuperieure(i);
+                }
+            }
+            return borneSuperieure(copie.length - 1);
+        }
+
+        /**
+         * Vide l'histogramme.
+         */
+        void reinitialiser() {
+            for (int i = 0; i < cases.length(); i++) {
+                cases.set(i, 0);
+            }
+        }
+    }
+
+    /**
+     * Construit des compteurs à zéro, qui ne sont pas enregistrés
+     * auprès du serveur JMX.
+     */
+    SurveillanceCompresseur() {
+    }
+
+    /**
+     * Retourne l'instance partagée, alimentée par les compressions
+     * et décompressions de fichiers et enregistrée auprès du serveur JMX
+     * sous le nom {@value #NOM_JMX}.
+     *
+     * @return L'instance partagée.
+     */
+    public static SurveillanceCompresseur getInstance() {
+        return Partagee.INSTANCE;
+    }
+
+    /**
+     * Signale le début d'une opération.
+     *
+     * @return L'instant de début, à transmettre à {@link #terminerCompression}
+     *         ou {@link #terminerDecompression}.
+     */
+    public long debuter() {
+        operationsEnCours.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Signale la fin d'une compression.
+     *
+     * @param debut L'instant retourné par {@link #debuter}.
+     * @param tailleSource La taille du fichier compressé, en octets.
+     * @param tailleArchive La taille de l'archive produite, en octets.
+     * @param reussie false si la compression a été interrompue par
+     *                une erreur : seul l'échec est alors compté.
+     */
+    public void terminerCompression(long debut, long tailleSource,
+                                    long tailleArchive, boolean reussie) {
+        compressions.compter(System.nanoTime() - debut, tailleSource,
+                             tailleArchive, reussie);
+        if (reussie && tailleSource > 0) {
+            int tranche = (int) Math.min(TRANCHES_TAUX - 1,
+                                         tailleArchive * 10 / tailleSource);
+            repartitionTaux.incrementAndGet(tranche);
+        }
+        operationsEnCours.decrementAndGet();
+    }
+
+    /**
+     * Signale la fin d'une décompression.
+     *
+     * @param debut L'instant retourné par {@link #debuter}.
+     * @param tailleArchive La taille de l'archive lue, en octets.
+     * @param tailleRestituee La taille du fichier restitué, en octets.
+     * @param reussie false si la décompression a été interrompue par
+     *                une erreur : seul l'échec est alors compté.
+     */
+    public void terminerDecompression(long debut, long tailleArchive,
+                                      long tailleRestituee, boolean reussie) {
+        decompressions.compter(System.nanoTime() - debut, tailleArchive,
+                               tailleRestituee, reussie);
+        operationsEnCours.decrementAndGet();
+    }
+
+    @Override
+    public long getCompressions() {
+        return compressions.reussies.sum();
+    }
+
+    @Override
+    public long getEchecsCompression() {
+        return compressions.echecs.sum();
+    }
+
+    @Override
+    public long getOctetsLusCompression() {
+        return compressions.octetsLus.sum();
+    }
+
+    @Override
+    public long getOctetsEcritsCompression() {
+        return compressions.octetsEcrits.sum();
+    }
+
+    @Override
+    public double getLatenceCompressionP50() {
+        return enMillisecondes(compressions.latences.centile(0.5));
+    }
+
+    @Override
+    public double getLatenceCompressionP99() {
+        return enMillisecondes(compressions.latences.centile(0.99));
+    }
+
+    @Override
+    public double getLatenceCompressionP999() {
+        return enMillisecondes(compressions.latences.centile(0.999));
+    }
+
+    @Override
+    public long getDecompressions() {
+        return decompressions.reussies.sum();
+    }
+
+    @Override
+    public long getEchecsDecompression() {
+        return decompressions.echecs.sum();
+    }
+
+    @Override
+    public long getOctetsLusDecompression() {
+        return decompressions.octetsLus.sum();
+    }
+
+    @Override
+    public long getOctetsEcritsDecompression() {
+        return decompressions.octetsEcrits.sum();
+    }
+
+    @Override
+    public double getLatenceDecompressionP50() {
+        return enMillisecondes(decompressions.latences.centile(0.5));
+    }
+
+    @Override
+    public double getLatenceDecompressionP99() {
+        return enMillisecondes(decompressions.latences.centile(0.99));
+    }
+
+    @Override
+    public double getLatenceDecompressionP999() {
+        return enMillisecondes(decompressions.latences.centile(0.999));
+    }
+
+    @Override
+    public int getOperationsEnCours() {
+        return operationsEnCours.get();
+    }
+
+    @Override
+    public double getTauxCompressionGlobal() {
+        long lus = getOctetsLusCompression();
+        return lus == 0 ? 0 : 100.0 * getOctetsEcritsCompression() / lus;
+    }
+
+    @Override
+    public long[] getRepartitionTaux() {
+        long[] repartition = new long[TRANCHES_TAUX];
+        for (int i = 0; i < repartition.length; i++) {
+            repartition[i] = repartitionTaux.get(i);
+        }
+        return repartition;
+    }
+
+    @Override
+    public void reinitialiser() {
+        compressions.reinitialiser();
+        decompressions.reinitialiser();
+        for (int i = 0; i < TRANCHES_TAUX; i++) {
+            repartitionTaux.set(i, 0);
+        }
+    }
+
+    /**
+     * Convertit une durée en millisecondes.
+     *
+     * @param nanosecondes La durée en nanosecondes.
+     * @return La durée en millisecondes.
+     */
+    private static double enMillisecondes(long nanosecondes) {
+        return nanosecondes / NANOSECONDES_PAR_MILLISECONDE;
+    }
+}
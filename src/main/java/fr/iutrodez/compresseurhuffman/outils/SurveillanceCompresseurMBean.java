@@ -0,0 +1,120 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * SurveillanceCompresseurMBean.java         18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.outils;
+
+/**
+ * Interface de gestion JMX de {@link SurveillanceCompresseur} : compteurs
+ * cumulés depuis le lancement du programme, ou depuis le dernier appel
+ * à {@link #reinitialiser}, consultables avec JConsole ou JDK Mission
+ * Control.
+ * <br>
+ * Les latences sont en millisecondes. Elles ne concernent que les
+ * opérations réussies, de même que les octets lus et écrits.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public interface SurveillanceCompresseurMBean {
+
+    /**
+     * @return Le nombre de compressions réussies.
+     */
+    long getCompressions();
+
+    /**
+     * @return Le nombre de compressions interrompues par une erreur.
+     */
+    long getEchecsCompression();
+
+    /**
+     * @return Le nombre d'octets lus par les compressions.
+     */
+    long getOctetsLusCompression();
+
+    /**
+     * @return Le nombre d'octets écrits par les compressions.
+     */
+    long getOctetsEcritsCompression();
+
+    /**
+     * @return La latence médiane des compressions.
+     */
+    double getLatenceCompressionP50();
+
+    /**
+     * @return Le 99e centile des latences des compressions.
+     */
+    double getLatenceCompressionP99();
+
+    /**
+     * @return Le 99,9e centile des latences des compressions.
+     */
+    double getLatenceCompressionP999();
+
+    /**
+     * @return Le nombre de décompressions réussies.
+     */
+    long getDecompressions();
+
+    /**
+     * @return Le nombre de décompressions interrompues par une erreur.
+     */
+    long getEchecsDecompression();
+
+    /**
+     * @return Le nombre d'octets lus par les décompressions.
+     */
+    long getOctetsLusDecompression();
+
+    /**
+     * @return Le nombre d'octets écrits par les décompressions.
+     */
+    long getOctetsEcritsDecompression();
+
+    /**
+     * @return La latence médiane des décompressions.
+     */
+    double getLatenceDecompressionP50();
+
+    /**
+     * @return Le 99e centile des latences des décompressions.
+     */
+    double getLatenceDecompressionP99();
+
+    /**
+     * @return Le 99,9e centile des latences des décompressions.
+     */
+    double getLatenceDecompressionP999();
+
+    /**
+     * @return Le nombre de compressions et de décompressions en cours.
+     */
+    int getOperationsEnCours();
+
+    /**
+     * @return Le taux de compression global, en pourcents : octets écrits
+     *         sur octets lus par toutes les compressions.
+     */
+    double getTauxCompressionGlobal();
+
+    /**
+     * Retourne la répartition des taux de compression : l'élément i est
+     * le nombre de compressions dont le taux est compris entre 10 × i
+     * et 10 × (i + 1) %, le dernier celui des fichiers que la compression
+     * a agrandis.
+     *
+     * @return Le nombre de compressions par tranche de taux.
+     */
+    long[] getRepartitionTaux();
+
+    /**
+     * Remet tous les compteurs à zéro, sauf celui des opérations
+     * en cours.
+     */
+    void reinitialiser();
+}
@@ -0,0 +1,34 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * TraitementBloc.java                       18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.outils;
+
+import java.io.IOException;
+
+/**
+ * Traitement appliqué à chacun des blocs d'octets lus successivement
+ * dans un fichier par {@link GestionFichier#lireParBlocs}.
+ * Le tableau fourni est réutilisé d'un bloc à l'autre : seules les
+ * {@code longueur} premières cases sont significatives et le traitement
+ * ne doit pas en conserver de référence.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface TraitementBloc {
+
+    /**
+     * Traite un bloc d'octets lu dans le fichier.
+     *
+     * @param bloc Le tableau contenant les octets lus.
+     * @param longueur Le nombre d'octets valides au début du tableau.
+     * @throws IOException Si une erreur d'entrée/sortie se produit
+     *                     pendant le traitement.
+     */
+    void traiter(byte[] bloc, int longueur) throws IOException;
+}
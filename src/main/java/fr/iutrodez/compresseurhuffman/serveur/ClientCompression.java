@@ -0,0 +1,96 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * ClientCompression.java                    18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.serveur;
+
+import fr.iutrodez.compresseurhuffman.objets.ParametresCompression;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * Connexion à un {@link ServeurCompression}, par laquelle des fichiers
+ * sont compressés ou décompressés par le serveur. Plusieurs demandes
+ * peuvent être envoyées à la suite sur la même connexion.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class ClientCompression implements Closeable {
+
+    /**
+     * Canal connecté au serveur.
+     */
+    private final SocketChannel canal;
+
+    /**
+     * Flux des résultats envoyés par le serveur.
+     */
+    private final DataInputStream entree;
+
+    /**
+     * Flux des demandes envoyées au serveur.
+     */
+    private final DataOutputStream sortie;
+
+    /**
+     * Se connecte au serveur qui écoute sur une socket.
+     *
+     * @param cheminSocket Le chemin de la socket du serveur.
+     * @throws IOException Si aucun serveur n'écoute sur cette socket.
+     */
+    public ClientCompression(Path cheminSocket) throws IOException {
+        canal = SocketChannel.open(UnixDomainSocketAddress.of(cheminSocket));
+        entree = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(canal)));
+        sortie = new DataOutputStream(new BufferedOutputStream(
+                Channels.newOutputStream(canal)));
+    }
+
+    /**
+     * Fait compresser ou décompresser un fichier par le serveur, et attend
+     * le résultat. Les chemins sont rendus absolus avant d'être envoyés,
+     * le dossier courant du serveur pouvant différer de celui du client.
+     *
+     * @param compression true pour compresser, false pour décompresser.
+     * @param source Le chemin du fichier à lire.
+     * @param destination Le chemin du fichier à écrire.
+     * @param parametres Les paramètres de l'opération.
+     * @return Le résultat de l'opération.
+     * @throws IOException Si la communication avec le serveur échoue.
+     */
+    public ResultatCompression envoyer(boolean compression, String source,
+                                       String destination,
+                                       ParametresCompression parametres)
+            throws IOException {
+        new DemandeCompression(compression,
+                               Path.of(source).toAbsolutePath().toString(),
+                               Path.of(destination).toAbsolutePath()
+                                   .toString(),
+                               parametres).ecrire(sortie);
+        sortie.flush();
+        return ResultatCompression.lire(entree);
+    }
+
+    /**
+     * Ferme la connexion au serveur.
+     *
+     * @throws IOException Si une erreur se produit à la fermeture.
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * DemandeCompression.java                   18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.serveur;
+
+import fr.iutrodez.compresseurhuffman.huffman.CompressionParBlocs;
+import fr.iutrodez.compresseurhuffman.huffman.DecompressionParBlocs;
+import fr.iutrodez.compresseurhuffman.huffman.EnteteArchive;
+import fr.iutrodez.compresseurhuffman.objets.ParametresCompression;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Demande de compression ou de décompression d'un fichier, envoyée par
+ * un {@link ClientCompression} au {@link ServeurCompression}.
+ * <br>
+ * Une demande est écrite sous la forme :
+ * <ul>
+ *     <li>le nombre magique {@link #MAGIQUE} (4 octets) ;</li>
+ *     <li>l'opération : 1 pour une compression, 0 pour une
+ *         décompression (1 octet) ;</li>
+ *     <li>les chemins absolus du fichier lu et du fichier écrit
+ *         ({@link DataOutput#writeUTF}) ;</li>
+ *     <li>les paramètres de l'opération, dans l'ordre de
+ *         {@link #ecrire}.</li>
+ * </ul>
+ * Le choix du serveur et le format du résumé restent propres au client :
+ * ils ne sont pas transmis. Le chemin du dictionnaire éventuel est
+ * transmis sous sa forme absolue, une chaîne vide indiquant qu'aucun
+ * dictionnaire n'est utilisé.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class DemandeCompression {
+
+    /**
+     * Nombre magique commençant chaque demande ("HUFD").
+     */
+    public static final int MAGIQUE = 0x48554644;
+
+    /**
+     * true pour une compression, false pour une décompression.
+     */
+    private final boolean compression;
+
+    /**
+     * Chemin absolu du fichier lu.
+     */
+    private final String source;
+
+    /**
+     * Chemin absolu du fichier écrit.
+     */
+    private final String destination;
+
+    /**
+     * Paramètres de l'opération.
+     */
+    private final ParametresCompression parametres;
+
+    /**
+     * Construit une demande.
+     *
+     * @param compression true pour une compression, false pour
+     *                    une décompression.
+     * @param source Le chemin absolu du fichier lu.
+     * @param destination Le chemin absolu du fichier écrit.
+     * @param parametres Les paramètres de l'opération.
+     */
+    public DemandeCompression(boolean compression, String source,
+                              String destination,
+                              ParametresCompression parametres) {
+        this.compression = compression;
+        this.source = source;
+        this.destination = destination;
+        this.parametres = parametres;
+    }
+
+    /**
+     * Écrit la demande dans un flux.
+     *
+     * @param sortie Le flux de destination.
+     * @throws IOException Si une erreur d'écriture se produit.
+     */
+    public void ecrire(DataOutput sortie) throws IOException {
+        sortie.writeInt(MAGIQUE);
+        sortie.writeBoolean(compression);
+        sortie.writeUTF(source);
+        sortie.writeUTF(destination);
+        sortie.writeInt(parametres.getTailleBloc());
+        sortie.writeBoolean(parametres.estDecoupageVariable());
+        sortie.writeInt(parametres.getNombreThreads());
+        sortie.writeUTF(parametres.getStrategieES());
+        sortie.writeInt(parametres.getTailleTampon());
+        sortie.writeInt(parametres.getLongueurMaximaleCodes());
+        sortie.writeBoolean(parametres.estAdaptatif());
+        sortie.writeInt(parametres.getIntervalleAcces());
+        sortie.writeBoolean(parametres.estIndexLignes());
+        sortie.writeUTF(parametres.aUnDictionnaire()
+                        ? Path.of(parametres.getCheminDictionnaire())
+                              .toAbsolutePath().toString()
+                        : "");
+    }
+
+    /**
+     * Lit une demande écrite par {@link #ecrire}.
+     *
+     * @param entree Le flux source.
+     * @return La demande lue.
+     * @throws java.io.EOFException Si le flux se termine avant la demande,
+     *                              le client ayant fermé la connexion.
+     * @throws IOException Si une erreur de lecture se produit ou si
+     *                     la demande est invalide.
+     */
+    public static DemandeCompression lire(DataInput entree)
+            throws IOException {
+        if (entree.readInt() != MAGIQUE) {
+            throw new IOException("Demande invalide : nombre magique "
+                                  + "incorrect");
+        }
+        boolean compression = entree.readBoolean();
+        String source = entree.readUTF();
+        String destination = entree.readUTF();
+        ParametresCompression parametres = new ParametresCompression();
+        try {
+            parametres.setTailleBloc(entree.readInt());
+            parametres.setDecoupageVariable(entree.readBoolean());
+            parametres.setNombreThreads(entree.readInt());
+            parametres.setStrategieES(entree.readUTF());
+            parametres.setTailleTampon(entree.readInt());
+            parametres.setLongueurMaximaleCodes(entree.readInt());
+            parametres.setAdaptatif(entree.readBoolean());
+            parametres.setIntervalleAcces(entree.readInt());
+            parametres.setIndexLignes(entree.readBoolean());
+            String dictionnaire = entree.readUTF();
+            parametres.setCheminDictionnaire(dictionnaire.isEmpty()
+                                             ? null : dictionnaire);
+        } catch (IllegalArgumentException erreur) {
+            throw new IOException("Demande invalide : " + erreur.getMessage());
+        }
+        return new DemandeCompression(compression, source, destination,
+                                      parametres);
+    }
+
+    /**
+     * Limite le nombre de threads de l'opération : c'est le serveur,
+     * et non le client, qui dispose des processeurs.
+     *
+     * @param nombreThreadsMaximal Le nombre maximal de threads, au moins 1.
+     */
+    public void limiterThreads(int nombreThreadsMaximal) {
+        parametres.setNombreThreads(Math.min(parametres.getNombreThreads(),
+                                             nombreThreadsMaximal));
+    }
+
+    /**
+     * Estime le nombre de threads de l'opération : ceux des paramètres
+     * pour une compression par blocs ou pour la décompression d'un fichier
+     * dont les blocs sont indexés, décodés en parallèle ; un seul sinon.
+     *
+     * @param entete L'en-tête du fichier à décompresser, null pour une
+     *               compression ou si l'en-tête n'a pas pu être lu.
+     * @return Le nombre de threads estimé.
+     */
+    public int estimerThreads(EnteteArchive entete) {
+        return getTailleBlocParallele(entete) > 0
+               ? parametres.getNombreThreads()
+               : 1;
+    }
+
+    /**
+     * Estime la mémoire de travail de l'opération, hors projection
+     * des fichiers en mémoire : les tampons de lecture et d'écriture et,
+     * pour des blocs traités en parallèle, les blocs en cours de chaque
+     * thread ({@link CompressionParBlocs#BLOCS_EN_COURS_PAR_THREAD} ou
+     * {@link DecompressionParBlocs#BLOCS_EN_COURS_PAR_THREAD}), chacun
+     * avec un tampon d'origine et un tampon encodé.
+     *
+     * @param entete L'en-tête du fichier à décompresser, null pour une
+     *               compression ou si l'en-tête n'a pas pu être lu.
+     * @return La mémoire estimée, en octets.
+     */
+    public long estimerMemoire(EnteteArchive entete) {
+        int blocsParThread = compression
+                             ? CompressionParBlocs.BLOCS_EN_COURS_PAR_THREAD
+                             : DecompressionParBlocs.BLOCS_EN_COURS_PAR_THREAD;
+        return 2L * parametres.getTailleTampon()
+               + 2L * getTailleBlocParallele(entete) * blocsParThread
+                 * estimerThreads(entete);
+    }
+
+    /**
+     * Retourne la taille maximale des blocs traités en parallèle
+     * par l'opération.
+     *
+     * @param entete L'en-tête du fichier à décompresser, null pour une
+     *               compression ou si l'en-tête n'a pas pu être lu.
+     * @return La taille des blocs, en octets, 0 si les blocs ne sont pas
+     *         traités en parallèle.
+     */
+    private int getTailleBlocParallele(EnteteArchive entete) {
+        if (compression) {
+            return parametres.estParBlocs() && !parametres.aUnDictionnaire()
+                   && !parametres.estAdaptatif()
+                   ? parametres.getTailleBloc()
+                   : 0;
+        }
+        return entete != null && entete.aUnIndex() ? entete.getTailleBloc()
+                                                   : 0;
+    }
+
+    /**
+     * Indique si la demande est une compression.
+     *
+     * @return true pour une compression, false pour une décompression.
+     */
+    public boolean estCompression() {
+        return compression;
+    }
+
+    /**
+     * Retourne le chemin du fichier lu.
+     *
+     * @return Le chemin absolu du fichier lu.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Retourne le chemin du fichier écrit.
+     *
+     * @return Le chemin absolu du fichier écrit.
+     */
+    public String getDestination() {
+        return destination;
+    }
+
+    /**
+     * Retourne les paramètres de l'opération.
+     *
+     * @return Les paramètres de l'opération.
+     */
+    public ParametresCompression getParametres() {
+        return parametres;
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * OrdonnanceurTaches.java                   18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.serveur;
+
+import java.io.IOException;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Décide de l'ordre dans lequel les demandes reçues par le
+ * {@link ServeurCompression} sont traitées, en limitant le nombre
+ * de threads des opérations simultanées et la mémoire qu'elles utilisent.
+ * <br>
+ * Chaque demande reçoit une échéance : son instant d'arrivée, augmenté
+ * de la durée estimée de son traitement ({@link #NANOSECONDES_PAR_OCTET}
+ * par octet du fichier lu). La demande d'échéance la plus proche passe
+ * la première : un petit fichier n'attend pas la fin d'un très gros
+ * fichier arrivé juste avant lui, et un gros fichier finit par passer
+ * quand les petits fichiers arrivés après lui ont des échéances plus
+ * lointaines que la sienne.
+ * <br>
+ * La demande en tête ne démarre que si les threads et la mémoire réservés
+ * par les opérations en cours le permettent : une opération compressant
+ * ses blocs sur huit threads compte pour huit. Une demande dont
+ * l'estimation dépasse à elle seule une limite est traitée seule.
+ * <br>
+ * Les demandes sont traitées par des threads virtuels : l'attente repose
+ * sur un {@link ReentrantLock}, qui libère le thread porteur, et non sur
+ * un bloc synchronisé.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class OrdonnanceurTaches {
+
+    /**
+     * Durée estimée du traitement d'un octet, en nanosecondes
+     * (soit environ 100 Mo/s).
+     */
+    public static final long NANOSECONDES_PAR_OCTET = 10;
+
+    /**
+     * Nombre maximal de threads des opérations en cours.
+     */
+    private final int nombreThreadsMaximal;
+
+    /**
+     * Mémoire maximale réservée par les opérations en cours, en octets.
+     */
+    private final long memoireMaximale;
+
+    /**
+     * Verrou protégeant la file et les réservations.
+     */
+    private final ReentrantLock verrou = new ReentrantLock();
+
+    /**
+     * Condition signalée à chaque changement de la file
+     * ou des réservations.
+     */
+    private final Condition changement = verrou.newCondition();
+
+    /**
+     * Demandes en attente, par échéance croissante.
+     */
+    private final PriorityQueue<Attente> file = new PriorityQueue<>();
+
+    /**
+     * Nombre d'opérations en cours.
+     */
+    private int tachesEnCours;
+
+    /**
+     * Nombre de threads réservés par les opérations en cours.
+     */
+    private int threadsReserves;
+
+    /**
+     * Mémoire réservée par les opérations en cours, en octets.
+     */
+    private long memoireReservee;
+
+    /**
+     * Numéro de la prochaine demande, qui départage les échéances égales.
+     */
+    private long numero;
+
+    /**
+     * Opération confiée à l'ordonnanceur.
+     */
+    @FunctionalInterface
+    public interface Tache {
+
+        /**
+         * Exécute l'opération.
+         *
+         * @throws IOException Si une erreur d'entrée/sortie se produit.
+         */
+        void executer() throws IOException;
+    }
+
+    /**
+     * Demande en attente dans la file.
+     */
+    private static class Attente implements Comparable<Attente> {
+
+        /** Échéance de la demande, en nanosecondes. */
+        private final long echeance;
+
+        /** Numéro d'arrivée de la demande. */
+        private final long numero;
+
+        /**
+         * Construit une demande en attente.
+         *
+         * @param echeance L'échéance de la demande, en nanosecondes.
+         * @param numero Le numéro d'arrivée de la demande.
+         */
+        Attente(long echeance, long numero) {
+            this.echeance = echeance;
+            this.numero = numero;
+        }
+
+        @Override
+        public int compareTo(Attente autre) {
+            int comparaison = Long.compare(echeance, autre.echeance);
+            return comparaison != 0 ? comparaison
+                                    : Long.compare(numero, autre.numero);
+        }
+    }
+
+    /**
+     * Construit un ordonnanceur.
+     *
+     * @param nombreThreadsMaximal Le nombre maximal de threads
+     *                             des opérations en cours, au moins 1.
+     * @param memoireMaximale La mémoire maximale réservée par les
+     *                        opérations en cours, en octets.
+     * @throws IllegalArgumentException Si une limite est invalide.
+     */
+    public OrdonnanceurTaches(int nombreThreadsMaximal, long memoireMaximale) {
+        if (nombreThreadsMaximal < 1 || memoireMaximale < 1) {
+            throw new IllegalArgumentException("Limites invalides : "
+                                               + nombreThreadsMaximal
+                                               + " threads, "
+                                               + memoireMaximale + " octets");
+        }
+        this.nombreThreadsMaximal = nombreThreadsMaximal;
+        this.memoireMaximale = memoireMaximale;
+    }
+
+    /**
+     * Attend le tour d'une opération, l'exécute dans le thread appelant,
+     * puis libère ses threads et sa mémoire.
+     *
+     * @param taille La taille du fichier lu, en octets.
+     * @param threads Le nombre de threads de l'opération, au plus
+     *                {@link #getNombreThreadsMaximal}.
+     * @param memoire La mémoire estimée de l'opération, en octets.
+     * @param tache L'opération.
+     * @throws IOException Si l'opération échoue.
+     * @throws InterruptedException Si le thread est interrompu pendant
+     *                              l'attente ; l'opération n'est alors
+     *                              pas exécutée.
+     */
+    public void executer(long taille, int threads, long memoire, Tache tache)
+            throws IOException, InterruptedException {
+        attendreTour(taille, threads, memoire);
+        try {
+            tache.executer();
+        } finally {
+            verrou.lock();
+            try {
+                tachesEnCours--;
+                threadsReserves -= threads;
+                memoireReservee -= memoire;
+                changement.signalAll();
+            } finally {
+                verrou.unlock();
+            }
+        }
+    }
+
+    /**
+     * Place une demande dans la file et attend qu'elle soit en tête
+     * et que les limites lui permettent de démarrer, puis réserve
+     * ses threads et sa mémoire.
+     *
+     * @param taille La taille du fichier lu, en octets.
+     * @param threads Le nombre de threads de l'opération.
+     * @param memoire La mémoire estimée de l'opération, en octets.
+     * @throws InterruptedException Si le thread est interrompu pendant
+     *                              l'attente.
+     */
+    private void attendreTour(long taille, int threads, long memoire)
+            throws InterruptedException {
+        verrou.lock();
+        try {
+            Attente attente = new Attente(
+                    System.nanoTime() + taille * NANOSECONDES_PAR_OCTET,
+                    numero++);
+            file.add(attente);
+            try {
+                while (file.peek() != attente || !peutDemarrer(threads, memoire)) {
+                    changement.await();
+                }
+            } catch (InterruptedException erreur) {
+                file.remove(attente);
+                changement.signalAll();
+                throw erreur;
+            }
+            file.poll();
+            tachesEnCours++;
+            threadsReserves += threads;
+            memoireReservee += memoire;
+            /* La demande suivante peut peut-être démarrer aussi */
+            changement.signalAll();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Indique si une opération peut démarrer compte tenu des opérations
+     * en cours. Le verrou doit être tenu.
+     *
+     * @param threads Le nombre de threads de l'opération.
+     * @param memoire La mémoire estimée de l'opération, en octets.
+     * @return true si l'opération peut démarrer.
+     */
+    private boolean peutDemarrer(int threads, long memoire) {
+        return tachesEnCours == 0
+               || threadsReserves + threads <= nombreThreadsMaximal
+                  && memoireReservee + memoire <= memoireMaximale;
+    }
+
+    /**
+     * Retourne le nombre maximal de threads des opérations en cours.
+     *
+     * @return Le nombre maximal de threads.
+     */
+    public int getNombreThreadsMaximal() {
+        return nombreThreadsMaximal;
+    }
+
+    /**
+     * Retourne le nombre de threads réservés par les opérations en cours.
+     *
+     * @return Le nombre de threads réservés.
+     */
+    public int getThreadsReserves() {
+        verrou.lock();
+        try {
+            return threadsReserves;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Retourne le nombre d'opérations en cours.
+     *
+     * @return Le nombre d'opérations en cours.
+     */
+    public int getTachesEnCours() {
+        verrou.lock();
+        try {
+            return tachesEnCours;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Retourne le nombre de demandes en attente.
+     *
+     * @return Le nombre de demandes en attente.
+     */
+    public int getTachesEnAttente() {
+        verrou.lock();
+        try {
+            return file.size();
+        } finally {
+            verrou.unlock();
+        }
+    }
+}
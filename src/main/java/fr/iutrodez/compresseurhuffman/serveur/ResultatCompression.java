@@ -0,0 +1,183 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * ResultatCompression.java                  18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.serveur;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Réponse du {@link ServeurCompression} à une {@link DemandeCompression}.
+ * <br>
+ * Un résultat est écrit sous la forme d'un octet valant 1 si l'opération
+ * a réussi, suivi de la taille du fichier lu, de celle du fichier écrit,
+ * de la durée d'attente et de la durée de l'opération (8 octets chacune),
+ * ou d'un octet valant 0 suivi du message d'erreur
+ * ({@link DataOutput#writeUTF}).
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class ResultatCompression {
+
+    /**
+     * Message d'erreur, null si l'opération a réussi.
+     */
+    private final String erreur;
+
+    /**
+     * Taille du fichier lu, en octets.
+     */
+    private final long tailleSource;
+
+    /**
+     * Taille du fichier écrit, en octets.
+     */
+    private final long tailleDestination;
+
+    /**
+     * Durée pendant laquelle la demande a attendu son tour,
+     * en nanosecondes.
+     */
+    private final long dureeAttente;
+
+    /**
+     * Durée de l'opération elle-même, en nanosecondes.
+     */
+    private final long dureeTraitement;
+
+    /**
+     * Construit le résultat d'une opération réussie.
+     *
+     * @param tailleSource La taille du fichier lu, en octets.
+     * @param tailleDestination La taille du fichier écrit, en octets.
+     * @param dureeAttente La durée d'attente, en nanosecondes.
+     * @param dureeTraitement La durée de l'opération, en nanosecondes.
+     */
+    public ResultatCompression(long tailleSource, long tailleDestination,
+                               long dureeAttente, long dureeTraitement) {
+        this(null, tailleSource, tailleDestination, dureeAttente,
+             dureeTraitement);
+    }
+
+    /**
+     * Construit le résultat d'une opération en échec.
+     *
+     * @param erreur Le message d'erreur.
+     */
+    public ResultatCompression(String erreur) {
+        this(erreur, 0, 0, 0, 0);
+    }
+
+    /**
+     * Construit un résultat.
+     *
+     * @param erreur Le message d'erreur, null si l'opération a réussi.
+     * @param tailleSource La taille du fichier lu, en octets.
+     * @param tailleDestination La taille du fichier écrit, en octets.
+     * @param dureeAttente La durée d'attente, en nanosecondes.
+     * @param dureeTraitement La durée de l'opération, en nanosecondes.
+     */
+    private ResultatCompression(String erreur, long tailleSource,
+                                long tailleDestination, long dureeAttente,
+                                long dureeTraitement) {
+        this.erreur = erreur;
+        this.tailleSource = tailleSource;
+        this.tailleDestination = tailleDestination;
+        this.dureeAttente = dureeAttente;
+        this.dureeTraitement = dureeTraitement;
+    }
+
+    /**
+     * Écrit le résultat dans un flux.
+     *
+     * @param sortie Le flux de destination.
+     * @throws IOException Si une erreur d'écriture se produit.
+     */
+    public void ecrire(DataOutput sortie) throws IOException {
+        sortie.writeBoolean(estReussi());
+        if (estReussi()) {
+            sortie.writeLong(tailleSource);
+            sortie.writeLong(tailleDestination);
+            sortie.writeLong(dureeAttente);
+            sortie.writeLong(dureeTraitement);
+        } else {
+            sortie.writeUTF(erreur);
+        }
+    }
+
+    /**
+     * Lit un résultat écrit par {@link #ecrire}.
+     *
+     * @param entree Le flux source.
+     * @return Le résultat lu.
+     * @throws IOException Si une erreur de lecture se produit.
+     */
+    public static ResultatCompression lire(DataInput entree)
+            throws IOException {
+        if (!entree.readBoolean()) {
+            return new ResultatCompression(entree.readUTF());
+        }
+        return new ResultatCompression(entree.readLong(), entree.readLong(),
+                                       entree.readLong(), entree.readLong());
+    }
+
+    /**
+     * Indique si l'opération a réussi.
+     *
+     * @return true si l'opération a réussi.
+     */
+    public boolean estReussi() {
+        return erreur == null;
+    }
+
+    /**
+     * Retourne le message d'erreur.
+     *
+     * @return Le message d'erreur, null si l'opération a réussi.
+     */
+    public String getErreur() {
+        return erreur;
+    }
+
+    /**
+     * Retourne la taille du fichier lu.
+     *
+     * @return La taille du fichier lu, en octets.
+     */
+    public long getTailleSource() {
+        return tailleSource;
+    }
+
+    /**
+     * Retourne la taille du fichier écrit.
+     *
+     * @return La taille du fichier écrit, en octets.
+     */
+    public long getTailleDestination() {
+        return tailleDestination;
+    }
+
+    /**
+     * Retourne la durée pendant laquelle la demande a attendu son tour.
+     *
+     * @return La durée d'attente, en nanosecondes.
+     */
+    public long getDureeAttente() {
+        return dureeAttente;
+    }
+
+    /**
+     * Retourne la durée de l'opération, attente exclue.
+     *
+     * @return La durée de l'opération, en nanosecondes.
+     */
+    public long getDureeTraitement() {
+        return dureeTraitement;
+    }
+}
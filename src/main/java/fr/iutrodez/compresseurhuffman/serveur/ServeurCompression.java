@@ -0,0 +1,331 @@
+/*
+ * Pas de copyright, ni de droit d'auteur.
+ * ServeurCompression.java                   18/10/2026
+ */
+package fr.iutrodez.compresseurhuffman.serveur;
+
+import fr.iutrodez.compresseurhuffman.huffman.CompressionHuffman;
+import fr.iutrodez.compresseurhuffman.huffman.DecompressionHuffman;
+import fr.iutrodez.compresseurhuffman.huffman.Dictionnaire;
+import fr.iutrodez.compresseurhuffman.huffman.EnteteArchive;
+import fr.iutrodez.compresseurhuffman.objets.ParametresCompression;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serveur de compression résidant en mémoire, qui traite les demandes
+ * de compression et de décompression reçues sur une socket locale
+ * (socket du domaine Unix). La machine virtuelle ne démarre qu'une fois
+ * et le code de compression reste compilé d'une demande à l'autre :
+ * un petit fichier est traité en quelques millisecondes.
+ * <br>
+ * Chaque connexion est servie par son propre thread virtuel, qui peut
+ * envoyer plusieurs demandes à la suite (voir {@link DemandeCompression}
+ * et {@link ResultatCompression}). Les demandes sont ordonnées par un
+ * {@link OrdonnanceurTaches}, qui fait passer les petits fichiers avant
+ * les gros et limite les threads des opérations simultanées et leur mémoire.
+ * <br>
+ * Les chemins reçus sont ceux du client : le serveur doit pouvoir lire
+ * et écrire les fichiers désignés. Les dictionnaires sont gardés en
+ * mémoire d'une demande à l'autre, et relus si leur fichier change.
+ *
+ * @author V. Munier--Genie
+ * @author R. Xaviertaborda
+ * @author J. Seychelles
+ * @author B. Thenieres
+ * @version 1.0
+ */
+public class ServeurCompression implements Closeable {
+
+    /**
+     * Taille des tampons des flux de chaque connexion.
+     */
+    private static final int TAILLE_TAMPON_CONNEXION = 8 * 1024;
+
+    /**
+     * Chemin de la socket.
+     */
+    private final Path cheminSocket;
+
+    /**
+     * Canal d'écoute de la socket.
+     */
+    private final ServerSocketChannel canal;
+
+    /**
+     * Ordonnanceur des demandes reçues.
+     */
+    private final OrdonnanceurTaches ordonnanceur;
+
+    /**
+     * Dictionnaires déjà chargés, selon le chemin absolu de leur fichier.
+     */
+    private final Map<Path, DictionnaireCharge> dictionnaires =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Dictionnaire chargé, avec la date de modification de son fichier
+     * au moment où il a été lu.
+     */
+    private static class DictionnaireCharge {
+
+        /** Date de modification du fichier lu. */
+        private final FileTime modification;
+
+        /** Dictionnaire lu. */
+        private final Dictionnaire dictionnaire;
+
+        /**
+         * Construit un dictionnaire chargé.
+         *
+         * @param modification La date de modification du fichier lu.
+         * @param dictionnaire Le dictionnaire lu.
+         */
+        DictionnaireCharge(FileTime modification, Dictionnaire dictionnaire) {
+            this.modification = modification;
+            this.dictionnaire = dictionnaire;
+        }
+    }
+
+    /**
+     * Crée la socket du serveur. Une socket laissée par un serveur
+     * arrêté est remplacée ; une socket sur laquelle un serveur écoute
+     * encore ne l'est pas.
+     *
+     * @param cheminSocket Le chemin de la socket.
+     * @param nombreThreads Le nombre maximal de threads des opérations
+     *                      en cours.
+     * @param memoireMaximale La mémoire maximale réservée par les
+     *                        opérations en cours, en octets.
+     * @throws IOException Si la socket ne peut pas être créée, ou si
+     *                     un serveur écoute déjà sur ce chemin.
+     * @throws IllegalArgumentException Si une limite est invalide.
+     */
+    public ServeurCompression(Path cheminSocket, int nombreThreads,
+                              long memoireMaximale) throws IOException {
+        this.ordonnanceur = new OrdonnanceurTaches(nombreThreads,
+                                                   memoireMaximale);
+        this.cheminSocket = cheminSocket;
+        if (Files.exists(cheminSocket)) {
+            if (estEnEcoute(cheminSocket)) {
+                throw new IOException("Un serveur écoute déjà sur "
+                                      + cheminSocket);
+            }
+            Files.delete(cheminSocket);
+        }
+        canal = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        canal.bind(UnixDomainSocketAddress.of(cheminSocket));
+    }
+
+    /**
+     * Indique si un serveur écoute sur une socket.
+     *
+     * @param cheminSocket Le chemin de la socket.
+     * @return true si une connexion à la socket réussit.
+     */
+    private static boolean estEnEcoute(Path cheminSocket) {
+        try {
+            SocketChannel.open(UnixDomainSocketAddress.of(cheminSocket))
+                         .close();
+            return true;
+        } catch (IOException erreur) {
+            return false;
+        }
+    }
+
+    /**
+     * Accepte les connexions jusqu'à la fermeture du serveur, en confiant
+     * chacune à un nouveau thread virtuel.
+     *
+     * @throws IOException Si une erreur se produit sur la socket d'écoute.
+     */
+    public void servir() throws IOException {
+        while (canal.isOpen()) {
+            SocketChannel connexion;
+            try {
+                connexion = canal.accept();
+            } catch (AsynchronousCloseException erreur) {
+                return;
+            }
+            Thread.ofVirtual().name("connexion-huffman")
+                  .start(() -> servirConnexion(connexion));
+        }
+    }
+
+    /**
+     * Traite les demandes d'une connexion, une à une, jusqu'à ce que
+     * le client la ferme.
+     *
+     * @param connexion La connexion du client.
+     */
+    private void servirConnexion(SocketChannel connexion) {
+        try (connexion;
+             DataInputStream entree = new DataInputStream(
+                     new BufferedInputStream(Channels.newInputStream(connexion),
+                                             TAILLE_TAMPON_CONNEXION));
+             DataOutputStream sortie = new DataOutputStream(
+                     new BufferedOutputStream(
+                             Channels.newOutputStream(connexion),
+                             TAILLE_TAMPON_CONNEXION))) {
+            while (true) {
+                DemandeCompression demande;
+                try {
+                    demande = DemandeCompression.lire(entree);
+                } catch (EOFException erreur) {
+                    return;
+                }
+                traiter(demande).ecrire(sortie);
+                sortie.flush();
+            }
+        } catch (IOException erreur) {
+            /*
+             * Demande invalide ou connexion coupée par le client :
+             * la connexion est abandonnée
+             */
+        }
+    }
+
+    /**
+     * Attend le tour d'une demande puis la traite. Ses threads sont
+     * limités au budget du serveur, et comptés avec sa mémoire par
+     * l'ordonnanceur.
+     *
+     * @param demande La demande à traiter.
+     * @return Le résultat de la demande, en échec si elle a échoué.
+     */
+    ResultatCompression traiter(DemandeCompression demande) {
+        long arrivee = System.nanoTime();
+        long[] debut = new long[1];
+        Path source = Path.of(demande.getSource());
+        demande.limiterThreads(ordonnanceur.getNombreThreadsMaximal());
+        try {
+            EnteteArchive entete = demande.estCompression()
+                                   ? null : lireEntete(source);
+            ordonnanceur.executer(Files.size(source),
+                                  demande.estimerThreads(entete),
+                                  demande.estimerMemoire(entete),
+                                  () -> {
+                                      debut[0] = System.nanoTime();
+                                      executer(demande);
+                                  });
+            return new ResultatCompression(
+                    Files.size(source),
+                    Files.size(Path.of(demande.getDestination())),
+                    debut[0] - arrivee, System.nanoTime() - debut[0]);
+        } catch (IOException | RuntimeException erreur) {
+            return new ResultatCompression(erreur.getClass().getSimpleName()
+                                           + " : " + erreur.getMessage());
+        } catch (InterruptedException erreur) {
+            Thread.currentThread().interrupt();
+            return new ResultatCompression("Serveur arrêté");
+        }
+    }
+
+    /**
+     * Lit l'en-tête d'un fichier à décompresser, pour estimer les threads
+     * et la mémoire de sa décompression.
+     *
+     * @param source Le fichier à décompresser.
+     * @return L'en-tête lu, ou null s'il est illisible : la décompression
+     *         signalera alors l'erreur.
+     */
+    private static EnteteArchive lireEntete(Path source) {
+        try (DataInputStream entree = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(source)))) {
+            return EnteteArchive.lire(entree);
+        } catch (IOException erreur) {
+            return null;
+        }
+    }
+
+    /**
+     * Compresse ou décompresse le fichier d'une demande, sans rien
+     * afficher. Le dossier du fichier écrit est créé si nécessaire.
+     *
+     * @param demande La demande à exécuter.
+     * @throws IOException Si une erreur d'entrée/sortie se produit.
+     */
+    private void executer(DemandeCompression demande) throws IOException {
+        Path dossier = Path.of(demande.getDestination()).toAbsolutePath()
+                           .getParent();
+        if (dossier != null) {
+            Files.createDirectories(dossier);
+        }
+        ParametresCompression parametres = demande.getParametres();
+        Dictionnaire dictionnaire = parametres.aUnDictionnaire()
+                                    ? chargerDictionnaire(Path.of(
+                                            parametres.getCheminDictionnaire()))
+                                    : null;
+        if (demande.estCompression()) {
+            CompressionHuffman compression = new CompressionHuffman(
+                    demande.getSource(), demande.getDestination(), parametres);
+            compression.setAffichage(false);
+            compression.setDictionnaire(dictionnaire);
+            compression.compresserFichier();
+        } else {
+            DecompressionHuffman decompression = new DecompressionHuffman(
+                    demande.getSource(), demande.getDestination(), parametres);
+            decompression.setDictionnaire(dictionnaire);
+            decompression.decompresserFichier();
+        }
+    }
+
+    /**
+     * Retourne un dictionnaire, lu dans son fichier lors de sa première
+     * utilisation ou si le fichier a été modifié depuis.
+     *
+     * @param chemin Le chemin du fichier dictionnaire.
+     * @return Le dictionnaire.
+     * @throws IOException Si le fichier ne peut pas être lu ou n'est pas
+     *                     un dictionnaire valide.
+     */
+    private Dictionnaire chargerDictionnaire(Path chemin) throws IOException {
+        Path absolu = chemin.toAbsolutePath().normalize();
+        FileTime modification = Files.getLastModifiedTime(absolu);
+        DictionnaireCharge charge = dictionnaires.get(absolu);
+        if (charge == null || !charge.modification.equals(modification)) {
+            charge = new DictionnaireCharge(modification,
+                                            Dictionnaire.lire(absolu));
+            dictionnaires.put(absolu, charge);
+        }
+        return charge.dictionnaire;
+    }
+
+    /**
+     * Retourne l'ordonnanceur des demandes.
+     *
+     * @return L'ordonnanceur des demandes.
+     */
+    public OrdonnanceurTaches getOrdonnanceur() {
+        return ordonnanceur;
+    }
+
+    /**
+     * Ferme la socket d'écoute et la supprime. Les demandes en cours
+     * se terminent normalement.
+     *
+     * @throws IOException Si la socket ne peut pas être supprimée.
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+        Files.deleteIfExists(cheminSocket);
+    }
+}
@@ -1,10 +1,15 @@
 package fr.iutrodez.compresseurhuffman.huffman;
 
+import fr.iutrodez.compresseurhuffman.objets.HistogrammeOctets;
 import fr.iutrodez.compresseurhuffman.objets.Noeud;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,22 +26,23 @@ class CompressionHuffmanTest {
     @Test
     void testGetFrequenceDesOctets() {
         byte[] octets = { 'a', 'b', 'a', 'a', 'b', 'c' };
-        Map<Byte, Integer> frequencies = compressionHuffmanTest.getFrequenceDesOctets(octets);
+        HistogrammeOctets frequencies = compressionHuffmanTest.getFrequenceDesOctets(octets);
 
-        assertEquals(3, frequencies.get((byte) 'a'));
-        assertEquals(2, frequencies.get((byte) 'b'));
-        assertEquals(1, frequencies.get((byte) 'c'));
+        assertEquals(3, frequencies.getOccurrences((byte) 'a'));
+        assertEquals(2, frequencies.getOccurrences((byte) 'b'));
+        assertEquals(1, frequencies.getOccurrences((byte) 'c'));
+        assertEquals(0, frequencies.getOccurrences((byte) 'd'));
     }
 
     @Test
     void testConstruireArbreAvecOccurences() {
-        Map<Byte, Integer> occurrences = new HashMap<>();
-        occurrences.put((byte) 'a', 5);
-        occurrences.put((byte) 'b', 9);
-        occurrences.put((byte) 'c', 12);
-        occurrences.put((byte) 'd', 13);
-        occurrences.put((byte) 'e', 16);
-        occurrences.put((byte) 'f', 45);
+        HistogrammeOctets occurrences = new HistogrammeOctets();
+        occurrences.ajouterOccurrences((byte) 'a', 5);
+        occurrences.ajouterOccurrences((byte) 'b', 9);
+        occurrences.ajouterOccurrences((byte) 'c', 12);
+        occurrences.ajouterOccurrences((byte) 'd', 13);
+        occurrences.ajouterOccurrences((byte) 'e', 16);
+        occurrences.ajouterOccurrences((byte) 'f', 45);
 
         Noeud root = compressionHuffmanTest.construireArbreAvecOccurences(occurrences);
 
@@ -46,17 +52,37 @@ class CompressionHuffmanTest {
 
     @Test
     void testGenererCodesHuffman() {
-        Map<Byte, Integer> occurrences = new HashMap<>();
-        occurrences.put((byte) 'a', 5);
-        occurrences.put((byte) 'b', 9);
-        occurrences.put((byte) 'c', 12);
-        occurrences.put((byte) 'd', 13);
-        occurrences.put((byte) 'e', 16);
-        occurrences.put((byte) 'f', 45);
+        HistogrammeOctets occurrences = new HistogrammeOctets();
+        occurrences.ajouterOccurrences((byte) 'a', 5);
+        occurrences.ajouterOccurrences((byte) 'b', 9);
+        occurrences.ajouterOccurrences((byte) 'c', 12);
+        occurrences.ajouterOccurrences((byte) 'd', 13);
+        occurrences.ajouterOccurrences((byte) 'e', 16);
+        occurrences.ajouterOccurrences((byte) 'f', 45);
 
         Map<Byte, String> codes = compressionHuffmanTest.genererCodesHuffman(occurrences);
 
         assertNotNull(codes);
         assertFalse(codes.isEmpty());
     }
+
+    @Test
+    void fichierModifieEntreLesDeuxPasses(@TempDir Path dossier) throws IOException {
+        Path source = dossier.resolve("source.txt");
+        Path archive = dossier.resolve("archive.bin");
+        // Fichier agrandi, puis fichier de même taille avec un octet non compté
+        for (String modifie : new String[] { "aaaabbbbzzzz", "aaaabbbz" }) {
+            Files.writeString(source, "aaaabbbb");
+            HistogrammeOctets occurences = compressionHuffmanTest.getFrequenceDesOctets(
+                    Files.readAllBytes(source));
+            Files.writeString(source, modifie);
+
+            CompressionHuffman compression = new CompressionHuffman(
+                    source.toString(), archive.toString());
+            compression.setAffichage(false);
+            IOException erreur = assertThrows(IOException.class,
+                                              () -> compression.compresserFichier(occurences));
+            assertTrue(erreur.getMessage().contains("a changé de taille"), modifie);
+        }
+    }
 }
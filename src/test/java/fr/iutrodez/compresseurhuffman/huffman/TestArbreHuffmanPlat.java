@@ -0,0 +1,98 @@
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestArbreHuffmanPlat {
+
+    /** Coût (somme des fréquences pondérées par la longueur des codes). */
+    private static long cout(long[] frequences, int[] longueurs) {
+        long cout = 0;
+        for (int i = 0; i < frequences.length; i++) {
+            cout += frequences[i] * longueurs[i];
+        }
+        return cout;
+    }
+
+    /** Coût optimal calculé avec une file de priorité classique. */
+    private static long coutReference(long[] frequences) {
+        PriorityQueue<Long> file = new PriorityQueue<>();
+        for (long frequence : frequences) {
+            if (frequence > 0) {
+                file.add(frequence);
+            }
+        }
+        long cout = 0;
+        while (file.size() > 1) {
+            long fusion = file.poll() + file.poll();
+            cout += fusion;
+            file.add(fusion);
+        }
+        return cout;
+    }
+
+    @Test
+    void longueursOptimales() {
+        long[] frequences = new long[256];
+        frequences['a'] = 5;
+        frequences['b'] = 9;
+        frequences['c'] = 12;
+        frequences['d'] = 13;
+        frequences['e'] = 16;
+        frequences['f'] = 45;
+
+        ArbreHuffmanPlat arbre = new ArbreHuffmanPlat(frequences);
+        int[] longueurs = arbre.calculerLongueursCodes();
+
+        assertEquals(224, cout(frequences, longueurs));
+        assertEquals(1, longueurs['f']);
+        assertEquals(0, longueurs['g']);
+        assertEquals(100, arbre.getPoidsTotal());
+    }
+
+    @Test
+    void grandAlphabetOptimalEtComplet() {
+        long[] frequences = new long[1_000_000];
+        Random aleatoire = new Random(3);
+        for (int i = 0; i < frequences.length; i++) {
+            frequences[i] = 1 + aleatoire.nextInt(1_000_000);
+        }
+
+        int[] longueurs = new ArbreHuffmanPlat(frequences).calculerLongueursCodes();
+
+        assertEquals(coutReference(frequences), cout(frequences, longueurs));
+
+        // Inégalité de Kraft : un code complet vérifie l'égalité
+        int longueurMax = 0;
+        for (int longueur : longueurs) {
+            longueurMax = Math.max(longueurMax, longueur);
+        }
+        long somme = 0;
+        for (int longueur : longueurs) {
+            somme += 1L << (longueurMax - longueur);
+        }
+        assertEquals(1L << longueurMax, somme);
+    }
+
+    @Test
+    void symboleUnique() {
+        long[] frequences = new long[256];
+        frequences['x'] = 10;
+        ArbreHuffmanPlat arbre = new ArbreHuffmanPlat(frequences);
+
+        assertEquals(1, arbre.calculerLongueursCodes()['x']);
+        assertTrue(arbre.versNoeud().isFeuille());
+    }
+
+    @Test
+    void alphabetVide() {
+        ArbreHuffmanPlat arbre = new ArbreHuffmanPlat(new long[256]);
+
+        assertEquals(0, arbre.getNombreFeuilles());
+        assertNull(arbre.versNoeud());
+    }
+}
@@ -0,0 +1,124 @@
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.objets.HistogrammeOctets;
+import fr.iutrodez.compresseurhuffman.objets.ParametresCompression;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestCodecAdaptatif {
+
+    @TempDir
+    Path dossier;
+
+    /** Compresse un tableau d'octets en flux. */
+    private static byte[] compresser(byte[] contenu) throws IOException {
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        HistogrammeOctets occurences = CodecAdaptatif.compresser(
+                new ByteArrayInputStream(contenu), sortie);
+        assertEquals(contenu.length, occurences.getTotal());
+        return sortie.toByteArray();
+    }
+
+    /** Décompresse un flux compressé, quel que soit son codage. */
+    private static byte[] decompresser(byte[] archive) throws IOException {
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        DecompressionHuffman.decompresserFlux(new ByteArrayInputStream(archive),
+                                              sortie);
+        return sortie.toByteArray();
+    }
+
+    /** Texte dont la répartition des octets change au fil du flux. */
+    private static byte[] texteVariable(int taille) {
+        Random aleatoire = new Random(3);
+        byte[] texte = new byte[taille];
+        for (int i = 0; i < taille; i++) {
+            int alphabet = 2 + (i / 5000) % 60;
+            texte[i] = (byte) ('!' + aleatoire.nextInt(alphabet));
+        }
+        return texte;
+    }
+
+    @Test
+    void allerRetour() throws IOException {
+        byte[] aleatoires = new byte[100_000];
+        new Random(9).nextBytes(aleatoires);
+        byte[] repetes = new byte[70_000];
+        Arrays.fill(repetes, (byte) 'a');
+
+        for (byte[] contenu : new byte[][] { new byte[0], { 42 }, { 0, (byte) 255 },
+                                             aleatoires, repetes, texteVariable(200_000) }) {
+            assertArrayEquals(contenu, decompresser(compresser(contenu)));
+        }
+    }
+
+    @Test
+    void tauxProcheDuCodageStatique() throws IOException {
+        byte[] texte = texteVariable(200_000);
+        byte[] archive = compresser(texte);
+        // 2 à 61 symboles équiprobables : au plus 6 bits par octet
+        assertTrue(archive.length < texte.length * 6 / 8);
+        // Octets aléatoires : moins de 1 % de surcoût
+        byte[] aleatoires = new byte[100_000];
+        new Random(1).nextBytes(aleatoires);
+        assertTrue(compresser(aleatoires).length < aleatoires.length * 101 / 100);
+    }
+
+    @Test
+    void donneesTronqueesOuCorrompues() throws IOException {
+        byte[] archive = compresser(texteVariable(10_000));
+        for (int longueur : new int[] { 5, 6, archive.length / 2, archive.length - 1 }) {
+            assertThrows(IOException.class,
+                         () -> decompresser(Arrays.copyOf(archive, longueur)));
+        }
+        // Premier littéral hors de l'alphabet (511)
+        byte[] corrompu = Arrays.copyOf(compresser(new byte[0]), 10);
+        Arrays.fill(corrompu, 6, 10, (byte) 0xFF);
+        assertThrows(IOException.class, () -> decompresser(corrompu));
+    }
+
+    @Test
+    void compresserFichierAdaptatif() throws IOException {
+        byte[] contenu = texteVariable(50_000);
+        Path source = dossier.resolve("source.txt");
+        Path archive = dossier.resolve("archive.bin");
+        Path resultat = dossier.resolve("resultat.txt");
+        Files.write(source, contenu);
+
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setAdaptatif(true);
+        new CompressionHuffman(source.toString(), archive.toString(), parametres)
+                .compresserFichier();
+        assertTrue(EnteteArchive.lire(new DataInputStream(
+                Files.newInputStream(archive))).estAdaptatif());
+        new DecompressionHuffman(archive.toString(), resultat.toString())
+                .decompresserFichier();
+
+        assertArrayEquals(contenu, Files.readAllBytes(resultat));
+    }
+
+    @Test
+    void decompresserFluxStatique() throws IOException {
+        byte[] contenu = texteVariable(30_000);
+        Path source = dossier.resolve("source.txt");
+        Path archive = dossier.resolve("archive.bin");
+        Files.write(source, contenu);
+
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setTailleBloc(4_000);
+        new CompressionHuffman(source.toString(), archive.toString(), parametres)
+                .compresserFichier();
+        // L'index des blocs est ignoré par la lecture séquentielle
+        assertArrayEquals(contenu, decompresser(Files.readAllBytes(archive)));
+    }
+}
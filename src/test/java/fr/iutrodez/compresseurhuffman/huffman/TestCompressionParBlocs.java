@@ -0,0 +1,280 @@
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.objets.HistogrammeOctets;
+import fr.iutrodez.compresseurhuffman.objets.ParametresCompression;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestCompressionParBlocs {
+
+    @TempDir
+    Path dossier;
+
+    /** Compresse puis décompresse un fichier et vérifie le résultat. */
+    private void verifierAllerRetour(byte[] contenu, int tailleBloc, int nombreThreads)
+            throws IOException {
+        Path source = dossier.resolve("source.txt");
+        Path archive = dossier.resolve("archive.bin");
+        Path resultat = dossier.resolve("resultat.txt");
+        Files.write(source, contenu);
+
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setTailleBloc(tailleBloc);
+        parametres.setNombreThreads(nombreThreads);
+        new CompressionHuffman(source.toString(), archive.toString(), parametres)
+                .compresserFichier();
+        new DecompressionHuffman(archive.toString(), resultat.toString(), parametres)
+                .decompresserFichier();
+
+        assertArrayEquals(contenu, Files.readAllBytes(resultat));
+    }
+
+    /** Texte dont la répartition des octets change d'un bloc à l'autre. */
+    private static byte[] texteVariable(int taille) {
+        Random aleatoire = new Random(5);
+        byte[] texte = new byte[taille];
+        for (int i = 0; i < taille; i++) {
+            int alphabet = 2 + (i / 1000) % 40;
+            texte[i] = (byte) ('!' + aleatoire.nextInt(alphabet));
+        }
+        return texte;
+    }
+
+    @Test
+    void compresserPlusieursBlocsEnParallele() throws IOException {
+        verifierAllerRetour(texteVariable(25_500), 1_000, 4);
+    }
+
+    @Test
+    void compresserAvecUnSeulThread() throws IOException {
+        verifierAllerRetour(texteVariable(10_000), 3_000, 1);
+    }
+
+    @Test
+    void compresserFichierVideOuPlusPetitQuUnBloc() throws IOException {
+        verifierAllerRetour(new byte[0], 1_000, 2);
+        verifierAllerRetour("a".getBytes(), 1_000, 2);
+    }
+
+    @Test
+    void blocsIndependants() throws IOException {
+        Path source = dossier.resolve("source.txt");
+        Path archive = dossier.resolve("archive.bin");
+        // Deux blocs d'alphabets disjoints : chacun n'a que ses propres codes
+        Files.write(source, ("a".repeat(100) + "b".repeat(100)).getBytes());
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setTailleBloc(100);
+
+        HistogrammeOctets occurences = CompressionParBlocs.compresser(
+                source.toString(), archive.toString(), parametres, new BilanCodes());
+
+        assertEquals(200, occurences.getTotal());
+        try (DataInputStream entree = new DataInputStream(Files.newInputStream(archive))) {
+            EnteteArchive entete = EnteteArchive.lire(entree);
+            assertEquals(2, entete.getNombreBlocs());
+            EnteteBloc premier = EnteteBloc.lire(entree);
+            assertEquals(1, premier.getTable().getNombreSymboles());
+            assertEquals(1, premier.getTable().getLongueur('a'));
+            entree.skipNBytes(premier.getTailleDonnees());
+            EnteteBloc second = EnteteBloc.lire(entree);
+            assertEquals(0, second.getTable().getLongueur('a'));
+            assertEquals(1, second.getTable().getLongueur('b'));
+        }
+    }
+
+    @Test
+    void indexDesBlocs() throws IOException {
+        Path source = dossier.resolve("source.txt");
+        Path archive = dossier.resolve("archive.bin");
+        Files.write(source, texteVariable(2_500));
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setTailleBloc(1_000);
+        CompressionParBlocs.compresser(source.toString(), archive.toString(),
+                                       parametres, new BilanCodes());
+
+        try (FileChannel canal = FileChannel.open(archive)) {
+            IndexBlocs index = IndexBlocs.lire(canal, 3);
+            assertEquals(3, index.getNombreBlocs());
+            assertEquals(1_000, index.getTailleOriginale(0));
+            assertEquals(500, index.getTailleOriginale(2));
+            // Le premier bloc suit immédiatement l'en-tête de l'archive
+            assertEquals(18, index.getPosition(0));
+            assertEquals(index.getPosition(1),
+                         index.getPosition(0) + index.getTailleCompressee(0));
+            assertThrows(IOException.class, () -> IndexBlocs.lire(canal, 4));
+        }
+    }
+
+    @Test
+    void decompresserSansIndex() throws IOException {
+        Path source = dossier.resolve("source.txt");
+        Path archive = dossier.resolve("archive.bin");
+        Path resultat = dossier.resolve("resultat.txt");
+        byte[] contenu = texteVariable(5_000);
+        Files.write(source, contenu);
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setTailleBloc(1_000);
+        CompressionParBlocs.compresser(source.toString(), archive.toString(),
+                                       parametres, new BilanCodes());
+
+        // Sans l'option d'index, les blocs sont lus un à un et l'index ignoré
+        byte[] octets = Files.readAllBytes(archive);
+        octets[5] = EnteteArchive.OPTION_BLOCS;
+        Files.write(archive, octets);
+        new DecompressionHuffman(archive.toString(), resultat.toString())
+                .decompresserFichier();
+
+        assertArrayEquals(contenu, Files.readAllBytes(resultat));
+    }
+
+    @Test
+    void decompresserIndexCorrompu() throws IOException {
+        Path source = dossier.resolve("source.txt");
+        Path archive = dossier.resolve("archive.bin");
+        Path resultat = dossier.resolve("resultat.txt");
+        Files.write(source, texteVariable(5_000));
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setTailleBloc(1_000);
+        CompressionParBlocs.compresser(source.toString(), archive.toString(),
+                                       parametres, new BilanCodes());
+
+        byte[] octets = Files.readAllBytes(archive);
+        Files.write(archive, Arrays.copyOf(octets, octets.length - 1));
+        DecompressionHuffman tronque =
+                new DecompressionHuffman(archive.toString(), resultat.toString());
+        assertThrows(IOException.class, tronque::decompresserFichier);
+
+        // Taille d'origine du dernier bloc modifiée dans l'index
+        octets[octets.length - 13] ^= 1;
+        Files.write(archive, octets);
+        DecompressionHuffman corrompu =
+                new DecompressionHuffman(archive.toString(), resultat.toString());
+        assertThrows(IOException.class, corrompu::decompresserFichier);
+    }
+
+    /** Sections successives d'alphabets différents, chacune de 4 portions. */
+    private static byte[] sectionsDistinctes(int nombreSections) {
+        Random aleatoire = new Random(8);
+        int tailleSection = 4 * DecoupeurBlocs.TAILLE_PORTION;
+        byte[] texte = new byte[nombreSections * tailleSection];
+        for (int i = 0; i < texte.length; i++) {
+            int section = i / tailleSection;
+            texte[i] = (byte) ((section % 2 == 0 ? 'a' : '0') + aleatoire.nextInt(10));
+        }
+        return texte;
+    }
+
+    @Test
+    void decoupageVariableAllerRetour() throws IOException {
+        Path source = dossier.resolve("source.txt");
+        Path archive = dossier.resolve("archive.bin");
+        Path resultat = dossier.resolve("resultat.txt");
+        byte[] contenu = sectionsDistinctes(3);
+        Files.write(source, contenu);
+
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setDecoupageVariable(true);
+        assertEquals(ParametresCompression.TAILLE_BLOC_DEFAUT, parametres.getTailleBloc());
+        BilanCodes bilan = new BilanCodes();
+        CompressionParBlocs.compresser(source.toString(), archive.toString(),
+                                       parametres, bilan);
+        // Une coupure à chaque changement d'alphabet ; seule la table du bloc
+        // précédent peut être réutilisée, pas celle de la première section
+        assertEquals(3, bilan.getNombreBlocs());
+        assertEquals(0, bilan.getNombreTablesReutilisees());
+
+        try (FileChannel canal = FileChannel.open(archive)) {
+            IndexBlocs index = IndexBlocs.lire(canal, -1);
+            assertEquals(3, index.getNombreBlocs());
+            assertEquals(4 * DecoupeurBlocs.TAILLE_PORTION, index.getTailleOriginale(0));
+        }
+        for (int nombreThreads : new int[] { 1, 3 }) {
+            parametres.setNombreThreads(nombreThreads);
+            new DecompressionHuffman(archive.toString(), resultat.toString(), parametres)
+                    .decompresserFichier();
+            assertArrayEquals(contenu, Files.readAllBytes(resultat));
+        }
+        // Lecture séquentielle, sans l'index
+        byte[] octets = Files.readAllBytes(archive);
+        octets[5] &= ~EnteteArchive.OPTION_INDEX;
+        Files.write(archive, octets);
+        new DecompressionHuffman(archive.toString(), resultat.toString())
+                .decompresserFichier();
+        assertArrayEquals(contenu, Files.readAllBytes(resultat));
+    }
+
+    @Test
+    void decoupageVariableReutiliseLaTable() throws IOException {
+        // Répartition stable sur 60 symboles : chaque table coûte plus de 100 octets
+        Random aleatoire = new Random(4);
+        byte[] contenu = new byte[300_000];
+        for (int i = 0; i < contenu.length; i++) {
+            contenu[i] = (byte) ('A' + aleatoire.nextInt(60));
+        }
+        Path source = dossier.resolve("source.txt");
+        Path archive = dossier.resolve("archive.bin");
+        Files.write(source, contenu);
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setTailleBloc(20_000);
+        parametres.setDecoupageVariable(true);
+        BilanCodes bilan = new BilanCodes();
+        CompressionParBlocs.compresser(source.toString(), archive.toString(),
+                                       parametres, bilan);
+
+        // Blocs limités à 20 000 octets, qui se partagent presque tous une table
+        assertEquals(15, bilan.getNombreBlocs());
+        assertTrue(bilan.getNombreTablesReutilisees() >= 10);
+        parametres.setDecoupageVariable(false);
+        Path fixe = dossier.resolve("fixe.bin");
+        CompressionParBlocs.compresser(source.toString(), fixe.toString(),
+                                       parametres, new BilanCodes());
+        assertTrue(Files.size(archive) < Files.size(fixe));
+        verifierAllerRetour(contenu, 20_000, 2);
+
+        Path resultat = dossier.resolve("resultat.txt");
+        new DecompressionHuffman(archive.toString(), resultat.toString(), parametres)
+                .decompresserFichier();
+        assertArrayEquals(contenu, Files.readAllBytes(resultat));
+    }
+
+    @Test
+    void tableReutiliseeSansBlocPrecedent() throws IOException {
+        Path source = dossier.resolve("source.txt");
+        Path archive = dossier.resolve("archive.bin");
+        Path resultat = dossier.resolve("resultat.txt");
+        Files.write(source, texteVariable(5_000));
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setDecoupageVariable(true);
+        CompressionParBlocs.compresser(source.toString(), archive.toString(),
+                                       parametres, new BilanCodes());
+
+        // En-tête de 18 octets, puis taille (4) et nombre de bits (8) du bloc
+        byte[] octets = Files.readAllBytes(archive);
+        assertEquals(0, octets[18 + 12]);
+        octets[18 + 12] = 1;
+        Files.write(archive, octets);
+        DecompressionHuffman corrompu =
+                new DecompressionHuffman(archive.toString(), resultat.toString());
+        assertThrows(IOException.class, corrompu::decompresserFichier);
+    }
+
+    @Test
+    void parametresInvalides() {
+        ParametresCompression parametres = new ParametresCompression();
+        assertFalse(parametres.estParBlocs());
+        assertThrows(IllegalArgumentException.class, () -> parametres.setTailleBloc(-1));
+        assertThrows(IllegalArgumentException.class,
+                     () -> parametres.setTailleBloc(ParametresCompression.TAILLE_BLOC_MAXIMALE + 1));
+        assertThrows(IllegalArgumentException.class, () -> parametres.setNombreThreads(0));
+    }
+}
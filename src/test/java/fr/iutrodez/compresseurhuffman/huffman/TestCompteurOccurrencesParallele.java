@@ -0,0 +1,47 @@
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.objets.HistogrammeOctets;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestCompteurOccurrencesParallele {
+
+    @TempDir
+    Path dossierTemporaire;
+
+    @Test
+    void compterIdentiqueAuComptageSequentiel() throws IOException {
+        byte[] octets = new byte[100_003];
+        new Random(7).nextBytes(octets);
+        Path fichier = dossierTemporaire.resolve("aleatoire.bin");
+        Files.write(fichier, octets);
+
+        HistogrammeOctets attendu = new CompressionHuffman("", "")
+                .getFrequenceDesOctets(octets);
+        // Segments volontairement petits pour forcer de nombreuses tâches
+        HistogrammeOctets obtenu =
+                CompteurOccurrencesParallele.compter(fichier.toString(), 1000);
+
+        assertArrayEquals(attendu.versTableau(), obtenu.versTableau());
+        assertEquals(octets.length, obtenu.getTotal());
+    }
+
+    @Test
+    void compterFichierVide() throws IOException {
+        Path fichier = dossierTemporaire.resolve("vide.txt");
+        Files.write(fichier, new byte[0]);
+
+        HistogrammeOctets obtenu =
+                CompteurOccurrencesParallele.compter(fichier.toString());
+
+        assertEquals(0, obtenu.getTotal());
+        assertEquals(0, obtenu.getNombreSymboles());
+    }
+}
@@ -0,0 +1,77 @@
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestDecodeurHuffman {
+
+    /**
+     * Vérifie que chaque symbole de la table est décodé depuis son code,
+     * suivi de bits quelconques.
+     */
+    private static void verifierTousLesSymboles(TableCodesCanonique table) {
+        DecodeurHuffman decodeur = new DecodeurHuffman(table);
+        for (int symbole = 0; symbole < table.getTailleAlphabet(); symbole++) {
+            int longueur = table.getLongueur(symbole);
+            if (longueur == 0) {
+                continue;
+            }
+            long suite = 0x5A5A5A5A5A5A5A5AL >>> longueur;
+            long fenetre = table.getCode(symbole) << (Long.SIZE - longueur)
+                           | suite;
+
+            int entree = decodeur.decoder(fenetre);
+
+            assertEquals(symbole, DecodeurHuffman.symbole(entree));
+            assertEquals(longueur, DecodeurHuffman.longueur(entree));
+        }
+    }
+
+    @Test
+    void codesCourts() {
+        int[] longueurs = new int[256];
+        longueurs['a'] = 1;
+        longueurs['b'] = 2;
+        longueurs['c'] = 3;
+        longueurs['d'] = 3;
+
+        verifierTousLesSymboles(new TableCodesCanonique(longueurs));
+    }
+
+    @Test
+    void codesLongsDansLesTablesSecondaires() {
+        // Répartition de Fibonacci : un code de chaque longueur jusqu'à 20
+        int[] longueurs = new int[256];
+        for (int symbole = 0; symbole < 20; symbole++) {
+            longueurs[symbole] = symbole + 1;
+        }
+        longueurs[20] = 20;
+
+        verifierTousLesSymboles(new TableCodesCanonique(longueurs));
+    }
+
+    @Test
+    void codesTresLongsDecodesParComparaison() {
+        // Les codes de 30 bits et plus dépassent la taille des tables secondaires
+        int[] longueurs = new int[256];
+        for (int symbole = 0; symbole < 40; symbole++) {
+            longueurs[symbole] = symbole + 1;
+        }
+        longueurs[40] = 40;
+
+        verifierTousLesSymboles(new TableCodesCanonique(longueurs));
+    }
+
+    @Test
+    void fenetreSansCode() {
+        int[] longueurs = new int[256];
+        longueurs['a'] = 1;
+
+        DecodeurHuffman decodeur = new DecodeurHuffman(
+                new TableCodesCanonique(longueurs));
+
+        assertEquals('a', DecodeurHuffman.symbole(decodeur.decoder(0L)));
+        assertEquals(0, decodeur.decoder(-1L));
+    }
+}
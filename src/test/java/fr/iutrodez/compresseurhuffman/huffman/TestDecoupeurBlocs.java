@@ -0,0 +1,97 @@
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestDecoupeurBlocs {
+
+    private static final int PORTION = DecoupeurBlocs.TAILLE_PORTION;
+
+    /** Tailles des blocs obtenus en découpant un tableau d'octets. */
+    private static List<Integer> decouper(byte[] contenu, int tailleMaximale)
+            throws IOException {
+        DecoupeurBlocs decoupeur = new DecoupeurBlocs(
+                Channels.newChannel(new ByteArrayInputStream(contenu)), tailleMaximale);
+        List<Integer> tailles = new ArrayList<>();
+        int position = 0;
+        while (decoupeur.avancer()) {
+            for (int i = 0; i < decoupeur.getLongueur(); i++) {
+                assertEquals(contenu[position + i], decoupeur.getOctets()[i]);
+            }
+            assertEquals(decoupeur.getLongueur(), decoupeur.getOccurrences().getTotal());
+            position += decoupeur.getLongueur();
+            tailles.add(decoupeur.getLongueur());
+        }
+        assertEquals(contenu.length, position);
+        return tailles;
+    }
+
+    /** Octets tirés parmi un alphabet de la taille donnée. */
+    private static byte[] aleatoires(int taille, char premier, int alphabet, long graine) {
+        Random aleatoire = new Random(graine);
+        byte[] octets = new byte[taille];
+        for (int i = 0; i < taille; i++) {
+            octets[i] = (byte) (premier + aleatoire.nextInt(alphabet));
+        }
+        return octets;
+    }
+
+    @Test
+    void coupureAuChangementDeRepartition() throws IOException {
+        byte[] contenu = new byte[5 * PORTION + 100];
+        System.arraycopy(aleatoires(3 * PORTION, 'a', 20, 1), 0, contenu, 0, 3 * PORTION);
+        System.arraycopy(aleatoires(2 * PORTION + 100, '0', 10, 2), 0, contenu,
+                         3 * PORTION, 2 * PORTION + 100);
+
+        assertEquals(List.of(3 * PORTION, 2 * PORTION + 100), decouper(contenu, 1 << 20));
+    }
+
+    @Test
+    void repartitionStableDecoupeeALaTailleMaximale() throws IOException {
+        byte[] contenu = aleatoires(10 * PORTION, 'a', 26, 3);
+        assertEquals(List.of(4 * PORTION, 4 * PORTION, 2 * PORTION),
+                     decouper(contenu, 4 * PORTION));
+        // Taille maximale plus petite qu'une portion
+        assertEquals(List.of(1000, 1000, 500), decouper(new byte[2500], 1000));
+        assertEquals(List.of(), decouper(new byte[0], 1000));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new DecoupeurBlocs(Channels.newChannel(
+                             new ByteArrayInputStream(new byte[0])), 0));
+    }
+
+    @Test
+    void modeleDeCout() {
+        long[] uniformes = new long[256];
+        uniformes['a'] = 1000;
+        uniformes['b'] = 1000;
+        assertEquals(2000, ModeleCoutBlocs.coutEntropique(uniformes), 1e-6);
+        assertEquals(0, ModeleCoutBlocs.coutEntropique(new long[256]));
+
+        long[] autres = new long[256];
+        autres['x'] = 1000;
+        autres['y'] = 1000;
+        assertTrue(ModeleCoutBlocs.doitCouper(uniformes, autres));
+        assertFalse(ModeleCoutBlocs.doitCouper(uniformes, uniformes));
+
+        int[] longueurs = new int[256];
+        longueurs['a'] = 1;
+        longueurs['b'] = 1;
+        TableCodesCanonique table = new TableCodesCanonique(longueurs);
+        assertEquals(2000, ModeleCoutBlocs.coutAvecTable(uniformes, table));
+        assertEquals(-1, ModeleCoutBlocs.coutAvecTable(autres, table));
+        assertTrue(ModeleCoutBlocs.reutiliserTable(uniformes, table, table));
+        // Un octet sans code dans l'ancienne table interdit sa réutilisation
+        assertFalse(ModeleCoutBlocs.reutiliserTable(autres, table, table));
+        assertFalse(ModeleCoutBlocs.reutiliserTable(uniformes, null, table));
+        assertEquals(table.getTailleEcrite() * Byte.SIZE,
+                     ModeleCoutBlocs.estimerCoutTable(uniformes));
+    }
+}
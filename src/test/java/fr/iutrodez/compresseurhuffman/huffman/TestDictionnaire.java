@@ -0,0 +1,202 @@
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.objets.HistogrammeOctets;
+import fr.iutrodez.compresseurhuffman.objets.ParametresCompression;
+import fr.iutrodez.compresseurhuffman.outils.GenerateurCorpus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestDictionnaire {
+
+    @TempDir
+    Path dossier;
+
+    /**
+     * Écrit un corpus de petits fichiers de configuration semblables
+     * et entraîne un dictionnaire sur ce corpus.
+     *
+     * @return Le chemin du dictionnaire enregistré.
+     */
+    private Path entrainerSurConfigurations() throws IOException {
+        Path corpus = dossier.resolve("corpus");
+        Files.createDirectories(corpus);
+        for (int i = 0; i < 20; i++) {
+            Files.writeString(corpus.resolve("service" + i + ".conf"),
+                              configuration(i));
+        }
+        Path chemin = dossier.resolve("configurations.dico");
+        Dictionnaire.entrainer(TraitementLot.listerFichiers(corpus.toString()))
+                    .ecrire(chemin);
+        return chemin;
+    }
+
+    private static String configuration(int numero) {
+        return "# Service " + numero + "\n"
+               + "nom = service-" + numero + "\n"
+               + "port = " + (8000 + numero) + "\n"
+               + "journal = /var/log/service-" + numero + ".log\n"
+               + "actif = " + (numero % 2 == 0) + "\n";
+    }
+
+    private Path compresser(Path source, ParametresCompression parametres)
+            throws IOException {
+        return compresser(source, source.getFileName() + ".bin", parametres);
+    }
+
+    private Path compresser(Path source, String nomArchive,
+                            ParametresCompression parametres)
+            throws IOException {
+        Path archive = dossier.resolve(nomArchive);
+        CompressionHuffman compression = new CompressionHuffman(
+                source.toString(), archive.toString(), parametres);
+        compression.setAffichage(false);
+        compression.compresserFichier();
+        return archive;
+    }
+
+    private byte[] decompresser(Path archive, ParametresCompression parametres)
+            throws IOException {
+        Path restitue = dossier.resolve(archive.getFileName() + ".txt");
+        new DecompressionHuffman(archive.toString(), restitue.toString(),
+                                 parametres).decompresserFichier();
+        return Files.readAllBytes(restitue);
+    }
+
+    @Test
+    void allerRetourSansTable() throws IOException {
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setCheminDictionnaire(entrainerSurConfigurations().toString());
+        Path source = dossier.resolve("service42.conf");
+        Files.writeString(source, configuration(42));
+
+        Path sansDictionnaire = compresser(source, "sans-dictionnaire.bin",
+                                           new ParametresCompression());
+        Path archive = compresser(source, parametres);
+
+        assertArrayEquals(Files.readAllBytes(source),
+                          decompresser(archive, parametres));
+        // Ni table ni nombre de bits : l'archive est plus petite
+        assertTrue(Files.size(archive) < Files.size(sansDictionnaire));
+        assertTrue(Files.size(archive) < Files.size(source));
+    }
+
+    @Test
+    void octetsAbsentsDuCorpus() throws IOException {
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setCheminDictionnaire(entrainerSurConfigurations().toString());
+        Path source = dossier.resolve("binaire.dat");
+        Files.write(source, new GenerateurCorpus(GenerateurCorpus.UNIFORME, 3)
+                .generer(200_000));
+
+        Path archive = compresser(source, parametres);
+
+        assertArrayEquals(Files.readAllBytes(source),
+                          decompresser(archive, parametres));
+    }
+
+    @Test
+    void fichierVideEtCorpusVide() throws IOException {
+        Dictionnaire vide = Dictionnaire.entrainer(new HistogrammeOctets());
+        assertEquals(0, vide.getNombreOctetsCodes());
+        Path chemin = dossier.resolve("vide.dico");
+        vide.ecrire(chemin);
+
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setCheminDictionnaire(chemin.toString());
+        Path fichierVide = dossier.resolve("vide.txt");
+        Files.write(fichierVide, new byte[0]);
+        Path texte = dossier.resolve("texte.txt");
+        Files.writeString(texte, "abracadabra");
+
+        assertEquals(0, decompresser(compresser(fichierVide, parametres),
+                                     parametres).length);
+        assertArrayEquals("abracadabra".getBytes(StandardCharsets.UTF_8),
+                          decompresser(compresser(texte, parametres),
+                                       parametres));
+    }
+
+    @Test
+    void lotLuUneSeuleFois() throws IOException {
+        Path chemin = entrainerSurConfigurations();
+        Path ecarte = dossier.resolve("ecarte.dico");
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setCheminDictionnaire(chemin.toString());
+        Path corpus = dossier.resolve("corpus");
+        Path archives = dossier.resolve("archives");
+
+        // Le dictionnaire est lu par le lot : son fichier peut être écarté
+        TraitementLot compression = new TraitementLot(
+                corpus.toString(), archives.toString(), true, parametres);
+        Files.move(chemin, ecarte);
+        compression.traiter();
+        assertEquals(20, compression.getNombreReussis());
+
+        Files.move(ecarte, chemin);
+        TraitementLot decompression = new TraitementLot(
+                archives.toString(), dossier.resolve("retour").toString(),
+                false, parametres);
+        Files.move(chemin, ecarte);
+        decompression.traiter();
+        assertEquals(20, decompression.getNombreReussis());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(configuration(i), Files.readString(
+                    dossier.resolve("retour/service" + i + ".conf")));
+        }
+
+        assertThrows(IOException.class, () -> new TraitementLot(
+                corpus.toString(), archives.toString(), true, parametres));
+    }
+
+    @Test
+    void ecrireEtLire() throws IOException {
+        HistogrammeOctets occurences = new HistogrammeOctets();
+        occurences.ajouter(new GenerateurCorpus(GenerateurCorpus.FIBONACCI, 1)
+                .generer(100_000));
+        Dictionnaire dictionnaire = Dictionnaire.entrainer(occurences);
+        assertTrue(dictionnaire.getTable().getLongueurMax()
+                   <= Dictionnaire.LONGUEUR_MAXIMALE);
+        Path chemin = dossier.resolve("fibonacci.dico");
+        dictionnaire.ecrire(chemin);
+
+        Dictionnaire relu = Dictionnaire.lire(chemin);
+
+        assertEquals(dictionnaire.getIdentifiant(), relu.getIdentifiant());
+        assertArrayEquals(dictionnaire.getCodesEmpaquetes(),
+                          relu.getCodesEmpaquetes());
+
+        byte[] corrompu = Files.readAllBytes(chemin);
+        corrompu[corrompu.length - 1] ^= 1;
+        Files.write(chemin, corrompu);
+        assertThrows(IOException.class, () -> Dictionnaire.lire(chemin));
+    }
+
+    @Test
+    void dictionnaireManquantOuDifferent() throws IOException {
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setCheminDictionnaire(entrainerSurConfigurations().toString());
+        Path source = dossier.resolve("service7.conf");
+        Files.writeString(source, configuration(7));
+        Path archive = compresser(source, parametres);
+
+        IOException sansDictionnaire = assertThrows(IOException.class,
+                () -> decompresser(archive, new ParametresCompression()));
+        assertTrue(sansDictionnaire.getMessage().contains(String.format(
+                "%08x", Dictionnaire.lire(Path.of(
+                        parametres.getCheminDictionnaire())).getIdentifiant())));
+
+        Path autre = dossier.resolve("autre.dico");
+        Dictionnaire.entrainer(List.of(archive)).ecrire(autre);
+        ParametresCompression autreDictionnaire = new ParametresCompression();
+        autreDictionnaire.setCheminDictionnaire(autre.toString());
+        assertThrows(IOException.class,
+                     () -> decompresser(archive, autreDictionnaire));
+    }
+}
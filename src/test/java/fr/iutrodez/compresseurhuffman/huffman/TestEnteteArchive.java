@@ -0,0 +1,122 @@
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestEnteteArchive {
+
+    @TempDir
+    Path dossier;
+
+    private static DataInputStream flux(byte[] octets) {
+        return new DataInputStream(new ByteArrayInputStream(octets));
+    }
+
+    @Test
+    void ecrireEtLireEntete() throws IOException {
+        int[] longueurs = new int[256];
+        longueurs['a'] = 1;
+        longueurs['b'] = 1;
+        ByteArrayOutputStream octets = new ByteArrayOutputStream();
+        DataOutputStream sortie = new DataOutputStream(octets);
+        new EnteteArchive(123_456_789_012L).ecrire(sortie);
+        new EnteteBloc(1L << 40, new TableCodesCanonique(longueurs)).ecrire(sortie);
+
+        DataInputStream entree = flux(octets.toByteArray());
+        EnteteArchive relue = EnteteArchive.lire(entree);
+        EnteteBloc bloc = relue.lireBloc(entree);
+
+        assertEquals(0, relue.getOptions());
+        assertFalse(relue.estParBlocs());
+        assertEquals(1, relue.getNombreBlocs());
+        assertEquals(123_456_789_012L, relue.getTailleOriginale());
+        assertEquals(1L << 40, bloc.getNombreBits());
+        assertEquals(1, bloc.getTable().getLongueur('b'));
+        assertEquals(0, bloc.getTable().getLongueur('c'));
+    }
+
+    @Test
+    void ecrireEtLireEnteteParBlocs() throws IOException {
+        ByteArrayOutputStream octets = new ByteArrayOutputStream();
+        new EnteteArchive(2_500, 1_000).ecrire(new DataOutputStream(octets));
+
+        EnteteArchive relue = EnteteArchive.lire(flux(octets.toByteArray()));
+
+        assertTrue(relue.estParBlocs());
+        assertEquals(1_000, relue.getTailleBloc());
+        assertEquals(3, relue.getNombreBlocs());
+        assertEquals(1_000, relue.getTailleOriginaleBloc(1));
+        assertEquals(500, relue.getTailleOriginaleBloc(2));
+    }
+
+    @Test
+    void ecrireEtLireEnteteAvecDictionnaire() throws IOException {
+        ByteArrayOutputStream octets = new ByteArrayOutputStream();
+        EnteteArchive.avecDictionnaire(4_321, 0xCAFEBABE)
+                     .ecrire(new DataOutputStream(octets));
+        assertEquals(4 + 1 + 1 + 8 + 4, octets.size());
+
+        EnteteArchive relue = EnteteArchive.lire(flux(octets.toByteArray()));
+
+        assertTrue(relue.utiliseDictionnaire());
+        assertFalse(relue.estParBlocs());
+        assertEquals(4_321, relue.getTailleOriginale());
+        assertEquals(0xCAFEBABE, relue.getIdentifiantDictionnaire());
+        assertThrows(IllegalStateException.class, relue::avecIndexAcces);
+
+        // Le dictionnaire n'est valide avec aucune autre option
+        byte[] corrompu = octets.toByteArray();
+        corrompu[5] |= EnteteArchive.OPTION_BLOCS;
+        assertThrows(IOException.class, () -> EnteteArchive.lire(flux(corrompu)));
+    }
+
+    @Test
+    void refuserVersionUn() {
+        // L'ancien format, au nombre de bits sur 32 bits, n'est plus lu
+        byte[] octets = { 'H', 'U', 'F', 'F', 1, 0, 0, 0, 0, 0, 0, 0, 0, 3 };
+        IOException erreur = assertThrows(IOException.class,
+                                          () -> EnteteArchive.lire(flux(octets)));
+        assertTrue(erreur.getMessage().endsWith(": 1"));
+    }
+
+    @Test
+    void refuserFichierNonCompresse() {
+        byte[] texte = "Ceci n'est pas une archive".getBytes(StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> EnteteArchive.lire(flux(texte)));
+    }
+
+    @Test
+    void refuserVersionInconnue() {
+        byte[] octets = { 'H', 'U', 'F', 'F', 99, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+        IOException erreur = assertThrows(IOException.class,
+                                          () -> EnteteArchive.lire(flux(octets)));
+        assertTrue(erreur.getMessage().contains("99"));
+    }
+
+    @Test
+    void compresserDansUnSeulFichier() throws IOException {
+        Path source = dossier.resolve("source.txt");
+        Path archive = dossier.resolve("archive.bin");
+        Path resultat = dossier.resolve("resultat.txt");
+        Files.writeString(source, "abracadabra, une archive autonome.\n".repeat(500));
+
+        new CompressionHuffman(source.toString(), archive.toString()).compresserFichier();
+        try (var fichiers = Files.list(dossier)) {
+            assertEquals(2, fichiers.count());
+        }
+        new DecompressionHuffman(archive.toString(), resultat.toString()).decompresserFichier();
+
+        assertArrayEquals(Files.readAllBytes(source), Files.readAllBytes(resultat));
+    }
+}
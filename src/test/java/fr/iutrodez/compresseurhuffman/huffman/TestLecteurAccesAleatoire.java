@@ -0,0 +1,214 @@
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.objets.ParametresCompression;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestLecteurAccesAleatoire {
+
+    @TempDir
+    Path dossier;
+
+    /** Journal de lignes de longueurs variables, dont le vocabulaire change. */
+    private static byte[] journal(int nombreLignes) {
+        Random aleatoire = new Random(8);
+        StringBuilder texte = new StringBuilder();
+        for (int ligne = 1; ligne <= nombreLignes; ligne++) {
+            texte.append(ligne < nombreLignes / 2 ? "{\"ligne\": " : "INFO ligne ")
+                 .append(ligne).append(' ')
+                 .append("x".repeat(aleatoire.nextInt(120))).append('\n');
+        }
+        return texte.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /** Compresse un contenu avec les paramètres donnés. */
+    private Path compresser(byte[] contenu, ParametresCompression parametres)
+            throws IOException {
+        Path source = dossier.resolve("source.txt");
+        Path archive = dossier.resolve("archive.bin");
+        Files.write(source, contenu);
+        new CompressionHuffman(source.toString(), archive.toString(), parametres)
+                .compresserFichier();
+        return archive;
+    }
+
+    /** Paramètres avec un index d'accès et des blocs éventuels. */
+    private static ParametresCompression parametres(int tailleBloc, boolean variable) {
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setTailleBloc(tailleBloc);
+        parametres.setDecoupageVariable(variable);
+        parametres.setIntervalleAcces(1_000);
+        parametres.setIndexLignes(true);
+        return parametres;
+    }
+
+    /** Extrait une plage d'octets. */
+    private static byte[] extraire(LecteurAccesAleatoire lecteur, long debut, long longueur)
+            throws IOException {
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        lecteur.extraire(debut, longueur, sortie);
+        return sortie.toByteArray();
+    }
+
+    /** Extrait une plage de lignes, sous forme de texte. */
+    private static String extraireLignes(LecteurAccesAleatoire lecteur,
+                                         long premiere, long derniere)
+            throws IOException {
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        lecteur.extraireLignes(premiere, derniere, sortie);
+        return sortie.toString(StandardCharsets.US_ASCII);
+    }
+
+    /** Lignes attendues, d'après le texte d'origine. */
+    private static String lignes(byte[] contenu, int premiere, int derniere) {
+        String[] lignes = new String(contenu, StandardCharsets.US_ASCII).split("\n");
+        StringBuilder attendu = new StringBuilder();
+        for (int ligne = premiere; ligne <= Math.min(derniere, lignes.length); ligne++) {
+            attendu.append(lignes[ligne - 1]).append('\n');
+        }
+        return attendu.toString();
+    }
+
+    @Test
+    void extrairePlagesOctets() throws IOException {
+        byte[] contenu = journal(2_000);
+        ParametresCompression[] modes = {
+            parametres(0, false), parametres(7_000, false), parametres(16_000, true)
+        };
+        Random aleatoire = new Random(2);
+        for (ParametresCompression mode : modes) {
+            try (LecteurAccesAleatoire lecteur =
+                         new LecteurAccesAleatoire(compresser(contenu, mode).toString())) {
+                assertEquals(contenu.length, lecteur.getTailleOriginale());
+                assertArrayEquals(contenu, extraire(lecteur, 0, contenu.length));
+                for (int essai = 0; essai < 50; essai++) {
+                    int debut = aleatoire.nextInt(contenu.length);
+                    int longueur = aleatoire.nextInt(Math.min(5_000, contenu.length - debut));
+                    assertArrayEquals(Arrays.copyOfRange(contenu, debut, debut + longueur),
+                                      extraire(lecteur, debut, longueur));
+                }
+                assertEquals(0, extraire(lecteur, contenu.length, 0).length);
+                assertThrows(IllegalArgumentException.class,
+                             () -> extraire(lecteur, contenu.length - 1, 2));
+            }
+        }
+    }
+
+    @Test
+    void extraireLignes() throws IOException {
+        byte[] contenu = journal(2_000);
+        for (ParametresCompression mode : new ParametresCompression[] {
+                parametres(0, false), parametres(7_000, false), parametres(16_000, true) }) {
+            try (LecteurAccesAleatoire lecteur =
+                         new LecteurAccesAleatoire(compresser(contenu, mode).toString())) {
+                assertTrue(lecteur.aDesLignes());
+                for (int[] plage : new int[][] { { 1, 1 }, { 1, 3 }, { 17, 17 },
+                                                 { 999, 1_004 }, { 1_990, 2_000 } }) {
+                    assertEquals(lignes(contenu, plage[0], plage[1]),
+                                 extraireLignes(lecteur, plage[0], plage[1]));
+                }
+                // Au-delà de la dernière ligne, rien n'est extrait
+                assertEquals(lignes(contenu, 2_000, 2_000),
+                             extraireLignes(lecteur, 2_000, 5_000));
+                assertEquals("", extraireLignes(lecteur, 2_001, 2_010));
+                assertThrows(IllegalArgumentException.class,
+                             () -> extraireLignes(lecteur, 0, 3));
+            }
+        }
+        // Dernière ligne sans fin de ligne
+        try (LecteurAccesAleatoire lecteur = new LecteurAccesAleatoire(compresser(
+                "un\ndeux\ntrois".getBytes(), parametres(0, false)).toString())) {
+            assertEquals("deux\ntrois", extraireLignes(lecteur, 2, 3));
+        }
+    }
+
+    @Test
+    void lecturesConcurrentes() throws Exception {
+        byte[] contenu = journal(4_000);
+        Path archive = compresser(contenu, parametres(20_000, false));
+        try (LecteurAccesAleatoire lecteur = new LecteurAccesAleatoire(archive.toString());
+             ExecutorService groupe = Executors.newFixedThreadPool(4)) {
+            List<Future<Boolean>> resultats = new ArrayList<>();
+            for (int tache = 0; tache < 8; tache++) {
+                Random aleatoire = new Random(tache);
+                resultats.add(groupe.submit(() -> {
+                    for (int essai = 0; essai < 30; essai++) {
+                        int debut = aleatoire.nextInt(contenu.length - 3_000);
+                        if (!Arrays.equals(Arrays.copyOfRange(contenu, debut, debut + 3_000),
+                                           extraire(lecteur, debut, 3_000))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> resultat : resultats) {
+                assertTrue(resultat.get());
+            }
+        }
+    }
+
+    @Test
+    void indexIgnoreParLaDecompression() throws IOException {
+        byte[] contenu = journal(1_000);
+        for (ParametresCompression mode : new ParametresCompression[] {
+                parametres(0, false), parametres(7_000, false), parametres(16_000, true) }) {
+            Path archive = compresser(contenu, mode);
+            Path resultat = dossier.resolve("resultat.txt");
+            new DecompressionHuffman(archive.toString(), resultat.toString(), mode)
+                    .decompresserFichier();
+            assertArrayEquals(contenu, Files.readAllBytes(resultat));
+
+            ByteArrayOutputStream flux = new ByteArrayOutputStream();
+            DecompressionHuffman.decompresserFlux(
+                    new ByteArrayInputStream(Files.readAllBytes(archive)), flux);
+            assertArrayEquals(contenu, flux.toByteArray());
+        }
+    }
+
+    @Test
+    void fichierSansIndexOuVide() throws IOException {
+        Path archive = compresser(journal(10), new ParametresCompression());
+        assertThrows(IOException.class, () -> new LecteurAccesAleatoire(archive.toString()));
+
+        ParametresCompression sansLignes = new ParametresCompression();
+        sansLignes.setIntervalleAcces(100);
+        try (LecteurAccesAleatoire lecteur = new LecteurAccesAleatoire(
+                compresser(journal(10), sansLignes).toString())) {
+            assertFalse(lecteur.aDesLignes());
+            assertThrows(IOException.class, () -> extraireLignes(lecteur, 1, 2));
+        }
+
+        try (LecteurAccesAleatoire lecteur = new LecteurAccesAleatoire(
+                compresser(new byte[0], parametres(0, false)).toString())) {
+            assertEquals(0, extraire(lecteur, 0, 0).length);
+            assertEquals("", extraireLignes(lecteur, 1, 1));
+        }
+    }
+
+    @Test
+    void indexCorrompu() throws IOException {
+        Path archive = compresser(journal(100), parametres(0, false));
+        byte[] octets = Files.readAllBytes(archive);
+        // Position de l'index décalée d'un octet
+        octets[octets.length - 5] ^= 0x01;
+        Files.write(archive, octets);
+        assertThrows(IOException.class, () -> new LecteurAccesAleatoire(archive.toString()));
+    }
+}
@@ -0,0 +1,126 @@
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.objets.HistogrammeOctets;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestLimiteurLongueurs {
+
+    /** Coût (somme des fréquences pondérées par la longueur des codes). */
+    private static long cout(long[] frequences, int[] longueurs) {
+        long cout = 0;
+        for (int i = 0; i < frequences.length; i++) {
+            cout += frequences[i] * longueurs[i];
+        }
+        return cout;
+    }
+
+    /** Vérifie la limite et l'égalité de Kraft d'un code complet. */
+    private static void verifierCodeComplet(int[] longueurs, int longueurMaximale) {
+        long somme = 0;
+        for (int longueur : longueurs) {
+            assertTrue(longueur <= longueurMaximale);
+            if (longueur > 0) {
+                somme += 1L << (longueurMaximale - longueur);
+            }
+        }
+        assertEquals(1L << longueurMaximale, somme);
+    }
+
+    /** Fréquences de Fibonacci, qui donnent l'arbre de Huffman le plus profond. */
+    private static long[] fibonacci(int nombre) {
+        long[] frequences = new long[nombre];
+        frequences[0] = 1;
+        frequences[1] = 1;
+        for (int i = 2; i < nombre; i++) {
+            frequences[i] = frequences[i - 1] + frequences[i - 2];
+        }
+        return frequences;
+    }
+
+    @Test
+    void limiteRespecteeEtCodeComplet() {
+        long[] frequences = fibonacci(40);
+        int[] sansLimite = new ArbreHuffmanPlat(frequences).calculerLongueursCodes();
+        assertEquals(39, sansLimite[0]);
+
+        for (int limite = 6; limite <= 39; limite++) {
+            int[] longueurs = LimiteurLongueurs.calculerLongueurs(frequences, limite);
+            verifierCodeComplet(longueurs, limite);
+            assertTrue(cout(frequences, longueurs) >= cout(frequences, sansLimite));
+        }
+        // Sans contrainte effective, le coût est celui de Huffman
+        assertEquals(cout(frequences, sansLimite),
+                     cout(frequences, LimiteurLongueurs.calculerLongueurs(frequences, 39)));
+    }
+
+    @Test
+    void optimalParRapportALaRechercheExhaustive() {
+        Random aleatoire = new Random(11);
+        for (int essai = 0; essai < 200; essai++) {
+            long[] frequences = new long[2 + aleatoire.nextInt(5)];
+            for (int i = 0; i < frequences.length; i++) {
+                frequences[i] = 1 + aleatoire.nextInt(aleatoire.nextBoolean() ? 5 : 1000);
+            }
+            int limite = 3;
+            int[] longueurs = LimiteurLongueurs.calculerLongueurs(frequences, limite);
+            verifierCodeComplet(longueurs, limite);
+            assertEquals(coutMinimal(frequences, new int[frequences.length], 0, limite),
+                         cout(frequences, longueurs));
+        }
+    }
+
+    /** Coût minimal parmi toutes les longueurs respectant l'inégalité de Kraft. */
+    private static long coutMinimal(long[] frequences, int[] longueurs, int symbole,
+                                    int limite) {
+        if (symbole == frequences.length) {
+            long somme = 0;
+            for (int longueur : longueurs) {
+                somme += 1L << (limite - longueur);
+            }
+            return somme <= 1L << limite ? cout(frequences, longueurs) : Long.MAX_VALUE;
+        }
+        long meilleur = Long.MAX_VALUE;
+        for (int longueur = 1; longueur <= limite; longueur++) {
+            longueurs[symbole] = longueur;
+            meilleur = Math.min(meilleur,
+                                coutMinimal(frequences, longueurs, symbole + 1, limite));
+        }
+        return meilleur;
+    }
+
+    @Test
+    void casParticuliers() {
+        assertArrayEquals(new int[3], LimiteurLongueurs.calculerLongueurs(new long[3], 4));
+        assertArrayEquals(new int[] { 0, 1, 0 },
+                          LimiteurLongueurs.calculerLongueurs(new long[] { 0, 7, 0 }, 4));
+        // 256 symboles ne tiennent pas sur moins de 8 bits : la limite est relevée
+        long[] uniformes = new long[256];
+        Arrays.fill(uniformes, 1);
+        verifierCodeComplet(LimiteurLongueurs.calculerLongueurs(uniformes, 5), 8);
+        assertThrows(IllegalArgumentException.class,
+                     () -> LimiteurLongueurs.calculerLongueurs(uniformes, 0));
+    }
+
+    @Test
+    void tableTropProfondeRameneeAuFormat() {
+        // Sans limitation, le plus long code dépasserait la fenêtre du décodeur
+        HistogrammeOctets occurences = new HistogrammeOctets();
+        long[] frequences = fibonacci(70);
+        for (int i = 0; i < frequences.length; i++) {
+            occurences.ajouterOccurrences((byte) i, frequences[i]);
+        }
+        BilanCodes bilan = new BilanCodes();
+        TableCodesCanonique table = CompressionHuffman.genererTableCanonique(
+                occurences, TableCodesCanonique.LONGUEUR_MAXIMALE, bilan);
+
+        assertEquals(TableCodesCanonique.LONGUEUR_MAXIMALE, bilan.getLongueurMaximale());
+        assertEquals(TableCodesCanonique.LONGUEUR_MAXIMALE, table.getLongueur(0));
+        assertTrue(bilan.getPenalite() >= 0);
+        assertTrue(bilan.getNombreBits() >= bilan.getNombreBitsSansLimite());
+    }
+}
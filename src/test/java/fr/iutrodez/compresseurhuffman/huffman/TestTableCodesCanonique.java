@@ -0,0 +1,78 @@
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTableCodesCanonique {
+
+    private static TableCodesCanonique relire(TableCodesCanonique table,
+                                              int tailleAttendue)
+            throws IOException {
+        ByteArrayOutputStream octets = new ByteArrayOutputStream();
+        table.ecrire(new DataOutputStream(octets));
+        assertEquals(tailleAttendue, octets.size());
+        return TableCodesCanonique.lire(
+                new DataInputStream(new ByteArrayInputStream(octets.toByteArray())));
+    }
+
+    @Test
+    void codesCanoniques() {
+        int[] longueurs = new int[256];
+        longueurs['a'] = 2;
+        longueurs['b'] = 1;
+        longueurs['c'] = 3;
+        longueurs['d'] = 3;
+
+        TableCodesCanonique table = new TableCodesCanonique(longueurs);
+
+        assertEquals("0", table.getCodeTexte('b'));
+        assertEquals("10", table.getCodeTexte('a'));
+        assertEquals("110", table.getCodeTexte('c'));
+        assertEquals("111", table.getCodeTexte('d'));
+        assertNull(table.getCodeTexte('e'));
+        assertEquals(0b110, table.getCode('c'));
+        assertEquals(3, table.getLongueurMax());
+        assertEquals(4, table.getNombreSymboles());
+    }
+
+    @Test
+    void longueursNonPrefixes() {
+        int[] longueurs = { 1, 1, 1 };
+        assertThrows(IllegalArgumentException.class,
+                     () -> new TableCodesCanonique(longueurs));
+    }
+
+    @Test
+    void ecrireEtLireTableCreuse() throws IOException {
+        int[] longueurs = new int[256];
+        longueurs['x'] = 1;
+        longueurs['y'] = 2;
+        longueurs['z'] = 2;
+
+        // 4 octets d'en-tête puis 3 couples (symbole, longueur)
+        TableCodesCanonique relue = relire(new TableCodesCanonique(longueurs), 10);
+
+        for (int symbole = 0; symbole < 256; symbole++) {
+            assertEquals(longueurs[symbole], relue.getLongueur(symbole));
+        }
+    }
+
+    @Test
+    void ecrireEtLireTablePleine() throws IOException {
+        int[] longueurs = new int[256];
+        Arrays.fill(longueurs, 8);
+
+        TableCodesCanonique relue = relire(new TableCodesCanonique(longueurs), 260);
+
+        assertEquals(8, relue.getLongueur(255));
+        assertEquals("11111111", relue.getCodeTexte(255));
+    }
+}
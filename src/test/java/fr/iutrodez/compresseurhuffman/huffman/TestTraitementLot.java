@@ -0,0 +1,163 @@
+package fr.iutrodez.compresseurhuffman.huffman;
+
+import fr.iutrodez.compresseurhuffman.objets.HistogrammeOctets;
+import fr.iutrodez.compresseurhuffman.objets.ParametresCompression;
+import fr.iutrodez.compresseurhuffman.outils.GenerateurCorpus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTraitementLot {
+
+    @TempDir
+    Path dossier;
+
+    /**
+     * Crée une arborescence de petits fichiers, d'un fichier vide et
+     * de deux fichiers plus grands qu'un lot.
+     *
+     * @return Le dossier racine de l'arborescence.
+     */
+    private Path creerArborescence() throws IOException {
+        Path racine = dossier.resolve("source");
+        Files.createDirectories(racine.resolve("a/b"));
+        Files.createDirectories(racine.resolve("c"));
+        GenerateurCorpus generateur = new GenerateurCorpus(GenerateurCorpus.ZIPF, 4);
+        for (int i = 0; i < 40; i++) {
+            Files.write(racine.resolve("a/petit" + i + ".txt"),
+                        generateur.generer(100 + i * 97));
+        }
+        Files.write(racine.resolve("a/b/vide.txt"), new byte[0]);
+        Files.write(racine.resolve("c/grand1.log"),
+                    generateur.generer((int) (3 * TraitementLot.TAILLE_LOT / 2)));
+        Files.write(racine.resolve("c/grand2.log"),
+                    generateur.generer((int) TraitementLot.TAILLE_LOT + 1));
+        return racine;
+    }
+
+    @Test
+    void allerRetourDUnDossier() throws IOException {
+        Path racine = creerArborescence();
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setNombreThreads(3);
+
+        TraitementLot compression = new TraitementLot(
+                racine.toString(), dossier.resolve("archives").toString(),
+                true, parametres);
+        assertEquals(43, compression.getNombreFichiers());
+        compression.traiter();
+        assertEquals(43, compression.getNombreReussis());
+        assertEquals(0, compression.getNombreEchecs());
+        assertTrue(compression.getOctetsEcrits() < compression.getOctetsLus());
+        assertTrue(compression.getDuree() > 0);
+        assertTrue(Files.isRegularFile(
+                dossier.resolve("archives/a/b/vide.txt.bin")));
+
+        TraitementLot decompression = new TraitementLot(
+                dossier.resolve("archives").toString(),
+                dossier.resolve("retour").toString(), false, parametres);
+        decompression.traiter();
+        assertEquals(43, decompression.getNombreReussis());
+        assertEquals(compression.getOctetsLus(),
+                     decompression.getOctetsEcrits());
+        try (var fichiers = Files.walk(racine)) {
+            for (Path fichier : fichiers.filter(Files::isRegularFile).toList()) {
+                assertArrayEquals(Files.readAllBytes(fichier), Files.readAllBytes(
+                        dossier.resolve("retour")
+                               .resolve(racine.relativize(fichier))),
+                        fichier.toString());
+            }
+        }
+    }
+
+    @Test
+    void motifEtParametres() throws IOException {
+        Path racine = creerArborescence();
+        ParametresCompression parBlocs = new ParametresCompression();
+        parBlocs.setTailleBloc(256 * 1024);
+        parBlocs.setNombreThreads(4);
+
+        TraitementLot compression = new TraitementLot(
+                racine + "/**.log", dossier.resolve("archives").toString(),
+                true, parBlocs);
+        assertEquals(2, compression.getNombreFichiers());
+        compression.traiter();
+        assertEquals(2, compression.getNombreReussis());
+        // Le budget est partagé sur une copie : les paramètres sont intacts
+        assertEquals(4, parBlocs.getNombreThreads());
+
+        TraitementLot decompression = new TraitementLot(
+                dossier.resolve("archives") + "/c/grand?.log.bin",
+                dossier.resolve("retour").toString(), false, parBlocs);
+        decompression.traiter();
+        assertArrayEquals(Files.readAllBytes(racine.resolve("c/grand2.log")),
+                          Files.readAllBytes(
+                                  dossier.resolve("retour/grand2.log")));
+
+        assertEquals(40, new TraitementLot(racine + "/a/*.txt",
+                                           dossier.toString(), true, parBlocs)
+                .getNombreFichiers());
+    }
+
+    @Test
+    void echecsComptes() throws IOException {
+        Path archives = dossier.resolve("archives");
+        Files.createDirectories(archives);
+        Files.write(archives.resolve("invalide.bin"), new byte[] { 1, 2, 3 });
+        Files.write(archives.resolve("ignore.txt"), new byte[] { 1 });
+
+        TraitementLot decompression = new TraitementLot(
+                archives.toString(), dossier.resolve("retour").toString(),
+                false, new ParametresCompression());
+        assertEquals(1, decompression.getNombreFichiers());
+        decompression.traiter();
+        assertEquals(0, decompression.getNombreReussis());
+        assertEquals(1, decompression.getNombreEchecs());
+    }
+
+    @Test
+    void designationDUnLot() {
+        assertTrue(TraitementLot.estLot(dossier.toString()));
+        assertTrue(TraitementLot.estLot("textes/*.txt"));
+        assertTrue(TraitementLot.estLot("fichier{1,2}.txt"));
+        assertFalse(TraitementLot.estLot(dossier.resolve("absent.txt").toString()));
+    }
+
+    @Test
+    void listerFichiers() throws IOException {
+        Path racine = creerArborescence();
+
+        assertEquals(43, TraitementLot.listerFichiers(racine.toString()).size());
+        assertEquals(List.of(racine.resolve("c/grand1.log"),
+                             racine.resolve("c/grand2.log")),
+                     TraitementLot.listerFichiers(racine + "/**.log"));
+        Path seul = racine.resolve("a/petit0.txt");
+        assertEquals(List.of(seul), TraitementLot.listerFichiers(seul.toString()));
+    }
+
+    @Test
+    void fichierModifieApresComptage() throws IOException {
+        Path racine = dossier.resolve("journaux");
+        Files.createDirectories(racine);
+        Path journal = racine.resolve("service.log");
+        Files.writeString(journal, "aaaabbbb");
+
+        TraitementLot compression = new TraitementLot(
+                racine.toString(), dossier.resolve("archives").toString(),
+                true, new ParametresCompression());
+        HistogrammeOctets occurences = CompteurOccurrencesParallele.compter(
+                journal.toString());
+        // Le journal grandit entre le comptage et la compression
+        Files.writeString(journal, "aaaabbbbzzzz");
+        compression.traiterFichier(0, occurences);
+
+        assertEquals(1, compression.getNombreEchecs());
+        assertEquals(0, compression.getNombreReussis());
+    }
+}
@@ -0,0 +1,75 @@
+package fr.iutrodez.compresseurhuffman.objets;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestHistogrammeOctets {
+
+    @Test
+    void ajouterCompteChaqueOctet() {
+        // Longueur non multiple du nombre de tables entrelacées
+        byte[] octets = new byte[10_007];
+        new Random(42).nextBytes(octets);
+
+        long[] attendu = new long[256];
+        for (byte octet : octets) {
+            attendu[octet & 0xFF]++;
+        }
+
+        HistogrammeOctets histogramme = new HistogrammeOctets();
+        histogramme.ajouter(octets);
+
+        assertArrayEquals(attendu, histogramme.versTableau());
+        assertEquals(octets.length, histogramme.getTotal());
+    }
+
+    @Test
+    void ajouterPortion() {
+        byte[] octets = { 'a', 'a', 'b', 'c', 'c', 'c' };
+        HistogrammeOctets histogramme = new HistogrammeOctets();
+        histogramme.ajouter(octets, 1, 5);
+
+        assertEquals(1, histogramme.getOccurrences((byte) 'a'));
+        assertEquals(1, histogramme.getOccurrences((byte) 'b'));
+        assertEquals(2, histogramme.getOccurrences((byte) 'c'));
+        assertEquals(3, histogramme.getNombreSymboles());
+    }
+
+    @Test
+    void octetsNegatifs() {
+        byte[] octets = { (byte) 0xFF, (byte) 0x80, (byte) 0xFF, 0 };
+        HistogrammeOctets histogramme = new HistogrammeOctets();
+        histogramme.ajouter(octets);
+
+        assertEquals(2, histogramme.getOccurrences((byte) 0xFF));
+        assertEquals(2, histogramme.getOccurrences(255));
+        assertEquals(1, histogramme.getOccurrences(128));
+    }
+
+    @Test
+    void compteursSur64Bits() {
+        HistogrammeOctets histogramme = new HistogrammeOctets();
+        histogramme.ajouterOccurrences((byte) 'a', Integer.MAX_VALUE);
+        histogramme.ajouter(new byte[] { 'a', 'a' });
+
+        assertEquals(Integer.MAX_VALUE + 2L, histogramme.getOccurrences((byte) 'a'));
+    }
+
+    @Test
+    void fusionner() {
+        HistogrammeOctets premier = new HistogrammeOctets();
+        premier.ajouter(new byte[] { 'a', 'b', 'b' });
+        HistogrammeOctets second = new HistogrammeOctets();
+        second.ajouter(new byte[] { 'b', 'c' });
+
+        premier.fusionner(second);
+
+        assertEquals(1, premier.getOccurrences((byte) 'a'));
+        assertEquals(3, premier.getOccurrences((byte) 'b'));
+        assertEquals(1, premier.getOccurrences((byte) 'c'));
+        assertEquals(5, premier.getTotal());
+    }
+}
@@ -0,0 +1,65 @@
+package fr.iutrodez.compresseurhuffman.outils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestEcrivainBits {
+
+    /** Empaquette une chaîne de '0' et de '1', complétée par des zéros. */
+    private static byte[] empaqueter(String bits) {
+        byte[] octets = new byte[(bits.length() + 7) / 8];
+        for (int i = 0; i < bits.length(); i++) {
+            if (bits.charAt(i) == '1') {
+                octets[i / 8] |= (byte) (1 << (7 - i % 8));
+            }
+        }
+        return octets;
+    }
+
+    @Test
+    void ecrireCodesDeLongueursVariables() throws IOException {
+        Random aleatoire = new Random(11);
+        StringBuilder attendu = new StringBuilder();
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        EcrivainBits ecrivain = new EcrivainBits(sortie);
+
+        // Assez de codes pour remplir plusieurs fois le tampon interne
+        for (int i = 0; i < 200_000; i++) {
+            int longueur = 1 + aleatoire.nextInt(57);
+            long code = aleatoire.nextLong() >>> (Long.SIZE - longueur);
+            ecrivain.ecrire(code, longueur);
+            for (int bit = longueur - 1; bit >= 0; bit--) {
+                attendu.append((code >>> bit & 1) == 1 ? '1' : '0');
+            }
+        }
+        ecrivain.terminer();
+
+        assertEquals(attendu.length(), ecrivain.getNombreBits());
+        assertArrayEquals(empaqueter(attendu.toString()), sortie.toByteArray());
+    }
+
+    @Test
+    void terminerCompleteDernierOctet() throws IOException {
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        EcrivainBits ecrivain = new EcrivainBits(sortie);
+        ecrivain.ecrire(0b101, 3);
+        ecrivain.terminer();
+
+        assertArrayEquals(new byte[] { (byte) 0b10100000 }, sortie.toByteArray());
+        assertEquals(3, ecrivain.getNombreBits());
+    }
+
+    @Test
+    void terminerSansBits() throws IOException {
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        EcrivainBits ecrivain = new EcrivainBits(sortie);
+        ecrivain.terminer();
+
+        assertEquals(0, sortie.size());
+    }
+}
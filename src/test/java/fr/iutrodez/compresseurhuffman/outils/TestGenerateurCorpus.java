@@ -0,0 +1,143 @@
+package fr.iutrodez.compresseurhuffman.outils;
+
+import fr.iutrodez.compresseurhuffman.huffman.ArbreHuffmanPlat;
+import fr.iutrodez.compresseurhuffman.huffman.CompressionHuffman;
+import fr.iutrodez.compresseurhuffman.huffman.DecompressionHuffman;
+import fr.iutrodez.compresseurhuffman.objets.HistogrammeOctets;
+import fr.iutrodez.compresseurhuffman.objets.ParametresCompression;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestGenerateurCorpus {
+
+    @TempDir
+    Path dossier;
+
+    /** Histogramme d'une partie d'un contenu. */
+    private static long[] occurrences(byte[] contenu, int debut, int fin) {
+        HistogrammeOctets histogramme = new HistogrammeOctets();
+        histogramme.ajouter(contenu, debut, fin);
+        return histogramme.versTableau();
+    }
+
+    @Test
+    void contenuReproductible() throws IOException {
+        int taille = 3 * GestionFichier.TAILLE_BLOC + 17;
+        for (String profil : GenerateurCorpus.PROFILS) {
+            byte[] contenu = new GenerateurCorpus(profil, 5).generer(taille);
+            assertEquals(taille, contenu.length);
+            assertArrayEquals(contenu, new GenerateurCorpus(profil, 5).generer(taille));
+            assertFalse(Arrays.equals(contenu,
+                                      new GenerateurCorpus(profil, 6).generer(taille)),
+                        profil);
+
+            // Le découpage en tampons ne change pas le contenu
+            ByteArrayOutputStream flux = new ByteArrayOutputStream();
+            new GenerateurCorpus(profil, 5).generer((long) taille, flux);
+            assertArrayEquals(contenu, flux.toByteArray(), profil);
+
+            assertEquals(0, new GenerateurCorpus(profil, 5).generer(0).length);
+        }
+    }
+
+    @Test
+    void repartitions() {
+        int taille = 4 * 1024 * 1024;
+        long[] uniforme = occurrences(
+                new GenerateurCorpus(GenerateurCorpus.UNIFORME, 1).generer(taille),
+                0, taille);
+        for (long nombre : uniforme) {
+            assertEquals(taille / 256.0, nombre, taille / 256.0 * 0.05);
+        }
+
+        byte[] texte = new GenerateurCorpus(GenerateurCorpus.ZIPF, 1).generer(taille);
+        long[] lettres = occurrences(texte, 0, taille);
+        assertTrue(lettres[' '] > 8 * lettres['\n'] && lettres['\n'] > 0);
+        assertEquals(taille, lettres[' '] + lettres['\n']
+                             + Arrays.stream(lettres, 'a', 'z' + 1).sum());
+
+        // Suites d'un même octet : peu de changements d'octet
+        byte[] suites = new GenerateurCorpus(GenerateurCorpus.REPETITIONS, 1)
+                .generer(taille);
+        int changements = 0;
+        for (int i = 1; i < taille; i++) {
+            if (suites[i] != suites[i - 1]) {
+                changements++;
+            }
+        }
+        assertTrue(changements < taille / 1_000, "changements : " + changements);
+
+        // La répartition change le long du contenu
+        byte[] derive = new GenerateurCorpus(GenerateurCorpus.DERIVE, 1).generer(taille);
+        long[] debut = occurrences(derive, 0, taille / 16);
+        long[] milieu = occurrences(derive, taille / 2, taille / 2 + taille / 16);
+        long ecart = 0;
+        for (int valeur = 0; valeur < 256; valeur++) {
+            ecart += Math.abs(debut[valeur] - milieu[valeur]);
+        }
+        assertTrue(ecart > taille / 16 / 2, "écart : " + ecart);
+    }
+
+    @Test
+    void fibonacciDonneLesCodesLesPlusLongs() {
+        // F(1) + ... + F(28) = 832 039 : 28 octets distincts
+        int periode = 832_039;
+        byte[] contenu = new GenerateurCorpus(GenerateurCorpus.FIBONACCI, 1)
+                .generer(3 * periode);
+        long[] occurrences = occurrences(contenu, 0, contenu.length);
+        long precedent = 1;
+        long courant = 1;
+        for (int valeur = 0; valeur < 28; valeur++) {
+            assertEquals(3 * precedent, occurrences[valeur]);
+            long suivant = precedent + courant;
+            precedent = courant;
+            courant = suivant;
+        }
+        assertEquals(0, Arrays.stream(occurrences, 28, 256).sum());
+
+        int[] longueurs = new ArbreHuffmanPlat(occurrences).calculerLongueursCodes();
+        assertEquals(27, Arrays.stream(longueurs).max().getAsInt());
+
+        // Un contenu plus petit compte moins d'octets distincts
+        long[] petit = occurrences(new GenerateurCorpus(GenerateurCorpus.FIBONACCI, 1)
+                                           .generer(20), 0, 20);
+        assertArrayEquals(new long[] { 1, 1, 2, 3, 5, 8 }, Arrays.copyOf(petit, 6));
+    }
+
+    @Test
+    void allersRetours() throws IOException {
+        Path source = dossier.resolve("source.txt");
+        Path archive = dossier.resolve("archive.bin");
+        Path resultat = dossier.resolve("resultat.txt");
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setTailleBloc(256 * 1024);
+        parametres.setDecoupageVariable(true);
+        for (String profil : GenerateurCorpus.PROFILS) {
+            byte[] contenu = new GenerateurCorpus(profil, 3).generer(2 * 1024 * 1024);
+            Files.write(source, contenu);
+            new CompressionHuffman(source.toString(), archive.toString(), parametres)
+                    .compresserFichier();
+            new DecompressionHuffman(archive.toString(), resultat.toString(), parametres)
+                    .decompresserFichier();
+            assertArrayEquals(contenu, Files.readAllBytes(resultat), profil);
+        }
+    }
+
+    @Test
+    void parametresInvalides() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> new GenerateurCorpus("gaussien", 1));
+        GenerateurCorpus generateur = new GenerateurCorpus(GenerateurCorpus.ZIPF, 1);
+        assertThrows(IllegalArgumentException.class, () -> generateur.generer(-1));
+        assertThrows(IllegalArgumentException.class,
+                     () -> generateur.generer(-1L, new ByteArrayOutputStream()));
+    }
+}
@@ -4,8 +4,11 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
@@ -33,12 +36,6 @@ class TestGestionFichier {
         Files.deleteIfExists(Path.of(CHEMIN_FICHIER_OCTETS));
     }
 
-    @Test
-    void lireFichierArbreHuffman() {
-        String[] lignes = GestionFichier.lireFichierArbreHuffman(CHEMIN_FICHIER_TEST);
-        assertArrayEquals(new String[]{"ligneUne", "ligneDeux", "ligneTrois"}, lignes);
-    }
-
     @Test
     void ecrireArbreHuffman() throws IOException {
         String[] arbreHuffman = {"test1", "test2", "test3"};
@@ -49,37 +46,41 @@ class TestGestionFichier {
     }
 
     @Test
-    void ecrireChaineBinaireDansFichier() throws IOException {
-        String chaineBinaire = "0110110001101001011001110110111001100101010101010110111001100101"; // "ligneUne" en binaire
-        GestionFichier.ecrireChaineBinaireDansFichier(chaineBinaire, CHEMIN_FICHIER_BINAIRE);
-
-        byte[] bytesFromFile = Files.readAllBytes(Path.of(CHEMIN_FICHIER_BINAIRE));
-        assertEquals(chaineBinaire.length(), (bytesFromFile.length - 4) * 8);
-    }
-
-    @Test
-    void lireFichierBinaire() throws IOException {
+    void lireFichierBinaireAvecLecteurBits() throws IOException {
         String chaineBinaire = "0110110001101001011001110110111001100101010101010110111001100101"; // "ligneUne" en binaire
-        GestionFichier.ecrireChaineBinaireDansFichier(chaineBinaire, CHEMIN_FICHIER_BINAIRE);
-
-        String chaineLue = GestionFichier.lireFichierBinaire(CHEMIN_FICHIER_BINAIRE);
-        assertEquals(chaineBinaire, chaineLue);
+        try (OutputStream sortie = Files.newOutputStream(Path.of(CHEMIN_FICHIER_BINAIRE))) {
+            EcrivainBits ecrivain = new EcrivainBits(sortie);
+            ecrivain.ecrire(Long.parseUnsignedLong(chaineBinaire.substring(0, 40), 2), 40);
+            ecrivain.ecrire(Long.parseUnsignedLong(chaineBinaire.substring(40), 2), 24);
+            ecrivain.terminer();
+        }
+        // Les bits sont rangés du poids fort vers le poids faible de chaque octet
+        assertEquals("ligneUne", Files.readString(Path.of(CHEMIN_FICHIER_BINAIRE)));
+
+        try (DataInputStream flux = GestionFichier.ouvrirFluxLecture(CHEMIN_FICHIER_BINAIRE)) {
+            LecteurBits lecteur = new LecteurBits(flux);
+            assertEquals(Long.parseUnsignedLong(chaineBinaire.substring(0, 40), 2), lecteur.lire(40));
+            assertEquals(Long.parseUnsignedLong(chaineBinaire.substring(40), 2), lecteur.lire(24));
+        }
     }
 
     @Test
-    void recupererOctets() throws IOException {
-        byte[] octetsAttendus = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
-        byte[] octetsLus = GestionFichier.recupererOctets(CHEMIN_FICHIER_OCTETS);
-
-        assertArrayEquals(octetsAttendus, octetsLus);
-    }
-
-    @Test
-    void ecrireFichierDestination() throws IOException {
-        byte[] donnees = {10, 11, 12, 13, 14, 15, 16, 17, 18, 19};
-        GestionFichier.ecrireFichierDestination(donnees, CHEMIN_FICHIER_OCTETS);
-
-        byte[] donneesLues = Files.readAllBytes(Path.of(CHEMIN_FICHIER_OCTETS));
-        assertArrayEquals(donnees, donneesLues);
+    void lireParBlocs() throws IOException {
+        // Fichier couvrant plusieurs blocs, le dernier étant incomplet
+        byte[] donnees = new byte[2 * GestionFichier.TAILLE_BLOC + 123];
+        for (int i = 0; i < donnees.length; i++) {
+            donnees[i] = (byte) (i * 31);
+        }
+        Files.write(Path.of(CHEMIN_FICHIER_OCTETS), donnees);
+
+        ByteArrayOutputStream octetsLus = new ByteArrayOutputStream();
+        int[] nombreBlocs = {0};
+        GestionFichier.lireParBlocs(CHEMIN_FICHIER_OCTETS, (bloc, longueur) -> {
+            octetsLus.write(bloc, 0, longueur);
+            nombreBlocs[0]++;
+        });
+
+        assertEquals(3, nombreBlocs[0]);
+        assertArrayEquals(donnees, octetsLus.toByteArray());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+package fr.iutrodez.compresseurhuffman.outils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestLecteurBits {
+
+    private static final int NOMBRE_CODES = 100_000;
+
+    /** Écrit des codes aléatoires et retourne les octets produits. */
+    private static byte[] ecrireCodes(long graine) throws IOException {
+        Random aleatoire = new Random(graine);
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        EcrivainBits ecrivain = new EcrivainBits(sortie);
+        for (int i = 0; i < NOMBRE_CODES; i++) {
+            int longueur = 1 + aleatoire.nextInt(LecteurBits.BITS_GARANTIS);
+            ecrivain.ecrire(aleatoire.nextLong() >>> (Long.SIZE - longueur),
+                            longueur);
+        }
+        ecrivain.terminer();
+        return sortie.toByteArray();
+    }
+
+    /** Relit les codes écrits par {@link #ecrireCodes}. */
+    private static void verifierCodes(LecteurBits lecteur, long graine)
+            throws IOException {
+        Random aleatoire = new Random(graine);
+        long nombreBits = 0;
+        for (int i = 0; i < NOMBRE_CODES; i++) {
+            int longueur = 1 + aleatoire.nextInt(LecteurBits.BITS_GARANTIS);
+            long code = aleatoire.nextLong() >>> (Long.SIZE - longueur);
+            assertEquals(code, lecteur.lire(longueur));
+            nombreBits += longueur;
+        }
+        assertEquals(nombreBits, lecteur.getNombreBitsLus());
+    }
+
+    @Test
+    void lireTableau() throws IOException {
+        verifierCodes(new LecteurBits(ecrireCodes(1)), 1);
+    }
+
+    @Test
+    void lireTamponAvecDecalage() throws IOException {
+        byte[] codes = ecrireCodes(2);
+        ByteBuffer tampon = ByteBuffer.allocate(codes.length + 3);
+        tampon.put(new byte[3]).put(codes).position(3);
+
+        verifierCodes(new LecteurBits(tampon), 2);
+        assertEquals(3, tampon.position());
+    }
+
+    @Test
+    void lireFluxSurPlusieursBlocs() throws IOException {
+        verifierCodes(new LecteurBits(new ByteArrayInputStream(ecrireCodes(3))), 3);
+    }
+
+    @Test
+    void fenetreCompleteeParDesZeros() throws IOException {
+        LecteurBits lecteur = new LecteurBits(new byte[] { (byte) 0b1011_0000 });
+
+        assertEquals(0b1011_0000L << 56, lecteur.getFenetre());
+        assertEquals(0b101, lecteur.lire(3));
+        assertEquals(0b1L << 63, lecteur.getFenetre());
+    }
+}
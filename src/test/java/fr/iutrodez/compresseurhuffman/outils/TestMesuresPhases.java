@@ -0,0 +1,236 @@
+package fr.iutrodez.compresseurhuffman.outils;
+
+import fr.iutrodez.compresseurhuffman.huffman.CompressionHuffman;
+import fr.iutrodez.compresseurhuffman.huffman.DecompressionHuffman;
+import fr.iutrodez.compresseurhuffman.objets.ParametresCompression;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestMesuresPhases {
+
+    @TempDir
+    Path dossier;
+
+    @Test
+    void phasesImbriqueesExclusives() throws InterruptedException {
+        MesuresPhases mesures = new MesuresPhases();
+        mesures.debuter();
+        mesures.demarrer(MesuresPhases.ENCODAGE);
+        Thread.sleep(20);
+        mesures.demarrer(MesuresPhases.ECRITURE);
+        Thread.sleep(40);
+        mesures.arreter(100);
+        Thread.sleep(20);
+        mesures.arreter(1000);
+        mesures.terminer();
+
+        long encodage = mesures.getDuree(MesuresPhases.ENCODAGE);
+        long ecriture = mesures.getDuree(MesuresPhases.ECRITURE);
+        // L'écriture suspend l'encodage : chaque durée n'est comptée qu'une fois
+        assertTrue(encodage >= 40_000_000, "encodage : " + encodage);
+        assertTrue(ecriture >= 40_000_000, "écriture : " + ecriture);
+        assertTrue(encodage + ecriture <= mesures.getDureeTotale());
+        assertEquals(1000, mesures.getOctets(MesuresPhases.ENCODAGE));
+        assertEquals(100, mesures.getOctets(MesuresPhases.ECRITURE));
+        assertEquals(0, mesures.getDuree(MesuresPhases.DECODAGE));
+        assertEquals(0, mesures.getDebit(MesuresPhases.DECODAGE));
+        assertTrue(mesures.getDebit(MesuresPhases.ENCODAGE) > 0);
+        assertEquals(1, mesures.getNombreThreads());
+        assertTrue(mesures.getPicTas() > 0);
+    }
+
+    @Test
+    void picDuTasNonMesureEnParallele() {
+        MesuresPhases premiere = new MesuresPhases();
+        MesuresPhases seconde = new MesuresPhases();
+        premiere.debuter();
+        seconde.debuter();
+        seconde.terminer();
+        premiere.terminer();
+        // Le pic du tas est commun : aucune des deux ne le mesure
+        assertEquals(-1, premiere.getPicTas());
+        assertEquals(-1, seconde.getPicTas());
+
+        MesuresPhases seule = new MesuresPhases();
+        seule.debuter();
+        seule.terminer();
+        assertTrue(seule.getPicTas() > 0);
+    }
+
+    @Test
+    void phasesDePlusieursThreads() throws Exception {
+        MesuresPhases mesures = new MesuresPhases();
+        try (ExecutorService groupe = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> resultats = new ArrayList<>();
+            for (int tache = 0; tache < 16; tache++) {
+                resultats.add(groupe.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        mesures.demarrer(MesuresPhases.DECODAGE);
+                        mesures.demarrer(MesuresPhases.TABLES);
+                        mesures.arreter(0);
+                        mesures.arreter(3);
+                    }
+                }));
+            }
+            for (Future<?> resultat : resultats) {
+                resultat.get();
+            }
+        }
+        assertEquals(16 * 1_000 * 3, mesures.getOctets(MesuresPhases.DECODAGE));
+        assertEquals(0, mesures.getOctets(MesuresPhases.TABLES));
+        assertTrue(mesures.getNombreThreads() > 1
+                   && mesures.getNombreThreads() <= 4);
+    }
+
+    @Test
+    void fluxMesures() throws IOException {
+        MesuresPhases mesures = new MesuresPhases();
+        byte[] contenu = new byte[100_000];
+        InputStream entree = mesures.mesurerLecture(new ByteArrayInputStream(contenu));
+        assertEquals(0, entree.read());
+        assertEquals(contenu.length - 1, entree.readAllBytes().length);
+        assertEquals(-1, entree.read());
+
+        ByteArrayOutputStream copie = new ByteArrayOutputStream();
+        try (OutputStream sortie = mesures.mesurerEcriture(copie)) {
+            sortie.write(7);
+            sortie.write(contenu, 10, 5_000);
+        }
+        assertEquals(contenu.length, mesures.getOctets(MesuresPhases.LECTURE));
+        assertEquals(5_001, mesures.getOctets(MesuresPhases.ECRITURE));
+        assertEquals(5_001, copie.size());
+        assertEquals(7, copie.toByteArray()[0]);
+    }
+
+    @Test
+    void compressionEtDecompressionMesurees() throws IOException {
+        Path source = dossier.resolve("source.txt");
+        Path archive = dossier.resolve("archive.bin");
+        Path resultat = dossier.resolve("resultat.txt");
+        byte[] contenu = new GenerateurCorpus(GenerateurCorpus.ZIPF, 1)
+                .generer(1024 * 1024);
+        Files.write(source, contenu);
+
+        ParametresCompression enUnBloc = new ParametresCompression();
+        ParametresCompression parBlocs = new ParametresCompression();
+        parBlocs.setTailleBloc(128 * 1024);
+        ParametresCompression adaptatif = new ParametresCompression();
+        adaptatif.setAdaptatif(true);
+        for (ParametresCompression parametres : new ParametresCompression[] {
+                enUnBloc, parBlocs, adaptatif }) {
+            CompressionHuffman compression = new CompressionHuffman(
+                    source.toString(), archive.toString(), parametres);
+            compression.compresserFichier();
+            MesuresPhases mesures = compression.getMesures();
+            assertEquals(contenu.length, mesures.getOctets(MesuresPhases.ENCODAGE));
+            assertEquals(Files.size(archive),
+                         mesures.getOctets(MesuresPhases.ECRITURE));
+            assertTrue(mesures.getDuree(MesuresPhases.ENCODAGE) > 0);
+            assertTrue(mesures.getDureeTotale() > 0);
+            long nombreBits = mesures.getNombreBits();
+            if (!parametres.estAdaptatif()) {
+                assertEquals(contenu.length,
+                             mesures.getOctets(MesuresPhases.HISTOGRAMME));
+                assertTrue(mesures.getDuree(MesuresPhases.ARBRE) > 0);
+                assertTrue(mesures.getDuree(MesuresPhases.CODES) > 0);
+                assertTrue(nombreBits > 0 && nombreBits < 8L * contenu.length);
+                assertTrue(mesures.getLongueurMaximale() > 0);
+            }
+            assertEquals(28, mesures.getNombreSymboles());
+
+            DecompressionHuffman decompression = new DecompressionHuffman(
+                    archive.toString(), resultat.toString(), parametres);
+            decompression.decompresserFichier();
+            mesures = decompression.getMesures();
+            assertArrayEquals(contenu, Files.readAllBytes(resultat));
+            assertEquals(contenu.length, mesures.getOctets(MesuresPhases.DECODAGE));
+            assertEquals(contenu.length, mesures.getOctets(MesuresPhases.ECRITURE));
+            assertTrue(mesures.getOctets(MesuresPhases.LECTURE) > 0);
+            assertTrue(mesures.getDuree(MesuresPhases.TABLES) > 0);
+            assertEquals(nombreBits, mesures.getNombreBits());
+        }
+    }
+
+    @Test
+    void evenementsFlightRecorder() throws IOException {
+        Path source = dossier.resolve("source.txt");
+        Path archive = dossier.resolve("archive.bin");
+        Path arbre = dossier.resolve("arbre.txt");
+        Path enregistrement = dossier.resolve("enregistrement.jfr");
+        byte[] contenu = new GenerateurCorpus(GenerateurCorpus.ZIPF, 2)
+                .generer(512 * 1024);
+        Files.write(source, contenu);
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setTailleBloc(64 * 1024);
+
+        CompressionHuffman compression = new CompressionHuffman(
+                source.toString(), archive.toString(), parametres);
+        try (Recording recording = new Recording()) {
+            recording.enable("fr.iutrodez.compresseurhuffman.Operation");
+            recording.enable("fr.iutrodez.compresseurhuffman.Phase");
+            recording.start();
+            compression.compresserFichier();
+            new DecompressionHuffman(archive.toString(),
+                                     dossier.resolve("resultat.txt").toString(),
+                                     parametres).decompresserFichier();
+            new CompressionHuffman(source.toString(), arbre.toString())
+                    .genererEtEnregistrerArbreHuffman();
+            recording.stop();
+            recording.dump(enregistrement);
+        }
+
+        List<RecordedEvent> operations = new ArrayList<>();
+        List<String> phases = new ArrayList<>();
+        for (RecordedEvent evenement : RecordingFile.readAllEvents(enregistrement)) {
+            if (evenement.getEventType().getName().endsWith(".Operation")) {
+                operations.add(evenement);
+            } else {
+                phases.add(evenement.getString("operation") + "/"
+                           + evenement.getString("phase"));
+            }
+        }
+        operations.sort(Comparator.comparing(RecordedEvent::getStartTime));
+        assertEquals(3, operations.size());
+        RecordedEvent compresse = operations.get(0);
+        assertEquals("compression", compresse.getString("operation"));
+        assertEquals(contenu.length, compresse.getLong("tailleSource"));
+        assertEquals(Files.size(archive), compresse.getLong("tailleDestination"));
+        assertEquals(28, compresse.getInt("nombreSymboles"));
+        assertEquals(compression.getMesures().getNombreBits(),
+                     compresse.getLong("nombreBits"));
+        assertTrue(compresse.getDuration().toNanos() > 0);
+        assertEquals("decompression", operations.get(1).getString("operation"));
+        assertEquals(compresse.getLong("nombreBits"),
+                     operations.get(1).getLong("nombreBits"));
+        assertEquals("arbre", operations.get(2).getString("operation"));
+        assertEquals(source.toString(), operations.get(2).getString("source"));
+
+        for (String phase : new String[] {
+                "compression/lecture", "compression/histogramme",
+                "compression/arbre", "compression/codes",
+                "compression/encodage", "compression/ecriture",
+                "decompression/tables", "decompression/decodage",
+                "decompression/ecriture", "arbre/histogramme" }) {
+            assertTrue(phases.contains(phase), phase);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TestStatistiquesCompresseur {
@@ -15,7 +16,11 @@ class TestStatistiquesCompresseur {
         // Créer des données de test
         String cheminFichierSource = "chemin/vers/fichier/source.txt";
         String cheminFichierDestination = "chemin/vers/fichier/destination.comp";
-        long tempsCompression = System.currentTimeMillis();
+        MesuresPhases mesures = new MesuresPhases();
+        mesures.debuter();
+        mesures.demarrer(MesuresPhases.ENCODAGE);
+        mesures.arreter(1024);
+        mesures.terminer();
 
         // Rediriger la sortie de System.out vers un flux de sortie différent
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -23,7 +28,7 @@ class TestStatistiquesCompresseur {
 
         // Appeler la méthode à tester
         StatistiquesCompresseur.resumeCompression(
-                cheminFichierSource, cheminFichierDestination, tempsCompression);
+                cheminFichierSource, cheminFichierDestination, mesures, false);
 
         // Récupérer la sortie capturée dans le flux de sortie
         String output = outputStream.toString();
@@ -34,6 +39,8 @@ class TestStatistiquesCompresseur {
         assertTrue(output.contains("Taille du fichier compressé"));
         assertTrue(output.contains("Taux de compression"));
         assertTrue(output.contains("Temps de compression"));
+        assertTrue(output.contains("encodage"));
+        assertTrue(output.contains("Mémoire allouée"));
 
         // Restaurer la sortie standard de System.out
         System.setOut(System.out);
@@ -44,7 +51,9 @@ class TestStatistiquesCompresseur {
         // Créer des données de test
         String source = "chemin/vers/fichier/source.comp";
         String cheminFichierDestination = "chemin/vers/fichier/destination.txt";
-        long tempsDecompression = System.currentTimeMillis();
+        MesuresPhases mesures = new MesuresPhases();
+        mesures.debuter();
+        mesures.terminer();
 
         // Rediriger la sortie de System.out vers un flux de sortie différent
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -52,7 +61,7 @@ class TestStatistiquesCompresseur {
 
         // Appeler la méthode à tester
         StatistiquesCompresseur.resumeDecompression(
-                source, cheminFichierDestination, tempsDecompression);
+                source, cheminFichierDestination, mesures, false);
 
         // Récupérer la sortie capturée dans le flux de sortie
         String output = outputStream.toString();
@@ -67,4 +76,62 @@ class TestStatistiquesCompresseur {
         // Restaurer la sortie standard de System.out
         System.setOut(System.out);
     }
-}
\ No newline at end of file
+
+    @Test
+    void resumeJson() throws InterruptedException {
+        MesuresPhases mesures = new MesuresPhases();
+        mesures.debuter();
+        mesures.demarrer(MesuresPhases.LECTURE);
+        Thread.sleep(1);
+        mesures.arreter(10);
+        mesures.terminer();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PrintStream sortieStandard = System.out;
+        System.setOut(new PrintStream(outputStream));
+        try {
+            StatistiquesCompresseur.resumeCompression(
+                    "dossier\\source \"1\".txt", "destination.bin", mesures, true);
+        } finally {
+            System.setOut(sortieStandard);
+        }
+
+        String json = outputStream.toString().trim();
+        assertFalse(json.contains("\n"));
+        assertTrue(json.startsWith("{\"operation\":\"compression\","));
+        assertTrue(json.contains("\"source\":\"dossier\\\\source \\\"1\\\".txt\""));
+        // Fichiers absents : taux indéfini
+        assertTrue(json.contains("\"taux\":null"));
+        assertTrue(json.contains("\"phases\":[{\"nom\":\"lecture\",\"dureeNs\":"));
+        assertTrue(json.contains(",\"octets\":10,"));
+        assertTrue(json.endsWith("}]}"));
+    }
+
+    @Test
+    void resumeLot() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PrintStream sortieStandard = System.out;
+        System.setOut(new PrintStream(outputStream));
+        try {
+            StatistiquesCompresseur.resumeLot(true, 3, 1, 4 * 1024 * 1024,
+                                              1024 * 1024, 2_000_000_000L,
+                                              4, false);
+            StatistiquesCompresseur.resumeLot(false, 3, 0, 1024 * 1024,
+                                              4 * 1024 * 1024, 500_000_000L,
+                                              4, true);
+        } finally {
+            System.setOut(sortieStandard);
+        }
+
+        String[] lignes = outputStream.toString().trim().split("\\R");
+        assertTrue(lignes[0].contains("3") && lignes[0].contains("échecs : 1"));
+        assertTrue(lignes[2].contains("25"));
+        // 4 Mo lus en 2 secondes
+        assertTrue(lignes[4].startsWith("Débit : 2"));
+        assertEquals("{\"operation\":\"decompression-lot\",\"fichiers\":3,"
+                     + "\"echecs\":0,\"octetsLus\":1048576,"
+                     + "\"octetsEcrits\":4194304,\"taux\":25.00,"
+                     + "\"dureeNs\":500000000,\"threads\":4,\"debit\":8.00,"
+                     + "\"fichiersParSeconde\":6.00}", lignes[5]);
+    }
+}
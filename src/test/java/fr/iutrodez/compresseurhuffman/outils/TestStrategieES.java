@@ -0,0 +1,103 @@
+package fr.iutrodez.compresseurhuffman.outils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestStrategieES {
+
+    @TempDir
+    Path dossier;
+
+    private static final String[] NOMS = {
+        StrategieProjection.NOM, StrategieCanal.NOM, StrategieFlux.NOM
+    };
+
+    /** Écrit puis relit un contenu avec une stratégie. */
+    private void verifierAllerRetour(StrategieES strategie, byte[] contenu)
+            throws IOException {
+        Path fichier = dossier.resolve(strategie.getNom() + ".bin");
+        try (OutputStream sortie = strategie.ouvrirEcriture(fichier.toString())) {
+            // Écritures de tailles variées, octet par octet compris
+            int position = 0;
+            int pas = 1;
+            while (position < contenu.length) {
+                int longueur = Math.min(pas, contenu.length - position);
+                if (longueur == 1) {
+                    sortie.write(contenu[position]);
+                } else {
+                    sortie.write(contenu, position, longueur);
+                }
+                position += longueur;
+                pas = pas * 3 % 1000 + 1;
+            }
+        }
+        assertArrayEquals(contenu, Files.readAllBytes(fichier));
+
+        try (InputStream entree = strategie.ouvrirLecture(fichier.toString())) {
+            ByteArrayOutputStream lus = new ByteArrayOutputStream();
+            int premier = entree.read();
+            if (premier >= 0) {
+                lus.write(premier);
+            }
+            entree.transferTo(lus);
+            assertEquals(-1, entree.read());
+            assertArrayEquals(contenu, lus.toByteArray());
+        }
+    }
+
+    @Test
+    void allerRetourToutesStrategies() throws IOException {
+        byte[] contenu = new byte[100_000];
+        new Random(3).nextBytes(contenu);
+        for (String nom : NOMS) {
+            // Un tampon minuscule oblige à le vider et remplir souvent
+            verifierAllerRetour(StrategieES.parNom(nom, 7), contenu);
+            verifierAllerRetour(StrategieES.parNom(nom, 64 * 1024), contenu);
+            verifierAllerRetour(StrategieES.parNom(nom, 16), new byte[0]);
+        }
+    }
+
+    @Test
+    void lireParBlocsEtFluxDeDonnees() throws IOException {
+        Path fichier = dossier.resolve("donnees.bin");
+        for (String nom : NOMS) {
+            StrategieES strategie = StrategieES.parNom(nom, 32);
+            try (DataOutputStream sortie = GestionFichier.ouvrirFluxEcriture(
+                    fichier.toString(), strategie)) {
+                sortie.writeLong(Long.MIN_VALUE + 1);
+                sortie.write(new byte[GestionFichier.TAILLE_BLOC]);
+            }
+            try (DataInputStream entree = GestionFichier.ouvrirFluxLecture(
+                    fichier.toString(), strategie)) {
+                assertEquals(Long.MIN_VALUE + 1, entree.readLong());
+            }
+            long[] total = new long[1];
+            GestionFichier.lireParBlocs(fichier.toString(),
+                    (bloc, longueur) -> total[0] += longueur, strategie);
+            assertEquals(Long.BYTES + GestionFichier.TAILLE_BLOC, total[0]);
+        }
+    }
+
+    @Test
+    void choixAutomatique() {
+        assertEquals(StrategieFlux.NOM, StrategieES.choisir(0, 1).getNom());
+        assertEquals(StrategieCanal.NOM,
+                     StrategieES.choisir(StrategieES.SEUIL_CANAL, 1).getNom());
+        assertEquals(StrategieProjection.NOM,
+                     StrategieES.choisir(StrategieES.SEUIL_PROJECTION, 1).getNom());
+        assertThrows(IllegalArgumentException.class,
+                     () -> StrategieES.parNom("inconnue", 1));
+    }
+}
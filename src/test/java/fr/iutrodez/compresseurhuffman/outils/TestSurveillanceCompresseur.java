@@ -0,0 +1,155 @@
+package fr.iutrodez.compresseurhuffman.outils;
+
+import fr.iutrodez.compresseurhuffman.huffman.CompressionHuffman;
+import fr.iutrodez.compresseurhuffman.huffman.DecompressionHuffman;
+import fr.iutrodez.compresseurhuffman.outils.SurveillanceCompresseur.HistogrammeLatences;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestSurveillanceCompresseur {
+
+    @TempDir
+    Path dossier;
+
+    @Test
+    void casesHistogramme() {
+        long precedente = -1;
+        for (int indice = 0; indice < HistogrammeLatences.indice(Long.MAX_VALUE);
+             indice++) {
+            long borne = HistogrammeLatences.borneSuperieure(indice);
+            assertTrue(borne > precedente);
+            assertEquals(indice, HistogrammeLatences.indice(borne));
+            assertEquals(indice, HistogrammeLatences.indice(precedente + 1));
+            precedente = borne;
+        }
+        assertEquals(Long.MAX_VALUE, HistogrammeLatences.borneSuperieure(
+                HistogrammeLatences.indice(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void centiles() {
+        HistogrammeLatences latences = new HistogrammeLatences();
+        assertEquals(0, latences.centile(0.5));
+        for (long milliseconde = 1; milliseconde <= 1000; milliseconde++) {
+            latences.ajouter(milliseconde * 1_000_000);
+        }
+        assertEquals(500e6, latences.centile(0.5), 500e6 * 0.125);
+        assertEquals(990e6, latences.centile(0.99), 990e6 * 0.125);
+        assertEquals(999e6, latences.centile(0.999), 999e6 * 0.125);
+        assertTrue(latences.centile(0.5) <= latences.centile(0.99));
+        latences.reinitialiser();
+        assertEquals(0, latences.centile(0.999));
+    }
+
+    @Test
+    void compteurs() {
+        SurveillanceCompresseur surveillance = new SurveillanceCompresseur();
+        long debut = surveillance.debuter();
+        long autre = surveillance.debuter();
+        assertEquals(2, surveillance.getOperationsEnCours());
+        surveillance.terminerCompression(debut, 1000, 550, true);
+        surveillance.terminerCompression(autre, 1000, 0, false);
+        surveillance.terminerCompression(surveillance.debuter(), 100, 120, true);
+        surveillance.terminerDecompression(surveillance.debuter(), 550, 1000,
+                                           true);
+        surveillance.terminerDecompression(surveillance.debuter(), 10, 0,
+                                           false);
+
+        assertEquals(0, surveillance.getOperationsEnCours());
+        assertEquals(2, surveillance.getCompressions());
+        assertEquals(1, surveillance.getEchecsCompression());
+        assertEquals(1100, surveillance.getOctetsLusCompression());
+        assertEquals(670, surveillance.getOctetsEcritsCompression());
+        assertEquals(1, surveillance.getDecompressions());
+        assertEquals(1, surveillance.getEchecsDecompression());
+        assertEquals(550, surveillance.getOctetsLusDecompression());
+        assertEquals(1000, surveillance.getOctetsEcritsDecompression());
+        assertEquals(100.0 * 670 / 1100, surveillance.getTauxCompressionGlobal(),
+                     1e-9);
+        long[] repartition = surveillance.getRepartitionTaux();
+        assertEquals(SurveillanceCompresseur.TRANCHES_TAUX, repartition.length);
+        assertEquals(1, repartition[5]);
+        assertEquals(1, repartition[SurveillanceCompresseur.TRANCHES_TAUX - 1]);
+        assertTrue(surveillance.getLatenceCompressionP50() >= 0);
+        assertTrue(surveillance.getLatenceDecompressionP999()
+                   >= surveillance.getLatenceDecompressionP50());
+
+        surveillance.reinitialiser();
+        assertEquals(0, surveillance.getCompressions());
+        assertEquals(0, surveillance.getEchecsDecompression());
+        assertEquals(0, surveillance.getTauxCompressionGlobal());
+        assertArrayEquals(new long[SurveillanceCompresseur.TRANCHES_TAUX],
+                          surveillance.getRepartitionTaux());
+    }
+
+    @Test
+    void compteursDePlusieursThreads() throws Exception {
+        SurveillanceCompresseur surveillance = new SurveillanceCompresseur();
+        try (ExecutorService groupe = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> resultats = new ArrayList<>();
+            for (int tache = 0; tache < 16; tache++) {
+                resultats.add(groupe.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        surveillance.terminerCompression(
+                                surveillance.debuter(), 10, 3, true);
+                    }
+                }));
+            }
+            for (Future<?> resultat : resultats) {
+                resultat.get();
+            }
+        }
+        assertEquals(16_000, surveillance.getCompressions());
+        assertEquals(160_000, surveillance.getOctetsLusCompression());
+        assertEquals(16_000, surveillance.getRepartitionTaux()[3]);
+        assertEquals(0, surveillance.getOperationsEnCours());
+    }
+
+    @Test
+    void consultationParJmx() throws Exception {
+        Path source = dossier.resolve("source.txt");
+        Path archive = dossier.resolve("archive.bin");
+        Files.write(source, new GenerateurCorpus(GenerateurCorpus.ZIPF, 3)
+                .generer(64 * 1024));
+        MBeanServer serveur = ManagementFactory.getPlatformMBeanServer();
+        ObjectName nom = new ObjectName(SurveillanceCompresseur.NOM_JMX);
+        SurveillanceCompresseur.getInstance();
+        long compressions = (Long) serveur.getAttribute(nom, "Compressions");
+        long decompressions = (Long) serveur.getAttribute(nom, "Decompressions");
+        long echecs = (Long) serveur.getAttribute(nom, "EchecsCompression");
+        long octetsLus = (Long) serveur.getAttribute(nom, "OctetsLusCompression");
+
+        new CompressionHuffman(source.toString(), archive.toString())
+                .compresserFichier();
+        new DecompressionHuffman(archive.toString(),
+                                 dossier.resolve("resultat.txt").toString())
+                .decompresserFichier();
+        assertThrows(IOException.class, () -> new CompressionHuffman(
+                dossier.resolve("absent.txt").toString(),
+                dossier.resolve("rien.bin").toString()).compresserFichier());
+
+        assertEquals(compressions + 1, serveur.getAttribute(nom, "Compressions"));
+        assertEquals(decompressions + 1,
+                     serveur.getAttribute(nom, "Decompressions"));
+        assertEquals(echecs + 1, serveur.getAttribute(nom, "EchecsCompression"));
+        assertEquals(octetsLus + Files.size(source),
+                     serveur.getAttribute(nom, "OctetsLusCompression"));
+        assertEquals(0, serveur.getAttribute(nom, "OperationsEnCours"));
+        assertTrue((Double) serveur.getAttribute(nom, "LatenceCompressionP99")
+                   > 0);
+    }
+}
@@ -0,0 +1,175 @@
+package fr.iutrodez.compresseurhuffman.serveur;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestOrdonnanceurTaches {
+
+    /**
+     * Démarre un thread virtuel qui confie une opération d'un thread
+     * à l'ordonnanceur.
+     */
+    private static Thread lancer(OrdonnanceurTaches ordonnanceur, long taille,
+                                 long memoire, OrdonnanceurTaches.Tache tache) {
+        return lancer(ordonnanceur, taille, 1, memoire, tache);
+    }
+
+    /**
+     * Démarre un thread virtuel qui confie une opération à l'ordonnanceur.
+     */
+    private static Thread lancer(OrdonnanceurTaches ordonnanceur, long taille,
+                                 int threads, long memoire,
+                                 OrdonnanceurTaches.Tache tache) {
+        return Thread.ofVirtual().start(() -> {
+            try {
+                ordonnanceur.executer(taille, threads, memoire, tache);
+            } catch (Exception erreur) {
+                throw new IllegalStateException(erreur);
+            }
+        });
+    }
+
+    /**
+     * Attend qu'un nombre de demandes soient en attente.
+     */
+    private static void attendreFile(OrdonnanceurTaches ordonnanceur,
+                                     int nombre) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (ordonnanceur.getTachesEnAttente() < nombre) {
+            assertTrue(System.nanoTime() < limite);
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void limiteLeNombreDOperations() throws InterruptedException {
+        OrdonnanceurTaches ordonnanceur = new OrdonnanceurTaches(2, 1000);
+        AtomicInteger enCours = new AtomicInteger();
+        AtomicInteger maximum = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = lancer(ordonnanceur, 100, 1, () -> {
+                maximum.accumulateAndGet(enCours.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException erreur) {
+                    Thread.currentThread().interrupt();
+                }
+                enCours.decrementAndGet();
+            });
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(2, maximum.get());
+        assertEquals(0, ordonnanceur.getTachesEnCours());
+        assertEquals(0, ordonnanceur.getTachesEnAttente());
+    }
+
+    @Test
+    void petitFichierAvantGrosFichier() throws InterruptedException {
+        OrdonnanceurTaches ordonnanceur = new OrdonnanceurTaches(1, 1000);
+        CountDownLatch occupe = new CountDownLatch(1);
+        CountDownLatch liberer = new CountDownLatch(1);
+        List<String> ordre = new CopyOnWriteArrayList<>();
+
+        Thread premier = lancer(ordonnanceur, 1, 1, () -> {
+            occupe.countDown();
+            try {
+                liberer.await();
+            } catch (InterruptedException erreur) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        occupe.await();
+        Thread gros = lancer(ordonnanceur, 1_000_000_000L, 1,
+                             () -> ordre.add("gros"));
+        attendreFile(ordonnanceur, 1);
+        Thread petit = lancer(ordonnanceur, 10, 1, () -> ordre.add("petit"));
+        attendreFile(ordonnanceur, 2);
+        liberer.countDown();
+        premier.join();
+        gros.join();
+        petit.join();
+        assertEquals(List.of("petit", "gros"), ordre);
+    }
+
+    @Test
+    void limiteLaMemoire() throws InterruptedException {
+        OrdonnanceurTaches ordonnanceur = new OrdonnanceurTaches(4, 100);
+        CountDownLatch occupe = new CountDownLatch(1);
+        CountDownLatch liberer = new CountDownLatch(1);
+        AtomicInteger executees = new AtomicInteger();
+
+        Thread premier = lancer(ordonnanceur, 1, 80, () -> {
+            occupe.countDown();
+            try {
+                liberer.await();
+            } catch (InterruptedException erreur) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        occupe.await();
+        Thread second = lancer(ordonnanceur, 1, 50,
+                               executees::incrementAndGet);
+        attendreFile(ordonnanceur, 1);
+        Thread.sleep(20);
+        assertEquals(0, executees.get());
+        assertEquals(1, ordonnanceur.getTachesEnCours());
+
+        liberer.countDown();
+        premier.join();
+        second.join();
+        assertEquals(1, executees.get());
+
+        // Une opération plus grosse que la limite passe seule
+        Thread seule = lancer(ordonnanceur, 1, 500, executees::incrementAndGet);
+        seule.join();
+        assertEquals(2, executees.get());
+    }
+
+    @Test
+    void limiteLesThreads() throws InterruptedException {
+        OrdonnanceurTaches ordonnanceur = new OrdonnanceurTaches(4, 1000);
+        CountDownLatch occupe = new CountDownLatch(1);
+        CountDownLatch liberer = new CountDownLatch(1);
+        AtomicInteger executees = new AtomicInteger();
+
+        Thread premier = lancer(ordonnanceur, 1, 3, 1, () -> {
+            occupe.countDown();
+            try {
+                liberer.await();
+            } catch (InterruptedException erreur) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        occupe.await();
+        assertEquals(3, ordonnanceur.getThreadsReserves());
+        Thread second = lancer(ordonnanceur, 1, 2, 1,
+                               executees::incrementAndGet);
+        attendreFile(ordonnanceur, 1);
+        Thread.sleep(20);
+        assertEquals(0, executees.get());
+
+        liberer.countDown();
+        premier.join();
+        second.join();
+        assertEquals(1, executees.get());
+        assertEquals(0, ordonnanceur.getThreadsReserves());
+    }
+
+    @Test
+    void limitesInvalides() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> new OrdonnanceurTaches(0, 100));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new OrdonnanceurTaches(1, 0));
+    }
+}
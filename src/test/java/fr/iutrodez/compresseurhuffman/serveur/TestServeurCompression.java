@@ -0,0 +1,169 @@
+package fr.iutrodez.compresseurhuffman.serveur;
+
+import fr.iutrodez.compresseurhuffman.huffman.Dictionnaire;
+import fr.iutrodez.compresseurhuffman.huffman.EnteteArchive;
+import fr.iutrodez.compresseurhuffman.objets.ParametresCompression;
+import fr.iutrodez.compresseurhuffman.outils.GenerateurCorpus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestServeurCompression {
+
+    @TempDir
+    Path dossier;
+
+    private ServeurCompression serveur;
+
+    private Thread ecoute;
+
+    @BeforeEach
+    void demarrer() throws IOException {
+        serveur = new ServeurCompression(dossier.resolve("huffman.sock"), 2,
+                                         64L * 1024 * 1024);
+        ecoute = Thread.ofPlatform().daemon().start(() -> {
+            try {
+                serveur.servir();
+            } catch (IOException erreur) {
+                throw new IllegalStateException(erreur);
+            }
+        });
+    }
+
+    @AfterEach
+    void arreter() throws IOException, InterruptedException {
+        serveur.close();
+        ecoute.join(5000);
+        assertFalse(Files.exists(dossier.resolve("huffman.sock")));
+    }
+
+    @Test
+    void allerRetourSurUneConnexion() throws IOException {
+        byte[] contenu = new GenerateurCorpus(GenerateurCorpus.ZIPF, 7)
+                .generer(200_000);
+        Path source = dossier.resolve("source.txt");
+        Files.write(source, contenu);
+        Path archive = dossier.resolve("archives/source.bin");
+        Path restitue = dossier.resolve("restitue/source.txt");
+        ParametresCompression parametres = new ParametresCompression();
+
+        try (ClientCompression client = new ClientCompression(
+                dossier.resolve("huffman.sock"))) {
+            ResultatCompression compression = client.envoyer(
+                    true, source.toString(), archive.toString(), parametres);
+            assertTrue(compression.estReussi(), compression.getErreur());
+            assertEquals(contenu.length, compression.getTailleSource());
+            assertEquals(Files.size(archive),
+                         compression.getTailleDestination());
+            assertTrue(compression.getTailleDestination() < contenu.length);
+            assertTrue(compression.getDureeTraitement() > 0);
+
+            ResultatCompression decompression = client.envoyer(
+                    false, archive.toString(), restitue.toString(), parametres);
+            assertTrue(decompression.estReussi(), decompression.getErreur());
+            assertEquals(contenu.length, decompression.getTailleDestination());
+        }
+        assertArrayEquals(contenu, Files.readAllBytes(restitue));
+    }
+
+    @Test
+    void allerRetourAvecDictionnaire() throws IOException {
+        byte[] contenu = new GenerateurCorpus(GenerateurCorpus.ZIPF, 9)
+                .generer(5_000);
+        Path source = dossier.resolve("journal.log");
+        Files.write(source, contenu);
+        Path chemin = dossier.resolve("journaux.dico");
+        Dictionnaire.entrainer(List.of(source)).ecrire(chemin);
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setCheminDictionnaire(chemin.toString());
+        Path archive = dossier.resolve("journal.bin");
+        Path restitue = dossier.resolve("journal.txt");
+
+        try (ClientCompression client = new ClientCompression(
+                dossier.resolve("huffman.sock"))) {
+            assertTrue(client.envoyer(true, source.toString(),
+                                      archive.toString(), parametres)
+                             .estReussi());
+            assertTrue(EnteteArchive.lire(new DataInputStream(
+                    Files.newInputStream(archive))).utiliseDictionnaire());
+            assertFalse(client.envoyer(false, archive.toString(),
+                                       restitue.toString(),
+                                       new ParametresCompression())
+                              .estReussi());
+            assertTrue(client.envoyer(false, archive.toString(),
+                                      restitue.toString(), parametres)
+                             .estReussi());
+        }
+        assertArrayEquals(contenu, Files.readAllBytes(restitue));
+    }
+
+    @Test
+    void fichierAbsent() throws IOException {
+        try (ClientCompression client = new ClientCompression(
+                dossier.resolve("huffman.sock"))) {
+            ResultatCompression resultat = client.envoyer(
+                    true, dossier.resolve("absent.txt").toString(),
+                    dossier.resolve("absent.bin").toString(),
+                    new ParametresCompression());
+            assertFalse(resultat.estReussi());
+            assertNotNull(resultat.getErreur());
+
+            // La connexion reste utilisable après un échec
+            Path source = dossier.resolve("present.txt");
+            Files.writeString(source, "abracadabra");
+            assertTrue(client.envoyer(true, source.toString(),
+                                      dossier.resolve("present.bin").toString(),
+                                      new ParametresCompression()).estReussi());
+        }
+    }
+
+    @Test
+    void threadsLimitesAuServeur() throws IOException {
+        byte[] contenu = new GenerateurCorpus(GenerateurCorpus.ZIPF, 11)
+                .generer(300_000);
+        Path source = dossier.resolve("blocs.txt");
+        Files.write(source, contenu);
+        Path archive = dossier.resolve("blocs.bin");
+        ParametresCompression parametres = new ParametresCompression();
+        parametres.setTailleBloc(64 * 1024);
+        parametres.setNombreThreads(64);
+        DemandeCompression compression = new DemandeCompression(
+                true, source.toString(), archive.toString(), parametres);
+
+        assertTrue(serveur.traiter(compression).estReussi());
+        assertEquals(2, compression.getParametres().getNombreThreads());
+        assertEquals(2, compression.estimerThreads(null));
+        assertEquals(2L * parametres.getTailleTampon()
+                     + 2L * 64 * 1024 * 2 * 2,
+                     compression.estimerMemoire(null));
+
+        DemandeCompression decompression = new DemandeCompression(
+                false, archive.toString(),
+                dossier.resolve("blocs.restitue").toString(), parametres);
+        EnteteArchive entete = EnteteArchive.lire(new DataInputStream(
+                Files.newInputStream(archive)));
+        assertTrue(serveur.traiter(decompression).estReussi());
+        assertTrue(entete.aUnIndex());
+        assertEquals(2, decompression.estimerThreads(entete));
+        assertEquals(2L * parametres.getTailleTampon()
+                     + 2L * 64 * 1024 * 2 * 2,
+                     decompression.estimerMemoire(entete));
+        assertEquals(1, decompression.estimerThreads(null));
+    }
+
+    @Test
+    void secondServeurRefuse() {
+        assertThrows(IOException.class,
+                     () -> new ServeurCompression(
+                             dossier.resolve("huffman.sock"), 1, 1024));
+    }
+}